@@ -0,0 +1,100 @@
+package model;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Builders shared by the model benchmarks. Every workout they build has its events discarded,
+ * so the benchmarks measure the model and not console output.
+ */
+final class BenchmarkFixtures {
+
+    // listener that discards every event.
+    static final IModelEventListener SILENT = event -> { };
+
+    // the modes exercises cycle through.
+    private static final Mode[] MODES = Mode.values();
+
+    private BenchmarkFixtures() {
+    }
+
+    /**
+     * Builds a distinct exercise for every index.
+     * @param index the index of the exercise.
+     * @return a four-set exercise whose name depends on the index.
+     */
+    static Exercise exercise(int index) {
+        List<SetReps> setReps = new ArrayList<>();
+        for (int set = 1; set <= 4; set++) {
+            setReps.add(SetReps.of(set, 6 + (index + set) % 6));
+        }
+        return new Exercise("Exercise " + index, 4, setReps, 10, 20.0 + index % 50, MODES[index % MODES.length]);
+    }
+
+    /**
+     * Builds an empty, silent workout of the given implementation.
+     * @param implementation "Workout" or "IndexedWorkout".
+     * @param name the name of the workout.
+     * @return the new workout.
+     */
+    static IWorkout emptyWorkout(String implementation, String name) {
+        switch (implementation) {
+            case "Workout":
+                Workout workout = new Workout(name);
+                workout.setEventListener(SILENT);
+                return workout;
+            case "IndexedWorkout":
+                IndexedWorkout indexedWorkout = new IndexedWorkout(name);
+                indexedWorkout.setEventListener(SILENT);
+                return indexedWorkout;
+            default:
+                throw new IllegalArgumentException("Unknown workout implementation \"" + implementation + "\".");
+        }
+    }
+
+    /**
+     * Builds a silent workout holding the given exercises.
+     * @param implementation "Workout" or "IndexedWorkout".
+     * @param name the name of the workout.
+     * @param exercises the exercises to add, in order.
+     * @return the new workout.
+     */
+    static IWorkout workout(String implementation, String name, List<? extends IExercise> exercises) {
+        IWorkout workout = emptyWorkout(implementation, name);
+        for (IExercise exercise : exercises) {
+            workout.addExercise(exercise);
+        }
+        return workout;
+    }
+
+    /**
+     * Builds the given number of distinct exercises.
+     * @param size the number of exercises.
+     * @return the exercises, in index order.
+     */
+    static List<Exercise> exercises(int size) {
+        List<Exercise> exercises = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            exercises.add(exercise(i));
+        }
+        return exercises;
+    }
+
+    /**
+     * Builds a routine of silent workouts.
+     * @param workouts the number of workouts in the routine.
+     * @param exercisesPerWorkout the number of exercises in each workout.
+     * @return the new routine.
+     */
+    static Routine routine(int workouts, int exercisesPerWorkout) {
+        Routine routine = new Routine("Benchmark Routine");
+        for (int w = 0; w < workouts; w++) {
+            List<Exercise> exercises = new ArrayList<>(exercisesPerWorkout);
+            for (int e = 0; e < exercisesPerWorkout; e++) {
+                exercises.add(exercise(w * exercisesPerWorkout + e));
+            }
+            routine.addWorkoutToRoutine(workout("Workout", "Workout " + w, exercises));
+        }
+        return routine;
+    }
+}
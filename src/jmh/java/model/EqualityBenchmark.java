@@ -0,0 +1,52 @@
+package model;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks hashcode and equals on deep routines (workouts x exercises per workout).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class EqualityBenchmark {
+
+    @Param({"10", "100", "1000"})
+    public int workouts;
+
+    @Param({"10", "50"})
+    public int exercisesPerWorkout;
+
+    private Routine routine;
+    private Routine equalRoutine;
+
+    @Setup
+    public void setup() {
+        routine = BenchmarkFixtures.routine(workouts, exercisesPerWorkout);
+        equalRoutine = BenchmarkFixtures.routine(workouts, exercisesPerWorkout);
+    }
+
+    @Benchmark
+    public int routineHashcode() {
+        return routine.hashcode();
+    }
+
+    @Benchmark
+    public boolean routineEquals() {
+        return routine.equals(equalRoutine);
+    }
+}
@@ -0,0 +1,59 @@
+package model;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks Exercise construction and rep updates.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ExerciseBenchmark {
+
+    private List<SetReps> setReps;
+    private Exercise exercise;
+    private int counter;
+
+    @Setup
+    public void setup() {
+        setReps = new ArrayList<>();
+        for (int set = 1; set <= 4; set++) {
+            setReps.add(SetReps.of(set, 8));
+        }
+        exercise = new Exercise("Bench Press", 4, setReps, 8, 100.0, model.Mode.BARBELL);
+    }
+
+    @Benchmark
+    public Exercise constructWithSetReps() {
+        return new Exercise("Bench Press", 4, setReps, 8, 100.0, model.Mode.BARBELL);
+    }
+
+    @Benchmark
+    public Exercise constructWithDefaultSetReps() {
+        return new Exercise("Bench Press", 4, null, 8, 100.0, model.Mode.BARBELL);
+    }
+
+    @Benchmark
+    public int updateReps() {
+        // toggling the lowest bit guarantees every update is a real change, as updateReps requires.
+        int set = counter++ & 3;
+        exercise.updateReps(set, exercise.getRepsForSpecificSet(set) ^ 1);
+        return set;
+    }
+}
@@ -0,0 +1,58 @@
+package model;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks reading the IData metrics of an exercise, alone and interleaved with rep updates.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ExerciseDataBenchmark {
+
+    private final IData data = new ExerciseData();
+    private Exercise exercise;
+    private int counter;
+
+    @Setup
+    public void setup() {
+        exercise = BenchmarkFixtures.exercise(7);
+    }
+
+    @Benchmark
+    public void readAllMetrics(Blackhole blackhole) {
+        readMetrics(blackhole);
+    }
+
+    @Benchmark
+    public void updateRepsThenReadAllMetrics(Blackhole blackhole) {
+        int set = counter++ & 3;
+        exercise.updateReps(set, exercise.getRepsForSpecificSet(set) ^ 1);
+        readMetrics(blackhole);
+    }
+
+    private void readMetrics(Blackhole blackhole) {
+        blackhole.consume(data.delta(exercise));
+        blackhole.consume(data.mean(exercise));
+        blackhole.consume(data.mode(exercise));
+        blackhole.consume(data.standardDev(exercise));
+        blackhole.consume(data.range(exercise));
+        blackhole.consume(data.cumulativeSum(exercise));
+        blackhole.consume(data.zCore(exercise));
+    }
+}
@@ -0,0 +1,71 @@
+package model;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks reordering the workouts of a routine with editRoutine and reorder.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class RoutineBenchmark {
+
+    @Param({"10", "100", "1000", "10000"})
+    public int workouts;
+
+    private Routine routine;
+
+    private int[] reversal;
+
+    @Setup
+    public void setup() {
+        routine = BenchmarkFixtures.routine(workouts, 1);
+        reversal = new int[workouts];
+        for (int i = 0; i < workouts; i++) {
+            reversal[i] = workouts - 1 - i;
+        }
+    }
+
+    /**
+     * Moves the first workout to the end and back, the worst case for a list-backed routine.
+     */
+    @Benchmark
+    public Routine moveFirstToLast() {
+        routine.editRoutine(0, workouts - 1);
+        routine.editRoutine(workouts - 1, 0);
+        return routine;
+    }
+
+    /**
+     * Swaps two neighbouring workouts in the middle of the routine.
+     */
+    @Benchmark
+    public Routine moveInMiddle() {
+        routine.editRoutine(workouts / 2, workouts / 2 - 1);
+        return routine;
+    }
+
+    /**
+     * Reverses the whole routine with a single permutation.
+     */
+    @Benchmark
+    public Routine reverseAll() {
+        routine.reorder(reversal);
+        return routine;
+    }
+}
@@ -0,0 +1,83 @@
+package model;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks the mutation paths of Workout and IndexedWorkout at sizes from 10 to 100k exercises.
+ * The steady-state benchmarks undo their own change in the same invocation, so the workout size stays fixed.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class WorkoutBenchmark {
+
+    @Param({"10", "100", "1000", "10000", "100000"})
+    public int size;
+
+    @Param({"Workout", "IndexedWorkout"})
+    public String implementation;
+
+    private List<Exercise> exercises;
+    private IWorkout workout;
+    private Exercise extra;
+    private Exercise edited;
+    private int counter;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        exercises = BenchmarkFixtures.exercises(size);
+        extra = BenchmarkFixtures.exercise(size);
+        edited = BenchmarkFixtures.exercise(size + 1);
+        workout = BenchmarkFixtures.workout(implementation, "Benchmark Workout", exercises);
+    }
+
+    /**
+     * Adds a new exercise to a full workout and removes it again; the removed exercise is restored by the next
+     * add, so this exercises the duplicate check, the deleted-list lookup and the restore path.
+     */
+    @Benchmark
+    public IWorkout addExercise() {
+        workout.addExercise(extra);
+        workout.removeExercise(extra);
+        return workout;
+    }
+
+    /**
+     * Removes an exercise from the middle of the workout and restores it.
+     */
+    @Benchmark
+    public IWorkout removeExercise() {
+        IExercise exercise = exercises.get(counter++ % size);
+        workout.removeExercise(exercise);
+        workout.restoreExercise(exercise);
+        return workout;
+    }
+
+    /**
+     * Replaces an exercise with an edited one and back again.
+     */
+    @Benchmark
+    public IWorkout editExercise() {
+        IExercise exercise = exercises.get(size / 2);
+        workout.editExercise(exercise, edited);
+        workout.editExercise(edited, exercise);
+        return workout;
+    }
+}
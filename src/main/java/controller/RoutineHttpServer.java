@@ -0,0 +1,581 @@
+package controller;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import model.Exercise;
+import model.IExercise;
+import model.IRoutine;
+import model.IRoutineView;
+import model.IWorkout;
+import model.IWorkoutView;
+import model.Mode;
+import model.PersistentRoutine;
+import model.Routine;
+import model.SetReps;
+import model.Workout;
+import store.RoutineStore;
+import view.ModelRenderer;
+import view.RenderFormat;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.lang.reflect.Method;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * REST layer over a RoutineStore, on top of the JDK built-in HTTP server (com.sun.net.httpserver). Every
+ * resource lives under a user id, and names in paths are URL-encoded:
+ *
+ * GET    /users/{user}/routines                                              all routines of the user (streamed)
+ * GET    /users/{user}/routines/{routine}                                    one routine
+ * PUT    /users/{user}/routines/{routine}                                    create an empty routine
+ * DELETE /users/{user}/routines/{routine}                                    delete a routine
+ * POST   /users/{user}/routines/{routine}/workouts?name=                     IRoutine.addWorkoutToRoutine
+ * GET    /users/{user}/routines/{routine}/workouts/{workout}                 one workout
+ * DELETE /users/{user}/routines/{routine}/workouts/{workout}                 IRoutine.removeWorkoutFromRoutine
+ * POST   /users/{user}/routines/{routine}/workouts/{workout}/exercises       IWorkout.addExercise, with the
+ *        parameters name, targetReps, weight, mode and reps (one comma-separated value per set)
+ * GET    .../workouts/{workout}/exercises/{exercise}                         one exercise
+ * DELETE .../workouts/{workout}/exercises/{exercise}                         IWorkout.removeExercise
+ * PUT    .../workouts/{workout}/exercises/{exercise}/sets/{index}?reps=      IExercise.updateReps
+ *
+ * Parameters are read from the query string or from an application/x-www-form-urlencoded body of at most
+ * MAX_BODY_BYTES bytes; a larger body is answered with 413. Responses are the JSON of ModelRenderer, sent
+ * with chunked transfer encoding. Reads render the store's immutable snapshots straight into the response as
+ * they are rendered, without holding any lock; a list of routines is streamed one routine at a time. Changes
+ * render their result (a single workout or exercise) into a string under the write lock of the routine's
+ * shard, and send it once the lock is released. Model errors map to 400 (IllegalArgumentException) and 409
+ * (IllegalStateException, UnsupportedOperationException), unknown resources to 404, with a {"error": message}
+ * body. A failure after a streamed response has started cannot change its status: the exchange is aborted
+ * instead, closing the connection without ending the body.
+ *
+ * Connections are multiplexed by the server's selector thread, and HTTP/1.1 keep-alive connections may
+ * pipeline requests, which the server reads and answers in order. Exchanges run on a virtual thread each when
+ * the JVM has them (Java 21+), found by reflection so the code still builds on Java 17; otherwise they run on
+ * a bounded pool of FALLBACK_THREADS threads. Either way no platform thread is held per connection.
+ */
+public class RoutineHttpServer implements Closeable {
+
+    /**
+     * The number of request threads when virtual threads are not available.
+     */
+    public static final int FALLBACK_THREADS = 4 * Runtime.getRuntime().availableProcessors();
+
+    /**
+     * The largest request body accepted, in bytes.
+     */
+    public static final int MAX_BODY_BYTES = 64 * 1024;
+
+    // the backlog of pending connections the listening socket accepts.
+    private static final int BACKLOG = 4096;
+
+    // the JSON content type of every response.
+    private static final String JSON = "application/json; charset=utf-8";
+
+    // the server, the store it serves and the executor its exchanges run on.
+    private final HttpServer server;
+    private final RoutineStore store;
+    private final ExecutorService executor;
+    private final boolean virtualThreads;
+
+    /**
+     * Creates a server bound to an address. It does not accept requests until start is called.
+     * @param address the address to bind, e.g. new InetSocketAddress(8080); port 0 picks a free port.
+     * @param store the store to serve.
+     * @throws IOException if the address cannot be bound.
+     */
+    public RoutineHttpServer(InetSocketAddress address, RoutineStore store) throws IOException {
+        if (address == null || store == null) {
+            throw new IllegalArgumentException("Address and store of the HTTP server cannot be null.");
+        }
+        this.store = store;
+        ExecutorService virtual = newVirtualThreadExecutor();
+        this.virtualThreads = virtual != null;
+        this.executor = virtual != null ? virtual : Executors.newFixedThreadPool(FALLBACK_THREADS, runnable -> {
+            Thread thread = new Thread(runnable, "routine-http");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.server = HttpServer.create(address, BACKLOG);
+        server.createContext("/users/", this::handle);
+        server.setExecutor(executor);
+    }
+
+    /**
+     * Starts accepting requests.
+     */
+    public void start() {
+        server.start();
+    }
+
+    /**
+     * Gets the port the server is bound to.
+     * @return the port.
+     */
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    /**
+     * Tells whether exchanges run on virtual threads.
+     * @return true on a JVM with virtual threads, false if the fallback pool is used.
+     */
+    public boolean isUsingVirtualThreads() {
+        return virtualThreads;
+    }
+
+    /**
+     * Stops the server, letting exchanges in progress finish for up to a second.
+     */
+    @Override
+    public void close() {
+        server.stop(1);
+        executor.shutdown();
+        try {
+            executor.awaitTermination(1, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // Private helper methods.
+
+    /**
+     * Creates a virtual-thread-per-task executor through reflection, or returns null before Java 21.
+     */
+    private static ExecutorService newVirtualThreadExecutor() {
+        try {
+            Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) factory.invoke(null);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Routes an exchange and turns exceptions into error responses.
+     */
+    private void handle(HttpExchange exchange) throws IOException {
+        try {
+            Map<String, String> parameters = readParameters(exchange);
+            List<String> path = splitPath(exchange.getRequestURI().getRawPath());
+            route(exchange, exchange.getRequestMethod(), path, parameters);
+        } catch (HttpError e) {
+            sendError(exchange, e.status, e.getMessage());
+        } catch (NumberFormatException e) {
+            sendError(exchange, 400, "Invalid number: " + e.getMessage());
+        } catch (IllegalArgumentException e) {
+            sendError(exchange, 400, e.getMessage());
+        } catch (IllegalStateException | UnsupportedOperationException e) {
+            sendError(exchange, 409, e.getMessage());
+        } catch (IndexOutOfBoundsException e) {
+            sendError(exchange, 404, e.getMessage());
+        } catch (UncheckedIOException e) {
+            throw abort(exchange, e.getCause());
+        } catch (IOException e) {
+            throw abort(exchange, e);
+        }
+        exchange.close();
+    }
+
+    /**
+     * Dispatches on the path: users/{user}/routines[/{routine}[/workouts[/{workout}[/exercises[/{exercise}[/sets/{index}]]]]]].
+     */
+    private void route(HttpExchange exchange, String method, List<String> path, Map<String, String> parameters) throws IOException {
+        if (path.size() < 3 || !path.get(0).equals("users") || !path.get(2).equals("routines")) {
+            throw new HttpError(404, "No resource at " + exchange.getRequestURI().getPath());
+        }
+        long userId = parseUserId(path.get(1));
+        if (path.size() == 3) {
+            requireMethod(method, "GET");
+            streamRoutines(exchange, userId);
+            return;
+        }
+
+        String routineName = path.get(3);
+        if (path.size() == 4) {
+            switch (method) {
+                case "GET":
+                    PersistentRoutine routine = snapshotOf(userId, routineName);
+                    streamJson(exchange, (renderer, out) -> renderer.renderRoutine(routine, out));
+                    return;
+                case "PUT":
+                    Routine created = new Routine(routineName);
+                    // rendered before it is stored: from then on only the store may touch it.
+                    String json = render((renderer, out) -> renderer.renderRoutine(created, out));
+                    if (store.putIfAbsent(userId, created) != null) {
+                        throw new HttpError(409, "User " + userId + " already has a routine \"" + routineName + "\".");
+                    }
+                    sendJson(exchange, 201, json);
+                    return;
+                case "DELETE":
+                    if (store.remove(userId, routineName) == null) {
+                        throw notFound(userId, routineName);
+                    }
+                    sendEmpty(exchange);
+                    return;
+                default:
+                    throw methodNotAllowed(method);
+            }
+        }
+
+        if (!path.get(4).equals("workouts")) {
+            throw new HttpError(404, "No resource at " + exchange.getRequestURI().getPath());
+        }
+        if (path.size() == 5) {
+            requireMethod(method, "POST");
+            String json = updateRoutine(userId, routineName, routine -> {
+                Workout workout = new Workout(require(parameters, "name"));
+                workout.setEventListener(event -> { });
+                routine.addWorkoutToRoutine(workout);
+                return render((renderer, out) -> renderer.renderWorkout(workout, out));
+            });
+            sendJson(exchange, 201, json);
+            return;
+        }
+
+        String workoutName = path.get(5);
+        if (path.size() == 6) {
+            switch (method) {
+                case "GET":
+                    IWorkoutView workout = findWorkout(snapshotOf(userId, routineName), workoutName);
+                    streamJson(exchange, (renderer, out) -> renderer.renderWorkout(workout, out));
+                    return;
+                case "DELETE":
+                    updateRoutine(userId, routineName, routine -> {
+                        routine.removeWorkoutFromRoutine(findWorkout(routine, workoutName));
+                        return null;
+                    });
+                    sendEmpty(exchange);
+                    return;
+                default:
+                    throw methodNotAllowed(method);
+            }
+        }
+
+        if (!path.get(6).equals("exercises")) {
+            throw new HttpError(404, "No resource at " + exchange.getRequestURI().getPath());
+        }
+        if (path.size() == 7) {
+            requireMethod(method, "POST");
+            Exercise exercise = parseExercise(parameters);
+            String json = updateRoutine(userId, routineName, routine -> {
+                findWorkout(routine, workoutName).addExercise(exercise);
+                return render((renderer, out) -> renderer.renderExercise(exercise, out));
+            });
+            sendJson(exchange, 201, json);
+            return;
+        }
+
+        String exerciseName = path.get(7);
+        if (path.size() == 8) {
+            switch (method) {
+                case "GET":
+                    IExercise exercise = findExercise(findWorkout(snapshotOf(userId, routineName), workoutName), exerciseName);
+                    streamJson(exchange, (renderer, out) -> renderer.renderExercise(exercise, out));
+                    return;
+                case "DELETE":
+                    updateRoutine(userId, routineName, routine -> {
+                        IWorkout workout = findWorkout(routine, workoutName);
+                        workout.removeExercise(findExercise(workout, exerciseName));
+                        return null;
+                    });
+                    sendEmpty(exchange);
+                    return;
+                default:
+                    throw methodNotAllowed(method);
+            }
+        }
+
+        if (path.size() == 10 && path.get(8).equals("sets")) {
+            requireMethod(method, "PUT");
+            int setIndex = Integer.parseInt(path.get(9));
+            int reps = Integer.parseInt(require(parameters, "reps"));
+            String json = updateRoutine(userId, routineName, routine -> {
+                IExercise exercise = findExercise(findWorkout(routine, workoutName), exerciseName);
+                exercise.updateReps(setIndex, reps);
+                return render((renderer, out) -> renderer.renderExercise(exercise, out));
+            });
+            sendJson(exchange, 200, json);
+            return;
+        }
+        throw new HttpError(404, "No resource at " + exchange.getRequestURI().getPath());
+    }
+
+    /**
+     * Streams every routine of a user as a JSON array, rendering the store's snapshots without holding any lock.
+     * The body is only closed once it is complete; see streamJson.
+     */
+    private void streamRoutines(HttpExchange exchange, long userId) throws IOException {
+        List<PersistentRoutine> routines = store.getRoutines(userId);
+        exchange.getResponseHeaders().set("Content-Type", JSON);
+        exchange.sendResponseHeaders(200, 0);
+        Writer response = new OutputStreamWriter(exchange.getResponseBody(), StandardCharsets.UTF_8);
+        ModelRenderer renderer = new ModelRenderer(RenderFormat.JSON);
+        response.write('[');
+        boolean first = true;
+        for (PersistentRoutine routine : routines) {
+            if (!first) {
+                response.write(',');
+            }
+            first = false;
+            renderer.renderRoutine(routine, response);
+            response.flush();
+        }
+        response.write(']');
+        response.close();
+    }
+
+    private PersistentRoutine snapshotOf(long userId, String routineName) {
+        PersistentRoutine routine = store.get(userId, routineName);
+        if (routine == null) {
+            throw notFound(userId, routineName);
+        }
+        return routine;
+    }
+
+    /**
+     * Applies a change through store.update. The store refuses a missing routine with an IllegalArgumentException
+     * before running the action, which is answered with 404; one thrown by the action itself is a model error.
+     */
+    private <R> R updateRoutine(long userId, String routineName, Function<IRoutine, R> action) {
+        boolean[] found = new boolean[1];
+        try {
+            return store.update(userId, routineName, routine -> {
+                found[0] = true;
+                return action.apply(routine);
+            });
+        } catch (IllegalArgumentException e) {
+            if (!found[0]) {
+                throw notFound(userId, routineName);
+            }
+            throw e;
+        }
+    }
+
+    private static IWorkout findWorkout(IRoutine routine, String workoutName) {
+        return findWorkout(routine.getRoutineName(), routine.getWorkouts(), workoutName);
+    }
+
+    private static IWorkoutView findWorkout(IRoutineView routine, String workoutName) {
+        return findWorkout(routine.getRoutineName(), routine.getWorkouts(), workoutName);
+    }
+
+    private static <W extends IWorkoutView> W findWorkout(String routineName, List<W> workouts, String workoutName) {
+        for (W workout : workouts) {
+            if (workout.getWorkoutName().equals(workoutName)) {
+                return workout;
+            }
+        }
+        throw new HttpError(404, "Routine \"" + routineName + "\" has no workout \"" + workoutName + "\".");
+    }
+
+    private static IExercise findExercise(IWorkoutView workout, String exerciseName) {
+        for (IExercise exercise : workout.getExerciseList()) {
+            if (exercise.getName().equals(exerciseName)) {
+                return exercise;
+            }
+        }
+        throw new HttpError(404, "Workout \"" + workout.getWorkoutName() + "\" has no exercise \"" + exerciseName + "\".");
+    }
+
+    /**
+     * Builds an exercise from the name, targetReps, weight, mode and reps parameters.
+     */
+    private static Exercise parseExercise(Map<String, String> parameters) {
+        String[] values = require(parameters, "reps").split(",");
+        List<SetReps> reps = new ArrayList<>(values.length);
+        for (int i = 0; i < values.length; i++) {
+            reps.add(SetReps.of(i + 1, Integer.parseInt(values[i].trim())));
+        }
+        Mode mode;
+        try {
+            mode = Mode.valueOf(require(parameters, "mode").toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new HttpError(400, "Unknown mode \"" + parameters.get("mode") + "\".");
+        }
+        return new Exercise(require(parameters, "name"), values.length, reps,
+                Integer.parseInt(require(parameters, "targetReps")), Double.parseDouble(require(parameters, "weight")), mode);
+    }
+
+    /**
+     * Renders into a string with a new JSON renderer; renderers are cheap and not thread-safe.
+     */
+    private static String render(RenderAction action) {
+        StringBuilder json = new StringBuilder();
+        try {
+            action.render(new ModelRenderer(RenderFormat.JSON), json);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e); // a StringBuilder never throws it
+        }
+        return json.toString();
+    }
+
+    /**
+     * Sends a 200 response rendered by a new JSON renderer straight into the response body, chunk by chunk. The
+     * body is only closed once it is complete: closing it ends the chunked encoding, which would pass a response
+     * cut short by a failure off as a whole one. After a failure, handle aborts the exchange instead.
+     */
+    private static void streamJson(HttpExchange exchange, RenderAction action) throws IOException {
+        exchange.getResponseHeaders().set("Content-Type", JSON);
+        exchange.sendResponseHeaders(200, 0);
+        Writer out = new OutputStreamWriter(exchange.getResponseBody(), StandardCharsets.UTF_8);
+        action.render(new ModelRenderer(RenderFormat.JSON), out);
+        out.close();
+    }
+
+    private static void sendJson(HttpExchange exchange, int status, String json) throws IOException {
+        exchange.getResponseHeaders().set("Content-Type", JSON);
+        exchange.sendResponseHeaders(status, 0);
+        try (Writer out = new OutputStreamWriter(exchange.getResponseBody(), StandardCharsets.UTF_8)) {
+            out.write(json);
+        }
+    }
+
+    private static void sendEmpty(HttpExchange exchange) throws IOException {
+        exchange.sendResponseHeaders(204, -1);
+    }
+
+    /**
+     * Answers with an error status and a {"error": message} body, or aborts the exchange if the response headers
+     * have already been sent, since a second status line cannot be sent.
+     */
+    private static void sendError(HttpExchange exchange, int status, String message) throws IOException {
+        if (exchange.getResponseCode() != -1) {
+            throw abort(exchange, new IOException(status + ": " + message));
+        }
+        StringBuilder json = new StringBuilder("{\"error\":\"");
+        String text = message == null ? "" : message;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == '"' || c == '\\') {
+                json.append('\\').append(c);
+            } else if (c < 0x20) {
+                json.append(String.format("\\u%04x", (int) c));
+            } else {
+                json.append(c);
+            }
+        }
+        sendJson(exchange, status, json.append("\"}").toString());
+    }
+
+    /**
+     * Reads the query string and, for form bodies, the request body into a parameter map. The body is always
+     * read so the connection can carry the next pipelined request; a body over MAX_BODY_BYTES is refused after
+     * reading one byte past the limit, and the server drains or closes the connection.
+     */
+    private static Map<String, String> readParameters(HttpExchange exchange) throws IOException {
+        Map<String, String> parameters = new HashMap<>();
+        parseForm(exchange.getRequestURI().getRawQuery(), parameters);
+        try (InputStream body = exchange.getRequestBody()) {
+            String contentType = exchange.getRequestHeaders().getFirst("Content-Type");
+            byte[] bytes = body.readNBytes(MAX_BODY_BYTES + 1);
+            if (bytes.length > MAX_BODY_BYTES) {
+                throw new HttpError(413, "Request body exceeds " + MAX_BODY_BYTES + " bytes.");
+            }
+            if (contentType != null && contentType.startsWith("application/x-www-form-urlencoded")) {
+                parseForm(new String(bytes, StandardCharsets.UTF_8), parameters);
+            }
+        }
+        return parameters;
+    }
+
+    /**
+     * Gets the exception to throw out of the handler to abort an exchange. The server then closes the connection
+     * without ending the response, so a client reading a partly sent body sees it fail rather than end early.
+     */
+    private static IOException abort(HttpExchange exchange, IOException cause) {
+        return new IOException("Aborted the response to " + exchange.getRequestMethod() + " "
+                + exchange.getRequestURI() + ".", cause);
+    }
+
+    private static void parseForm(String form, Map<String, String> parameters) {
+        if (form == null || form.isEmpty()) {
+            return;
+        }
+        for (String pair : form.split("&")) {
+            int equals = pair.indexOf('=');
+            String key = equals < 0 ? pair : pair.substring(0, equals);
+            String value = equals < 0 ? "" : pair.substring(equals + 1);
+            parameters.put(URLDecoder.decode(key, StandardCharsets.UTF_8), URLDecoder.decode(value, StandardCharsets.UTF_8));
+        }
+    }
+
+    /**
+     * Splits a raw path into decoded segments; a '+' in a path is a literal plus, not a space.
+     */
+    private static List<String> splitPath(String rawPath) {
+        List<String> segments = new ArrayList<>();
+        for (String segment : rawPath.split("/")) {
+            if (!segment.isEmpty()) {
+                segments.add(URLDecoder.decode(segment.replace("+", "%2B"), StandardCharsets.UTF_8));
+            }
+        }
+        return segments;
+    }
+
+    private static long parseUserId(String value) {
+        try {
+            return Long.parseLong(value);
+        } catch (NumberFormatException e) {
+            throw new HttpError(404, "Invalid user id \"" + value + "\".");
+        }
+    }
+
+    private static String require(Map<String, String> parameters, String name) {
+        String value = parameters.get(name);
+        if (value == null || value.isEmpty()) {
+            throw new HttpError(400, "Missing parameter \"" + name + "\".");
+        }
+        return value;
+    }
+
+    private static void requireMethod(String method, String expected) {
+        if (!method.equals(expected)) {
+            throw methodNotAllowed(method);
+        }
+    }
+
+    private static HttpError methodNotAllowed(String method) {
+        return new HttpError(405, "Method " + method + " is not allowed here.");
+    }
+
+    private static HttpError notFound(long userId, String routineName) {
+        return new HttpError(404, "User " + userId + " has no routine \"" + routineName + "\".");
+    }
+
+    /**
+     * A rendering of part of the model with a renderer into a target.
+     */
+    private interface RenderAction {
+        void render(ModelRenderer renderer, Appendable out) throws IOException;
+    }
+
+    /**
+     * An error answered with a status code other than the one the model exception types map to.
+     */
+    private static final class HttpError extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+
+        private final int status;
+
+        private HttpError(int status, String message) {
+            super(message);
+            this.status = status;
+        }
+    }
+}
@@ -0,0 +1,206 @@
+package model;
+
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Listener that moves event delivery off the mutating thread. Events are put on a bounded queue and a single
+ * daemon thread drains them in batches into a delegate listener, flushing it once per batch. The mutating
+ * thread never blocks: when the queue is full the event is dropped and counted instead.
+ *
+ * A sink can be configured as a no-op (events are discarded immediately and no thread is started), as a ring
+ * buffer of the most recent events, or as a buffered writer.
+ */
+public class AsyncEventSink implements IModelEventListener, AutoCloseable {
+
+    // the default number of events that can wait in the queue.
+    private static final int DEFAULT_CAPACITY = 8192;
+
+    // the default maximum number of events delivered per batch.
+    private static final int DEFAULT_BATCH_SIZE = 256;
+
+    // how long the worker waits for an event before checking whether the sink was closed.
+    private static final long POLL_MILLIS = 50;
+
+    // the listener events are delivered to, or null for a no-op sink.
+    private final IModelEventListener delegate;
+
+    // the events waiting to be delivered.
+    private final BlockingQueue<ModelEvent> queue;
+
+    // the maximum number of events delivered per batch.
+    private final int batchSize;
+
+    // the thread delivering events, or null for a no-op sink.
+    private final Thread worker;
+
+    // the number of events dropped because the queue was full or the sink was closed.
+    private final AtomicLong droppedEvents;
+
+    // the number of events the delegate failed to handle.
+    private final AtomicLong failedEvents;
+
+    // whether the sink still accepts events.
+    private volatile boolean running;
+
+    /**
+     * Creates a sink delivering to the given delegate with the default queue capacity and batch size.
+     * @param delegate the listener events are delivered to, or null to discard every event.
+     */
+    public AsyncEventSink(IModelEventListener delegate) {
+        this(delegate, DEFAULT_CAPACITY, DEFAULT_BATCH_SIZE);
+    }
+
+    /**
+     * Creates a sink delivering to the given delegate.
+     * @param delegate the listener events are delivered to, or null to discard every event.
+     * @param capacity the number of events that can wait in the queue.
+     * @param batchSize the maximum number of events delivered per batch.
+     */
+    public AsyncEventSink(IModelEventListener delegate, int capacity, int batchSize) {
+        if (capacity < 1 || batchSize < 1) {
+            throw new IllegalArgumentException("Sink capacity (" + capacity + ") and batch size (" + batchSize + ") must be at least 1.");
+        }
+        this.delegate = delegate;
+        this.batchSize = batchSize;
+        this.droppedEvents = new AtomicLong();
+        this.failedEvents = new AtomicLong();
+        this.running = true;
+
+        if (delegate == null) {
+            this.queue = null;
+            this.worker = null;
+        } else {
+            this.queue = new ArrayBlockingQueue<>(capacity);
+            this.worker = new Thread(this::deliverEvents, "model-event-sink");
+            this.worker.setDaemon(true);
+            this.worker.start();
+        }
+    }
+
+    /**
+     * Creates a sink that discards every event without starting a thread.
+     * @return a no-op sink.
+     */
+    public static AsyncEventSink noOp() {
+        return new AsyncEventSink(null);
+    }
+
+    /**
+     * Creates a sink that keeps the most recent events in the given ring buffer.
+     * @param ringBuffer the ring buffer events are delivered to.
+     * @return a ring buffer sink.
+     */
+    public static AsyncEventSink ringBuffer(EventRingBuffer ringBuffer) {
+        return new AsyncEventSink(ringBuffer);
+    }
+
+    /**
+     * Creates a sink that writes one line per event to the given writer, flushing once per batch.
+     * @param writer the destination of the event lines.
+     * @return a buffered writer sink.
+     */
+    public static AsyncEventSink bufferedWriter(Writer writer) {
+        return new AsyncEventSink(new WriterEventListener(writer));
+    }
+
+    /**
+     * Queues the event for delivery without blocking. The event is dropped if the queue is full,
+     * the sink is closed, or the sink is a no-op.
+     * @param event the event describing the mutation.
+     */
+    @Override
+    public void onEvent(ModelEvent event) {
+        if (queue == null || !running || !queue.offer(event)) {
+            droppedEvents.incrementAndGet();
+        } else if (!running && queue.remove(event)) {
+            // closed between the check and the offer: the worker may already have exited, so take the event
+            // back unless it was delivered.
+            droppedEvents.incrementAndGet();
+        }
+    }
+
+    /**
+     * Gets the number of events dropped because the queue was full, the sink was closed or is a no-op.
+     * @return the number of dropped events.
+     */
+    public long getDroppedEvents() {
+        return droppedEvents.get();
+    }
+
+    /**
+     * Gets the number of events the delegate failed to handle.
+     * @return the number of failed events.
+     */
+    public long getFailedEvents() {
+        return failedEvents.get();
+    }
+
+    /**
+     * Stops accepting events, delivers every event already queued and waits for the worker to finish.
+     */
+    @Override
+    public void close() {
+        running = false;
+        if (worker != null) {
+            try {
+                worker.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    // Private helper methods.
+
+    /**
+     * Worker loop: waits for an event, drains up to a batch worth of events and delivers them, until the sink
+     * is closed and the queue is empty.
+     */
+    private void deliverEvents() {
+        List<ModelEvent> batch = new ArrayList<>(batchSize);
+        try {
+            while (running || !queue.isEmpty()) {
+                ModelEvent first = queue.poll(POLL_MILLIS, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+                deliverBatch(batch);
+                batch.clear();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Delivers a batch of events to the delegate and flushes it if it buffers output.
+     * @param batch the events to deliver.
+     */
+    private void deliverBatch(List<ModelEvent> batch) {
+        for (ModelEvent event : batch) {
+            try {
+                delegate.onEvent(event);
+            } catch (RuntimeException e) {
+                failedEvents.incrementAndGet();
+            }
+        }
+
+        if (delegate instanceof Flushable) {
+            try {
+                ((Flushable) delegate).flush();
+            } catch (IOException e) {
+                failedEvents.addAndGet(batch.size());
+            }
+        }
+    }
+}
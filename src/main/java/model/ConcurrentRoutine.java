@@ -0,0 +1,329 @@
+package model;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Thread-safe implementation of the IRoutine interface for routines edited from several threads. Like
+ * ConcurrentWorkout, the routine keeps its state in an immutable snapshot behind a volatile reference:
+ * getWorkouts, printRoutine, hashcode and equals read a single snapshot without locking, while writers
+ * serialize on a lock and publish a modified copy (copy-on-write). Read throughput therefore scales with the
+ * number of cores, and readers never see a half-applied mutation. The deleted workouts are kept in a bounded
+ * UndoJournal, as in Routine, which writers update under the same lock.
+ *
+ * The workouts held by the routine should themselves be thread-safe (e.g. ConcurrentWorkout) if they are
+ * edited concurrently.
+ */
+public class ConcurrentRoutine implements IRoutine {
+
+    // the current state of the routine.
+    private volatile Snapshot snapshot;
+
+    // a bounded journal of the deleted workouts of the routine, which can be restored.
+    private final UndoJournal<IWorkout> deletedWorkouts;
+
+    // the lock writers serialize on.
+    private final Object writeLock;
+
+    // Default concurrent routine constructor.
+    public ConcurrentRoutine(String name) {
+        checkRoutineNameValid(name);
+        this.snapshot = new Snapshot(name, List.of());
+        this.deletedWorkouts = new UndoJournal<>();
+        this.writeLock = new Object();
+    }
+
+    @Override
+    public IRoutine createRoutine(String name) {
+        return new ConcurrentRoutine(name);
+    }
+
+    @Override
+    public void addWorkoutToRoutine(IWorkout workout) {
+        checkWorkoutIsNotNull(workout);
+        synchronized (writeLock) {
+            Snapshot current = snapshot;
+            if (current.workouts.contains(workout)) {
+                throw new IllegalArgumentException("The workout \"" + workout.getWorkoutName() + "\" already exists in the routine.");
+            }
+            deletedWorkouts.discard(workout);
+            snapshot = new Snapshot(current.name, with(current.workouts, workout));
+        }
+    }
+
+    @Override
+    public void removeWorkoutFromRoutine(IWorkout workout) {
+        checkWorkoutIsNotNull(workout);
+        synchronized (writeLock) {
+            Snapshot current = snapshot;
+            if (current.workouts.size() == 1) {
+                throw new UnsupportedOperationException("A routine must have at least one workout");
+            }
+            int index = current.workouts.indexOf(workout);
+            if (index == -1) {
+                throw new IllegalArgumentException("The workout \"" + workout.getWorkoutName() + "\" is not in the routine.");
+            }
+            IWorkout held = current.workouts.get(index);
+            snapshot = new Snapshot(current.name, without(current.workouts, held));
+            deletedWorkouts.record(held);
+        }
+    }
+
+    @Override
+    public void addWorkouts(Collection<? extends IWorkout> workouts) {
+        Set<IWorkout> batch = checkWorkoutBatchIsValid(workouts);
+        if (batch.isEmpty()) {
+            return;
+        }
+        synchronized (writeLock) {
+            Snapshot current = snapshot;
+            Set<IWorkout> currentSet = new HashSet<>(current.workouts);
+            for (IWorkout workout : batch) {
+                if (currentSet.contains(workout)) {
+                    throw new IllegalArgumentException("The workout \"" + workout.getWorkoutName() + "\" already exists in the routine.");
+                }
+            }
+
+            List<IWorkout> added = new ArrayList<>(current.workouts.size() + batch.size());
+            added.addAll(current.workouts);
+            added.addAll(batch);
+            for (IWorkout workout : batch) {
+                deletedWorkouts.discard(workout);
+            }
+            snapshot = new Snapshot(current.name, List.copyOf(added));
+        }
+    }
+
+    @Override
+    public void removeWorkouts(Collection<? extends IWorkout> workouts) {
+        Set<IWorkout> batch = checkWorkoutBatchIsValid(workouts);
+        if (batch.isEmpty()) {
+            return;
+        }
+        synchronized (writeLock) {
+            Snapshot current = snapshot;
+            Set<IWorkout> currentSet = new HashSet<>(current.workouts);
+            for (IWorkout workout : batch) {
+                if (!currentSet.contains(workout)) {
+                    throw new IllegalArgumentException("The workout \"" + workout.getWorkoutName() + "\" is not in the routine.");
+                }
+            }
+            if (batch.size() >= current.workouts.size()) {
+                throw new UnsupportedOperationException("A routine must have at least one workout");
+            }
+
+            List<IWorkout> remaining = new ArrayList<>(current.workouts.size() - batch.size());
+            List<IWorkout> removed = new ArrayList<>(batch.size());
+            for (IWorkout workout : current.workouts) {
+                if (batch.contains(workout)) {
+                    removed.add(workout);
+                } else {
+                    remaining.add(workout);
+                }
+            }
+            snapshot = new Snapshot(current.name, List.copyOf(remaining));
+            deletedWorkouts.recordAll(removed);
+        }
+    }
+
+    @Override
+    public void deleteRoutine() {
+        synchronized (writeLock) {
+            Snapshot current = snapshot;
+            if (current.workouts.isEmpty()) {
+                throw new IllegalStateException("Cannot delete an already empty routine.");
+            }
+            snapshot = new Snapshot(current.name, List.of());
+        }
+    }
+
+    @Override
+    public void editRoutine(int oldIndex, int newIndex) {
+        synchronized (writeLock) {
+            Snapshot current = snapshot;
+            int size = current.workouts.size();
+            if (size < 2) {
+                throw new IllegalStateException("A routine must have at least two workouts to be editable.");
+            }
+            if (oldIndex == newIndex) {
+                throw new IllegalArgumentException("Old index and new index cannot be the same.");
+            }
+            if (oldIndex < 0 || oldIndex >= size || newIndex < 0 || newIndex >= size) {
+                throw new IndexOutOfBoundsException("Invalid indices for reordering workouts.");
+            }
+
+            List<IWorkout> workouts = new ArrayList<>(current.workouts);
+            workouts.add(newIndex, workouts.remove(oldIndex));
+            snapshot = new Snapshot(current.name, List.copyOf(workouts));
+        }
+    }
+
+    @Override
+    public void reorder(int[] permutation) {
+        synchronized (writeLock) {
+            Snapshot current = snapshot;
+            int size = current.workouts.size();
+            if (permutation == null || permutation.length != size) {
+                throw new IllegalArgumentException("The permutation must hold exactly one index per workout (" + size + ").");
+            }
+            boolean[] seen = new boolean[size];
+            IWorkout[] reordered = new IWorkout[size];
+            for (int i = 0; i < size; i++) {
+                int source = permutation[i];
+                if (source < 0 || source >= size || seen[source]) {
+                    throw new IllegalArgumentException("Index " + source + " at position " + i + " of the permutation is out of bounds or repeated.");
+                }
+                seen[source] = true;
+                reordered[i] = current.workouts.get(source);
+            }
+            snapshot = new Snapshot(current.name, List.of(reordered));
+        }
+    }
+
+    @Override
+    public void restoreWorkoutToRoutine(IWorkout workout) {
+        checkWorkoutIsNotNull(workout);
+        synchronized (writeLock) {
+            Snapshot current = snapshot;
+            if (!deletedWorkouts.discard(workout)) {
+                throw new IllegalArgumentException("This workout is not in the deleted workout list. Please try again");
+            }
+            snapshot = new Snapshot(current.name, with(current.workouts, workout));
+        }
+    }
+
+    @Override
+    public String getRoutineName() {
+        return snapshot.name;
+    }
+
+    @Override
+    public void setRoutineName(String newName) {
+        checkRoutineNameValid(newName);
+        synchronized (writeLock) {
+            Snapshot current = snapshot;
+            snapshot = new Snapshot(newName, current.workouts);
+        }
+    }
+
+    /**
+     * Gets an immutable snapshot of the workouts of this routine. The snapshot never changes; later mutations
+     * publish a new one.
+     * @return the workouts of this routine, as an immutable list.
+     */
+    @Override
+    public List<IWorkout> getWorkouts() {
+        return snapshot.workouts;
+    }
+
+    /**
+     * Gets a copy of the deleted workouts of this routine, oldest deletion first. Deleted workouts are kept in a
+     * bounded journal, so the oldest ones are eventually forgotten.
+     * @return the deleted workouts, as an immutable list.
+     */
+    public List<IWorkout> getDeletedWorkoutsInRoutine() {
+        return List.copyOf(deletedWorkouts.snapshot());
+    }
+
+    /**
+     * Gets the journal of the deleted workouts, e.g. to compact it or inspect its caps.
+     * @return the undo journal of this routine.
+     */
+    public UndoJournal<IWorkout> getUndoJournal() {
+        return deletedWorkouts;
+    }
+
+    @Override
+    public void printRoutine(IModelPrinter printer) {
+        Snapshot current = snapshot;
+        printer.printRoutine(current.name, current.workouts);
+    }
+
+    @Override
+    public int hashcode() {
+        Snapshot current = snapshot;
+        int result = current.name.hashCode();
+        for (IWorkout workout : current.workouts) {
+            result = 31 * result + workout.hashcode();
+        }
+        return result;
+    }
+
+    @Override
+    public int hashCode() {
+        return hashcode();
+    }
+
+    @Override
+    public boolean equals(Object object) {
+        if (this == object) {
+            return true;
+        }
+        if (object == null || getClass() != object.getClass()) {
+            return false;
+        }
+        Snapshot mine = snapshot;
+        Snapshot theirs = ((ConcurrentRoutine) object).snapshot;
+        return mine.name.equals(theirs.name) && mine.workouts.equals(theirs.workouts);
+    }
+
+    // Private Helper Methods
+    private static List<IWorkout> with(List<IWorkout> workouts, IWorkout workout) {
+        List<IWorkout> copy = new ArrayList<>(workouts.size() + 1);
+        copy.addAll(workouts);
+        copy.add(workout);
+        return List.copyOf(copy);
+    }
+
+    private static List<IWorkout> without(List<IWorkout> workouts, IWorkout workout) {
+        if (!workouts.contains(workout)) {
+            return workouts;
+        }
+        List<IWorkout> copy = new ArrayList<>(workouts);
+        copy.remove(workout);
+        return List.copyOf(copy);
+    }
+
+    private static void checkWorkoutIsNotNull(IWorkout workout) {
+        if (workout == null) {
+            throw new IllegalArgumentException("Cannot add, modify, or delete a null workout from routine.");
+        }
+    }
+
+    private static Set<IWorkout> checkWorkoutBatchIsValid(Collection<? extends IWorkout> workouts) {
+        if (workouts == null) {
+            throw new IllegalArgumentException("Cannot add or delete a null batch of workouts from routine.");
+        }
+        Set<IWorkout> batch = new LinkedHashSet<>();
+        for (IWorkout workout : workouts) {
+            checkWorkoutIsNotNull(workout);
+            if (!batch.add(workout)) {
+                throw new IllegalArgumentException("The workout \"" + workout.getWorkoutName() + "\" appears more than once in the batch.");
+            }
+        }
+        return batch;
+    }
+
+    private static void checkRoutineNameValid(String name) {
+        if (name == null || name.isEmpty()) {
+            throw new IllegalArgumentException("Routine name cannot be null or empty.");
+        }
+    }
+
+    /**
+     * Immutable state of a concurrent routine.
+     */
+    private static final class Snapshot {
+        private final String name;
+        private final List<IWorkout> workouts;
+
+        private Snapshot(String name, List<IWorkout> workouts) {
+            this.name = name;
+            this.workouts = workouts;
+        }
+    }
+}
@@ -0,0 +1,402 @@
+package model;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Thread-safe implementation of the IWorkout interface for workouts shared between threads. The state of the
+ * workout (name, current exercises) lives in an immutable snapshot behind a volatile reference. Readers never
+ * block: they read whichever snapshot is current. Writers serialize on a lock, build a copy of the snapshot with
+ * their change applied and publish it (copy-on-write), so a reader never observes a half-applied mutation.
+ *
+ * The deleted exercises are kept in a bounded UndoJournal, as in Workout, which writers update under the same
+ * lock; getDeletedExercises copies it.
+ *
+ * Only the workout is made thread-safe; the exercises it holds are shared by every snapshot and must not be
+ * mutated concurrently. Replace them through editExercise instead.
+ */
+public class ConcurrentWorkout implements IWorkout {
+
+    // the current state of the workout.
+    private volatile Snapshot snapshot;
+
+    // a bounded journal of the deleted exercises of the workout, which can be restored.
+    private final UndoJournal<IExercise> deletedExercises;
+
+    // the listener notified of every mutation of this workout; prints to the console by default.
+    private volatile IModelEventListener eventListener;
+
+    // the lock writers serialize on.
+    private final Object writeLock;
+
+    // Default concurrent workout constructor.
+    public ConcurrentWorkout(String name) {
+        checkWorkoutNameIsValid(name);
+        this.snapshot = new Snapshot(name, List.of());
+        this.deletedExercises = new UndoJournal<>();
+        this.eventListener = new ConsoleEventListener();
+        this.writeLock = new Object();
+    }
+
+    /**
+     * Adds a new exercise to the workout, restoring it if it had been deleted.
+     * @param exercise the exercise to add to this workout.
+     */
+    @Override
+    public void addExercise(IExercise exercise) {
+        synchronized (writeLock) {
+            Snapshot current = snapshot;
+            checkExerciseIsNotNull(exercise, current);
+            if (current.exercises.contains(exercise)) {
+                throw new IllegalStateException("Cannot add duplicate exercise \"" + exercise.getName() + "\" to workout \"" + current.name + "\".");
+            }
+
+            boolean restored = deletedExercises.discard(exercise);
+            snapshot = new Snapshot(current.name, with(current.exercises, exercise));
+            publish(restored ? ModelEventType.EXERCISE_RESTORED : ModelEventType.EXERCISE_ADDED, exercise, null);
+        }
+    }
+
+    /**
+     * Removes an exercise from the workout. A workout must keep at least one exercise, so removing the last
+     * one is rejected without changing the workout.
+     * @param exercise the given exercise to remove from this workout.
+     */
+    @Override
+    public void removeExercise(IExercise exercise) {
+        synchronized (writeLock) {
+            Snapshot current = snapshot;
+            checkExerciseIsNotNull(exercise, current);
+            if (deletedExercises.contains(exercise)) {
+                throw new IllegalArgumentException("The exercise \"" + exercise.getName() + "\" in workout \"" + current.name + "\" has already been removed.");
+            }
+            int index = current.exercises.indexOf(exercise);
+            if (index == -1) {
+                throw new IllegalArgumentException("The exercise \"" + exercise.getName() + "\" does not exist in the current exercises list of workout \"" + current.name + "\".");
+            }
+            if (current.exercises.size() == 1) {
+                throw new IllegalStateException("A workout must contain at least one exercise.");
+            }
+
+            IExercise held = current.exercises.get(index);
+            snapshot = new Snapshot(current.name, without(current.exercises, held));
+            deletedExercises.record(held);
+            publish(ModelEventType.EXERCISE_REMOVED, held, null);
+        }
+    }
+
+    /**
+     * Edits an exercise in this workout.
+     * @param currentExercise the current exercise to be edited.
+     * @param newExercise the new exercise with updated information after edit.
+     */
+    @Override
+    public void editExercise(IExercise currentExercise, IExercise newExercise) {
+        synchronized (writeLock) {
+            Snapshot current = snapshot;
+            checkExerciseIsNotNull(currentExercise, current);
+            checkExerciseIsNotNull(newExercise, current);
+            if (currentExercise.equals(newExercise)) {
+                throw new IllegalStateException("The new exercise must differ from the previous exercise in at least one capacity for editing in workout \"" + current.name + "\".");
+            }
+
+            int index = current.exercises.indexOf(currentExercise);
+            if (index == -1) {
+                throw new IllegalArgumentException("The exercise \"" + currentExercise.getName() + "\" was not found in workout \"" + current.name + "\".");
+            }
+
+            List<IExercise> exercises = new ArrayList<>(current.exercises);
+            exercises.set(index, newExercise);
+            snapshot = new Snapshot(current.name, List.copyOf(exercises));
+            publish(ModelEventType.EXERCISE_EDITED, newExercise, currentExercise.getName());
+        }
+    }
+
+    /**
+     * Restores a previously deleted exercise into this workout.
+     * @param exercise the exercise to be restored.
+     */
+    @Override
+    public void restoreExercise(IExercise exercise) {
+        synchronized (writeLock) {
+            Snapshot current = snapshot;
+            checkExerciseIsNotNull(exercise, current);
+            if (!deletedExercises.discard(exercise)) {
+                throw new IllegalArgumentException("The exercise \"" + exercise.getName() + "\" is not in the deleted exercises list for workout \"" + current.name + "\".");
+            }
+
+            snapshot = new Snapshot(current.name, with(current.exercises, exercise));
+            publish(ModelEventType.EXERCISE_RESTORED, exercise, null);
+        }
+    }
+
+    /**
+     * Adds several exercises to the workout at once, in the same way as Workout.addExercises. The whole batch
+     * is published as a single new snapshot, so readers see either none or all of it.
+     * @param exercises the exercises to add, in order.
+     */
+    @Override
+    public void addExercises(Collection<? extends IExercise> exercises) {
+        synchronized (writeLock) {
+            Snapshot current = snapshot;
+            Set<IExercise> batch = checkBatchIsValid(exercises, current);
+            if (batch.isEmpty()) {
+                return;
+            }
+
+            Set<IExercise> currentSet = new HashSet<>(current.exercises);
+            for (IExercise exercise : batch) {
+                if (currentSet.contains(exercise)) {
+                    throw new IllegalStateException("Cannot add duplicate exercise \"" + exercise.getName() + "\" to workout \"" + current.name + "\".");
+                }
+            }
+
+            List<IExercise> added = new ArrayList<>(current.exercises.size() + batch.size());
+            added.addAll(current.exercises);
+            added.addAll(batch);
+            for (IExercise exercise : batch) {
+                deletedExercises.discard(exercise);
+            }
+            snapshot = new Snapshot(current.name, List.copyOf(added));
+            publishBatch(ModelEventType.EXERCISES_ADDED, batch);
+        }
+    }
+
+    /**
+     * Removes several exercises from the workout at once, in the same way as Workout.removeExercises. The
+     * whole batch is published as a single new snapshot.
+     * @param exercises the exercises to remove.
+     */
+    @Override
+    public void removeExercises(Collection<? extends IExercise> exercises) {
+        synchronized (writeLock) {
+            Snapshot current = snapshot;
+            Set<IExercise> batch = checkBatchIsValid(exercises, current);
+            if (batch.isEmpty()) {
+                return;
+            }
+
+            Set<IExercise> currentSet = new HashSet<>(current.exercises);
+            for (IExercise exercise : batch) {
+                if (deletedExercises.contains(exercise)) {
+                    throw new IllegalArgumentException("The exercise \"" + exercise.getName() + "\" in workout \"" + current.name + "\" has already been removed.");
+                }
+                if (!currentSet.contains(exercise)) {
+                    throw new IllegalArgumentException("The exercise \"" + exercise.getName() + "\" does not exist in the current exercises list of workout \"" + current.name + "\".");
+                }
+            }
+            if (batch.size() >= current.exercises.size()) {
+                throw new IllegalStateException("A workout must contain at least one exercise.");
+            }
+
+            List<IExercise> remaining = new ArrayList<>(current.exercises.size() - batch.size());
+            List<IExercise> removed = new ArrayList<>(batch.size());
+            for (IExercise exercise : current.exercises) {
+                if (batch.contains(exercise)) {
+                    removed.add(exercise);
+                } else {
+                    remaining.add(exercise);
+                }
+            }
+            snapshot = new Snapshot(current.name, List.copyOf(remaining));
+            deletedExercises.recordAll(removed);
+            publishBatch(ModelEventType.EXERCISES_REMOVED, batch);
+        }
+    }
+
+    /**
+     * Prints a consistent snapshot of this workout in the same format as Workout.printWorkout.
+     * @param printer where and how to print it.
+     */
+    @Override
+    public void printWorkout(IModelPrinter printer) {
+        Snapshot current = snapshot;
+        printer.printWorkout(current.name, current.exercises);
+    }
+
+    /**
+     * Gets the current name of this workout.
+     * @return this workout's name.
+     */
+    @Override
+    public String getWorkoutName() {
+        return snapshot.name;
+    }
+
+    /**
+     * Sets a new name for this workout.
+     * @param newName the new name to be given to this workout.
+     */
+    @Override
+    public void setWorkoutName(String newName) {
+        checkWorkoutNameIsValid(newName);
+        synchronized (writeLock) {
+            Snapshot current = snapshot;
+            snapshot = new Snapshot(newName, current.exercises);
+            publish(ModelEventType.WORKOUT_RENAMED, null, current.name);
+        }
+    }
+
+    /**
+     * Gets an immutable snapshot of the exercises of this workout. The snapshot never changes; later mutations
+     * publish a new one.
+     * @return the exercises of this workout, as an immutable list.
+     */
+    @Override
+    public List<IExercise> getExerciseList() {
+        return snapshot.exercises;
+    }
+
+    /**
+     * Gets a copy of the deleted exercises of this workout, oldest deletion first. Deleted exercises are kept in a
+     * bounded journal, so the oldest ones are eventually forgotten.
+     * @return the deleted exercises, as an immutable list.
+     */
+    public List<IExercise> getDeletedExercises() {
+        return List.copyOf(deletedExercises.snapshot());
+    }
+
+    /**
+     * Gets the journal of the deleted exercises, e.g. to compact it or inspect its caps.
+     * @return the undo journal of this workout.
+     */
+    public UndoJournal<IExercise> getUndoJournal() {
+        return deletedExercises;
+    }
+
+    /**
+     * Sets the listener notified of every mutation of this workout, replacing the default console listener.
+     * The listener is called while the write lock is held, so events arrive in mutation order.
+     * @param eventListener the new listener.
+     */
+    public void setEventListener(IModelEventListener eventListener) {
+        if (eventListener == null) {
+            throw new IllegalArgumentException("Event listener of workout \"" + snapshot.name + "\" cannot be null.");
+        }
+        this.eventListener = eventListener;
+    }
+
+    /**
+     * Generates and returns a unique hashcode to each object, from a single snapshot.
+     * @return the hashcode of the object.
+     */
+    @Override
+    public int hashcode() {
+        Snapshot current = snapshot;
+        int result = current.name.hashCode();
+        for (IExercise exercise : current.exercises) {
+            result = 31 * result + exercise.hashcode();
+        }
+        return result;
+    }
+
+    /**
+     * Overriden default hashCode method so workouts can be used in hashed collections.
+     * @return the hashcode of the object.
+     */
+    @Override
+    public int hashCode() {
+        return hashcode();
+    }
+
+    /**
+     * Overriden equals method which compares a snapshot of this workout with a snapshot of the other one.
+     * @param object the other object to compare with.
+     * @return true if this and other object are equal, false otherwise.
+     */
+    @Override
+    public boolean equals(Object object) {
+        if (this == object) return true;
+        if (object == null || getClass() != object.getClass()) return false;
+        Snapshot mine = snapshot;
+        Snapshot theirs = ((ConcurrentWorkout) object).snapshot;
+        return mine.name.equals(theirs.name) && mine.exercises.equals(theirs.exercises);
+    }
+
+    // Private helper methods.
+
+    /**
+     * Notifies the event listener of a mutation of this workout.
+     */
+    private void publish(ModelEventType type, IExercise exercise, String previousName) {
+        eventListener.onEvent(new ModelEvent(type, this, exercise, previousName));
+    }
+
+    /**
+     * Notifies the event listener of a batch mutation of this workout.
+     */
+    private void publishBatch(ModelEventType type, Set<IExercise> exercises) {
+        eventListener.onEvent(new ModelEvent(type, this, new ArrayList<>(exercises)));
+    }
+
+    /**
+     * Verifies that a batch holds no null and no repeated exercises, and returns it in order.
+     */
+    private static Set<IExercise> checkBatchIsValid(Collection<? extends IExercise> exercises, Snapshot current) {
+        if (exercises == null) {
+            throw new IllegalArgumentException("Cannot add or delete a null batch of exercises in workout \"" + current.name + "\".");
+        }
+        Set<IExercise> batch = new LinkedHashSet<>();
+        for (IExercise exercise : exercises) {
+            checkExerciseIsNotNull(exercise, current);
+            if (!batch.add(exercise)) {
+                throw new IllegalStateException("The exercise \"" + exercise.getName() + "\" appears more than once in the batch for workout \"" + current.name + "\".");
+            }
+        }
+        return batch;
+    }
+
+    /**
+     * Returns an immutable copy of the list with the exercise appended.
+     */
+    private static List<IExercise> with(List<IExercise> exercises, IExercise exercise) {
+        List<IExercise> copy = new ArrayList<>(exercises.size() + 1);
+        copy.addAll(exercises);
+        copy.add(exercise);
+        return List.copyOf(copy);
+    }
+
+    /**
+     * Returns an immutable copy of the list with the first occurrence of the exercise removed.
+     */
+    private static List<IExercise> without(List<IExercise> exercises, IExercise exercise) {
+        List<IExercise> copy = new ArrayList<>(exercises);
+        copy.remove(exercise);
+        return List.copyOf(copy);
+    }
+
+    /**
+     * Verifies that no null exercises can be passed into the system
+     */
+    private static void checkExerciseIsNotNull(IExercise exercise, Snapshot current) {
+        if (exercise == null) {
+            throw new IllegalArgumentException("Cannot add, modify, or delete a null exercise in workout \"" + current.name + "\".");
+        }
+    }
+
+    /**
+     * Verifies that a workout name is valid.
+     */
+    private static void checkWorkoutNameIsValid(String name) {
+        if (name == null || name.isEmpty()) {
+            throw new IllegalArgumentException("Workout name cannot be null or empty string. Please choose a valid name");
+        }
+    }
+
+    /**
+     * Immutable state of a concurrent workout.
+     */
+    private static final class Snapshot {
+        private final String name;
+        private final List<IExercise> exercises;
+
+        private Snapshot(String name, List<IExercise> exercises) {
+            this.name = name;
+            this.exercises = exercises;
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package model;
+
+/**
+ * Listener that prints every event to System.out as it happens. This is the default listener of a workout,
+ * which keeps the console messages the model has always printed. Performance sensitive callers should
+ * install an AsyncEventSink instead.
+ */
+public class ConsoleEventListener implements IModelEventListener {
+
+    /**
+     * Prints the description of the event on its own line.
+     * @param event the event describing the mutation.
+     */
+    @Override
+    public void onEvent(ModelEvent event) {
+        System.out.println(event.describe());
+    }
+}
@@ -0,0 +1,88 @@
+package model;
+
+import java.text.DecimalFormat;
+import java.util.List;
+
+/**
+ * Printer that prints to System.out in the plain text the model has always printed. This is the printer the
+ * no-argument print methods of the model use, so the model can print itself without depending on the view;
+ * view.ModelRenderer offers the same format buffered, plus CSV and JSON.
+ */
+public class ConsoleModelPrinter implements IModelPrinter {
+
+    // the printer used by the no-argument print methods. It holds no state, so it can be shared.
+    static final ConsoleModelPrinter INSTANCE = new ConsoleModelPrinter();
+
+    /**
+     * Prints an exercise in the following format:
+     * ExerciseName setsxtargetReps@weight (Reps per set: [Set 1: reps, ...]).
+     * @param exercise the exercise to print.
+     */
+    @Override
+    public void printExercise(IExercise exercise) {
+        DecimalFormat df = new DecimalFormat("0.00");
+        String formattedWeight = df.format(exercise.getWeight());
+
+        // Format SetReps list
+        StringBuilder repsList = new StringBuilder();
+        boolean allRepsAreZero = true;
+        for (SetReps setReps : exercise.getAllSetReps()) {
+            if (setReps.getReps() != 0) {
+                allRepsAreZero = false;
+            }
+            if (repsList.length() > 0) {
+                repsList.append(", ");
+            }
+            repsList.append("Set ").append(setReps.getSetNumber()).append(": ").append(setReps.getReps());
+        }
+
+        // Handle empty or all-zero reps list
+        String repsOutput = allRepsAreZero ? "[]" : "[" + repsList + "]";
+
+        System.out.println(
+                exercise.getName() + " " +
+                        exercise.getSets() + "x" + exercise.getTargetReps() + "@" + formattedWeight +
+                        " (Reps per set: " + repsOutput + ")"
+        );
+    }
+
+    /**
+     * Prints a workout as its name followed by its numbered exercises.
+     * @param name the name of the workout.
+     * @param exercises the exercises of the workout.
+     */
+    @Override
+    public void printWorkout(String name, List<? extends IExercise> exercises) {
+        if (exercises.isEmpty()) {
+            System.out.println("\n" + name + ":\nNo exercises in this workout.");
+            return;
+        }
+
+        System.out.println("\n" + name + ":");
+        for (int i = 0; i < exercises.size(); i++) {
+            System.out.print((i + 1) + ". ");
+            printExercise(exercises.get(i));
+        }
+    }
+
+    /**
+     * Prints a routine as its name followed by its numbered workouts.
+     * @param name the name of the routine.
+     * @param workouts the workouts of the routine.
+     */
+    @Override
+    public void printRoutine(String name, List<? extends IWorkoutView> workouts) {
+        if (workouts.isEmpty()) {
+            System.out.println("\nRoutine \"" + name + "\":\nNo workouts in this routine.");
+            return;
+        }
+
+        System.out.println("\nRoutine \"" + name + "\":");
+        for (int i = 0; i < workouts.size(); i++) {
+            System.out.print((i + 1) + ". ");
+            IWorkoutView workout = workouts.get(i);
+            printWorkout(workout.getWorkoutName(), workout.getExerciseList());
+            System.out.println();
+        }
+    }
+}
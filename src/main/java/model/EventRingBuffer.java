@@ -0,0 +1,59 @@
+package model;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Listener that keeps the most recent events in a fixed-size ring buffer, overwriting the oldest event once
+ * the buffer is full. Memory use is bounded by the capacity no matter how many events are recorded.
+ */
+public class EventRingBuffer implements IModelEventListener {
+
+    // the slots of the ring.
+    private final ModelEvent[] events;
+
+    // the total number of events ever recorded; the next write goes to slot recorded % capacity.
+    private long recorded;
+
+    /**
+     * Creates a ring buffer holding at most capacity events.
+     * @param capacity the number of most recent events to keep.
+     */
+    public EventRingBuffer(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Ring buffer capacity (" + capacity + ") cannot be less than 1.");
+        }
+        this.events = new ModelEvent[capacity];
+    }
+
+    /**
+     * Records the event, overwriting the oldest one if the buffer is full.
+     * @param event the event describing the mutation.
+     */
+    @Override
+    public synchronized void onEvent(ModelEvent event) {
+        events[(int) (recorded % events.length)] = event;
+        recorded++;
+    }
+
+    /**
+     * Obtains the events currently held, oldest first.
+     * @return a copy of the buffered events.
+     */
+    public synchronized List<ModelEvent> snapshot() {
+        int size = (int) Math.min(recorded, events.length);
+        List<ModelEvent> snapshot = new ArrayList<>(size);
+        for (long i = recorded - size; i < recorded; i++) {
+            snapshot.add(events[(int) (i % events.length)]);
+        }
+        return snapshot;
+    }
+
+    /**
+     * Gets the total number of events recorded, including the ones that have been overwritten.
+     * @return the number of events ever recorded.
+     */
+    public synchronized long getRecordedCount() {
+        return recorded;
+    }
+}
@@ -1,9 +1,10 @@
 package model;
 
-import java.text.DecimalFormat;
+import java.util.AbstractList;
 import java.util.ArrayList;
-import java.util.Collections;
+import java.util.Arrays;
 import java.util.List;
+import java.util.RandomAccess;
 
 /**
  * Implementation of IExercise interface that represents an exercise.
@@ -17,9 +18,9 @@ import java.util.List;
 public class Exercise implements IExercise {
 
     /**
-     * The name of the exercise.
+     * The interned type of the exercise, which holds its name. Exercises of a registered name share one type.
      */
-    private String name;
+    private ExerciseType type;
 
     /**
      * The sets of the exercise.
@@ -27,9 +28,14 @@ public class Exercise implements IExercise {
     private int sets;
 
     /**
-     * List to store SetReps objects representing reps for each set.
+     * The set number of each set, stored as a primitive column (index i holds set i).
      */
-    private final List<SetReps> setRepsList;
+    private final int[] setNumbers;
+
+    /**
+     * The reps done in each set, stored as a primitive column parallel to setNumbers.
+     */
+    private final int[] reps;
 
     /**
      * The target amount of repetitions desired to be achieved in a set.
@@ -46,6 +52,21 @@ public class Exercise implements IExercise {
      */
     private Mode mode;
 
+    /**
+     * Running statistics over the reps of every set, kept up to date as reps are updated.
+     */
+    private final RunningStatistics repStatistics;
+
+    /**
+     * The observers notified after every change, or null while there are none.
+     */
+    private List<IExerciseObserver> observers;
+
+    /**
+     * Whether the exercise is read-only (see frozenCopyOf), in which case every mutator throws.
+     */
+    private boolean frozen;
+
     /**
      * Default constructor for a new exercise.
      *
@@ -61,25 +82,119 @@ public class Exercise implements IExercise {
         checkExerciseSetsIsValid(sets);
         checkExerciseWeightValid(weight);
 
-        this.name = name;
+        this.type = ExerciseCatalog.getDefault().intern(name, mode);
         this.sets = sets;
         this.targetReps = targetReps;
         this.weight = weight;
         this.mode = mode;
 
-        // Generate default SetReps if the list is empty
+        this.setNumbers = new int[sets];
+        this.reps = new int[sets];
+
+        // Generate default set numbers (with reps = 0) if the list is empty
         if (setRepsList == null || setRepsList.isEmpty()) {
-            setRepsList = new ArrayList<>();
-            for (int i = 1; i <= sets; i++) {
-                setRepsList.add(new SetReps(i, 0)); // Default reps = 0
+            for (int i = 0; i < sets; i++) {
+                setNumbers[i] = i + 1;
+            }
+        } else {
+            validateSetRepsList(setRepsList, sets);
+            for (int i = 0; i < sets; i++) {
+                SetReps setReps = setRepsList.get(i);
+                setNumbers[i] = setReps.getSetNumber();
+                reps[i] = setReps.getReps();
             }
         }
 
-        validateSetRepsList(setRepsList, sets);
-        this.setRepsList = new ArrayList<>(setRepsList); // Ensure immutability
+        this.repStatistics = new RunningStatistics();
+        for (int setReps : this.reps) {
+            repStatistics.add(setReps);
+        }
     }
 
 
+    /**
+     * Constructor for a new exercise from primitive set/rep columns, used when decoding stored exercises
+     * without materializing a SetReps per set. The columns are copied.
+     *
+     * @param name       the name of the exercise.
+     * @param setNumbers the set number of each set.
+     * @param reps       the reps done in each set, parallel to setNumbers.
+     * @param targetReps the target amount of repetitions desired to be achieved in a set.
+     * @param weight     the weight of the exercise.
+     * @param mode       the mode of the exercise.
+     */
+    public Exercise(String name, int[] setNumbers, int[] reps, int targetReps, double weight, Mode mode) {
+        checkExerciseNameValid(name);
+        if (setNumbers == null || reps == null || setNumbers.length != reps.length) {
+            throw new IllegalArgumentException("Set number and reps columns must be non-null and of equal length.");
+        }
+        checkExerciseSetsIsValid(reps.length);
+        checkExerciseWeightValid(weight);
+
+        this.type = ExerciseCatalog.getDefault().intern(name, mode);
+        this.sets = reps.length;
+        this.targetReps = targetReps;
+        this.weight = weight;
+        this.mode = mode;
+        this.setNumbers = setNumbers.clone();
+        this.reps = reps.clone();
+
+        this.repStatistics = new RunningStatistics();
+        for (int setReps : this.reps) {
+            repStatistics.add(setReps);
+        }
+    }
+
+    /**
+     * Creates an independent copy of an exercise, with its own set/rep columns and no observers, so later changes
+     * to either one are not seen by the other.
+     *
+     * @param exercise the exercise to copy.
+     * @return the copy.
+     */
+    public static Exercise copyOf(IExercise exercise) {
+        if (exercise == null) {
+            throw new IllegalArgumentException("Cannot copy a null exercise.");
+        }
+        List<SetReps> setRepsList = exercise.getAllSetReps();
+        int[] setNumbers = new int[setRepsList.size()];
+        int[] reps = new int[setRepsList.size()];
+        for (int i = 0; i < reps.length; i++) {
+            SetReps setReps = setRepsList.get(i);
+            setNumbers[i] = setReps.getSetNumber();
+            reps[i] = setReps.getReps();
+        }
+        Exercise copy = new Exercise(exercise.getName(), setNumbers, reps, exercise.getTargetReps(), exercise.getWeight(), exercise.getMode());
+        copy.sets = exercise.getSets(); // may differ from the recorded sets after updateSets
+        return copy;
+    }
+
+    /**
+     * Creates a read-only copy of an exercise, which can be shared between versions and threads: its mutators
+     * throw UnsupportedOperationException, and since it never changes it keeps no observers. Read-only exercises
+     * are returned as they are.
+     *
+     * @param exercise the exercise to copy.
+     * @return the read-only copy.
+     */
+    public static Exercise frozenCopyOf(IExercise exercise) {
+        if (exercise instanceof Exercise && ((Exercise) exercise).frozen) {
+            return (Exercise) exercise;
+        }
+        Exercise copy = copyOf(exercise);
+        copy.frozen = true;
+        return copy;
+    }
+
+    /**
+     * Checks whether this exercise is read-only, i.e. was created by frozenCopyOf.
+     *
+     * @return true if the mutators of this exercise throw, false otherwise.
+     */
+    public boolean isFrozen() {
+        return frozen;
+    }
+
     /**
      * Allows for the creation of a new exercise.
      *
@@ -103,8 +218,10 @@ public class Exercise implements IExercise {
      */
     @Override
     public void updateWeight(double weight) {
+        checkExerciseIsNotFrozen();
         checkExerciseWeightValid(weight);
         this.weight = weight;
+        notifyObservers();
     }
 
     /**
@@ -124,8 +241,10 @@ public class Exercise implements IExercise {
      */
     @Override
     public void updateSets(int sets) {
+        checkExerciseIsNotFrozen();
         checkExerciseSetsIsValid(sets);
         this.sets = sets;
+        notifyObservers();
     }
 
     /**
@@ -146,18 +265,92 @@ public class Exercise implements IExercise {
      */
     @Override
     public void updateReps(int setIndex, int reps) {
+        checkExerciseIsNotFrozen();
         validateSetIndex(setIndex);
-        checkUpdateRepsDifferent(setRepsList.get(setIndex).getReps(), reps);
-        setRepsList.set(setIndex, new SetReps(setIndex, reps));
+        int currentReps = this.reps[setIndex];
+        checkUpdateRepsDifferent(currentReps, reps);
+        this.reps[setIndex] = reps;
+        repStatistics.replace(currentReps, reps);
+        notifyObservers();
     }
 
     /**
-     * Obtains all the SetReps for every set.
+     * Obtains all the SetReps for every set, as an unmodifiable view over the set/rep columns.
+     * The view reflects later rep updates and reads elements through SetReps.of, so common values allocate nothing.
      *
      * @return the SetReps list for every set.
      */
     public List<SetReps> getAllSetReps() {
-        return Collections.unmodifiableList(setRepsList);
+        return new SetRepsView();
+    }
+
+    /**
+     * Gets the number of sets that have recorded reps. This is the number of sets the exercise was created with,
+     * which can differ from getSets() after updateSets.
+     *
+     * @return the number of recorded sets.
+     */
+    public int getRecordedSetCount() {
+        return reps.length;
+    }
+
+    /**
+     * Obtains the set number stored at a position of the set/rep columns, without creating a SetReps.
+     *
+     * @param index the position, between 0 and getRecordedSetCount() - 1.
+     * @return the set number at that position.
+     */
+    public int getSetNumberAt(int index) {
+        return setNumbers[index];
+    }
+
+    /**
+     * Obtains the reps stored at a position of the set/rep columns, without creating a SetReps.
+     *
+     * @param index the position, between 0 and getRecordedSetCount() - 1.
+     * @return the reps at that position.
+     */
+    public int getRepsAt(int index) {
+        return reps[index];
+    }
+
+    /**
+     * Obtains the running statistics over the reps of every set. The statistics are updated in place
+     * whenever reps change, so reading them never rescans the sets.
+     *
+     * @return the rep statistics of this exercise.
+     */
+    public RunningStatistics getRepStatistics() {
+        return repStatistics;
+    }
+
+    /**
+     * Registers an observer to be notified after every change to this exercise. Observers are not part of
+     * the state of the exercise: they do not affect equals or hashcode.
+     *
+     * @param observer the observer to add.
+     */
+    public void addObserver(IExerciseObserver observer) {
+        if (observer == null) {
+            throw new IllegalArgumentException("Observer of exercise \"" + getName() + "\" cannot be null.");
+        }
+        if (frozen) {
+            return; // a read-only exercise never changes, so there is nothing to observe
+        }
+        if (observers == null) {
+            observers = new ArrayList<>(2);
+        }
+        observers.add(observer);
+    }
+
+    /**
+     * Unregisters an observer of this exercise.
+     *
+     * @param observer the observer to remove.
+     * @return true if the observer was registered, false otherwise.
+     */
+    public boolean removeObserver(IExerciseObserver observer) {
+        return observers != null && observers.remove(observer);
     }
 
     /**
@@ -169,7 +362,7 @@ public class Exercise implements IExercise {
     @Override
     public int getRepsForSpecificSet(int setIndex) {
         validateSetIndex(setIndex);
-        return setRepsList.get(setIndex).getReps();
+        return reps[setIndex];
     }
 
     /**
@@ -179,8 +372,10 @@ public class Exercise implements IExercise {
      */
     @Override
     public void updateMode(Mode mode) {
+        checkExerciseIsNotFrozen();
         checkUpdateModeDifferent(getMode(), mode);
         this.mode = mode;
+        notifyObservers();
     }
 
     /**
@@ -200,8 +395,10 @@ public class Exercise implements IExercise {
      */
     @Override
     public void updateName(String name) {
+        checkExerciseIsNotFrozen();
         checkExerciseNameValid(name);
-        this.name = name;
+        this.type = ExerciseCatalog.getDefault().intern(name, mode);
+        notifyObservers();
     }
 
     /**
@@ -211,7 +408,17 @@ public class Exercise implements IExercise {
      */
     @Override
     public String getName() {
-        return this.name;
+        return this.type.getName();
+    }
+
+    /**
+     * Gets the interned type of this exercise, shared by every exercise of the same name unless the catalog was
+     * full when the name was first seen.
+     *
+     * @return the exercise type.
+     */
+    public ExerciseType getType() {
+        return this.type;
     }
 
     /**
@@ -229,43 +436,24 @@ public class Exercise implements IExercise {
      */
     @Override
     public void updateTargetReps(int newTargetReps) {
+        checkExerciseIsNotFrozen();
         if (newTargetReps == this.targetReps) {
             throw new IllegalArgumentException("New target reps must be different from current target reps");
         } else {
             this.targetReps = newTargetReps;
+            notifyObservers();
         }
     }
 
     /**
      * Prints the current exercise in the following format:
      * ExerciseName sets X targetReps @ weight.
+     *
+     * @param printer where and how to print it.
      */
     @Override
-    public void printExercise() {
-        DecimalFormat df = new DecimalFormat("0.00");
-        String formattedWeight = df.format(this.getWeight());
-
-        // Format SetReps list
-        StringBuilder repsList = new StringBuilder();
-        boolean allRepsAreZero = true;
-        for (SetReps setReps : setRepsList) {
-            if (setReps.getReps() != 0) {
-                allRepsAreZero = false;
-            }
-            if (repsList.length() > 0) {
-                repsList.append(", ");
-            }
-            repsList.append("Set ").append(setReps.getSetNumber()).append(": ").append(setReps.getReps());
-        }
-
-        // Handle empty or all-zero reps list
-        String repsOutput = allRepsAreZero ? "[]" : "[" + repsList + "]";
-
-        System.out.println(
-                this.getName() + " " +
-                        this.getSets() + "x" + this.getTargetReps() + "@" + formattedWeight +
-                        " (Reps per set: " + repsOutput + ")"
-        );
+    public void printExercise(IModelPrinter printer) {
+        printer.printExercise(this);
     }
 
     /**
@@ -275,15 +463,25 @@ public class Exercise implements IExercise {
      */
     @Override
     public int hashcode() {
-        int result = name.hashCode();
+        int result = type.nameHash(); // The interned id stands in for the name
         result = 31 * result + Integer.hashCode(sets);
         result = 31 * result + Integer.hashCode(targetReps);
         result = 31 * result + Double.hashCode(weight);
         result = 31 * result + (mode != null ? mode.hashCode() : 0);
-        result = 31 * result + setRepsList.hashCode(); // Include setRepsList in hashCode
+        result = 31 * result + Arrays.hashCode(setNumbers); // Include the set/rep columns in hashCode
+        result = 31 * result + Arrays.hashCode(reps);
         return result;
     }
 
+    /**
+     * Overridden default hashCode method so exercises can be used in hashed collections.
+     *
+     * @return the hashCode of an object.
+     */
+    @Override
+    public int hashCode() {
+        return hashcode();
+    }
 
     /**
      * Overridden equals method to ensure object equality for Exercise objects.
@@ -302,16 +500,29 @@ public class Exercise implements IExercise {
         }
         Exercise other = (Exercise) object;
 
-        return this.name.equals(other.name) &&
+        return this.type.sameName(other.type) && // Same interned type means same name
                 this.mode.equals(other.mode) &&
                 Double.compare(this.weight, other.weight) == 0 &&
                 this.sets == other.sets &&
                 this.targetReps == other.targetReps &&
-                this.setRepsList.equals(other.setRepsList); // Compare setRepsList
+                Arrays.equals(this.setNumbers, other.setNumbers) && // Compare the set/rep columns
+                Arrays.equals(this.reps, other.reps);
     }
 
     //Private helper methods
 
+    /**
+     * Notifies every observer that this exercise changed.
+     */
+    private void notifyObservers() {
+        if (observers == null) {
+            return;
+        }
+        for (int i = 0; i < observers.size(); i++) {
+            observers.get(i).onExerciseChanged(this);
+        }
+    }
+
     /**
      * Validates the set index during rep updates.
      */
@@ -348,6 +559,15 @@ public class Exercise implements IExercise {
         }
     }
 
+    /**
+     * Verifies that the exercise can be changed, i.e. is not a read-only copy.
+     */
+    private void checkExerciseIsNotFrozen() {
+        if (frozen) {
+            throw new UnsupportedOperationException("Exercise \"" + getName() + "\" is read-only; change a copy made with Exercise.copyOf instead.");
+        }
+    }
+
     /**
      * Verifies that the weight is valid.
      */
@@ -376,4 +596,20 @@ public class Exercise implements IExercise {
             throw new IllegalArgumentException("Number of SetReps objects must match the number of sets.");
         }
     }
+
+    /**
+     * Read-only list view over the set/rep columns of this exercise.
+     */
+    private final class SetRepsView extends AbstractList<SetReps> implements RandomAccess {
+
+        @Override
+        public SetReps get(int index) {
+            return SetReps.of(setNumbers[index], reps[index]);
+        }
+
+        @Override
+        public int size() {
+            return reps.length;
+        }
+    }
 }
@@ -0,0 +1,154 @@
+package model;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Catalog that interns exercise names into small integer ids. Every distinct name is stored once, as an
+ * ExerciseType flyweight, and exercises keep a reference to their type instead of their own copy of the name.
+ * Two exercises of the same catalog then have the same name exactly when they share a type, so equality and
+ * hashing compare an int instead of the characters of a string.
+ *
+ * Names are matched exactly (case and whitespace included), as Exercise.equals always did. Types are never
+ * removed, so a catalog registers at most its capacity of names: once it is full, intern hands out an
+ * unregistered type (id -1) for every new name instead. Names coming from imports or requests can then never
+ * grow the catalog without bound; exercises of unregistered types compare their names instead of their ids.
+ * A name is registered on its first intern or never, so all exercises of a name agree on which case applies.
+ *
+ * The catalog is thread-safe: lookups of known names never lock, and new names are registered under a lock.
+ */
+public final class ExerciseCatalog {
+
+    // the catalog exercises are interned in unless told otherwise.
+    private static final ExerciseCatalog DEFAULT_CATALOG = new ExerciseCatalog();
+
+    // the initial capacity of the id table.
+    private static final int INITIAL_CAPACITY = 64;
+
+    /**
+     * The number of names the default catalog registers before handing out unregistered types.
+     */
+    public static final int DEFAULT_CAPACITY = 4096;
+
+    // the registered types, by name.
+    private final Map<String, ExerciseType> typesByName;
+
+    // the registered types, by id. Reassigned after every registration so readers see the new entry.
+    private volatile ExerciseType[] typesById;
+
+    // the number of registered types, which is also the next id; guarded by this.
+    private int size;
+
+    // the maximum number of registered types.
+    private final int capacity;
+
+    // Default catalog constructor.
+    public ExerciseCatalog() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Creates a catalog registering at most a given number of names.
+     * @param capacity the maximum number of registered names.
+     */
+    public ExerciseCatalog(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Catalog capacity (" + capacity + ") must be at least 1.");
+        }
+        this.typesByName = new ConcurrentHashMap<>();
+        this.typesById = new ExerciseType[Math.min(INITIAL_CAPACITY, capacity)];
+        this.capacity = capacity;
+    }
+
+    /**
+     * Gets the process-wide catalog Exercise interns its names in.
+     * @return the default catalog.
+     */
+    public static ExerciseCatalog getDefault() {
+        return DEFAULT_CATALOG;
+    }
+
+    /**
+     * Gets the type of a name, registering it without a default mode if it is new.
+     * @param name the exercise name.
+     * @return the type shared by every exercise of that name.
+     */
+    public ExerciseType intern(String name) {
+        return intern(name, null);
+    }
+
+    /**
+     * Gets the type of a name, registering it if it is new and the catalog is not full. The default mode is only
+     * recorded for new names: the metadata of a type never changes once registered.
+     * @param name the exercise name.
+     * @param defaultMode the mode to record for a new name, or null.
+     * @return the type shared by every exercise of that name, or a new unregistered type if the catalog is full.
+     */
+    public ExerciseType intern(String name, Mode defaultMode) {
+        if (name == null || name.isEmpty()) {
+            throw new IllegalArgumentException("Exercise name cannot be null or empty.");
+        }
+        ExerciseType type = typesByName.get(name);
+        if (type != null) {
+            return type;
+        }
+
+        synchronized (this) {
+            type = typesByName.get(name);
+            if (type == null && size == capacity) {
+                return new ExerciseType(this, ExerciseType.UNREGISTERED, name, defaultMode);
+            }
+            if (type == null) {
+                ExerciseType[] table = typesById;
+                if (size == table.length) {
+                    table = Arrays.copyOf(table, Math.min(table.length * 2, capacity));
+                }
+                type = new ExerciseType(this, size, name, defaultMode);
+                table[size++] = type;
+                typesById = table;
+                typesByName.put(name, type);
+            }
+            return type;
+        }
+    }
+
+    /**
+     * Gets the type of a name without registering it.
+     * @param name the exercise name.
+     * @return the type of the name, or null if the name is not in the catalog.
+     */
+    public ExerciseType lookup(String name) {
+        return name == null ? null : typesByName.get(name);
+    }
+
+    /**
+     * Gets a type by id.
+     * @param id an id previously handed out by this catalog.
+     * @return the type with that id.
+     */
+    public ExerciseType get(int id) {
+        ExerciseType[] table = typesById;
+        ExerciseType type = id >= 0 && id < table.length ? table[id] : null;
+        if (type == null) {
+            throw new IllegalArgumentException("Exercise type id " + id + " is not in the catalog.");
+        }
+        return type;
+    }
+
+    /**
+     * Gets the maximum number of names this catalog registers.
+     * @return the capacity of the catalog.
+     */
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * Gets the number of distinct names registered in this catalog.
+     * @return the number of types.
+     */
+    public int size() {
+        return typesByName.size();
+    }
+}
@@ -0,0 +1,153 @@
+package model;
+
+import java.util.List;
+
+/**
+ * Implementation of the IData interface. For an Exercise every metric is read in constant time from the
+ * running statistics the exercise keeps up to date as its reps change; the weight is applied at read time,
+ * so weight updates cost nothing either. Any other IExercise implementation is analyzed in a single pass
+ * over its sets.
+ *
+ * The volume of a set is its reps times the load of its exercise (see loadOf), the rule TrainingAggregates and
+ * ParallelAnalytics use as well.
+ */
+public class ExerciseData implements IData {
+
+    /**
+     * The load of a rep of a bodyweight exercise done without added weight. Any added weight (a vest, a dip
+     * belt) is counted on top of it.
+     */
+    public static final double BODYWEIGHT_LOAD = 1;
+
+    /**
+     * Gets the factor that turns reps into volume for an exercise: its weight, plus BODYWEIGHT_LOAD if it is a
+     * bodyweight exercise. The load therefore never decreases as the weight grows. A weight that is not finite
+     * (NaN, which JsonModelReader reads for an unknown weight, or infinite) contributes no volume.
+     * @param exercise the exercise to analyze.
+     * @return the load of a rep of the exercise.
+     */
+    public static double loadOf(IExercise exercise) {
+        checkExerciseIsNotNull(exercise);
+        double weight = exercise.getWeight();
+        if (!Double.isFinite(weight)) {
+            return 0;
+        }
+        return exercise.getMode() == Mode.BODYWEIGHT ? BODYWEIGHT_LOAD + weight : weight;
+    }
+
+    /**
+     * Gets the change in volume between the first and the last set of an exercise.
+     * @param exercise the exercise to analyze.
+     * @return the last set's volume minus the first set's volume.
+     */
+    @Override
+    public double delta(IExercise exercise) {
+        checkExerciseIsNotNull(exercise);
+        List<SetReps> setReps = exercise.getAllSetReps();
+        if (setReps.isEmpty()) {
+            return 0;
+        }
+        int firstReps = setReps.get(0).getReps();
+        int lastReps = setReps.get(setReps.size() - 1).getReps();
+        return loadOf(exercise) * (lastReps - firstReps);
+    }
+
+    /**
+     * Gets the mean volume per set of an exercise.
+     * @param exercise the exercise to analyze.
+     * @return the mean volume per set.
+     */
+    @Override
+    public double mean(IExercise exercise) {
+        return loadOf(exercise) * statisticsOf(exercise).getMean();
+    }
+
+    /**
+     * Gets the most frequent volume per set of an exercise.
+     * @param exercise the exercise to analyze.
+     * @return the modal volume per set.
+     */
+    @Override
+    public double mode(IExercise exercise) {
+        return loadOf(exercise) * statisticsOf(exercise).getMode();
+    }
+
+    /**
+     * Gets the standard deviation of the volume per set of an exercise.
+     * @param exercise the exercise to analyze.
+     * @return the population standard deviation of the volume per set.
+     */
+    @Override
+    public double standardDev(IExercise exercise) {
+        return loadOf(exercise) * statisticsOf(exercise).getStandardDeviation();
+    }
+
+    /**
+     * Gets the difference between the highest and lowest volume per set of an exercise.
+     * @param exercise the exercise to analyze.
+     * @return the range of the volume per set.
+     */
+    @Override
+    public double range(IExercise exercise) {
+        RunningStatistics statistics = statisticsOf(exercise);
+        return loadOf(exercise) * (statistics.getMax() - statistics.getMin());
+    }
+
+    /**
+     * Gets the total volume of an exercise across all its sets.
+     * @param exercise the exercise to analyze.
+     * @return the cumulative volume.
+     */
+    @Override
+    public double cumulativeSum(IExercise exercise) {
+        return loadOf(exercise) * statisticsOf(exercise).getSum();
+    }
+
+    /**
+     * Gets the z-score of the last set of an exercise. The z-score does not depend on the weight,
+     * since scaling every set by the same weight scales the mean and standard deviation alike.
+     * @param exercise the exercise to analyze.
+     * @return the z-score of the last set, or 0 if every set has the same volume.
+     */
+    @Override
+    public double zCore(IExercise exercise) {
+        RunningStatistics statistics = statisticsOf(exercise);
+        double standardDeviation = statistics.getStandardDeviation();
+        if (standardDeviation == 0) {
+            return 0;
+        }
+        List<SetReps> setReps = exercise.getAllSetReps();
+        int lastReps = setReps.get(setReps.size() - 1).getReps();
+        return (lastReps - statistics.getMean()) / standardDeviation;
+    }
+
+    // Private helper methods.
+
+    /**
+     * Obtains the rep statistics of an exercise, reusing the running accumulator of an Exercise when possible.
+     * @param exercise the exercise to analyze.
+     * @return the statistics over the reps of every set.
+     */
+    private RunningStatistics statisticsOf(IExercise exercise) {
+        checkExerciseIsNotNull(exercise);
+        if (exercise instanceof Exercise) {
+            return ((Exercise) exercise).getRepStatistics();
+        }
+
+        RunningStatistics statistics = new RunningStatistics();
+        for (SetReps setReps : exercise.getAllSetReps()) {
+            statistics.add(setReps.getReps());
+        }
+        return statistics;
+    }
+
+    /**
+     * Verifies that no null exercises can be analyzed.
+     * @param exercise the exercise to check.
+     */
+    private static void checkExerciseIsNotNull(IExercise exercise) {
+        if (exercise == null) {
+            throw new IllegalArgumentException("Cannot analyze a null exercise.");
+        }
+    }
+}
@@ -0,0 +1,204 @@
+package model;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Rep and weight distributions of every exercise name, kept in fixed-memory HistogramSketches that ingest the
+ * sets of exercises as they are logged. Unlike RunningStatistics, which keeps every distinct value, the memory
+ * of each sketch is fixed however much history is logged, so mode, median and percentile queries stay cheap
+ * over years of sessions, at the price of a bounded relative error (2^-REP_BITS for reps, 2^-WEIGHT_BITS for
+ * weights).
+ *
+ * Every logged set adds its reps to the rep sketch of its exercise and the weight of its exercise to the
+ * weight sketch. An exercise is checked as a whole before any sketch is touched, so one with negative reps or a
+ * negative or infinite weight is rejected without being partly logged; a NaN weight (an unknown weight, as
+ * JsonModelReader reads a null one) logs the reps only. Distributions built separately (per user, per month,
+ * per thread) combine with merge.
+ */
+public class ExerciseDistributions {
+
+    /**
+     * The significant bits of rep sketches: reps up to 64 are exact, higher counts within 1/64.
+     */
+    public static final int REP_BITS = 6;
+
+    /**
+     * The significant bits of weight sketches: weights are kept within 1/64.
+     */
+    public static final int WEIGHT_BITS = 6;
+
+    // the tracked ranges of reps and weights.
+    private static final double LOWEST_REPS = 1;
+    private static final double HIGHEST_REPS = 1024;
+    private static final double LOWEST_WEIGHT = 0.25;
+    private static final double HIGHEST_WEIGHT = 4096;
+
+    // the rep and weight sketches of every exercise name, guarded by this.
+    private final Map<String, HistogramSketch> reps;
+    private final Map<String, HistogramSketch> weights;
+
+    // Default exercise distributions constructor.
+    public ExerciseDistributions() {
+        this.reps = new HashMap<>();
+        this.weights = new HashMap<>();
+    }
+
+    /**
+     * Logs every set of every exercise of a workout.
+     * @param workout the workout to log.
+     */
+    public void record(IWorkout workout) {
+        if (workout == null) {
+            throw new IllegalArgumentException("Cannot record a null workout in the exercise distributions.");
+        }
+        recordAll(workout.getExerciseList());
+    }
+
+    /**
+     * Logs every set of a batch of exercises, all or nothing: every exercise is checked before any is logged.
+     * @param exercises the exercises to log.
+     */
+    public void recordAll(Collection<? extends IExercise> exercises) {
+        if (exercises == null) {
+            throw new IllegalArgumentException("Cannot record a null batch of exercises in the exercise distributions.");
+        }
+        List<IExercise> batch = new ArrayList<>(exercises);
+        for (IExercise exercise : batch) {
+            checkExerciseIsRecordable(exercise);
+        }
+        synchronized (this) {
+            for (IExercise exercise : batch) {
+                recordChecked(exercise);
+            }
+        }
+    }
+
+    /**
+     * Logs every set of an exercise, or nothing if the exercise cannot be logged.
+     * @param exercise the exercise to log.
+     */
+    public synchronized void record(IExercise exercise) {
+        checkExerciseIsRecordable(exercise);
+        recordChecked(exercise);
+    }
+
+    /**
+     * Adds every logged set of other distributions to these ones.
+     * @param other the distributions to merge.
+     */
+    public void merge(ExerciseDistributions other) {
+        if (other == null) {
+            throw new IllegalArgumentException("Cannot merge null exercise distributions.");
+        }
+        if (other == this) {
+            throw new IllegalArgumentException("Cannot merge exercise distributions into themselves.");
+        }
+        Map<String, HistogramSketch> otherReps = new HashMap<>();
+        Map<String, HistogramSketch> otherWeights = new HashMap<>();
+        synchronized (other) {
+            other.reps.forEach((name, sketch) -> otherReps.put(name, new HistogramSketch(sketch)));
+            other.weights.forEach((name, sketch) -> otherWeights.put(name, new HistogramSketch(sketch)));
+        }
+        synchronized (this) {
+            otherReps.forEach((name, sketch) -> reps.computeIfAbsent(name, key -> newRepSketch()).merge(sketch));
+            otherWeights.forEach((name, sketch) -> weights.computeIfAbsent(name, key -> newWeightSketch()).merge(sketch));
+        }
+    }
+
+    /**
+     * Gets a copy of the rep distribution of an exercise.
+     * @param name the exercise name.
+     * @return the rep sketch, or null if no set of that exercise was logged.
+     */
+    public synchronized HistogramSketch getRepDistribution(String name) {
+        HistogramSketch sketch = reps.get(name);
+        return sketch == null ? null : new HistogramSketch(sketch);
+    }
+
+    /**
+     * Gets a copy of the weight distribution of an exercise, with one value per logged set.
+     * @param name the exercise name.
+     * @return the weight sketch, or null if no set of that exercise was logged.
+     */
+    public synchronized HistogramSketch getWeightDistribution(String name) {
+        HistogramSketch sketch = weights.get(name);
+        return sketch == null ? null : new HistogramSketch(sketch);
+    }
+
+    /**
+     * Gets the names of the exercises that have distributions.
+     * @return the exercise names, sorted.
+     */
+    public synchronized Set<String> getExerciseNames() {
+        return new TreeSet<>(reps.keySet());
+    }
+
+    // Private helper methods.
+
+    /**
+     * Checks a whole exercise against what the sketches accept, so recording it cannot fail halfway.
+     */
+    private static void checkExerciseIsRecordable(IExercise exercise) {
+        if (exercise == null) {
+            throw new IllegalArgumentException("Cannot record a null exercise in the exercise distributions.");
+        }
+        double weight = exercise.getWeight();
+        if (weight < 0 || Double.isInfinite(weight)) {
+            throw new IllegalArgumentException("Cannot record exercise \"" + exercise.getName() + "\" with weight " + weight + " in the exercise distributions.");
+        }
+        if (exercise instanceof Exercise) {
+            Exercise columns = (Exercise) exercise;
+            for (int i = 0; i < columns.getRecordedSetCount(); i++) {
+                checkRepsAreRecordable(exercise, columns.getRepsAt(i));
+            }
+        } else {
+            for (SetReps setReps : exercise.getAllSetReps()) {
+                checkRepsAreRecordable(exercise, setReps.getReps());
+            }
+        }
+    }
+
+    private static void checkRepsAreRecordable(IExercise exercise, int setReps) {
+        if (setReps < 0) {
+            throw new IllegalArgumentException("Cannot record exercise \"" + exercise.getName() + "\" with " + setReps + " reps in a set in the exercise distributions.");
+        }
+    }
+
+    /**
+     * Logs an exercise that passed checkExerciseIsRecordable. Called holding this.
+     */
+    private void recordChecked(IExercise exercise) {
+        HistogramSketch repSketch = reps.computeIfAbsent(exercise.getName(), name -> newRepSketch());
+        int sets = 0;
+        if (exercise instanceof Exercise) {
+            Exercise columns = (Exercise) exercise;
+            sets = columns.getRecordedSetCount();
+            for (int i = 0; i < sets; i++) {
+                repSketch.add(columns.getRepsAt(i));
+            }
+        } else {
+            for (SetReps setReps : exercise.getAllSetReps()) {
+                repSketch.add(setReps.getReps());
+                sets++;
+            }
+        }
+        double weight = exercise.getWeight();
+        if (!Double.isNaN(weight)) {
+            weights.computeIfAbsent(exercise.getName(), name -> newWeightSketch()).add(weight, sets);
+        }
+    }
+
+    private static HistogramSketch newRepSketch() {
+        return new HistogramSketch(REP_BITS, LOWEST_REPS, HIGHEST_REPS);
+    }
+
+    private static HistogramSketch newWeightSketch() {
+        return new HistogramSketch(WEIGHT_BITS, LOWEST_WEIGHT, HIGHEST_WEIGHT);
+    }
+}
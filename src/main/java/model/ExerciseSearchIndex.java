@@ -0,0 +1,386 @@
+package model;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Search index over the names of exercises, for the exercise picker. Names are kept in a compressed trie (radix
+ * tree), case-insensitively, so a prefix query walks at most the length of the prefix before collecting the
+ * matching subtree, and an edit-distance-1 query (one character inserted, deleted or replaced) walks the trie
+ * with a Levenshtein row per character, pruning every branch that is already more than one edit away.
+ *
+ * The index builds incrementally: workouts and exercises are added as they are created, and added Exercise
+ * instances are observed so that updateName moves them to their new name. Each exercise remembers the
+ * workouts it was added with, so queries can answer workouts as well as exercises. Results are in name order.
+ *
+ * Exercises are tracked by identity.
+ */
+public class ExerciseSearchIndex implements IExerciseObserver {
+
+    // the root of the trie, whose label is empty.
+    private final Node root;
+
+    // the normalized name every indexed exercise is filed under.
+    private final Map<IExercise, String> keys;
+
+    // the workouts every indexed exercise was added with.
+    private final Map<IExercise, Set<IWorkout>> workouts;
+
+    // Default exercise search index constructor.
+    public ExerciseSearchIndex() {
+        this.root = new Node("");
+        this.keys = new IdentityHashMap<>();
+        this.workouts = new IdentityHashMap<>();
+    }
+
+    /**
+     * Indexes every exercise of a workout, remembering the workout as a holder of each.
+     * @param workout the workout to index.
+     */
+    public void add(IWorkout workout) {
+        if (workout == null) {
+            throw new IllegalArgumentException("Cannot index a null workout.");
+        }
+        for (IExercise exercise : workout.getExerciseList()) {
+            add(exercise);
+            synchronized (this) {
+                workouts.computeIfAbsent(exercise, key -> Collections.newSetFromMap(new IdentityHashMap<>())).add(workout);
+            }
+        }
+    }
+
+    /**
+     * Indexes an exercise. Indexing an exercise that is already indexed has no effect.
+     * @param exercise the exercise to index.
+     */
+    public void add(IExercise exercise) {
+        if (exercise == null) {
+            throw new IllegalArgumentException("Cannot index a null exercise.");
+        }
+        synchronized (this) {
+            if (keys.containsKey(exercise)) {
+                return;
+            }
+            String key = normalize(exercise.getName());
+            keys.put(exercise, key);
+            insert(key, exercise);
+        }
+        if (exercise instanceof Exercise) {
+            ((Exercise) exercise).addObserver(this);
+        }
+    }
+
+    /**
+     * Removes a workout from the index. Its exercises stay indexed while another indexed workout holds them.
+     * @param workout the workout to remove.
+     */
+    public void remove(IWorkout workout) {
+        if (workout == null) {
+            throw new IllegalArgumentException("Cannot remove a null workout from the index.");
+        }
+        for (IExercise exercise : workout.getExerciseList()) {
+            boolean held;
+            synchronized (this) {
+                Set<IWorkout> holders = workouts.get(exercise);
+                held = holders != null && holders.remove(workout) && !holders.isEmpty();
+            }
+            if (!held) {
+                remove(exercise);
+            }
+        }
+    }
+
+    /**
+     * Removes an exercise from the index.
+     * @param exercise the exercise to remove.
+     * @return true if the exercise was indexed.
+     */
+    public boolean remove(IExercise exercise) {
+        synchronized (this) {
+            String key = keys.remove(exercise);
+            if (key == null) {
+                return false;
+            }
+            workouts.remove(exercise);
+            delete(key, exercise);
+        }
+        if (exercise instanceof Exercise) {
+            ((Exercise) exercise).removeObserver(this);
+        }
+        return true;
+    }
+
+    /**
+     * Finds the exercises whose name starts with a prefix, ignoring case.
+     * @param prefix the prefix typed so far.
+     * @param limit the largest number of exercises to return.
+     * @return the matching exercises, in name order.
+     */
+    public synchronized List<IExercise> findByPrefix(String prefix, int limit) {
+        if (prefix == null) {
+            throw new IllegalArgumentException("Search prefix cannot be null.");
+        }
+        if (limit < 0) {
+            throw new IllegalArgumentException("Search limit (" + limit + ") cannot be negative.");
+        }
+        List<IExercise> found = new ArrayList<>();
+        String key = normalize(prefix);
+        Node node = root;
+        int matched = 0;
+        while (matched < key.length()) {
+            node = node.children.get(key.charAt(matched));
+            if (node == null) {
+                return found;
+            }
+            int common = commonPrefixLength(node.label, key, matched);
+            if (matched + common < key.length() && common < node.label.length()) {
+                return found;
+            }
+            matched += common;
+        }
+        collect(node, found, limit);
+        return found;
+    }
+
+    /**
+     * Finds every exercise whose name starts with a prefix, ignoring case.
+     * @param prefix the prefix typed so far.
+     * @return the matching exercises, in name order.
+     */
+    public List<IExercise> findByPrefix(String prefix) {
+        return findByPrefix(prefix, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Finds the exercises whose name is at most one edit (a character inserted, deleted or replaced) away from
+     * a name, ignoring case. This catches most typos in a typed name.
+     * @param name the name typed.
+     * @return the matching exercises, in name order.
+     */
+    public synchronized List<IExercise> findSimilar(String name) {
+        if (name == null) {
+            throw new IllegalArgumentException("Searched name cannot be null.");
+        }
+        String key = normalize(name);
+        int[] row = new int[key.length() + 1];
+        for (int i = 0; i < row.length; i++) {
+            row[i] = i;
+        }
+        List<IExercise> found = new ArrayList<>();
+        if (row[key.length()] <= 1 && root.exercises != null) {
+            found.addAll(root.exercises);
+        }
+        for (Node child : root.children.values()) {
+            searchSimilar(child, key, row, found);
+        }
+        return found;
+    }
+
+    /**
+     * Finds the workouts holding an exercise whose name starts with a prefix, ignoring case.
+     * @param prefix the prefix typed so far.
+     * @return the matching workouts, in the name order of their first matching exercise.
+     */
+    public synchronized Set<IWorkout> findWorkoutsByPrefix(String prefix) {
+        return workoutsOf(findByPrefix(prefix));
+    }
+
+    /**
+     * Finds the workouts holding an exercise whose name is at most one edit away from a name, ignoring case.
+     * @param name the name typed.
+     * @return the matching workouts, in the name order of their first matching exercise.
+     */
+    public synchronized Set<IWorkout> findWorkoutsSimilar(String name) {
+        return workoutsOf(findSimilar(name));
+    }
+
+    /**
+     * Gets the number of indexed exercises.
+     * @return the exercise count.
+     */
+    public synchronized int size() {
+        return keys.size();
+    }
+
+    /**
+     * Files an indexed exercise under its new name after it was renamed. Other changes are ignored.
+     * @param exercise the exercise that changed.
+     */
+    @Override
+    public synchronized void onExerciseChanged(Exercise exercise) {
+        String oldKey = keys.get(exercise);
+        if (oldKey == null) {
+            return;
+        }
+        String newKey = normalize(exercise.getName());
+        if (!newKey.equals(oldKey)) {
+            delete(oldKey, exercise);
+            keys.put(exercise, newKey);
+            insert(newKey, exercise);
+        }
+    }
+
+    // Private helper methods.
+
+    private static String normalize(String name) {
+        return name.toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Gets the length of the common prefix of a label and a key from an offset.
+     */
+    private static int commonPrefixLength(String label, String key, int offset) {
+        int length = Math.min(label.length(), key.length() - offset);
+        int i = 0;
+        while (i < length && label.charAt(i) == key.charAt(offset + i)) {
+            i++;
+        }
+        return i;
+    }
+
+    /**
+     * Files an exercise under a key, splitting an edge where the key leaves it.
+     */
+    private void insert(String key, IExercise exercise) {
+        Node node = root;
+        int matched = 0;
+        while (matched < key.length()) {
+            char next = key.charAt(matched);
+            Node child = node.children.get(next);
+            if (child == null) {
+                child = new Node(key.substring(matched));
+                node.children.put(next, child);
+                node = child;
+                break;
+            }
+            int common = commonPrefixLength(child.label, key, matched);
+            if (common < child.label.length()) {
+                Node split = new Node(child.label.substring(0, common));
+                child.label = child.label.substring(common);
+                split.children.put(child.label.charAt(0), child);
+                node.children.put(next, split);
+                child = split;
+            }
+            node = child;
+            matched += common;
+        }
+        if (node.exercises == null) {
+            node.exercises = Collections.newSetFromMap(new IdentityHashMap<>());
+        }
+        node.exercises.add(exercise);
+    }
+
+    /**
+     * Removes an exercise from its key, pruning and merging the nodes left without a purpose.
+     */
+    private void delete(String key, IExercise exercise) {
+        List<Node> path = new ArrayList<>();
+        Node node = root;
+        int matched = 0;
+        while (matched < key.length()) {
+            path.add(node);
+            node = node.children.get(key.charAt(matched));
+            matched += node.label.length();
+        }
+        node.exercises.remove(exercise);
+        if (!node.exercises.isEmpty() || node == root) {
+            return;
+        }
+        node.exercises = null;
+
+        Node parent = path.get(path.size() - 1);
+        if (node.children.isEmpty()) {
+            parent.children.remove(node.label.charAt(0));
+            node = parent;
+            parent = path.size() > 1 ? path.get(path.size() - 2) : null;
+        }
+        // a node with no exercises and a single child is merged into that child.
+        if (node != root && node.exercises == null && node.children.size() == 1) {
+            Node only = node.children.values().iterator().next();
+            only.label = node.label + only.label;
+            parent.children.put(only.label.charAt(0), only);
+        }
+    }
+
+    /**
+     * Collects the exercises of a subtree in name order, up to a limit.
+     */
+    private static void collect(Node node, List<IExercise> found, int limit) {
+        if (found.size() >= limit) {
+            return;
+        }
+        if (node.exercises != null) {
+            for (IExercise exercise : node.exercises) {
+                if (found.size() >= limit) {
+                    return;
+                }
+                found.add(exercise);
+            }
+        }
+        for (Node child : node.children.values()) {
+            collect(child, found, limit);
+        }
+    }
+
+    /**
+     * Extends the Levenshtein row of the parent of a node through the characters of its label and collects the
+     * node if its name is within one edit, then descends unless every path is more than one edit away.
+     */
+    private static void searchSimilar(Node node, String key, int[] parentRow, List<IExercise> found) {
+        int[] row = parentRow;
+        for (int c = 0; c < node.label.length(); c++) {
+            char character = node.label.charAt(c);
+            int[] next = new int[row.length];
+            next[0] = row[0] + 1;
+            int best = next[0];
+            for (int i = 1; i < row.length; i++) {
+                int replace = row[i - 1] + (key.charAt(i - 1) == character ? 0 : 1);
+                next[i] = Math.min(replace, Math.min(row[i] + 1, next[i - 1] + 1));
+                best = Math.min(best, next[i]);
+            }
+            if (best > 1) {
+                return;
+            }
+            row = next;
+        }
+        if (node.exercises != null && row[key.length()] <= 1) {
+            found.addAll(node.exercises);
+        }
+        for (Node child : node.children.values()) {
+            searchSimilar(child, key, row, found);
+        }
+    }
+
+    private Set<IWorkout> workoutsOf(List<IExercise> exercises) {
+        Set<IWorkout> found = new LinkedHashSet<>();
+        for (IExercise exercise : exercises) {
+            Set<IWorkout> holders = workouts.get(exercise);
+            if (holders != null) {
+                found.addAll(holders);
+            }
+        }
+        return found;
+    }
+
+    /**
+     * A trie node: the label of the edge leading to it, its children by the first character of their label, and
+     * the exercises whose normalized name ends here (null if none).
+     */
+    private static final class Node {
+        private String label;
+        private final TreeMap<Character, Node> children;
+        private Set<IExercise> exercises;
+
+        private Node(String label) {
+            this.label = label;
+            this.children = new TreeMap<>();
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package model;
+
+/**
+ * Flyweight holding the metadata every exercise of the same name shares: a small integer id, the canonical
+ * name and the default mode the name was first registered with. Types are created by an ExerciseCatalog
+ * only, and there is exactly one registered type per name in a catalog, so registered types can be compared by
+ * identity. A full catalog hands out unregistered types instead, which have no id and compare by name.
+ */
+public final class ExerciseType {
+
+    /**
+     * The id of the types a full catalog hands out without registering them.
+     */
+    public static final int UNREGISTERED = -1;
+
+    // the catalog this type belongs to.
+    private final ExerciseCatalog catalog;
+
+    // the id of this type, unique within its catalog.
+    private final int id;
+
+    // the canonical name shared by every exercise of this type.
+    private final String name;
+
+    // the mode this type was first registered with, or null if none was given.
+    private final Mode defaultMode;
+
+    // Package-private constructor: types are only created by ExerciseCatalog.intern.
+    ExerciseType(ExerciseCatalog catalog, int id, String name, Mode defaultMode) {
+        this.catalog = catalog;
+        this.id = id;
+        this.name = name;
+        this.defaultMode = defaultMode;
+    }
+
+    /**
+     * Gets the catalog this type was interned in.
+     * @return the owning catalog.
+     */
+    public ExerciseCatalog getCatalog() {
+        return catalog;
+    }
+
+    /**
+     * Gets the id of this type, which is dense (0, 1, 2, ...) within its catalog.
+     * @return the id of this type, or UNREGISTERED.
+     */
+    public int getId() {
+        return id;
+    }
+
+    /**
+     * Checks whether this type is registered in its catalog, and so is the only type of its name.
+     * @return true if the type has an id.
+     */
+    public boolean isRegistered() {
+        return id != UNREGISTERED;
+    }
+
+    /**
+     * Checks whether this type and another one stand for the same name: registered types by identity,
+     * unregistered ones by comparing names.
+     * @param other the other type.
+     * @return true if both types have the same name.
+     */
+    public boolean sameName(ExerciseType other) {
+        return this == other || ((!isRegistered() || !other.isRegistered()) && name.equals(other.name));
+    }
+
+    /**
+     * Gets a hash of the name of this type: its id if registered, the hash of the name otherwise.
+     * @return the name hash.
+     */
+    public int nameHash() {
+        return isRegistered() ? id : name.hashCode();
+    }
+
+    /**
+     * Gets the canonical name of this type.
+     * @return the name.
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Gets the mode this type was first registered with.
+     * @return the default mode, or null if none was given.
+     */
+    public Mode getDefaultMode() {
+        return defaultMode;
+    }
+
+    @Override
+    public String toString() {
+        return name + "#" + id;
+    }
+}
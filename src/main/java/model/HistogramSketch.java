@@ -0,0 +1,258 @@
+package model;
+
+import java.util.Arrays;
+
+/**
+ * Fixed-memory, mergeable histogram of non-negative values (e.g. the reps or weights of every logged set), in
+ * the style of an HDR histogram. Values are counted in log-linear buckets: every power of two between lowest
+ * and highest is split into 2^significantBits equal buckets, so a value is known to within a relative error
+ * of 2^-significantBits however many values are ingested. Values below lowest share a single zero bucket and
+ * values above highest are counted in the last bucket.
+ *
+ * Mode, median and percentile queries walk the fixed bucket array and report the lower bound of the bucket
+ * they land in, so with a lowest of 1 the whole numbers up to 2^significantBits are reported exactly. Count, sum,
+ * mean, min and max are tracked exactly. Two sketches with the same configuration merge by adding their
+ * buckets, so sketches built per user, per month or per thread combine into one without the raw values.
+ *
+ * Instances are not thread-safe.
+ */
+public class HistogramSketch {
+
+    // the number of buckets per power of two, 2^significantBits.
+    private final int subBuckets;
+
+    // the configuration, kept to check that merged sketches are compatible.
+    private final int significantBits;
+    private final double lowest;
+    private final double highest;
+
+    // the count of every bucket; bucket 0 holds the values below lowest.
+    private final long[] counts;
+
+    // the exact count, sum and extremes of the ingested values.
+    private long totalCount;
+    private double sum;
+    private double min;
+    private double max;
+
+    /**
+     * Creates an empty sketch.
+     * @param significantBits the precision: values are kept to within a relative error of 2^-significantBits.
+     * @param lowest the smallest value told apart from zero.
+     * @param highest the largest value tracked with bounded error.
+     */
+    public HistogramSketch(int significantBits, double lowest, double highest) {
+        if (significantBits < 1 || significantBits > 16) {
+            throw new IllegalArgumentException("Significant bits (" + significantBits + ") must be between 1 and 16.");
+        }
+        if (!(lowest > 0) || !(highest > lowest) || Double.isInfinite(highest)) {
+            throw new IllegalArgumentException("Lowest (" + lowest + ") and highest (" + highest
+                    + ") values must be finite with 0 < lowest < highest.");
+        }
+        this.significantBits = significantBits;
+        this.subBuckets = 1 << significantBits;
+        this.lowest = lowest;
+        this.highest = highest;
+        int octaves = Math.getExponent(highest / lowest) + 1;
+        this.counts = new long[1 + octaves * subBuckets];
+        this.min = Double.POSITIVE_INFINITY;
+        this.max = Double.NEGATIVE_INFINITY;
+    }
+
+    /**
+     * Creates a copy of a sketch.
+     * @param other the sketch to copy.
+     */
+    public HistogramSketch(HistogramSketch other) {
+        this.significantBits = other.significantBits;
+        this.subBuckets = other.subBuckets;
+        this.lowest = other.lowest;
+        this.highest = other.highest;
+        this.counts = other.counts.clone();
+        this.totalCount = other.totalCount;
+        this.sum = other.sum;
+        this.min = other.min;
+        this.max = other.max;
+    }
+
+    /**
+     * Ingests a value.
+     * @param value the value, which cannot be negative.
+     */
+    public void add(double value) {
+        add(value, 1);
+    }
+
+    /**
+     * Ingests several occurrences of a value.
+     * @param value the value, which cannot be negative.
+     * @param occurrences how many times the value occurred.
+     */
+    public void add(double value, long occurrences) {
+        if (!(value >= 0) || Double.isInfinite(value)) {
+            throw new IllegalArgumentException("Value (" + value + ") of a histogram sketch must be finite and not negative.");
+        }
+        if (occurrences < 0) {
+            throw new IllegalArgumentException("Occurrences (" + occurrences + ") cannot be negative.");
+        }
+        if (occurrences == 0) {
+            return;
+        }
+        counts[indexOf(value)] += occurrences;
+        totalCount += occurrences;
+        sum += value * occurrences;
+        min = Math.min(min, value);
+        max = Math.max(max, value);
+    }
+
+    /**
+     * Adds every value of another sketch to this one.
+     * @param other a sketch with the same significant bits, lowest and highest values.
+     */
+    public void merge(HistogramSketch other) {
+        if (other == null) {
+            throw new IllegalArgumentException("Cannot merge a null histogram sketch.");
+        }
+        if (other.significantBits != significantBits || other.lowest != lowest || other.highest != highest) {
+            throw new IllegalArgumentException("Cannot merge histogram sketches with different configurations.");
+        }
+        for (int i = 0; i < counts.length; i++) {
+            counts[i] += other.counts[i];
+        }
+        totalCount += other.totalCount;
+        sum += other.sum;
+        min = Math.min(min, other.min);
+        max = Math.max(max, other.max);
+    }
+
+    /**
+     * Gets the number of values ingested.
+     * @return the value count.
+     */
+    public long getCount() {
+        return totalCount;
+    }
+
+    /**
+     * Gets the exact mean of the values ingested.
+     * @return the mean, or 0 if the sketch is empty.
+     */
+    public double getMean() {
+        return totalCount == 0 ? 0 : sum / totalCount;
+    }
+
+    /**
+     * Gets the exact smallest value ingested.
+     * @return the minimum, or 0 if the sketch is empty.
+     */
+    public double getMin() {
+        return totalCount == 0 ? 0 : min;
+    }
+
+    /**
+     * Gets the exact largest value ingested.
+     * @return the maximum, or 0 if the sketch is empty.
+     */
+    public double getMax() {
+        return totalCount == 0 ? 0 : max;
+    }
+
+    /**
+     * Gets the most frequent value, to within the bucket precision. The lowest bucket wins ties.
+     * @return the modal value, or 0 if the sketch is empty.
+     */
+    public double getMode() {
+        int best = 0;
+        for (int i = 1; i < counts.length; i++) {
+            if (counts[i] > counts[best]) {
+                best = i;
+            }
+        }
+        return totalCount == 0 ? 0 : valueOf(best);
+    }
+
+    /**
+     * Gets the median value, to within the bucket precision.
+     * @return the median, or 0 if the sketch is empty.
+     */
+    public double getMedian() {
+        return getQuantile(0.5);
+    }
+
+    /**
+     * Gets the value below which a fraction of the values fall (nearest rank), to within the bucket precision.
+     * For example getQuantile(0.9) is the 90th percentile.
+     * @param quantile the fraction, between 0 and 1.
+     * @return the quantile, or 0 if the sketch is empty.
+     */
+    public double getQuantile(double quantile) {
+        if (!(quantile >= 0 && quantile <= 1)) {
+            throw new IllegalArgumentException("Quantile (" + quantile + ") must be between 0 and 1.");
+        }
+        if (totalCount == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(quantile * totalCount));
+        if (rank == totalCount) {
+            return getMax();
+        }
+        long seen = 0;
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                // the exact extremes are better answers than their bucket bounds.
+                return Math.min(Math.max(valueOf(i), getMin()), getMax());
+            }
+        }
+        return getMax();
+    }
+
+    /**
+     * Gets the largest relative error of a reported value within the tracked range.
+     * @return 2^-significantBits.
+     */
+    public double getRelativeError() {
+        return 1.0 / subBuckets;
+    }
+
+    /**
+     * Gets the fixed number of buckets of this sketch, which is what bounds its memory.
+     * @return the bucket count.
+     */
+    public int getBucketCount() {
+        return counts.length;
+    }
+
+    // Private helper methods.
+
+    /**
+     * Gets the bucket of a value: 0 below lowest, then subBuckets buckets per power of two of value / lowest.
+     */
+    private int indexOf(double value) {
+        if (value < lowest) {
+            return 0;
+        }
+        double scaled = value / lowest;
+        int octave = Math.getExponent(scaled);
+        int subBucket = (int) ((Math.scalb(scaled, -octave) - 1) * subBuckets);
+        return Math.min(1 + octave * subBuckets + subBucket, counts.length - 1);
+    }
+
+    /**
+     * Gets the lower bound of a bucket.
+     */
+    private double valueOf(int index) {
+        if (index == 0) {
+            return 0;
+        }
+        int octave = (index - 1) / subBuckets;
+        int subBucket = (index - 1) % subBuckets;
+        return Math.scalb(lowest * (1 + (double) subBucket / subBuckets), octave);
+    }
+
+    @Override
+    public String toString() {
+        return "HistogramSketch{count=" + totalCount + ", buckets=" + counts.length + ", nonEmpty="
+                + Arrays.stream(counts).filter(count -> count > 0).count() + "}";
+    }
+}
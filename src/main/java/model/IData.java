@@ -1,17 +1,58 @@
 package model;
 
+/**
+ * Interface that represents the data analytics of an exercise. Every metric is computed over the volume
+ * of each set of the exercise (reps x weight). Exercises done at no added weight (e.g. bodyweight) count
+ * their reps alone.
+ */
 public interface IData {
+
+    /**
+     * Gets the change in volume between the first and the last set of an exercise.
+     * @param exercise the exercise to analyze.
+     * @return the last set's volume minus the first set's volume.
+     */
     double delta(IExercise exercise);
 
+    /**
+     * Gets the mean volume per set of an exercise.
+     * @param exercise the exercise to analyze.
+     * @return the mean volume per set.
+     */
     double mean(IExercise exercise);
 
+    /**
+     * Gets the most frequent volume per set of an exercise.
+     * @param exercise the exercise to analyze.
+     * @return the modal volume per set.
+     */
     double mode(IExercise exercise);
 
+    /**
+     * Gets the standard deviation of the volume per set of an exercise.
+     * @param exercise the exercise to analyze.
+     * @return the population standard deviation of the volume per set.
+     */
     double standardDev(IExercise exercise);
 
+    /**
+     * Gets the difference between the highest and lowest volume per set of an exercise.
+     * @param exercise the exercise to analyze.
+     * @return the range of the volume per set.
+     */
     double range(IExercise exercise);
 
+    /**
+     * Gets the total volume of an exercise across all its sets.
+     * @param exercise the exercise to analyze.
+     * @return the cumulative volume.
+     */
     double cumulativeSum(IExercise exercise);
 
+    /**
+     * Gets the z-score of the last set of an exercise, i.e. how many standard deviations it is away from the mean.
+     * @param exercise the exercise to analyze.
+     * @return the z-score of the last set, or 0 if every set has the same volume.
+     */
     double zCore(IExercise exercise);
 }
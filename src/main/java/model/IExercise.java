@@ -117,10 +117,18 @@ public interface IExercise {
      */
     public void updateTargetReps(int newTargetReps);
 
+    /**
+     * Prints the current exercise to System.out in the plain text format.
+     */
+    public default void printExercise() {
+        printExercise(ConsoleModelPrinter.INSTANCE);
+    }
+
     /**
      * Prints the current exercise.
+     * @param printer where and how to print it.
      */
-    public void printExercise();
+    public void printExercise(IModelPrinter printer);
 
     /**
      * Overriden default hashcode method.
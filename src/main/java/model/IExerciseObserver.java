@@ -0,0 +1,14 @@
+package model;
+
+/**
+ * Interface that represents an observer of a single exercise. Observers are registered on an Exercise and are
+ * called after every change to its reps, sets, target reps, weight, mode or name.
+ */
+public interface IExerciseObserver {
+
+    /**
+     * Called after the exercise has changed.
+     * @param exercise the exercise that changed.
+     */
+    void onExerciseChanged(Exercise exercise);
+}
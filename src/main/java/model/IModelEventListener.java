@@ -0,0 +1,15 @@
+package model;
+
+/**
+ * Interface that represents a listener notified of every mutation made to the model.
+ * Listeners are called on the mutating thread, so implementations should return quickly and hand any
+ * slow work (I/O, formatting) off to another thread, as AsyncEventSink does.
+ */
+public interface IModelEventListener {
+
+    /**
+     * Called after a mutation has been applied to the model.
+     * @param event the event describing the mutation.
+     */
+    void onEvent(ModelEvent event);
+}
@@ -0,0 +1,31 @@
+package model;
+
+import java.util.List;
+
+/**
+ * Interface that represents where the print methods of the model print to, and in which format. The model only
+ * hands over its name and parts. ConsoleModelPrinter prints the plain text the no-argument print methods have
+ * always printed; view.ModelRenderer implements this interface for buffered plain, CSV and JSON output.
+ */
+public interface IModelPrinter {
+
+    /**
+     * Prints an exercise.
+     * @param exercise the exercise to print.
+     */
+    void printExercise(IExercise exercise);
+
+    /**
+     * Prints a workout.
+     * @param name the name of the workout.
+     * @param exercises the exercises of the workout.
+     */
+    void printWorkout(String name, List<? extends IExercise> exercises);
+
+    /**
+     * Prints a routine.
+     * @param name the name of the routine.
+     * @param workouts the workouts of the routine.
+     */
+    void printRoutine(String name, List<? extends IWorkoutView> workouts);
+}
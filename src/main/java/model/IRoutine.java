@@ -1,29 +1,35 @@
 package model;
 
+import java.util.Collection;
 import java.util.List;
 
-public interface IRoutine {
+public interface IRoutine extends IRoutineView {
     IRoutine createRoutine(String name);
 
     void addWorkoutToRoutine(IWorkout workout);
 
     void removeWorkoutFromRoutine(IWorkout workout);
 
+    void addWorkouts(Collection<? extends IWorkout> workouts);
+
+    void removeWorkouts(Collection<? extends IWorkout> workouts);
+
     void deleteRoutine();
 
     void editRoutine(int oldIndex, int newIndex);
 
-    void restoreWorkoutToRoutine(IWorkout workout);
+    /**
+     * Reorders every workout of the routine at once: the workout at index permutation[i] moves to index i.
+     * @param permutation a permutation of the indices of the current workouts.
+     */
+    void reorder(int[] permutation);
 
-    String getRoutineName();
+    void restoreWorkoutToRoutine(IWorkout workout);
 
     void setRoutineName(String newName);
 
+    @Override
     List<IWorkout> getWorkouts();
 
-    void printRoutine();
-
-    int hashcode();
-
     boolean equals(Object object);
 }
@@ -0,0 +1,42 @@
+package model;
+
+import java.util.List;
+
+/**
+ * Interface that represents a read-only view of a routine: what can be printed, rendered, exported or analyzed
+ * without changing it. IRoutine extends it with the in-place mutators; immutable routines such as
+ * PersistentRoutine implement only this view.
+ */
+public interface IRoutineView {
+
+    /**
+     * Gets the current name of this routine.
+     * @return this routine's name.
+     */
+    String getRoutineName();
+
+    /**
+     * Gets the workouts of this routine.
+     * @return the workouts of this routine, as a list.
+     */
+    List<? extends IWorkoutView> getWorkouts();
+
+    /**
+     * Prints this routine to System.out in the plain text format.
+     */
+    default void printRoutine() {
+        printRoutine(ConsoleModelPrinter.INSTANCE);
+    }
+
+    /**
+     * Prints this routine.
+     * @param printer where and how to print it.
+     */
+    void printRoutine(IModelPrinter printer);
+
+    /**
+     * Overriden hashcode method which generates and returns a unique hashcode to each object.
+     * @return the hashcode of the object.
+     */
+    int hashcode();
+}
@@ -1,13 +1,14 @@
 package model;
 
-import java.util.List;
+import java.util.Collection;
 
 /**
  * Interface that represents a workout. A workout is composed of the following:
  * 1. A name.
  * 2. A list of at least one exercise.
+ * The read-only accessors are declared by IWorkoutView.
  */
-public interface IWorkout {
+public interface IWorkout extends IWorkoutView {
 
     /**
      * Adds a new exercise to the workout.
@@ -35,15 +36,18 @@ public interface IWorkout {
    void restoreExercise(IExercise exercise);
 
     /**
-     * Prints this workout.
+     * Adds several exercises to the workout as one atomic change: the whole batch is validated first and
+     * either every exercise is added (deleted ones are restored) or none is.
+     * @param exercises the exercises to add, in order.
      */
-    void printWorkout();
+    void addExercises(Collection<? extends IExercise> exercises);
 
     /**
-     * Gets the current name of this workout.
-     * @return this workout's name.
+     * Removes several exercises from the workout as one atomic change: the whole batch is validated first and
+     * either every exercise is removed or none is.
+     * @param exercises the exercises to remove.
      */
-    String getWorkoutName();
+    void removeExercises(Collection<? extends IExercise> exercises);
 
     /**
      * Sets a new name for this workout.
@@ -51,18 +55,6 @@ public interface IWorkout {
      */
     void setWorkoutName(String newName);
 
-    /**
-     * Gets the list of exercises for this workout.
-     * @return the exercises of this workout, as a list.
-     */
-    List<IExercise> getExerciseList();
-
-    /**
-     * Overriden hashcode method which generates and returns a unique hashcode to each object.
-     * @return the hashcode of the object.
-     */
-    int hashcode();
-
 
     /**
      * Overriden equals method which check if this object is equal to @param object.
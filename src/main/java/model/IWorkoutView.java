@@ -0,0 +1,42 @@
+package model;
+
+import java.util.List;
+
+/**
+ * Interface that represents a read-only view of a workout: what can be printed, rendered, exported or analyzed
+ * without changing it. IWorkout extends it with the in-place mutators; immutable workouts such as
+ * PersistentWorkout implement only this view.
+ */
+public interface IWorkoutView {
+
+    /**
+     * Prints this workout to System.out in the plain text format.
+     */
+    default void printWorkout() {
+        printWorkout(ConsoleModelPrinter.INSTANCE);
+    }
+
+    /**
+     * Prints this workout.
+     * @param printer where and how to print it.
+     */
+    void printWorkout(IModelPrinter printer);
+
+    /**
+     * Gets the current name of this workout.
+     * @return this workout's name.
+     */
+    String getWorkoutName();
+
+    /**
+     * Gets the list of exercises for this workout.
+     * @return the exercises of this workout, as a list.
+     */
+    List<IExercise> getExerciseList();
+
+    /**
+     * Overriden hashcode method which generates and returns a unique hashcode to each object.
+     * @return the hashcode of the object.
+     */
+    int hashcode();
+}
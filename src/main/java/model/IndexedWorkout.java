@@ -0,0 +1,554 @@
+package model;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Implementation of the IWorkout interface meant for large workouts. It behaves like Workout, but next to the
+ * insertion-ordered exercise list it keeps a hash index of the current exercises, and keeps deleted exercises in
+ * a bounded UndoJournal. Membership checks, duplicate rejection, edits and restores therefore run in constant
+ * time instead of scanning the lists, and the exercises are held in a SlotList, so a removal costs O(log n)
+ * instead of shifting the list.
+ *
+ * Every exercise is tracked by identity, with the hash it had when it was last indexed; the hash index maps
+ * those hashes to the exercises that had them. The workout observes each Exercise and rehashes it after every
+ * change, so exercises can be logged in place (updateReps, updateWeight, ...) while they are in the workout.
+ * Other IExercise implementations cannot be observed and should not be mutated while indexed.
+ */
+public class IndexedWorkout implements IWorkout {
+
+    // the listener every workout starts with, which keeps the historical console messages.
+    private static final IModelEventListener DEFAULT_EVENT_LISTENER = new ConsoleEventListener();
+
+    // the name of the workout.
+    private String name;
+
+    // the current/active exercises of the workout, in insertion order.
+    private final SlotList<IExercise> currentExercises;
+
+    // the slot and indexed hash of each current exercise, by identity.
+    private final Map<IExercise, Entry> entries;
+
+    // the current exercises by the hash they were indexed with.
+    private final Map<Integer, List<IExercise>> exercisesByHash;
+
+    // a bounded journal of the inactive/deleted exercises of the workout, in deletion order.
+    private final UndoJournal<IExercise> deletedExercises;
+
+    // the observer that rehashes a current exercise after it changes.
+    private final IExerciseObserver rehasher = this::rehash;
+
+    // the listener notified of every mutation of this workout; prints to the console by default.
+    private IModelEventListener eventListener = DEFAULT_EVENT_LISTENER;
+
+    // Default indexed workout constructor.
+    public IndexedWorkout(String name) {
+        checkWorkoutNameIsValid(name);
+        this.name = name;
+        this.currentExercises = new SlotList<>();
+        this.entries = new IdentityHashMap<>();
+        this.exercisesByHash = new HashMap<>();
+        this.deletedExercises = new UndoJournal<>();
+    }
+
+    /**
+     * Adds a new exercise to the workout.
+     * @param exercise the exercise to add to this workout.
+     */
+    @Override
+    public void addExercise(IExercise exercise) {
+        checkExerciseIsNotNull(exercise);
+        checkAddExerciseRejectsDuplicates(exercise);
+
+        if (deletedExercises.contains(exercise)) {
+            restoreExercise(exercise); // restoreExercise reports the restoration itself.
+        } else {
+            deletedExercises.clearRedo();
+            append(exercise);
+            publish(ModelEventType.EXERCISE_ADDED, exercise, null);
+        }
+    }
+
+    /**
+     * Removes an exercise from the workout.
+     * @param exercise the given exercise to remove from this workout.
+     */
+    @Override
+    public void removeExercise(IExercise exercise) {
+        checkExerciseIsNotNull(exercise);
+
+        if (deletedExercises.contains(exercise)) {
+            throw new IllegalArgumentException("The exercise \"" + exercise.getName() + "\" in workout \"" + name + "\" has already been removed.");
+        }
+
+        IExercise held = find(exercise);
+        if (held != null) {
+            detach(held);
+            deletedExercises.record(held);
+            publish(ModelEventType.EXERCISE_REMOVED, held, null);
+            validateWorkoutHasAtLeastOneExercise(); // Validate after removal
+        } else {
+            throw new IllegalArgumentException("The exercise \"" + exercise.getName() + "\" does not exist in the current exercises list of workout \"" + name + "\".");
+        }
+    }
+
+    /**
+     * Edits an exercise in this workout.
+     * @param currentExercise the current exercise to be edited.
+     * @param newExercise the new exercise with updated information after edit.
+     */
+    @Override
+    public void editExercise(IExercise currentExercise, IExercise newExercise) {
+        checkExerciseIsNotNull(currentExercise);
+        checkExerciseIsNotNull(newExercise);
+        checkExerciseEditIsDifferent(currentExercise, newExercise);
+
+        IExercise held = find(currentExercise);
+        if (held == null) {
+            throw new IllegalArgumentException("The exercise \"" + currentExercise.getName() + "\" was not found in workout \"" + name + "\".");
+        }
+        checkAddExerciseRejectsDuplicates(newExercise);
+
+        int slot = unindex(held).slot;
+        stopObserving(held);
+        currentExercises.setSlot(slot, newExercise);
+        index(newExercise, slot);
+        deletedExercises.clearRedo();
+        publish(ModelEventType.EXERCISE_EDITED, newExercise, held.getName());
+    }
+
+    /**
+     * Restores a previously deleted exercise into this workout. As in Workout, the restoration can be redone
+     * with redoRemoval.
+     * @param exercise the exercise to be restored.
+     */
+    @Override
+    public void restoreExercise(IExercise exercise) {
+        checkExerciseIsNotNull(exercise);
+
+        if (deletedExercises.restore(exercise)) {
+            append(exercise);
+            publish(ModelEventType.EXERCISE_RESTORED, exercise, null);
+        } else {
+            throw new IllegalArgumentException("The exercise \"" + exercise.getName() + "\" is not in the deleted exercises list for workout \"" + name + "\".");
+        }
+    }
+
+    /**
+     * Adds several exercises to the workout at once, in the same way as Workout.addExercises. Every check is a
+     * hash lookup, so the batch costs time linear in its size.
+     * @param exercises the exercises to add, in order.
+     */
+    @Override
+    public void addExercises(Collection<? extends IExercise> exercises) {
+        Set<IExercise> batch = checkBatchIsValid(exercises);
+        if (batch.isEmpty()) {
+            return;
+        }
+
+        for (IExercise exercise : batch) {
+            checkAddExerciseRejectsDuplicates(exercise);
+        }
+
+        for (IExercise exercise : batch) {
+            deletedExercises.discard(exercise);
+        }
+        deletedExercises.clearRedo();
+        for (IExercise exercise : batch) {
+            append(exercise);
+        }
+        publishBatch(ModelEventType.EXERCISES_ADDED, batch);
+    }
+
+    /**
+     * Removes several exercises from the workout at once, in the same way as Workout.removeExercises. Each
+     * removal costs O(log n), so the batch costs O(k log n).
+     * @param exercises the exercises to remove.
+     */
+    @Override
+    public void removeExercises(Collection<? extends IExercise> exercises) {
+        Set<IExercise> batch = checkBatchIsValid(exercises);
+        if (batch.isEmpty()) {
+            return;
+        }
+
+        List<IExercise> held = new ArrayList<>(batch.size());
+        for (IExercise exercise : batch) {
+            if (deletedExercises.contains(exercise)) {
+                throw new IllegalArgumentException("The exercise \"" + exercise.getName() + "\" in workout \"" + name + "\" has already been removed.");
+            }
+            IExercise current = find(exercise);
+            if (current == null) {
+                throw new IllegalArgumentException("The exercise \"" + exercise.getName() + "\" does not exist in the current exercises list of workout \"" + name + "\".");
+            }
+            held.add(current);
+        }
+        if (batch.size() >= currentExercises.size()) {
+            throw new IllegalStateException("A workout must contain at least one exercise.");
+        }
+
+        for (IExercise exercise : held) {
+            detach(exercise);
+        }
+        deletedExercises.recordAll(held);
+        publishBatch(ModelEventType.EXERCISES_REMOVED, held);
+    }
+
+    /**
+     * Prints this workout in the same format as Workout.printWorkout.
+     * @param printer where and how to print it.
+     */
+    @Override
+    public void printWorkout(IModelPrinter printer) {
+        printer.printWorkout(name, currentExercises);
+    }
+
+    /**
+     * Gets the current name of this workout.
+     * @return this workout's name.
+     */
+    @Override
+    public String getWorkoutName() {
+        return this.name;
+    }
+
+    /**
+     * Sets a new name for this workout.
+     * @param newName the new name to be given to this workout.
+     */
+    @Override
+    public void setWorkoutName(String newName) {
+        checkWorkoutNameIsValid(newName);
+        String previousName = this.name;
+        this.name = newName;
+        publish(ModelEventType.WORKOUT_RENAMED, null, previousName);
+    }
+
+    /**
+     * Sets the listener notified of every mutation of this workout, replacing the default console listener.
+     * @param eventListener the new listener.
+     */
+    public void setEventListener(IModelEventListener eventListener) {
+        if (eventListener == null) {
+            throw new IllegalArgumentException("Event listener of workout \"" + name + "\" cannot be null.");
+        }
+        this.eventListener = eventListener;
+    }
+
+    /**
+     * Gets the list of exercises for this workout. Unlike Workout, the list is unmodifiable, since changing it
+     * directly would bypass the index.
+     * @return the exercises of this workout, as a list.
+     */
+    @Override
+    public List<IExercise> getExerciseList() {
+        return Collections.unmodifiableList(currentExercises);
+    }
+
+    /**
+     * Obtains the current deleted exercises, in deletion order, as an unmodifiable list.
+     * @return the current list of deleted exercises.
+     */
+    public List<IExercise> getDeletedExercises() {
+        return Collections.unmodifiableList(deletedExercises.snapshot());
+    }
+
+    /**
+     * Gets the journal of the deleted exercises, e.g. to compact it or inspect its caps.
+     * @return the undo journal of this workout.
+     */
+    public UndoJournal<IExercise> getUndoJournal() {
+        return deletedExercises;
+    }
+
+    /**
+     * Restores the most recently deleted exercise.
+     * @return the restored exercise.
+     */
+    public IExercise undoRemoval() {
+        IExercise exercise = deletedExercises.peekUndo();
+        if (exercise == null) {
+            throw new IllegalStateException("There is no deleted exercise to restore in workout \"" + name + "\".");
+        }
+        restoreExercise(exercise);
+        return exercise;
+    }
+
+    /**
+     * Deletes again the most recently restored exercise, as long as no other change was made since.
+     * @return the deleted exercise.
+     */
+    public IExercise redoRemoval() {
+        IExercise exercise = deletedExercises.peekRedo();
+        if (exercise == null) {
+            throw new IllegalStateException("There is no restored exercise to delete again in workout \"" + name + "\".");
+        }
+        if (currentExercises.size() <= 1) {
+            throw new IllegalStateException("A workout must contain at least one exercise.");
+        }
+        detach(exercise); // the restored instance, which entries holds by identity
+        deletedExercises.redo();
+        publish(ModelEventType.EXERCISE_REMOVED, exercise, null);
+        return exercise;
+    }
+
+    /**
+     * Checks whether an exercise is currently part of this workout.
+     * @param exercise the exercise to look for.
+     * @return true if the exercise is one of the current exercises, false otherwise.
+     */
+    public boolean containsExercise(IExercise exercise) {
+        return exercise != null && find(exercise) != null;
+    }
+
+    /**
+     * Checks whether an exercise has been deleted from this workout and can be restored.
+     * @param exercise the exercise to look for.
+     * @return true if the exercise is one of the deleted exercises, false otherwise.
+     */
+    public boolean isDeleted(IExercise exercise) {
+        return deletedExercises.contains(exercise);
+    }
+
+    /**
+     * Generates and returns a unique hashcode to each object.
+     * @return the hashcode of the object.
+     */
+    @Override
+    public int hashcode() {
+        int result = name.hashCode();
+        for (IExercise exercise : currentExercises) {
+            result = 31 * result + exercise.hashcode();
+        }
+        return result;
+    }
+
+    /**
+     * Overriden default hashCode method so workouts can be used in hashed collections.
+     * @return the hashcode of the object.
+     */
+    @Override
+    public int hashCode() {
+        return hashcode();
+    }
+
+    /**
+     * Overriden equals method which check if this object is equal to @param object.
+     * @param object the other object to compare with.
+     * @return true if this and other object are equal, false otherwise.
+     */
+    @Override
+    public boolean equals(Object object) {
+        if (this == object) return true;
+        if (object == null || getClass() != object.getClass()) return false;
+        IndexedWorkout other = (IndexedWorkout) object;
+        return this.name.equals(other.name) && this.currentExercises.equals(other.currentExercises);
+    }
+
+    // Private helper methods.
+
+    /**
+     * Notifies the event listener of a mutation of this workout.
+     * @param type the kind of mutation.
+     * @param exercise the affected exercise, or null for renames.
+     * @param previousName the previous exercise or workout name, or null.
+     */
+    private void publish(ModelEventType type, IExercise exercise, String previousName) {
+        eventListener.onEvent(new ModelEvent(type, this, exercise, previousName));
+    }
+
+    /**
+     * Notifies the event listener of a batch mutation of this workout.
+     * @param type EXERCISES_ADDED or EXERCISES_REMOVED.
+     * @param exercises the exercises of the batch.
+     */
+    private void publishBatch(ModelEventType type, Collection<IExercise> exercises) {
+        eventListener.onEvent(new ModelEvent(type, this, new ArrayList<>(exercises)));
+    }
+
+    /**
+     * Verifies that a batch holds no null and no repeated exercises.
+     * @param exercises the batch to check.
+     * @return the exercises of the batch, in order.
+     */
+    private Set<IExercise> checkBatchIsValid(Collection<? extends IExercise> exercises) {
+        if (exercises == null) {
+            throw new IllegalArgumentException("Cannot add or delete a null batch of exercises in workout \"" + name + "\".");
+        }
+        Set<IExercise> batch = new LinkedHashSet<>();
+        for (IExercise exercise : exercises) {
+            checkExerciseIsNotNull(exercise);
+            if (!batch.add(exercise)) {
+                throw new IllegalStateException("The exercise \"" + exercise.getName() + "\" appears more than once in the batch for workout \"" + name + "\".");
+            }
+        }
+        return batch;
+    }
+
+    /**
+     * Finds the current exercise equal to the given one.
+     * @param exercise the exercise to look for.
+     * @return the instance held by this workout, or null if no current exercise is equal to it.
+     */
+    private IExercise find(IExercise exercise) {
+        List<IExercise> candidates = exercisesByHash.get(exercise.hashCode());
+        if (candidates != null) {
+            for (IExercise candidate : candidates) {
+                if (candidate == exercise || candidate.equals(exercise)) {
+                    return candidate;
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Appends an exercise to the end of the current exercises and indexes it.
+     * @param exercise the exercise to append.
+     */
+    private void append(IExercise exercise) {
+        index(exercise, currentExercises.append(exercise));
+    }
+
+    /**
+     * Removes a current exercise from the list and the index, compacting the list once it gets sparse.
+     * @param held the instance held by this workout.
+     */
+    private void detach(IExercise held) {
+        currentExercises.removeSlot(unindex(held).slot);
+        stopObserving(held);
+        if (currentExercises.isSparse()) {
+            currentExercises.compact((exercise, slot) -> entries.get(exercise).slot = slot);
+        }
+    }
+
+    /**
+     * Indexes an exercise held in a slot and starts observing it.
+     */
+    private void index(IExercise exercise, int slot) {
+        Entry entry = new Entry(slot, exercise.hashCode());
+        entries.put(exercise, entry);
+        exercisesByHash.computeIfAbsent(entry.hash, hash -> new ArrayList<>(1)).add(exercise);
+        if (exercise instanceof Exercise) {
+            ((Exercise) exercise).addObserver(rehasher);
+        }
+    }
+
+    /**
+     * Drops an exercise from the index, leaving its slot untouched.
+     * @return the entry the exercise had.
+     */
+    private Entry unindex(IExercise exercise) {
+        Entry entry = entries.remove(exercise);
+        removeFromBucket(exercise, entry.hash);
+        return entry;
+    }
+
+    private void stopObserving(IExercise exercise) {
+        if (exercise instanceof Exercise) {
+            ((Exercise) exercise).removeObserver(rehasher);
+        }
+    }
+
+    /**
+     * Moves a changed exercise to the bucket of its new hash.
+     */
+    private void rehash(Exercise exercise) {
+        Entry entry = entries.get(exercise);
+        if (entry == null) {
+            return;
+        }
+        int hash = exercise.hashCode();
+        if (hash != entry.hash) {
+            removeFromBucket(exercise, entry.hash);
+            entry.hash = hash;
+            exercisesByHash.computeIfAbsent(hash, key -> new ArrayList<>(1)).add(exercise);
+        }
+    }
+
+    /**
+     * Removes an exercise, by identity, from the bucket of a hash.
+     */
+    private void removeFromBucket(IExercise exercise, int hash) {
+        List<IExercise> bucket = exercisesByHash.get(hash);
+        for (int i = 0; i < bucket.size(); i++) {
+            if (bucket.get(i) == exercise) {
+                bucket.remove(i);
+                break;
+            }
+        }
+        if (bucket.isEmpty()) {
+            exercisesByHash.remove(hash);
+        }
+    }
+
+    /**
+     * Verifies that an edited exercise is different that its current version.
+     * @param currentExercise the current exercise.
+     * @param newExercise the new exercise.
+     */
+    private void checkExerciseEditIsDifferent(IExercise currentExercise, IExercise newExercise) {
+        if (currentExercise.equals(newExercise)) {
+            throw new IllegalStateException("The new exercise must differ from the previous exercise in at least one capacity for editing in workout \"" + name + "\".");
+        }
+    }
+
+    /**
+     * Verifies that no duplicate exercises can be added to the current exercises.
+     * @param exercise the exercise to add.
+     */
+    private void checkAddExerciseRejectsDuplicates(IExercise exercise) {
+        if (find(exercise) != null) {
+            throw new IllegalStateException("Cannot add duplicate exercise \"" + exercise.getName() + "\" to workout \"" + name + "\".");
+        }
+    }
+
+    /**
+     * Verifies that no null exercises can be passed into the system
+     * @param exercise the exercise to check.
+     */
+    private void checkExerciseIsNotNull(IExercise exercise) {
+        if (exercise == null) {
+            throw new IllegalArgumentException("Cannot add, modify, or delete a null exercise in workout \"" + name + "\".");
+        }
+    }
+
+    /**
+     * Validates that the workout contains at least one exercise.
+     */
+    private void validateWorkoutHasAtLeastOneExercise() {
+        if (currentExercises.isEmpty()) {
+            throw new IllegalStateException("A workout must contain at least one exercise.");
+        }
+    }
+
+    /**
+     * Verifies that a workout name is valid.
+     * @param name the name to check.
+     */
+    private void checkWorkoutNameIsValid(String name) {
+        if (name == null || name.isEmpty()) {
+            throw new IllegalArgumentException("Workout name cannot be null or empty string. Please choose a valid name");
+        }
+    }
+
+    /**
+     * The slot of a current exercise and the hash it is indexed with.
+     */
+    private static final class Entry {
+        private int slot;
+        private int hash;
+
+        private Entry(int slot, int hash) {
+            this.slot = slot;
+            this.hash = hash;
+        }
+    }
+}
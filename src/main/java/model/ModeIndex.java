@@ -0,0 +1,235 @@
+package model;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Secondary index of the exercises of a workout, partitioned by Mode. For every mode a BitSet marks the
+ * positions of the exercise list that hold an exercise of that mode, so "all BARBELL exercises" visits only the
+ * matching positions instead of checking getMode() on every exercise, and counting them is a bit count.
+ *
+ * Workout keeps its index in step with addExercise, removeExercise, editExercise, restoreExercise and the batch
+ * operations, shifting the bits above a removed position down by one word-wise. Exercise instances are
+ * observed, so updateMode moves their bits to the new mode. Changes made directly to the list returned by
+ * getExerciseList are not reflected.
+ *
+ * Like Workout, the index is not thread-safe.
+ */
+public class ModeIndex implements IExerciseObserver {
+
+    // the exercise list of the owning workout, which the positions refer to.
+    private final List<IExercise> exercises;
+
+    // the positions of the exercises of every mode.
+    private final EnumMap<Mode, BitSet> positions;
+
+    // the mode every indexed exercise was last indexed under, and how many positions it occupies.
+    private final Map<IExercise, Entry> indexed;
+
+    /**
+     * Creates an index over an exercise list and indexes its current exercises.
+     * @param exercises the exercise list of the owning workout.
+     */
+    ModeIndex(List<IExercise> exercises) {
+        this.exercises = exercises;
+        this.positions = new EnumMap<>(Mode.class);
+        for (Mode mode : Mode.values()) {
+            positions.put(mode, new BitSet());
+        }
+        this.indexed = new IdentityHashMap<>();
+        rebuild();
+    }
+
+    /**
+     * Gets the exercises of a mode, in the order of the exercise list.
+     * @param mode the mode.
+     * @return the exercises of that mode, as an unmodifiable list.
+     */
+    public List<IExercise> getExercises(Mode mode) {
+        BitSet bits = bitsOf(mode);
+        List<IExercise> found = new ArrayList<>(bits.cardinality());
+        for (int i = bits.nextSetBit(0); i >= 0; i = bits.nextSetBit(i + 1)) {
+            found.add(exercises.get(i));
+        }
+        return Collections.unmodifiableList(found);
+    }
+
+    /**
+     * Gets the number of exercises of a mode.
+     * @param mode the mode.
+     * @return the exercise count of that mode.
+     */
+    public int getCount(Mode mode) {
+        return bitsOf(mode).cardinality();
+    }
+
+    /**
+     * Gets the positions in the exercise list of the exercises of a mode.
+     * @param mode the mode.
+     * @return a copy of the positions of that mode.
+     */
+    public BitSet getPositions(Mode mode) {
+        return (BitSet) bitsOf(mode).clone();
+    }
+
+    /**
+     * Moves an indexed exercise to its new mode after it changed. Other changes are ignored.
+     * @param exercise the exercise that changed.
+     */
+    @Override
+    public void onExerciseChanged(Exercise exercise) {
+        Entry entry = indexed.get(exercise);
+        if (entry == null || entry.mode == exercise.getMode()) {
+            return;
+        }
+        BitSet bits = entry.mode == null ? null : positions.get(entry.mode);
+        BitSet moved = new BitSet();
+        if (bits == null) {
+            for (int i = 0; i < exercises.size(); i++) {
+                if (exercises.get(i) == exercise) {
+                    moved.set(i);
+                }
+            }
+        } else {
+            for (int i = bits.nextSetBit(0); i >= 0; i = bits.nextSetBit(i + 1)) {
+                if (exercises.get(i) == exercise) {
+                    moved.set(i);
+                }
+            }
+            bits.andNot(moved);
+        }
+        entry.mode = exercise.getMode();
+        if (entry.mode != null) {
+            positions.get(entry.mode).or(moved);
+        }
+    }
+
+    // Package-private mutators, used by Workout.
+
+    /**
+     * Indexes an exercise just appended to the list.
+     * @param position the position of the appended exercise.
+     */
+    void appended(int position) {
+        index(exercises.get(position), position);
+    }
+
+    /**
+     * Unindexes the exercise just removed from a position, shifting the positions above it down by one.
+     * @param position the position the exercise was removed from.
+     * @param exercise the removed exercise.
+     */
+    void removed(int position, IExercise exercise) {
+        for (BitSet bits : positions.values()) {
+            shiftDown(bits, position);
+        }
+        unindex(exercise);
+    }
+
+    /**
+     * Reindexes a position after its exercise was replaced.
+     * @param position the position of the replaced exercise.
+     * @param previous the exercise that was replaced.
+     */
+    void replaced(int position, IExercise previous) {
+        for (BitSet bits : positions.values()) {
+            bits.clear(position);
+        }
+        unindex(previous);
+        index(exercises.get(position), position);
+    }
+
+    /**
+     * Reindexes the whole list, after a batch change moved many positions at once.
+     */
+    void rebuild() {
+        for (BitSet bits : positions.values()) {
+            bits.clear();
+        }
+        for (IExercise exercise : new ArrayList<>(indexed.keySet())) {
+            if (exercise instanceof Exercise) {
+                ((Exercise) exercise).removeObserver(this);
+            }
+        }
+        indexed.clear();
+        for (int i = 0; i < exercises.size(); i++) {
+            index(exercises.get(i), i);
+        }
+    }
+
+    // Private helper methods.
+
+    private BitSet bitsOf(Mode mode) {
+        if (mode == null) {
+            throw new IllegalArgumentException("Mode cannot be null.");
+        }
+        return positions.get(mode);
+    }
+
+    private void index(IExercise exercise, int position) {
+        Entry entry = indexed.get(exercise);
+        if (entry == null) {
+            entry = new Entry(exercise.getMode());
+            indexed.put(exercise, entry);
+            if (exercise instanceof Exercise) {
+                ((Exercise) exercise).addObserver(this);
+            }
+        }
+        entry.count++;
+        if (entry.mode != null) {
+            positions.get(entry.mode).set(position);
+        }
+    }
+
+    private void unindex(IExercise exercise) {
+        Entry entry = indexed.get(exercise);
+        if (entry != null && --entry.count == 0) {
+            indexed.remove(exercise);
+            if (exercise instanceof Exercise) {
+                ((Exercise) exercise).removeObserver(this);
+            }
+        }
+    }
+
+    /**
+     * Removes a bit from a bit set, moving every bit above it down by one, a 64-bit word at a time.
+     */
+    private static void shiftDown(BitSet bits, int position) {
+        long[] words = bits.toLongArray();
+        int first = position >>> 6;
+        if (first >= words.length) {
+            return;
+        }
+        long below = (1L << (position & 63)) - 1;
+        for (int i = first; i < words.length; i++) {
+            long shifted = words[i] >>> 1;
+            if (i == first) {
+                shifted = (words[i] & below) | (shifted & ~below);
+            }
+            if (i + 1 < words.length) {
+                shifted |= words[i + 1] << 63;
+            }
+            words[i] = shifted;
+        }
+        bits.clear();
+        bits.or(BitSet.valueOf(words));
+    }
+
+    /**
+     * The mode an exercise was last indexed under, and how many positions it occupies (editExercise can place
+     * the same exercise twice).
+     */
+    private static final class Entry {
+        private Mode mode;
+        private int count;
+
+        private Entry(Mode mode) {
+            this.mode = mode;
+        }
+    }
+}
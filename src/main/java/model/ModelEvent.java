@@ -0,0 +1,171 @@
+package model;
+
+import java.util.List;
+
+/**
+ * An immutable, structured description of a single mutation to a workout. Events only capture references
+ * and the names they report at creation time; building the human-readable message is deferred to describe(),
+ * so that cost is paid by whichever listener actually needs the text. Since the names are captured, describe()
+ * can run later on another thread without reading the mutable exercise.
+ */
+public final class ModelEvent {
+
+    // the kind of mutation.
+    private final ModelEventType type;
+
+    // the workout that was mutated.
+    private final IWorkout workout;
+
+    // the name of the workout when the event happened.
+    private final String workoutName;
+
+    // the exercise affected by the mutation (the new exercise for edits), or null for renames.
+    private final IExercise exercise;
+
+    // the name of the exercise when the event happened, or null for renames and batches.
+    private final String exerciseName;
+
+    // the exercises affected by a batch mutation; empty for single-exercise events.
+    private final List<IExercise> exercises;
+
+    // the previous exercise name for edits, or the previous workout name for renames; null otherwise.
+    private final String previousName;
+
+    // the time at which the event was created, in milliseconds since the epoch.
+    private final long timestamp;
+
+    /**
+     * Creates a new model event.
+     * @param type the kind of mutation.
+     * @param workout the workout that was mutated.
+     * @param exercise the exercise affected by the mutation, or null for renames.
+     * @param previousName the previous exercise name for edits, the previous workout name for renames, or null.
+     */
+    public ModelEvent(ModelEventType type, IWorkout workout, IExercise exercise, String previousName) {
+        if (type == null || workout == null) {
+            throw new IllegalArgumentException("A model event needs a type and a workout.");
+        }
+        this.type = type;
+        this.workout = workout;
+        this.workoutName = workout.getWorkoutName();
+        this.exercise = exercise;
+        this.exerciseName = exercise == null ? null : exercise.getName();
+        this.exercises = List.of();
+        this.previousName = previousName;
+        this.timestamp = System.currentTimeMillis();
+    }
+
+    /**
+     * Creates a summary event for a batch mutation.
+     * @param type EXERCISES_ADDED or EXERCISES_REMOVED.
+     * @param workout the workout that was mutated.
+     * @param exercises the exercises affected by the batch.
+     */
+    public ModelEvent(ModelEventType type, IWorkout workout, List<IExercise> exercises) {
+        if (type == null || workout == null || exercises == null) {
+            throw new IllegalArgumentException("A batch model event needs a type, a workout and its exercises.");
+        }
+        this.type = type;
+        this.workout = workout;
+        this.workoutName = workout.getWorkoutName();
+        this.exercise = null;
+        this.exerciseName = null;
+        this.exercises = List.copyOf(exercises);
+        this.previousName = null;
+        this.timestamp = System.currentTimeMillis();
+    }
+
+    /**
+     * Gets the kind of mutation.
+     * @return the event type.
+     */
+    public ModelEventType getType() {
+        return type;
+    }
+
+    /**
+     * Gets the workout that was mutated.
+     * @return the mutated workout.
+     */
+    public IWorkout getWorkout() {
+        return workout;
+    }
+
+    /**
+     * Gets the name the workout had when the event happened.
+     * @return the workout name.
+     */
+    public String getWorkoutName() {
+        return workoutName;
+    }
+
+    /**
+     * Gets the exercise affected by the mutation.
+     * @return the affected exercise, or null for workout renames.
+     */
+    public IExercise getExercise() {
+        return exercise;
+    }
+
+    /**
+     * Gets the name the affected exercise had when the event happened.
+     * @return the exercise name, or null for workout renames and batch events.
+     */
+    public String getExerciseName() {
+        return exerciseName;
+    }
+
+    /**
+     * Gets the exercises affected by a batch mutation.
+     * @return the batch, or an empty list for single-exercise events.
+     */
+    public List<IExercise> getExercises() {
+        return exercises;
+    }
+
+    /**
+     * Gets the previous exercise name for edits, or the previous workout name for renames.
+     * @return the previous name, or null for other events.
+     */
+    public String getPreviousName() {
+        return previousName;
+    }
+
+    /**
+     * Gets the time at which the event was created.
+     * @return the creation time, in milliseconds since the epoch.
+     */
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    /**
+     * Builds the human-readable description of this event, in the format the model used to print.
+     * @return the description of the event.
+     */
+    public String describe() {
+        switch (type) {
+            case EXERCISE_ADDED:
+                return "Exercise \"" + exerciseName + "\" added to workout \"" + workoutName + "\".";
+            case EXERCISE_REMOVED:
+                return "Exercise \"" + exerciseName + "\" removed from workout \"" + workoutName + "\".";
+            case EXERCISE_EDITED:
+                return "Exercise \"" + previousName + "\" updated to \"" + exerciseName + "\" in workout \"" + workoutName + "\".";
+            case EXERCISE_RESTORED:
+                return "Exercise \"" + exerciseName + "\" restored to workout \"" + workoutName + "\".";
+            case EXERCISES_ADDED:
+                return exercises.size() + " exercises added to workout \"" + workoutName + "\".";
+            case EXERCISES_REMOVED:
+                return exercises.size() + " exercises removed from workout \"" + workoutName + "\".";
+            case WORKOUT_RENAMED:
+                return "Workout name changed from \"" + previousName + "\" to \"" + workoutName + "\".";
+            default:
+                throw new IllegalStateException("Unknown event type " + type + ".");
+        }
+    }
+
+    @Override
+    public String toString() {
+        return describe();
+    }
+}
@@ -0,0 +1,14 @@
+package model;
+
+/**
+ * The kinds of mutation a model event can describe.
+ */
+public enum ModelEventType {
+    EXERCISE_ADDED,
+    EXERCISE_REMOVED,
+    EXERCISE_EDITED,
+    EXERCISE_RESTORED,
+    WORKOUT_RENAMED,
+    EXERCISES_ADDED,
+    EXERCISES_REMOVED
+}
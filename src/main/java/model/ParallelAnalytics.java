@@ -0,0 +1,267 @@
+package model;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Computes volume statistics over many routines (e.g. every routine of every user) with fork/join parallelism.
+ *
+ * The routine -> workout -> exercise hierarchy is split into tasks by halving the routines, then the workouts of
+ * a single routine, then the exercises of a single workout down to chunks of LEAF_SIZE exercises, which are
+ * summarized directly. Partial results are VolumeSummary instances (count, sum, sum of squares, min, max),
+ * merged pairwise as tasks complete; mean, standard deviation, range and cumulative sum follow from them.
+ *
+ * The split points depend only on the shape of the tree, never on the number of threads, and every pair of
+ * partials is merged in the same left-to-right order, so the parallel and sequential paths produce bit-identical
+ * results. The analyzed routines must not be mutated while a computation runs; take snapshots (e.g. from
+ * ConcurrentRoutine) if they are edited concurrently.
+ */
+public class ParallelAnalytics {
+
+    /**
+     * The largest number of exercises summarized by a single task.
+     */
+    public static final int LEAF_SIZE = 64;
+
+    // the pool the tasks run in.
+    private final ForkJoinPool pool;
+
+    /**
+     * Creates an analytics executor running in the common fork/join pool, which uses every core.
+     */
+    public ParallelAnalytics() {
+        this(ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Creates an analytics executor running in the given pool.
+     * @param pool the fork/join pool to run in.
+     */
+    public ParallelAnalytics(ForkJoinPool pool) {
+        if (pool == null) {
+            throw new IllegalArgumentException("Fork/join pool of parallel analytics cannot be null.");
+        }
+        this.pool = pool;
+    }
+
+    /**
+     * Summarizes the volume of every set of every exercise of the given routines, in parallel.
+     * @param routines the routines to analyze.
+     * @return the summary over every set.
+     */
+    public VolumeSummary summarize(Collection<? extends IRoutine> routines) {
+        return run(routines, false, true).total;
+    }
+
+    /**
+     * Summarizes the volume of every set of every exercise of the given routines on the calling thread. The
+     * result is identical to summarize.
+     * @param routines the routines to analyze.
+     * @return the summary over every set.
+     */
+    public VolumeSummary summarizeSequentially(Collection<? extends IRoutine> routines) {
+        return run(routines, false, false).total;
+    }
+
+    /**
+     * Summarizes the volume of every set of the given routines per exercise name, in parallel.
+     * @param routines the routines to analyze.
+     * @return the summary of every exercise name.
+     */
+    public Map<String, VolumeSummary> summarizeByExercise(Collection<? extends IRoutine> routines) {
+        return run(routines, true, true).byExercise;
+    }
+
+    /**
+     * Summarizes the volume of every set of the given routines per exercise name on the calling thread. The
+     * result is identical to summarizeByExercise.
+     * @param routines the routines to analyze.
+     * @return the summary of every exercise name.
+     */
+    public Map<String, VolumeSummary> summarizeByExerciseSequentially(Collection<? extends IRoutine> routines) {
+        return run(routines, true, false).byExercise;
+    }
+
+    // Private helper methods.
+
+    private Partial run(Collection<? extends IRoutine> routines, boolean byExercise, boolean parallel) {
+        if (routines == null) {
+            throw new IllegalArgumentException("Cannot analyze a null collection of routines.");
+        }
+        AnalyticsTask task = new RoutinesTask(routines.toArray(new IRoutine[0]), 0, routines.size(), byExercise, parallel);
+        return parallel ? pool.invoke(task) : task.compute();
+    }
+
+    /**
+     * Adds the per-set volume of a range of exercises to a partial.
+     */
+    private static void summarizeExercises(IExercise[] exercises, int from, int to, Partial partial) {
+        for (int i = from; i < to; i++) {
+            IExercise exercise = exercises[i];
+            double load = ExerciseData.loadOf(exercise);
+            VolumeSummary named = partial.byExercise == null ? null
+                    : partial.byExercise.computeIfAbsent(exercise.getName(), name -> new VolumeSummary());
+            if (exercise instanceof Exercise) {
+                Exercise columns = (Exercise) exercise;
+                for (int set = 0; set < columns.getRecordedSetCount(); set++) {
+                    partial.add(named, columns.getRepsAt(set) * load);
+                }
+            } else {
+                for (SetReps setReps : exercise.getAllSetReps()) {
+                    partial.add(named, setReps.getReps() * load);
+                }
+            }
+        }
+    }
+
+    /**
+     * A partial result: the summary over every set of a subtree, and per exercise name if requested.
+     */
+    private static final class Partial {
+        private final VolumeSummary total;
+        private final Map<String, VolumeSummary> byExercise;
+
+        private Partial(boolean byExercise) {
+            this.total = new VolumeSummary();
+            this.byExercise = byExercise ? new HashMap<>() : null;
+        }
+
+        private void add(VolumeSummary named, double volume) {
+            total.add(volume);
+            if (named != null) {
+                named.add(volume);
+            }
+        }
+
+        /**
+         * Merges the partial of the subtree to the right of this one into it.
+         */
+        private Partial merge(Partial right) {
+            total.merge(right.total);
+            if (byExercise != null) {
+                right.byExercise.forEach((name, summary) -> byExercise.merge(name, summary, VolumeSummary::merge));
+            }
+            return this;
+        }
+    }
+
+    /**
+     * A task over a range of nodes of one level of the hierarchy, which halves the range until a single node is
+     * left and then descends a level.
+     */
+    private abstract static class AnalyticsTask extends RecursiveTask<Partial> {
+        private static final long serialVersionUID = 1L;
+
+        final boolean byExercise;
+        final boolean parallel;
+
+        AnalyticsTask(boolean byExercise, boolean parallel) {
+            this.byExercise = byExercise;
+            this.parallel = parallel;
+        }
+
+        /**
+         * Runs two subtasks, forking the left one when parallel, and merges their partials left to right.
+         */
+        Partial both(AnalyticsTask left, AnalyticsTask right) {
+            if (!parallel) {
+                return left.compute().merge(right.compute());
+            }
+            left.fork();
+            Partial rightPartial = right.compute();
+            return left.join().merge(rightPartial);
+        }
+
+        @Override
+        protected abstract Partial compute();
+    }
+
+    private static final class RoutinesTask extends AnalyticsTask {
+        private static final long serialVersionUID = 1L;
+
+        private final IRoutine[] routines;
+        private final int from;
+        private final int to;
+
+        RoutinesTask(IRoutine[] routines, int from, int to, boolean byExercise, boolean parallel) {
+            super(byExercise, parallel);
+            this.routines = routines;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected Partial compute() {
+            if (to - from == 0) {
+                return new Partial(byExercise);
+            }
+            if (to - from == 1) {
+                List<IWorkout> workouts = routines[from].getWorkouts();
+                return new WorkoutsTask(workouts.toArray(new IWorkout[0]), 0, workouts.size(), byExercise, parallel).compute();
+            }
+            int middle = (from + to) >>> 1;
+            return both(new RoutinesTask(routines, from, middle, byExercise, parallel),
+                    new RoutinesTask(routines, middle, to, byExercise, parallel));
+        }
+    }
+
+    private static final class WorkoutsTask extends AnalyticsTask {
+        private static final long serialVersionUID = 1L;
+
+        private final IWorkout[] workouts;
+        private final int from;
+        private final int to;
+
+        WorkoutsTask(IWorkout[] workouts, int from, int to, boolean byExercise, boolean parallel) {
+            super(byExercise, parallel);
+            this.workouts = workouts;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected Partial compute() {
+            if (to - from == 0) {
+                return new Partial(byExercise);
+            }
+            if (to - from == 1) {
+                List<IExercise> exercises = workouts[from].getExerciseList();
+                return new ExercisesTask(exercises.toArray(new IExercise[0]), 0, exercises.size(), byExercise, parallel).compute();
+            }
+            int middle = (from + to) >>> 1;
+            return both(new WorkoutsTask(workouts, from, middle, byExercise, parallel),
+                    new WorkoutsTask(workouts, middle, to, byExercise, parallel));
+        }
+    }
+
+    private static final class ExercisesTask extends AnalyticsTask {
+        private static final long serialVersionUID = 1L;
+
+        private final IExercise[] exercises;
+        private final int from;
+        private final int to;
+
+        ExercisesTask(IExercise[] exercises, int from, int to, boolean byExercise, boolean parallel) {
+            super(byExercise, parallel);
+            this.exercises = exercises;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected Partial compute() {
+            if (to - from <= LEAF_SIZE) {
+                Partial partial = new Partial(byExercise);
+                summarizeExercises(exercises, from, to, partial);
+                return partial;
+            }
+            int middle = (from + to) >>> 1;
+            return both(new ExercisesTask(exercises, from, middle, byExercise, parallel),
+                    new ExercisesTask(exercises, middle, to, byExercise, parallel));
+        }
+    }
+}
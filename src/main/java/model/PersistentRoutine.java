@@ -0,0 +1,191 @@
+package model;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Immutable, persistent version of a routine, holding PersistentWorkouts in a PersistentVector. Every edit
+ * returns a new version sharing all but O(log n) nodes with this one; editing one exercise of one workout
+ * (withWorkoutAt with an edited workout) copies O(log workouts + log exercises) nodes. A version never changes,
+ * so taking a point-in-time snapshot for history, undo or another thread is an O(1) reference copy, where
+ * snapshotting a Routine means deep-copying every workout.
+ *
+ * A persistent routine is an IRoutineView: it can be printed, rendered or exported like any routine, but it has
+ * no in-place mutators.
+ */
+public final class PersistentRoutine implements IRoutineView {
+
+    // the name of the routine.
+    private final String name;
+
+    // the workouts of the routine.
+    private final PersistentVector<PersistentWorkout> workouts;
+
+    // Default (empty) persistent routine constructor.
+    public PersistentRoutine(String name) {
+        this(name, PersistentVector.empty());
+    }
+
+    private PersistentRoutine(String name, PersistentVector<PersistentWorkout> workouts) {
+        if (name == null || name.isEmpty()) {
+            throw new IllegalArgumentException("Routine name cannot be null or empty.");
+        }
+        this.name = name;
+        this.workouts = workouts;
+    }
+
+    /**
+     * Creates a persistent version of a routine, converting each of its workouts with PersistentWorkout.copyOf.
+     * @param routine the routine to copy.
+     * @return the persistent version of the routine.
+     */
+    public static PersistentRoutine copyOf(IRoutineView routine) {
+        if (routine == null) {
+            throw new IllegalArgumentException("Cannot copy a null routine.");
+        }
+        if (routine instanceof PersistentRoutine) {
+            return (PersistentRoutine) routine;
+        }
+        PersistentVector<PersistentWorkout> copied = PersistentVector.empty();
+        for (IWorkoutView workout : routine.getWorkouts()) {
+            copied = copied.plus(PersistentWorkout.copyOf(workout));
+        }
+        return new PersistentRoutine(routine.getRoutineName(), copied);
+    }
+
+    /**
+     * Returns a version of this routine with a workout appended.
+     * @param workout the workout to add.
+     * @return the new version.
+     */
+    public PersistentRoutine withWorkout(PersistentWorkout workout) {
+        checkWorkoutIsNotNull(workout);
+        if (workouts.contains(workout)) {
+            throw new IllegalArgumentException("The workout \"" + workout.getWorkoutName() + "\" already exists in the routine.");
+        }
+        return new PersistentRoutine(name, workouts.plus(workout));
+    }
+
+    /**
+     * Returns a version of this routine without a workout.
+     * @param workout the workout to remove.
+     * @return the new version.
+     */
+    public PersistentRoutine withoutWorkout(PersistentWorkout workout) {
+        checkWorkoutIsNotNull(workout);
+        if (workouts.size() == 1) {
+            throw new UnsupportedOperationException("A routine must have at least one workout");
+        }
+        int index = workouts.indexOf(workout);
+        if (index == -1) {
+            throw new IllegalArgumentException("The workout \"" + workout.getWorkoutName() + "\" is not in the routine.");
+        }
+        return new PersistentRoutine(name, workouts.minus(index));
+    }
+
+    /**
+     * Returns a version of this routine with the workout at an index replaced, typically by an edited version
+     * of itself.
+     * @param index the index of the workout to replace.
+     * @param workout the new workout.
+     * @return the new version.
+     */
+    public PersistentRoutine withWorkoutAt(int index, PersistentWorkout workout) {
+        checkWorkoutIsNotNull(workout);
+        if (index < 0 || index >= workouts.size()) {
+            throw new IndexOutOfBoundsException("Invalid index " + index + " for a routine of " + workouts.size() + " workouts.");
+        }
+        return new PersistentRoutine(name, workouts.with(index, workout));
+    }
+
+    /**
+     * Returns a version of this routine with a workout moved from one index to another.
+     * @param oldIndex the current index of the workout.
+     * @param newIndex the index the workout ends up at.
+     * @return the new version.
+     */
+    public PersistentRoutine withMovedWorkout(int oldIndex, int newIndex) {
+        int size = workouts.size();
+        if (size < 2) {
+            throw new IllegalStateException("A routine must have at least two workouts to be editable.");
+        }
+        if (oldIndex == newIndex) {
+            throw new IllegalArgumentException("Old index and new index cannot be the same.");
+        }
+        if (oldIndex < 0 || oldIndex >= size || newIndex < 0 || newIndex >= size) {
+            throw new IndexOutOfBoundsException("Invalid indices for reordering workouts.");
+        }
+        return new PersistentRoutine(name, workouts.moved(oldIndex, newIndex));
+    }
+
+    /**
+     * Returns a version of this routine with a new name.
+     * @param newName the new name.
+     * @return the new version.
+     */
+    public PersistentRoutine withName(String newName) {
+        return new PersistentRoutine(newName, workouts);
+    }
+
+    /**
+     * Gets the workout at an index, in O(log n).
+     * @param index the index of the workout.
+     * @return the workout.
+     */
+    public PersistentWorkout getWorkout(int index) {
+        return workouts.get(index);
+    }
+
+    @Override
+    public String getRoutineName() {
+        return name;
+    }
+
+    /**
+     * Gets the workouts of this version, as an immutable list.
+     * @return the workouts of this routine.
+     */
+    @Override
+    public List<PersistentWorkout> getWorkouts() {
+        return Collections.unmodifiableList(workouts);
+    }
+
+    @Override
+    public void printRoutine(IModelPrinter printer) {
+        printer.printRoutine(name, workouts);
+    }
+
+    @Override
+    public int hashcode() {
+        int result = name.hashCode();
+        for (PersistentWorkout workout : workouts) {
+            result = 31 * result + workout.hashcode();
+        }
+        return result;
+    }
+
+    @Override
+    public int hashCode() {
+        return hashcode();
+    }
+
+    @Override
+    public boolean equals(Object object) {
+        if (this == object) {
+            return true;
+        }
+        if (object == null || getClass() != object.getClass()) {
+            return false;
+        }
+        PersistentRoutine other = (PersistentRoutine) object;
+        return name.equals(other.name) && workouts.equals(other.workouts);
+    }
+
+    // Private helper methods.
+
+    private static void checkWorkoutIsNotNull(PersistentWorkout workout) {
+        if (workout == null) {
+            throw new IllegalArgumentException("Cannot add, modify, or delete a null workout from routine.");
+        }
+    }
+}
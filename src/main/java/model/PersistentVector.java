@@ -0,0 +1,250 @@
+package model;
+
+import java.util.AbstractList;
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Immutable list with structural sharing, backed by a persistent implicit treap (see TreapList). Every
+ * "mutation" (plus, minus, with, moved) leaves this list untouched and returns a new list that shares all but
+ * the O(log n) expected nodes on the changed paths with it, so keeping every version costs O(log n) memory per
+ * edit, and a version can be handed to other threads or kept for history without copying.
+ *
+ * The List mutators inherited from AbstractList throw UnsupportedOperationException.
+ *
+ * @param <E> the type of the elements.
+ */
+public final class PersistentVector<E> extends AbstractList<E> {
+
+    // the empty vector, shared by every element type.
+    private static final PersistentVector<?> EMPTY = new PersistentVector<>(null);
+
+    // the root of the tree, or null when the vector is empty.
+    private final Node<E> root;
+
+    private PersistentVector(Node<E> root) {
+        this.root = root;
+    }
+
+    /**
+     * Gets the empty vector.
+     * @param <E> the type of the elements.
+     * @return the empty vector.
+     */
+    @SuppressWarnings("unchecked")
+    public static <E> PersistentVector<E> empty() {
+        return (PersistentVector<E>) EMPTY;
+    }
+
+    /**
+     * Creates a vector holding the elements of a collection, in iteration order.
+     * @param elements the elements.
+     * @param <E> the type of the elements.
+     * @return the vector.
+     */
+    @SuppressWarnings("unchecked")
+    public static <E> PersistentVector<E> copyOf(Collection<? extends E> elements) {
+        if (elements instanceof PersistentVector) {
+            return (PersistentVector<E>) elements;
+        }
+        Node<E> root = null;
+        for (E element : elements) {
+            root = merge(root, new Node<>(element, null, null));
+        }
+        return new PersistentVector<>(root);
+    }
+
+    @Override
+    public E get(int index) {
+        checkIndex(index, size());
+        Node<E> node = root;
+        while (true) {
+            int leftSize = size(node.left);
+            if (index < leftSize) {
+                node = node.left;
+            } else if (index == leftSize) {
+                return node.value;
+            } else {
+                index -= leftSize + 1;
+                node = node.right;
+            }
+        }
+    }
+
+    @Override
+    public int size() {
+        return size(root);
+    }
+
+    /**
+     * Returns a vector with an element appended.
+     * @param element the element to append.
+     * @return the new vector.
+     */
+    public PersistentVector<E> plus(E element) {
+        return new PersistentVector<>(merge(root, new Node<>(element, null, null)));
+    }
+
+    /**
+     * Returns a vector with an element inserted at an index.
+     * @param index the index, between 0 and size().
+     * @param element the element to insert.
+     * @return the new vector.
+     */
+    public PersistentVector<E> plus(int index, E element) {
+        checkIndex(index, size() + 1);
+        Node<E>[] halves = split(root, index);
+        return new PersistentVector<>(merge(merge(halves[0], new Node<>(element, null, null)), halves[1]));
+    }
+
+    /**
+     * Returns a vector without the element at an index.
+     * @param index the index of the element to drop.
+     * @return the new vector.
+     */
+    public PersistentVector<E> minus(int index) {
+        checkIndex(index, size());
+        Node<E>[] halves = split(root, index);
+        Node<E>[] rest = split(halves[1], 1);
+        return new PersistentVector<>(merge(halves[0], rest[1]));
+    }
+
+    /**
+     * Returns a vector with the element at an index replaced.
+     * @param index the index of the element to replace.
+     * @param element the new element.
+     * @return the new vector.
+     */
+    public PersistentVector<E> with(int index, E element) {
+        checkIndex(index, size());
+        return new PersistentVector<>(replace(root, index, element));
+    }
+
+    /**
+     * Returns a vector with the element at one index moved to another, the elements in between shifting by one.
+     * @param from the current index of the element.
+     * @param to the index the element ends up at.
+     * @return the new vector.
+     */
+    public PersistentVector<E> moved(int from, int to) {
+        checkIndex(from, size());
+        checkIndex(to, size());
+        E element = get(from);
+        return minus(from).plus(to, element);
+    }
+
+    @Override
+    public Iterator<E> iterator() {
+        return new Iterator<>() {
+            private final Deque<Node<E>> path = new ArrayDeque<>();
+            private Node<E> next = root;
+
+            @Override
+            public boolean hasNext() {
+                return next != null || !path.isEmpty();
+            }
+
+            @Override
+            public E next() {
+                while (next != null) {
+                    path.push(next);
+                    next = next.left;
+                }
+                if (path.isEmpty()) {
+                    throw new NoSuchElementException();
+                }
+                Node<E> node = path.pop();
+                next = node.right;
+                return node.value;
+            }
+        };
+    }
+
+    // Private helper methods.
+
+    private static void checkIndex(int index, int bound) {
+        if (index < 0 || index >= bound) {
+            throw new IndexOutOfBoundsException("Index " + index + " is out of bounds for length " + bound + ".");
+        }
+    }
+
+    private static int size(Node<?> node) {
+        return node == null ? 0 : node.size;
+    }
+
+    /**
+     * Splits a tree into its first count elements and the rest, copying only the nodes on the split path.
+     */
+    @SuppressWarnings("unchecked")
+    private static <E> Node<E>[] split(Node<E> node, int count) {
+        if (node == null) {
+            return (Node<E>[]) new Node<?>[2];
+        }
+        if (size(node.left) >= count) {
+            Node<E>[] halves = split(node.left, count);
+            halves[1] = node.withChildren(halves[1], node.right);
+            return halves;
+        }
+        Node<E>[] halves = split(node.right, count - size(node.left) - 1);
+        halves[0] = node.withChildren(node.left, halves[0]);
+        return halves;
+    }
+
+    /**
+     * Concatenates two trees, copying only the nodes on the merge path.
+     */
+    private static <E> Node<E> merge(Node<E> left, Node<E> right) {
+        if (left == null) {
+            return right;
+        }
+        if (right == null) {
+            return left;
+        }
+        if (left.priority > right.priority) {
+            return left.withChildren(left.left, merge(left.right, right));
+        }
+        return right.withChildren(merge(left, right.left), right.right);
+    }
+
+    private static <E> Node<E> replace(Node<E> node, int index, E element) {
+        int leftSize = size(node.left);
+        if (index < leftSize) {
+            return node.withChildren(replace(node.left, index, element), node.right);
+        }
+        if (index > leftSize) {
+            return node.withChildren(node.left, replace(node.right, index - leftSize - 1, element));
+        }
+        return new Node<>(element, node.priority, node.left, node.right);
+    }
+
+    /**
+     * An immutable tree node: an element, its random priority, its children and the size of its subtree.
+     */
+    private static final class Node<E> {
+        private final E value;
+        private final int priority;
+        private final Node<E> left;
+        private final Node<E> right;
+        private final int size;
+
+        private Node(E value, Node<E> left, Node<E> right) {
+            this(value, ThreadLocalRandom.current().nextInt(), left, right);
+        }
+
+        private Node(E value, int priority, Node<E> left, Node<E> right) {
+            this.value = value;
+            this.priority = priority;
+            this.left = left;
+            this.right = right;
+            this.size = 1 + PersistentVector.size(left) + PersistentVector.size(right);
+        }
+
+        private Node<E> withChildren(Node<E> left, Node<E> right) {
+            return new Node<>(value, priority, left, right);
+        }
+    }
+}
@@ -0,0 +1,190 @@
+package model;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Immutable, persistent version of a workout. Its exercises are held in a PersistentVector, so every edit
+ * (withExercise, withoutExercise, withEditedExercise, withName) returns a new version that shares all but
+ * O(log n) nodes with this one, and this version never changes. Keeping a version for history or undo, or
+ * handing it to a reader on another thread, is therefore a plain O(1) reference copy instead of a deep copy.
+ *
+ * A persistent workout is an IWorkoutView: it can be printed, rendered or analyzed like any workout, but it has
+ * no in-place mutators. Exercises enter a version as read-only copies (Exercise.frozenCopyOf), so later changes to
+ * the caller's exercises never reach it, and the copies, shared between versions and threads, throw if anyone
+ * tries to change them.
+ */
+public final class PersistentWorkout implements IWorkoutView {
+
+    // the name of the workout.
+    private final String name;
+
+    // the exercises of the workout.
+    private final PersistentVector<IExercise> exercises;
+
+    // Default (empty) persistent workout constructor.
+    public PersistentWorkout(String name) {
+        this(name, PersistentVector.empty());
+    }
+
+    private PersistentWorkout(String name, PersistentVector<IExercise> exercises) {
+        if (name == null || name.isEmpty()) {
+            throw new IllegalArgumentException("Workout name cannot be null or empty.");
+        }
+        this.name = name;
+        this.exercises = exercises;
+    }
+
+    /**
+     * Creates a persistent version of a workout, holding copies of its exercises. Persistent workouts are
+     * returned as they are.
+     * @param workout the workout to copy.
+     * @return the persistent version of the workout.
+     */
+    public static PersistentWorkout copyOf(IWorkoutView workout) {
+        if (workout == null) {
+            throw new IllegalArgumentException("Cannot copy a null workout.");
+        }
+        if (workout instanceof PersistentWorkout) {
+            return (PersistentWorkout) workout;
+        }
+        PersistentVector<IExercise> copied = PersistentVector.empty();
+        for (IExercise exercise : workout.getExerciseList()) {
+            copied = copied.plus(Exercise.frozenCopyOf(exercise));
+        }
+        return new PersistentWorkout(workout.getWorkoutName(), copied);
+    }
+
+    /**
+     * Returns a version of this workout with a copy of an exercise appended.
+     * @param exercise the exercise to add.
+     * @return the new version.
+     */
+    public PersistentWorkout withExercise(IExercise exercise) {
+        checkExerciseIsNotNull(exercise);
+        checkAddExerciseRejectsDuplicates(exercise);
+        return new PersistentWorkout(name, exercises.plus(Exercise.frozenCopyOf(exercise)));
+    }
+
+    /**
+     * Returns a version of this workout with several exercises appended, all or nothing.
+     * @param newExercises the exercises to add, in order.
+     * @return the new version.
+     */
+    public PersistentWorkout withExercises(Collection<? extends IExercise> newExercises) {
+        if (newExercises == null) {
+            throw new IllegalArgumentException("Cannot add a null batch of exercises to workout \"" + name + "\".");
+        }
+        PersistentWorkout version = this;
+        for (IExercise exercise : newExercises) {
+            version = version.withExercise(exercise);
+        }
+        return version;
+    }
+
+    /**
+     * Returns a version of this workout without an exercise.
+     * @param exercise the exercise to remove.
+     * @return the new version.
+     */
+    public PersistentWorkout withoutExercise(IExercise exercise) {
+        checkExerciseIsNotNull(exercise);
+        int index = exercises.indexOf(exercise);
+        if (index == -1) {
+            throw new IllegalArgumentException("The exercise \"" + exercise.getName() + "\" does not exist in the current exercises list of workout \"" + name + "\".");
+        }
+        if (exercises.size() == 1) {
+            throw new IllegalStateException("A workout must contain at least one exercise.");
+        }
+        return new PersistentWorkout(name, exercises.minus(index));
+    }
+
+    /**
+     * Returns a version of this workout with an exercise replaced by a copy of its edited version, in the same
+     * position.
+     * @param currentExercise the exercise to replace.
+     * @param newExercise the edited exercise.
+     * @return the new version.
+     */
+    public PersistentWorkout withEditedExercise(IExercise currentExercise, IExercise newExercise) {
+        checkExerciseIsNotNull(currentExercise);
+        checkExerciseIsNotNull(newExercise);
+        if (currentExercise.equals(newExercise)) {
+            throw new IllegalStateException("The new exercise must differ from the previous exercise in at least one capacity for editing in workout \"" + name + "\".");
+        }
+        int index = exercises.indexOf(currentExercise);
+        if (index == -1) {
+            throw new IllegalArgumentException("The exercise \"" + currentExercise.getName() + "\" was not found in workout \"" + name + "\".");
+        }
+        return new PersistentWorkout(name, exercises.with(index, Exercise.frozenCopyOf(newExercise)));
+    }
+
+    /**
+     * Returns a version of this workout with a new name.
+     * @param newName the new name.
+     * @return the new version.
+     */
+    public PersistentWorkout withName(String newName) {
+        return new PersistentWorkout(newName, exercises);
+    }
+
+    @Override
+    public String getWorkoutName() {
+        return name;
+    }
+
+    /**
+     * Gets the exercises of this version, as an immutable list of read-only exercises.
+     * @return the exercises of this workout.
+     */
+    @Override
+    public List<IExercise> getExerciseList() {
+        return Collections.unmodifiableList(exercises);
+    }
+
+    @Override
+    public void printWorkout(IModelPrinter printer) {
+        printer.printWorkout(name, exercises);
+    }
+
+    @Override
+    public int hashcode() {
+        int result = name.hashCode();
+        for (IExercise exercise : exercises) {
+            result = 31 * result + exercise.hashcode();
+        }
+        return result;
+    }
+
+    @Override
+    public int hashCode() {
+        return hashcode();
+    }
+
+    @Override
+    public boolean equals(Object object) {
+        if (this == object) {
+            return true;
+        }
+        if (object == null || getClass() != object.getClass()) {
+            return false;
+        }
+        PersistentWorkout other = (PersistentWorkout) object;
+        return name.equals(other.name) && exercises.equals(other.exercises);
+    }
+
+    // Private helper methods.
+
+    private void checkExerciseIsNotNull(IExercise exercise) {
+        if (exercise == null) {
+            throw new IllegalArgumentException("Cannot add, modify, or delete a null exercise in workout \"" + name + "\".");
+        }
+    }
+
+    private void checkAddExerciseRejectsDuplicates(IExercise exercise) {
+        if (exercises.contains(exercise)) {
+            throw new IllegalStateException("Cannot add duplicate exercise \"" + exercise.getName() + "\" to workout \"" + name + "\".");
+        }
+    }
+}
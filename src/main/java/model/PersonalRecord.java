@@ -0,0 +1,133 @@
+package model;
+
+import java.util.Collections;
+import java.util.NavigableMap;
+
+/**
+ * Immutable personal records of one exercise name done in one mode: the heaviest weight lifted, the most reps
+ * done at every weight, and the best estimated one-rep max by the Epley and Brzycki formulas. Instances are
+ * produced by PersonalRecordIndex; a later PR produces a new instance rather than changing this one.
+ */
+public final class PersonalRecord {
+
+    // the exercise name and mode the records are for.
+    private final String name;
+    private final Mode mode;
+
+    // the most reps done at each weight, by weight.
+    private final NavigableMap<Double, Integer> bestRepsByWeight;
+
+    // the best estimated one-rep max by each formula.
+    private final double epleyOneRepMax;
+    private final double brzyckiOneRepMax;
+
+    // Package-private constructor, used by PersonalRecordIndex.
+    PersonalRecord(String name, Mode mode, NavigableMap<Double, Integer> bestRepsByWeight,
+                   double epleyOneRepMax, double brzyckiOneRepMax) {
+        this.name = name;
+        this.mode = mode;
+        this.bestRepsByWeight = Collections.unmodifiableNavigableMap(bestRepsByWeight);
+        this.epleyOneRepMax = epleyOneRepMax;
+        this.brzyckiOneRepMax = brzyckiOneRepMax;
+    }
+
+    /**
+     * Estimates a one-rep max with the Epley formula, weight x (1 + reps / 30). A single rep is its own max.
+     * @param weight the weight lifted.
+     * @param reps the reps done with that weight.
+     * @return the estimated one-rep max, or 0 if no reps were done.
+     */
+    public static double epley(double weight, int reps) {
+        if (reps <= 0) {
+            return 0;
+        }
+        return reps == 1 ? weight : weight * (1 + reps / 30.0);
+    }
+
+    /**
+     * Estimates a one-rep max with the Brzycki formula, weight x 36 / (37 - reps). The formula is undefined from
+     * 37 reps on, where the estimate is 0.
+     * @param weight the weight lifted.
+     * @param reps the reps done with that weight.
+     * @return the estimated one-rep max, or 0 if no reps were done or reps is 37 or more.
+     */
+    public static double brzycki(double weight, int reps) {
+        if (reps <= 0 || reps >= 37) {
+            return 0;
+        }
+        return weight * 36.0 / (37 - reps);
+    }
+
+    /**
+     * Gets the exercise name the records are for.
+     * @return the exercise name.
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Gets the mode the records are for.
+     * @return the mode.
+     */
+    public Mode getMode() {
+        return mode;
+    }
+
+    /**
+     * Gets the heaviest weight any set was done with.
+     * @return the best weight.
+     */
+    public double getBestWeight() {
+        return bestRepsByWeight.lastKey();
+    }
+
+    /**
+     * Gets the most reps done with the heaviest weight.
+     * @return the best reps at the best weight.
+     */
+    public int getBestRepsAtBestWeight() {
+        return bestRepsByWeight.lastEntry().getValue();
+    }
+
+    /**
+     * Gets the most reps done with a weight.
+     * @param weight the weight.
+     * @return the best reps at that weight, or 0 if no set was done with it.
+     */
+    public int getBestReps(double weight) {
+        Integer reps = bestRepsByWeight.get(weight);
+        return reps == null ? 0 : reps;
+    }
+
+    /**
+     * Gets the most reps done at every weight.
+     * @return an unmodifiable map from weight to best reps, lightest weight first.
+     */
+    public NavigableMap<Double, Integer> getBestRepsByWeight() {
+        return bestRepsByWeight;
+    }
+
+    /**
+     * Gets the best one-rep max estimated with the Epley formula over every set.
+     * @return the Epley estimated one-rep max.
+     */
+    public double getEpleyOneRepMax() {
+        return epleyOneRepMax;
+    }
+
+    /**
+     * Gets the best one-rep max estimated with the Brzycki formula over every set.
+     * @return the Brzycki estimated one-rep max.
+     */
+    public double getBrzyckiOneRepMax() {
+        return brzyckiOneRepMax;
+    }
+
+    @Override
+    public String toString() {
+        return "PersonalRecord{name=" + name + ", mode=" + mode + ", bestWeight=" + getBestWeight()
+                + ", bestReps=" + getBestRepsAtBestWeight() + ", epley=" + epleyOneRepMax
+                + ", brzycki=" + brzyckiOneRepMax + "}";
+    }
+}
@@ -0,0 +1,264 @@
+package model;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Index of the personal records of every exercise name and mode, kept current as workouts are recorded and
+ * their exercises are edited, so that answering "current PR for X" is a single hash lookup instead of a scan of
+ * the whole training history.
+ *
+ * Every recorded exercise contributes its weight and the reps of its sets to the records of its name and mode.
+ * The index keeps those contributions in counted multisets (reps per weight, and the Epley and Brzycki estimate
+ * of every set), so an edit replaces the old contribution of the exercise with its new one in O(sets x log n),
+ * even when it lowers a record. After each change the PersonalRecord of the affected name and mode is rebuilt
+ * and published; readers never lock.
+ *
+ * Sessions replayed from a SessionLog can be fed in with record(IWorkout) to build the index once at startup.
+ *
+ * Exercises are tracked by identity. Recorded Exercise instances are observed, so updateWeight, updateReps,
+ * updateName and the other setters move their contribution; other IExercise implementations are captured as
+ * they were when recorded.
+ */
+public class PersonalRecordIndex implements IExerciseObserver {
+
+    // the published records, readable without locking.
+    private final Map<Key, PersonalRecord> published;
+
+    // the running record multisets of every name and mode, guarded by this.
+    private final Map<Key, Records> records;
+
+    // the last contribution of every tracked exercise, by identity since exercises are mutable.
+    private final Map<IExercise, Contribution> contributions;
+
+    // Default personal record index constructor.
+    public PersonalRecordIndex() {
+        this.published = new ConcurrentHashMap<>();
+        this.records = new HashMap<>();
+        this.contributions = new IdentityHashMap<>();
+    }
+
+    /**
+     * Records a completed workout: every exercise in it counts towards the records of its name and mode.
+     * @param workout the workout to record.
+     */
+    public void record(IWorkout workout) {
+        if (workout == null) {
+            throw new IllegalArgumentException("Cannot record a null workout in the personal record index.");
+        }
+        recordAll(workout.getExerciseList());
+    }
+
+    /**
+     * Records a batch of exercises.
+     * @param exercises the exercises to record.
+     */
+    public void recordAll(Collection<? extends IExercise> exercises) {
+        if (exercises == null) {
+            throw new IllegalArgumentException("Cannot record a null batch of exercises in the personal record index.");
+        }
+        for (IExercise exercise : exercises) {
+            record(exercise);
+        }
+    }
+
+    /**
+     * Records a single exercise. Recording an exercise that is already tracked refreshes its contribution.
+     * @param exercise the exercise to record.
+     */
+    public void record(IExercise exercise) {
+        if (exercise == null) {
+            throw new IllegalArgumentException("Cannot record a null exercise in the personal record index.");
+        }
+        boolean first;
+        synchronized (this) {
+            first = !contributions.containsKey(exercise);
+            replace(exercise, Contribution.of(exercise));
+        }
+        if (first && exercise instanceof Exercise) {
+            ((Exercise) exercise).addObserver(this);
+        }
+    }
+
+    /**
+     * Withdraws an exercise from the index, e.g. when a recorded session is deleted.
+     * @param exercise the exercise to withdraw.
+     * @return true if the exercise was tracked.
+     */
+    public boolean forget(IExercise exercise) {
+        synchronized (this) {
+            if (!contributions.containsKey(exercise)) {
+                return false;
+            }
+            replace(exercise, null);
+        }
+        if (exercise instanceof Exercise) {
+            ((Exercise) exercise).removeObserver(this);
+        }
+        return true;
+    }
+
+    /**
+     * Gets the current personal records of an exercise name in a mode, in O(1).
+     * @param name the exercise name.
+     * @param mode the mode.
+     * @return the records, or null if no set of that exercise was recorded in that mode.
+     */
+    public PersonalRecord get(String name, Mode mode) {
+        if (name == null || mode == null) {
+            throw new IllegalArgumentException("Exercise name and mode of a personal record cannot be null.");
+        }
+        return published.get(new Key(name, mode));
+    }
+
+    /**
+     * Gets the number of exercise name and mode pairs that have records.
+     * @return the number of records.
+     */
+    public int size() {
+        return published.size();
+    }
+
+    /**
+     * Moves the contribution of a tracked exercise after it changed. Exercises that are not tracked are ignored.
+     * @param exercise the exercise that changed.
+     */
+    @Override
+    public synchronized void onExerciseChanged(Exercise exercise) {
+        if (contributions.containsKey(exercise)) {
+            replace(exercise, Contribution.of(exercise));
+        }
+    }
+
+    // Private helper methods.
+
+    /**
+     * Replaces the contribution of an exercise (either side may be absent) and republishes the affected records.
+     */
+    private void replace(IExercise exercise, Contribution added) {
+        Contribution removed = added == null ? contributions.remove(exercise) : contributions.put(exercise, added);
+        if (removed != null) {
+            Records old = records.get(removed.key);
+            old.apply(removed, -1);
+            if (old.isEmpty()) {
+                records.remove(removed.key);
+                published.remove(removed.key);
+            } else if (added == null || !added.key.equals(removed.key)) {
+                published.put(removed.key, old.toPersonalRecord(removed.key));
+            }
+        }
+        if (added != null) {
+            Records current = records.computeIfAbsent(added.key, key -> new Records());
+            current.apply(added, 1);
+            if (current.isEmpty()) {
+                records.remove(added.key);
+                published.remove(added.key);
+            } else {
+                published.put(added.key, current.toPersonalRecord(added.key));
+            }
+        }
+    }
+
+    private static <K> void count(TreeMap<K, Integer> multiset, K value, int delta) {
+        multiset.merge(value, delta, (a, b) -> a + b == 0 ? null : a + b);
+    }
+
+    /**
+     * An exercise name and mode.
+     */
+    private static final class Key {
+        private final String name;
+        private final Mode mode;
+
+        private Key(String name, Mode mode) {
+            this.name = name;
+            this.mode = mode;
+        }
+
+        @Override
+        public boolean equals(Object object) {
+            if (!(object instanceof Key)) {
+                return false;
+            }
+            Key other = (Key) object;
+            return name.equals(other.name) && mode == other.mode;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(name, mode);
+        }
+    }
+
+    /**
+     * The immutable contribution of one exercise: its name and mode, its weight and the reps of its sets.
+     */
+    private static final class Contribution {
+        private final Key key;
+        private final double weight;
+        private final int[] reps;
+
+        private Contribution(Key key, double weight, int[] reps) {
+            this.key = key;
+            this.weight = weight;
+            this.reps = reps;
+        }
+
+        private static Contribution of(IExercise exercise) {
+            int[] reps;
+            if (exercise instanceof Exercise) {
+                Exercise columns = (Exercise) exercise;
+                reps = new int[columns.getRecordedSetCount()];
+                for (int i = 0; i < reps.length; i++) {
+                    reps[i] = columns.getRepsAt(i);
+                }
+            } else {
+                reps = exercise.getAllSetReps().stream().mapToInt(SetReps::getReps).toArray();
+            }
+            return new Contribution(new Key(exercise.getName(), exercise.getMode()), exercise.getWeight(), reps);
+        }
+    }
+
+    /**
+     * The counted multisets behind the records of one name and mode. Sets with no reps are not counted.
+     */
+    private static final class Records {
+        // the reps of every set, as a multiset of reps per weight.
+        private final TreeMap<Double, TreeMap<Integer, Integer>> repsByWeight = new TreeMap<>();
+        // the Epley and Brzycki estimate of every set.
+        private final TreeMap<Double, Integer> epley = new TreeMap<>();
+        private final TreeMap<Double, Integer> brzycki = new TreeMap<>();
+
+        private void apply(Contribution contribution, int delta) {
+            for (int reps : contribution.reps) {
+                if (reps <= 0) {
+                    continue;
+                }
+                TreeMap<Integer, Integer> atWeight = repsByWeight.computeIfAbsent(contribution.weight, weight -> new TreeMap<>());
+                count(atWeight, reps, delta);
+                if (atWeight.isEmpty()) {
+                    repsByWeight.remove(contribution.weight);
+                }
+                count(epley, PersonalRecord.epley(contribution.weight, reps), delta);
+                count(brzycki, PersonalRecord.brzycki(contribution.weight, reps), delta);
+            }
+        }
+
+        private boolean isEmpty() {
+            return repsByWeight.isEmpty();
+        }
+
+        private PersonalRecord toPersonalRecord(Key key) {
+            TreeMap<Double, Integer> bestReps = new TreeMap<>();
+            for (Map.Entry<Double, TreeMap<Integer, Integer>> entry : repsByWeight.entrySet()) {
+                bestReps.put(entry.getKey(), entry.getValue().lastKey());
+            }
+            return new PersonalRecord(key.name, key.mode, bestReps, epley.lastKey(), brzycki.lastKey());
+        }
+    }
+}
@@ -1,8 +1,12 @@
 package model;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Set;
 
 /**
  * Represents a routine, which is a collection of workouts.
@@ -10,14 +14,19 @@ import java.util.List;
 public class Routine implements IRoutine {
 
     private String name;
-    private final List<IWorkout> currentWorkoutsInRoutine;
-    private final List<IWorkout> deleletedWorkoutsInRoutine;
+    // the current workouts, in a treap so a workout moves between any two indices in O(log n).
+    private final TreapList<IWorkout> currentWorkoutsInRoutine;
+    // the bounded undo journal of the deleted workouts, which can be restored.
+    private final UndoJournal<IWorkout> deleletedWorkoutsInRoutine;
+
+    // the totals of the current workouts, which the aggregates of each Workout roll up into.
+    private final TrainingAggregates aggregates = new TrainingAggregates();
 
     public Routine(String name) {
         checkRoutineNameValid(name);
         this.name = name;
-        this.currentWorkoutsInRoutine = new ArrayList<>();
-        this.deleletedWorkoutsInRoutine = new ArrayList<>();
+        this.currentWorkoutsInRoutine = new TreapList<>();
+        this.deleletedWorkoutsInRoutine = new UndoJournal<>();
     }
 
     @Override
@@ -33,22 +42,81 @@ public class Routine implements IRoutine {
         checkWorkoutAddedToRoutineIsValid(workout);
         checkWorkoutIsNotNull(workout);
 
-        if(deleletedWorkoutsInRoutine.contains(workout)) {
-            this.deleletedWorkoutsInRoutine.remove(workout);
+        if(deleletedWorkoutsInRoutine.restore(workout)) {
             this.currentWorkoutsInRoutine.add(workout);
         } else {
+            deleletedWorkoutsInRoutine.clearRedo();
             currentWorkoutsInRoutine.add(workout);
         }
+        attachAggregates(workout);
     }
 
     @Override
     public void removeWorkoutFromRoutine(IWorkout workout) {
         checkRoutineSizeValidForDeleteWorkout();
-        if (!currentWorkoutsInRoutine.contains(workout)) {
+        int position = currentWorkoutsInRoutine.indexOf(workout);
+        if (position == -1) {
             throw new IllegalArgumentException("The workout \"" + workout.getWorkoutName() + "\" is not in the routine.");
         }
-        currentWorkoutsInRoutine.remove(workout);
-        deleletedWorkoutsInRoutine.add(workout);
+        // the list matched by equals: journal and detach the instance it held, so restore finds it by identity.
+        IWorkout removed = currentWorkoutsInRoutine.remove(position);
+        deleletedWorkoutsInRoutine.record(removed);
+        detachAggregates(removed);
+    }
+
+    /**
+     * Adds several workouts to the routine at once, restoring previously deleted ones. The batch is validated
+     * up front with a single hashed pass, so either every workout is added or the routine is left unchanged.
+     * @param workouts the workouts to add, in order.
+     */
+    @Override
+    public void addWorkouts(Collection<? extends IWorkout> workouts) {
+        Set<IWorkout> batch = checkWorkoutBatchIsValid(workouts);
+        Set<IWorkout> current = new HashSet<>(currentWorkoutsInRoutine);
+        for (IWorkout workout : batch) {
+            if (current.contains(workout)) {
+                throw new IllegalArgumentException("The workout \"" + workout.getWorkoutName() + "\" already exists in the routine.");
+            }
+        }
+
+        for (IWorkout workout : batch) {
+            deleletedWorkoutsInRoutine.discard(workout);
+        }
+        deleletedWorkoutsInRoutine.clearRedo();
+        currentWorkoutsInRoutine.addAll(batch);
+        for (IWorkout workout : batch) {
+            attachAggregates(workout);
+        }
+    }
+
+    /**
+     * Removes several workouts from the routine at once. Either every workout is removed or the routine is left
+     * unchanged; removing every workout is rejected, since a routine must keep at least one.
+     * @param workouts the workouts to remove.
+     */
+    @Override
+    public void removeWorkouts(Collection<? extends IWorkout> workouts) {
+        Set<IWorkout> batch = checkWorkoutBatchIsValid(workouts);
+        if (batch.isEmpty()) {
+            return;
+        }
+
+        Set<IWorkout> current = new HashSet<>(currentWorkoutsInRoutine);
+        for (IWorkout workout : batch) {
+            if (!current.contains(workout)) {
+                throw new IllegalArgumentException("The workout \"" + workout.getWorkoutName() + "\" is not in the routine.");
+            }
+        }
+        if (batch.size() >= currentWorkoutsInRoutine.size()) {
+            throw new UnsupportedOperationException("A routine must have at least one workout");
+        }
+
+        List<IWorkout> removed = new ArrayList<>(batch.size());
+        currentWorkoutsInRoutine.removeIf(workout -> batch.contains(workout) && removed.add(workout));
+        deleletedWorkoutsInRoutine.recordAll(removed);
+        for (IWorkout workout : removed) {
+            detachAggregates(workout);
+        }
     }
 
     //TODO CONSIDER WHETHER THIS METHOD SHOULD BE KEPT. (PROBABLY YES).
@@ -57,6 +125,9 @@ public class Routine implements IRoutine {
         if (currentWorkoutsInRoutine.isEmpty()) {
             throw new IllegalStateException("Cannot delete an already empty routine.");
         }
+        for (IWorkout workout : currentWorkoutsInRoutine) {
+            detachAggregates(workout);
+        }
         currentWorkoutsInRoutine.clear();
     }
 
@@ -69,19 +140,30 @@ public class Routine implements IRoutine {
             throw new IllegalArgumentException("Old index and new index cannot be the same.");
         }
         if (oldIndex >= 0 && oldIndex < currentWorkoutsInRoutine.size() && newIndex >= 0 && newIndex < currentWorkoutsInRoutine.size()) {
-            IWorkout workout = currentWorkoutsInRoutine.remove(oldIndex);
-            currentWorkoutsInRoutine.add(newIndex, workout);
+            currentWorkoutsInRoutine.move(oldIndex, newIndex);
         } else {
             throw new IndexOutOfBoundsException("Invalid indices for reordering workouts.");
         }
     }
 
+    /**
+     * Reorders every workout of the routine in a single O(n) pass. Moves through editRoutine cost O(log n)
+     * each, as the workouts are kept in a TreapList.
+     * @param permutation a permutation of the indices of the current workouts: the workout at index
+     *                    permutation[i] moves to index i.
+     */
+    @Override
+    public void reorder(int[] permutation) {
+        currentWorkoutsInRoutine.permute(permutation);
+    }
+
     @Override
     public void restoreWorkoutToRoutine(IWorkout workout) {
 
-        if (deleletedWorkoutsInRoutine.contains(workout)) {
-            deleletedWorkoutsInRoutine.remove(workout);
+        checkWorkoutIsNotNull(workout);
+        if (deleletedWorkoutsInRoutine.restore(workout)) {
             currentWorkoutsInRoutine.add(workout);
+            attachAggregates(workout);
         } else {
             throw new IllegalArgumentException("This workout is not in the deleted workout list. Please try again");
         }
@@ -103,29 +185,119 @@ public class Routine implements IRoutine {
         return this.currentWorkoutsInRoutine;
     }
 
-    public List<IWorkout> getDeletedWorkoutsInRoutine() {
-        return Collections.unmodifiableList(deleletedWorkoutsInRoutine);
+    /**
+     * Gets the volume, rep completion and per-mode totals of the current workouts. The aggregates of every
+     * Workout in the routine roll up into them as they change, so every read is O(1). Other IWorkout
+     * implementations do not maintain aggregates and are not counted.
+     * @return the aggregates of this routine.
+     */
+    public TrainingAggregates getAggregates() {
+        return aggregates;
     }
 
-    public List<IWorkout> getCurrentWorkoutsInRoutine() {
-        return Collections.unmodifiableList(currentWorkoutsInRoutine);
+    /**
+     * Gets the exercises of a mode across the current workouts, in routine and workout order. The mode index of
+     * every Workout is used, so only matching exercises are visited; other IWorkout implementations are filtered.
+     * @param mode the mode.
+     * @return the exercises of that mode.
+     */
+    public List<IExercise> getExercises(Mode mode) {
+        if (mode == null) {
+            throw new IllegalArgumentException("Mode cannot be null.");
+        }
+        List<IExercise> found = new ArrayList<>();
+        for (IWorkout workout : currentWorkoutsInRoutine) {
+            if (workout instanceof Workout) {
+                found.addAll(((Workout) workout).getModeIndex().getExercises(mode));
+            } else {
+                for (IExercise exercise : workout.getExerciseList()) {
+                    if (exercise.getMode() == mode) {
+                        found.add(exercise);
+                    }
+                }
+            }
+        }
+        return found;
     }
 
-    //TODO FIX FORMATTING OF THIS METHOD.
-    @Override
-    public void printRoutine() {
-        if (currentWorkoutsInRoutine.isEmpty()) {
-            System.out.println("\nRoutine \"" + name + "\":\nNo workouts in this routine.");
-            return;
+    /**
+     * Gets the number of exercises of a mode across the current workouts, with a bit count per Workout.
+     * @param mode the mode.
+     * @return the exercise count of that mode.
+     */
+    public int getExerciseCount(Mode mode) {
+        if (mode == null) {
+            throw new IllegalArgumentException("Mode cannot be null.");
         }
+        int count = 0;
+        for (IWorkout workout : currentWorkoutsInRoutine) {
+            if (workout instanceof Workout) {
+                count += ((Workout) workout).getModeIndex().getCount(mode);
+            } else {
+                for (IExercise exercise : workout.getExerciseList()) {
+                    if (exercise.getMode() == mode) {
+                        count++;
+                    }
+                }
+            }
+        }
+        return count;
+    }
+
+    public List<IWorkout> getDeletedWorkoutsInRoutine() {
+        return Collections.unmodifiableList(deleletedWorkoutsInRoutine.snapshot());
+    }
+
+    /**
+     * Gets the journal of the deleted workouts, e.g. to compact it or inspect its caps.
+     * @return the undo journal of this routine.
+     */
+    public UndoJournal<IWorkout> getUndoJournal() {
+        return deleletedWorkoutsInRoutine;
+    }
 
-        System.out.println("\nRoutine \"" + name + "\":");
+    /**
+     * Restores the most recently deleted workout.
+     * @return the restored workout.
+     */
+    public IWorkout undoRemoval() {
+        IWorkout workout = deleletedWorkoutsInRoutine.peekUndo();
+        if (workout == null) {
+            throw new IllegalStateException("There is no deleted workout to restore in routine \"" + name + "\".");
+        }
+        restoreWorkoutToRoutine(workout);
+        return workout;
+    }
 
+    /**
+     * Deletes again the most recently restored workout, as long as no other change was made since.
+     * @return the deleted workout.
+     */
+    public IWorkout redoRemoval() {
+        IWorkout workout = deleletedWorkoutsInRoutine.peekRedo();
+        if (workout == null) {
+            throw new IllegalStateException("There is no restored workout to delete again in routine \"" + name + "\".");
+        }
+        checkRoutineSizeValidForDeleteWorkout();
         for (int i = 0; i < currentWorkoutsInRoutine.size(); i++) {
-            System.out.print((i + 1) + ". ");
-            currentWorkoutsInRoutine.get(i).printWorkout();
-            System.out.println();
+            if (currentWorkoutsInRoutine.get(i) == workout) { // the restored instance, not just an equal one
+                currentWorkoutsInRoutine.remove(i);
+                break;
+            }
         }
+        deleletedWorkoutsInRoutine.redo();
+        detachAggregates(workout);
+        return workout;
+    }
+
+    public List<IWorkout> getCurrentWorkoutsInRoutine() {
+        return Collections.unmodifiableList(currentWorkoutsInRoutine);
+    }
+
+    //TODO FIX FORMATTING OF THIS METHOD.
+    @Override
+    public void printRoutine(IModelPrinter printer) {
+        printer.printRoutine(name, currentWorkoutsInRoutine);
     }
 
     @Override
@@ -139,6 +311,11 @@ public class Routine implements IRoutine {
         return result;
     }
 
+    @Override
+    public int hashCode() {
+        return hashcode();
+    }
+
     @Override
     public boolean equals(Object object) {
         if (this == object) {
@@ -152,6 +329,18 @@ public class Routine implements IRoutine {
     }
 
     // Private Helper Methods
+    private void attachAggregates(IWorkout workout) {
+        if (workout instanceof Workout) {
+            ((Workout) workout).getAggregates().attachTo(aggregates);
+        }
+    }
+
+    private void detachAggregates(IWorkout workout) {
+        if (workout instanceof Workout) {
+            ((Workout) workout).getAggregates().detachFrom(aggregates);
+        }
+    }
+
     private void checkWorkoutIsNotNull(IWorkout workout) {
         if(workout == null) {
             throw new IllegalArgumentException("Cannot add, modify, or delete a null workout from routine.");
@@ -159,6 +348,20 @@ public class Routine implements IRoutine {
     }
 
 
+    private Set<IWorkout> checkWorkoutBatchIsValid(Collection<? extends IWorkout> workouts) {
+        if (workouts == null) {
+            throw new IllegalArgumentException("Cannot add or delete a null batch of workouts from routine.");
+        }
+        Set<IWorkout> batch = new LinkedHashSet<>();
+        for (IWorkout workout : workouts) {
+            checkWorkoutIsNotNull(workout);
+            if (!batch.add(workout)) {
+                throw new IllegalArgumentException("The workout \"" + workout.getWorkoutName() + "\" appears more than once in the batch.");
+            }
+        }
+        return batch;
+    }
+
     private void checkRoutineNameValid(String name) {
         if (name == null || name.isEmpty()) {
             throw new IllegalArgumentException("Routine name cannot be null or empty.");
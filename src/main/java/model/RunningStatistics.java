@@ -0,0 +1,277 @@
+package model;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Running accumulator over a series of integer samples (for example the reps of every set of an exercise).
+ * Mean and variance are maintained with Welford's algorithm, so samples can be added, removed or replaced
+ * one at a time without rescanning the series, and every getter runs in constant time.
+ *
+ * Occurrences of values from 0 to MAX_COUNTED_VALUE - 1, which covers any realistic rep count, are counted in
+ * an int array grown on demand, so once it covers the values seen, adding, removing and replacing samples
+ * allocates nothing. Values outside that range are rare and counted in a sorted map created when first needed.
+ *
+ * Only the owner of the samples (e.g. Exercise) may mutate the accumulator; everyone else gets read access.
+ */
+public class RunningStatistics {
+
+    /**
+     * The values from 0 up to (excluding) this one are counted in an array rather than in a map.
+     */
+    public static final int MAX_COUNTED_VALUE = 1024;
+
+    // the length the count array starts with, enough for the reps of most sets.
+    private static final int INITIAL_COUNTED_VALUES = 32;
+
+    // the number of samples currently accumulated.
+    private int count;
+
+    // the running mean of the samples.
+    private double mean;
+
+    // the running sum of squared differences from the mean (Welford's M2).
+    private double m2;
+
+    // the exact running sum of the samples.
+    private long sum;
+
+    // how many times each sample value from 0 to MAX_COUNTED_VALUE - 1 occurs, indexed by value.
+    private int[] counts;
+
+    // how many samples the count array holds, and the smallest and largest of them while there are any.
+    private int countedSamples;
+    private int countedMin;
+    private int countedMax;
+
+    // how many times each sample value outside the count array occurs, or null if there never was one.
+    private TreeMap<Integer, Integer> outliers;
+
+    // the most frequent sample value (smallest value wins ties).
+    private int modeValue;
+
+    // how many times the mode value occurs.
+    private int modeCount;
+
+    /**
+     * Creates an empty accumulator.
+     */
+    public RunningStatistics() {
+        this.counts = new int[INITIAL_COUNTED_VALUES];
+    }
+
+    /**
+     * Adds a sample to the accumulator.
+     * @param value the sample to add.
+     */
+    void add(int value) {
+        count++;
+        sum += value;
+        double delta = value - mean;
+        mean += delta / count;
+        m2 += delta * (value - mean);
+
+        int occurrences = isCounted(value) ? addCounted(value) : addOutlier(value);
+        if (occurrences > modeCount || (occurrences == modeCount && value < modeValue)) {
+            modeValue = value;
+            modeCount = occurrences;
+        }
+    }
+
+    /**
+     * Removes a previously added sample from the accumulator.
+     * @param value the sample to remove.
+     */
+    void remove(int value) {
+        if (isCounted(value)) {
+            removeCounted(value);
+        } else {
+            removeOutlier(value);
+        }
+
+        count--;
+        sum -= value;
+        if (count == 0) {
+            mean = 0;
+            m2 = 0;
+        } else {
+            double delta = value - mean;
+            mean -= delta / count;
+            m2 = Math.max(0, m2 - delta * (value - mean));
+        }
+
+        if (value == modeValue) {
+            recomputeMode();
+        }
+    }
+
+    /**
+     * Replaces one sample with another, as happens when the reps of a set are updated.
+     * @param oldValue the sample being replaced.
+     * @param newValue the new sample.
+     */
+    void replace(int oldValue, int newValue) {
+        remove(oldValue);
+        add(newValue);
+    }
+
+    /**
+     * Gets the number of samples accumulated.
+     * @return the sample count.
+     */
+    public int getCount() {
+        return count;
+    }
+
+    /**
+     * Gets the exact sum of the samples.
+     * @return the sum of every sample.
+     */
+    public long getSum() {
+        return sum;
+    }
+
+    /**
+     * Gets the mean of the samples.
+     * @return the mean, or 0 if there are no samples.
+     */
+    public double getMean() {
+        return mean;
+    }
+
+    /**
+     * Gets the population variance of the samples.
+     * @return the variance, or 0 if there are no samples.
+     */
+    public double getVariance() {
+        return count == 0 ? 0 : m2 / count;
+    }
+
+    /**
+     * Gets the population standard deviation of the samples.
+     * @return the standard deviation, or 0 if there are no samples.
+     */
+    public double getStandardDeviation() {
+        return Math.sqrt(getVariance());
+    }
+
+    /**
+     * Gets the smallest sample.
+     * @return the minimum, or 0 if there are no samples.
+     */
+    public int getMin() {
+        if (outliers != null && !outliers.isEmpty() && (outliers.firstKey() < 0 || countedSamples == 0)) {
+            return outliers.firstKey();
+        }
+        return countedSamples == 0 ? 0 : countedMin;
+    }
+
+    /**
+     * Gets the largest sample.
+     * @return the maximum, or 0 if there are no samples.
+     */
+    public int getMax() {
+        if (outliers != null && !outliers.isEmpty() && (outliers.lastKey() > 0 || countedSamples == 0)) {
+            return outliers.lastKey();
+        }
+        return countedSamples == 0 ? 0 : countedMax;
+    }
+
+    /**
+     * Gets the most frequent sample. When several values are equally frequent the smallest one is returned.
+     * @return the mode, or 0 if there are no samples.
+     */
+    public int getMode() {
+        return modeValue;
+    }
+
+    // Private helper methods.
+
+    private static boolean isCounted(int value) {
+        return value >= 0 && value < MAX_COUNTED_VALUE;
+    }
+
+    /**
+     * Counts an occurrence of a value of the count array, growing it to cover the value if needed.
+     * @return the occurrences of the value, this one included.
+     */
+    private int addCounted(int value) {
+        if (value >= counts.length) {
+            counts = Arrays.copyOf(counts, Math.min(MAX_COUNTED_VALUE, Math.max(2 * counts.length, value + 1)));
+        }
+        if (countedSamples == 0 || value < countedMin) {
+            countedMin = value;
+        }
+        if (countedSamples == 0 || value > countedMax) {
+            countedMax = value;
+        }
+        countedSamples++;
+        return ++counts[value];
+    }
+
+    /**
+     * Removes an occurrence of a value of the count array, moving the minimum or maximum inwards to the next
+     * counted value if it was their last occurrence.
+     */
+    private void removeCounted(int value) {
+        if (value >= counts.length || counts[value] == 0) {
+            throw new IllegalArgumentException("Cannot remove sample (" + value + ") that was never added.");
+        }
+        counts[value]--;
+        countedSamples--;
+        if (countedSamples > 0 && counts[value] == 0) {
+            while (counts[countedMin] == 0) {
+                countedMin++;
+            }
+            while (counts[countedMax] == 0) {
+                countedMax--;
+            }
+        }
+    }
+
+    private int addOutlier(int value) {
+        if (outliers == null) {
+            outliers = new TreeMap<>();
+        }
+        return outliers.merge(value, 1, Integer::sum);
+    }
+
+    private void removeOutlier(int value) {
+        Integer occurrences = outliers == null ? null : outliers.get(value);
+        if (occurrences == null) {
+            throw new IllegalArgumentException("Cannot remove sample (" + value + ") that was never added.");
+        }
+        if (occurrences == 1) {
+            outliers.remove(value);
+        } else {
+            outliers.put(value, occurrences - 1);
+        }
+    }
+
+    /**
+     * Rescans the counts for the mode. Only needed when an occurrence of the current mode is removed, and costs
+     * O(countedMax - countedMin + outliers), which for reps is a few dozen entries.
+     */
+    private void recomputeMode() {
+        modeValue = 0;
+        modeCount = 0;
+        if (countedSamples > 0) {
+            for (int value = countedMin; value <= countedMax; value++) {
+                if (counts[value] > modeCount) {
+                    modeValue = value;
+                    modeCount = counts[value];
+                }
+            }
+        }
+        if (outliers != null) {
+            for (Map.Entry<Integer, Integer> entry : outliers.entrySet()) {
+                int occurrences = entry.getValue();
+                if (occurrences > modeCount || (occurrences == modeCount && entry.getKey() < modeValue)) {
+                    modeValue = entry.getKey();
+                    modeCount = occurrences;
+                }
+            }
+        }
+    }
+}
@@ -2,6 +2,23 @@ package model;
 
 public class SetReps implements ISetReps {
 
+    // the largest set number with cached instances.
+    private static final int MAX_CACHED_SET_NUMBER = 20;
+
+    // the largest rep count with cached instances.
+    private static final int MAX_CACHED_REPS = 100;
+
+    // shared instances for every set number and rep count in the cached range, indexed by set * (MAX_CACHED_REPS + 1) + reps.
+    private static final SetReps[] CACHE = new SetReps[(MAX_CACHED_SET_NUMBER + 1) * (MAX_CACHED_REPS + 1)];
+
+    static {
+        for (int set = 0; set <= MAX_CACHED_SET_NUMBER; set++) {
+            for (int reps = 0; reps <= MAX_CACHED_REPS; reps++) {
+                CACHE[set * (MAX_CACHED_REPS + 1) + reps] = new SetReps(set, reps);
+            }
+        }
+    }
+
     private final int setNumber;
 
     private final int reps;
@@ -11,6 +28,21 @@ public class SetReps implements ISetReps {
         this.reps = reps;
     }
 
+    /**
+     * Gets a SetReps for the given set number and reps. Values in the common range (sets 0-20, reps 0-100)
+     * come from a preallocated cache, so no object is created; other values get a new instance. Since SetReps
+     * is immutable, the shared instances can be handed out freely.
+     * @param setNumber the set number.
+     * @param reps the reps done in the set.
+     * @return a SetReps with the given values.
+     */
+    public static SetReps of(int setNumber, int reps) {
+        if (setNumber >= 0 && setNumber <= MAX_CACHED_SET_NUMBER && reps >= 0 && reps <= MAX_CACHED_REPS) {
+            return CACHE[setNumber * (MAX_CACHED_REPS + 1) + reps];
+        }
+        return new SetReps(setNumber, reps);
+    }
+
     @Override
     public int getSetNumber() {
         return this.setNumber;
@@ -26,6 +58,11 @@ public class SetReps implements ISetReps {
         return 31 * Integer.hashCode(setNumber) + Integer.hashCode(reps);
     }
 
+    @Override
+    public int hashCode() {
+        return hashcode();
+    }
+
     @Override
     public boolean equals(Object object) {
         if (this == object) {
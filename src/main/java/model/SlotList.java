@@ -0,0 +1,222 @@
+package model;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.function.ObjIntConsumer;
+
+/**
+ * Read-only list view over an array of slots, used to keep the positions of the exercises of an IndexedWorkout.
+ * Elements are appended to the next free slot and keep that slot until the list is compacted: removing an
+ * element only empties its slot, and a Fenwick tree over the occupied slots turns a slot into a list index (and
+ * an index into a slot) in O(log n). Appending, removing, replacing and indexing therefore cost O(log n) instead
+ * of the O(n) shifts of an ArrayList.
+ *
+ * Once empty slots outnumber elements, compact packs the elements to the front in one O(n) pass and reports the
+ * new slot of each, so the cost is amortized over the removals that emptied the slots.
+ *
+ * The List methods are read-only; the list is modified through its package-private methods.
+ *
+ * @param <E> the type of the elements.
+ */
+final class SlotList<E> extends AbstractList<E> {
+
+    // the initial number of slots.
+    private static final int INITIAL_CAPACITY = 8;
+
+    // the slots; null marks an empty slot.
+    private Object[] slots;
+
+    // the Fenwick tree of occupied slots: tree[i] counts the occupied slots in (i - lowbit(i), i], 1-based.
+    private int[] tree;
+
+    // the number of slots used so far, occupied or emptied.
+    private int end;
+
+    // the number of occupied slots.
+    private int size;
+
+    // Default slot list constructor.
+    SlotList() {
+        this.slots = new Object[INITIAL_CAPACITY];
+        this.tree = new int[INITIAL_CAPACITY + 1];
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public E get(int index) {
+        Objects.checkIndex(index, size);
+        return elementAt(slotOf(index));
+    }
+
+    @Override
+    public Iterator<E> iterator() {
+        return new Iterator<>() {
+            private int slot = nextOccupied(0);
+            private final int expectedModCount = modCount;
+
+            @Override
+            public boolean hasNext() {
+                return slot < end;
+            }
+
+            @Override
+            public E next() {
+                if (modCount != expectedModCount) {
+                    throw new ConcurrentModificationException();
+                }
+                if (slot >= end) {
+                    throw new NoSuchElementException();
+                }
+                E element = elementAt(slot);
+                slot = nextOccupied(slot + 1);
+                return element;
+            }
+        };
+    }
+
+    /**
+     * Appends an element to the next free slot.
+     * @param element the element, which cannot be null.
+     * @return the slot of the element.
+     */
+    int append(E element) {
+        if (end == slots.length) {
+            slots = Arrays.copyOf(slots, slots.length * 2);
+            rebuildTree();
+        }
+        int slot = end++;
+        slots[slot] = element;
+        addToTree(slot, 1);
+        size++;
+        modCount++;
+        return slot;
+    }
+
+    /**
+     * Empties a slot.
+     * @param slot an occupied slot.
+     * @return the element that was in the slot.
+     */
+    E removeSlot(int slot) {
+        E element = elementAt(slot);
+        slots[slot] = null;
+        addToTree(slot, -1);
+        size--;
+        modCount++;
+        return element;
+    }
+
+    /**
+     * Replaces the element of an occupied slot, keeping its position.
+     * @param slot an occupied slot.
+     * @param element the new element, which cannot be null.
+     * @return the element that was in the slot.
+     */
+    E setSlot(int slot, E element) {
+        E previous = elementAt(slot);
+        slots[slot] = element;
+        modCount++;
+        return previous;
+    }
+
+    /**
+     * Gets the list index of the element in an occupied slot.
+     * @param slot an occupied slot.
+     * @return the number of elements before it.
+     */
+    int indexOfSlot(int slot) {
+        int count = 0;
+        for (int i = slot; i > 0; i -= i & -i) {
+            count += tree[i];
+        }
+        return count; // occupied slots in [0, slot)
+    }
+
+    /**
+     * Checks whether empty slots outnumber elements, i.e. whether compact is due.
+     * @return true if the list should be compacted.
+     */
+    boolean isSparse() {
+        return end - size > size && end > INITIAL_CAPACITY;
+    }
+
+    /**
+     * Packs the elements into the first slots, in order.
+     * @param moved told the new slot of every element.
+     */
+    void compact(ObjIntConsumer<E> moved) {
+        int packed = 0;
+        for (int slot = 0; slot < end; slot++) {
+            if (slots[slot] != null) {
+                E element = elementAt(slot);
+                slots[slot] = null;
+                slots[packed] = element;
+                moved.accept(element, packed++);
+            }
+        }
+        end = packed;
+        rebuildTree();
+        modCount++;
+    }
+
+    // Private helper methods.
+
+    @SuppressWarnings("unchecked")
+    private E elementAt(int slot) {
+        return (E) slots[slot];
+    }
+
+    private int nextOccupied(int slot) {
+        while (slot < end && slots[slot] == null) {
+            slot++;
+        }
+        return slot;
+    }
+
+    /**
+     * Finds the slot of the element at a list index by descending the Fenwick tree.
+     */
+    private int slotOf(int index) {
+        int position = 0;
+        int remaining = index + 1;
+        for (int step = Integer.highestOneBit(slots.length); step > 0; step >>= 1) {
+            int next = position + step;
+            if (next <= slots.length && tree[next] < remaining) {
+                position = next;
+                remaining -= tree[next];
+            }
+        }
+        // position is the longest prefix of slots holding at most index elements, so the next slot holds it.
+        return position;
+    }
+
+    private void addToTree(int slot, int delta) {
+        for (int i = slot + 1; i < tree.length; i += i & -i) {
+            tree[i] += delta;
+        }
+    }
+
+    /**
+     * Rebuilds the Fenwick tree from the slots in O(n).
+     */
+    private void rebuildTree() {
+        tree = new int[slots.length + 1];
+        for (int i = 1; i <= slots.length; i++) {
+            if (i <= end && slots[i - 1] != null) {
+                tree[i] += 1;
+            }
+            int parent = i + (i & -i);
+            if (parent <= slots.length) {
+                tree[parent] += tree[i];
+            }
+        }
+    }
+}
@@ -0,0 +1,307 @@
+package model;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Incrementally maintained totals over a set of exercises: the training volume (reps x load summed over every
+ * set, with the load of ExerciseData.loadOf), the reps completed, the reps targeted (sets x target reps) and a
+ * per-mode breakdown of volume and reps.
+ *
+ * A Workout keeps one instance up to date as exercises are added, removed, edited and restored, and by observing
+ * its exercises so that updateReps, updateWeight and the other Exercise setters are reflected as well. A Routine
+ * keeps another one that the aggregates of its workouts roll up into. Every change is applied as the difference
+ * between the old and new contribution of a single exercise, so reading any total costs O(1) and keeping them
+ * current costs O(1) per mutation.
+ *
+ * Instances are thread-safe, but the exercises they observe are not; see Exercise.
+ */
+public class TrainingAggregates implements IExerciseObserver {
+
+    // the modes, cached so the per-mode arrays can be indexed by ordinal.
+    private static final Mode[] MODES = Mode.values();
+
+    // the last contribution of every tracked exercise, by identity since exercises are mutable.
+    private final Map<IExercise, Tracked> contributions;
+
+    // the aggregates this one rolls up into (e.g. the aggregates of the routines holding a workout).
+    private final List<TrainingAggregates> parents;
+
+    // the number of exercises contributing to the totals.
+    private int exerciseCount;
+
+    // the total volume, reps x load.
+    private double volume;
+
+    // the total reps completed.
+    private long completedReps;
+
+    // the total reps targeted, sets x target reps.
+    private long targetReps;
+
+    // the volume of exercises of each mode, by mode ordinal.
+    private final double[] volumeByMode;
+
+    // the reps completed in exercises of each mode, by mode ordinal.
+    private final long[] completedRepsByMode;
+
+    // Default aggregates constructor.
+    public TrainingAggregates() {
+        this.contributions = new IdentityHashMap<>();
+        this.parents = new ArrayList<>();
+        this.volumeByMode = new double[MODES.length];
+        this.completedRepsByMode = new long[MODES.length];
+    }
+
+    /**
+     * Gets the number of exercises contributing to the totals.
+     * @return the exercise count.
+     */
+    public synchronized int getExerciseCount() {
+        return exerciseCount;
+    }
+
+    /**
+     * Gets the total volume: the reps of every set times the load of its exercise (see ExerciseData.loadOf).
+     * @return the total volume.
+     */
+    public synchronized double getVolume() {
+        return volume;
+    }
+
+    /**
+     * Gets the total number of reps completed.
+     * @return the completed reps.
+     */
+    public synchronized long getCompletedReps() {
+        return completedReps;
+    }
+
+    /**
+     * Gets the total number of reps targeted: the sets of every exercise times its target reps.
+     * @return the targeted reps.
+     */
+    public synchronized long getTargetReps() {
+        return targetReps;
+    }
+
+    /**
+     * Gets the completed reps as a fraction of the targeted reps.
+     * @return completed reps divided by targeted reps, or 0 if nothing is targeted.
+     */
+    public synchronized double getCompletionRatio() {
+        return targetReps == 0 ? 0 : (double) completedReps / targetReps;
+    }
+
+    /**
+     * Gets the volume of the exercises of a mode.
+     * @param mode the mode.
+     * @return the volume of that mode.
+     */
+    public synchronized double getVolume(Mode mode) {
+        checkModeIsNotNull(mode);
+        return volumeByMode[mode.ordinal()];
+    }
+
+    /**
+     * Gets the reps completed in the exercises of a mode.
+     * @param mode the mode.
+     * @return the completed reps of that mode.
+     */
+    public synchronized long getCompletedReps(Mode mode) {
+        checkModeIsNotNull(mode);
+        return completedRepsByMode[mode.ordinal()];
+    }
+
+    /**
+     * Refreshes the contribution of an exercise after it changed. Exercises that are not tracked are ignored.
+     * @param exercise the exercise that changed.
+     */
+    @Override
+    public void onExerciseChanged(Exercise exercise) {
+        refresh(exercise);
+    }
+
+    // Package-private mutators, used by Workout and Routine.
+
+    /**
+     * Starts tracking an exercise, adding its contribution to the totals and observing it for changes.
+     * @param exercise the exercise to track.
+     */
+    void track(IExercise exercise) {
+        boolean first;
+        synchronized (this) {
+            Tracked tracked = contributions.get(exercise);
+            first = tracked == null;
+            if (first) {
+                tracked = new Tracked(Contribution.of(exercise));
+                contributions.put(exercise, tracked);
+            }
+            tracked.count++;
+            apply(null, tracked.contribution);
+        }
+        if (first && exercise instanceof Exercise) {
+            ((Exercise) exercise).addObserver(this);
+        }
+    }
+
+    /**
+     * Stops tracking an exercise, removing its contribution from the totals.
+     * @param exercise the exercise to stop tracking.
+     */
+    void untrack(IExercise exercise) {
+        boolean last;
+        synchronized (this) {
+            Tracked tracked = contributions.get(exercise);
+            if (tracked == null) {
+                return;
+            }
+            apply(tracked.contribution, null);
+            last = --tracked.count == 0;
+            if (last) {
+                contributions.remove(exercise);
+            }
+        }
+        if (last && exercise instanceof Exercise) {
+            ((Exercise) exercise).removeObserver(this);
+        }
+    }
+
+    /**
+     * Recomputes the contribution of a tracked exercise.
+     * @param exercise the exercise to refresh.
+     */
+    synchronized void refresh(IExercise exercise) {
+        Tracked tracked = contributions.get(exercise);
+        if (tracked == null) {
+            return;
+        }
+        Contribution removed = tracked.contribution;
+        tracked.contribution = Contribution.of(exercise);
+        for (int i = 0; i < tracked.count; i++) {
+            apply(removed, tracked.contribution);
+        }
+    }
+
+    /**
+     * Rolls these aggregates up into a parent: the parent receives the current contributions now and every
+     * later change as it happens.
+     * @param parent the aggregates to roll up into.
+     */
+    synchronized void attachTo(TrainingAggregates parent) {
+        parents.add(parent);
+        for (Tracked tracked : contributions.values()) {
+            for (int i = 0; i < tracked.count; i++) {
+                parent.accept(null, tracked.contribution);
+            }
+        }
+    }
+
+    /**
+     * Stops rolling these aggregates up into a parent, withdrawing their contributions from it.
+     * @param parent the aggregates to detach from.
+     */
+    synchronized void detachFrom(TrainingAggregates parent) {
+        if (parents.remove(parent)) {
+            for (Tracked tracked : contributions.values()) {
+                for (int i = 0; i < tracked.count; i++) {
+                    parent.accept(tracked.contribution, null);
+                }
+            }
+        }
+    }
+
+    // Private helper methods.
+
+    /**
+     * Applies a contribution change received from a child.
+     */
+    private synchronized void accept(Contribution removed, Contribution added) {
+        apply(removed, added);
+    }
+
+    /**
+     * Replaces one contribution with another in the totals and forwards the change to the parents. Either side
+     * may be null for pure additions and removals.
+     */
+    private void apply(Contribution removed, Contribution added) {
+        if (removed != null) {
+            exerciseCount--;
+            volume -= removed.volume;
+            completedReps -= removed.completedReps;
+            targetReps -= removed.targetReps;
+            if (removed.mode != null) {
+                volumeByMode[removed.mode.ordinal()] -= removed.volume;
+                completedRepsByMode[removed.mode.ordinal()] -= removed.completedReps;
+            }
+        }
+        if (added != null) {
+            exerciseCount++;
+            volume += added.volume;
+            completedReps += added.completedReps;
+            targetReps += added.targetReps;
+            if (added.mode != null) {
+                volumeByMode[added.mode.ordinal()] += added.volume;
+                completedRepsByMode[added.mode.ordinal()] += added.completedReps;
+            }
+        }
+        for (TrainingAggregates parent : parents) {
+            parent.accept(removed, added);
+        }
+    }
+
+    private static void checkModeIsNotNull(Mode mode) {
+        if (mode == null) {
+            throw new IllegalArgumentException("Mode cannot be null.");
+        }
+    }
+
+    /**
+     * A tracked exercise: its last contribution and how many times it occurs (Workout.editExercise can place
+     * the same exercise twice).
+     */
+    private static final class Tracked {
+        private Contribution contribution;
+        private int count;
+
+        private Tracked(Contribution contribution) {
+            this.contribution = contribution;
+        }
+    }
+
+    /**
+     * The immutable contribution of one exercise to the totals, as of its last change.
+     */
+    private static final class Contribution {
+        private final double volume;
+        private final long completedReps;
+        private final long targetReps;
+        private final Mode mode;
+
+        private Contribution(double volume, long completedReps, long targetReps, Mode mode) {
+            this.volume = volume;
+            this.completedReps = completedReps;
+            this.targetReps = targetReps;
+            this.mode = mode;
+        }
+
+        /**
+         * Computes the contribution of an exercise, in O(1) for Exercise thanks to its running rep statistics.
+         */
+        private static Contribution of(IExercise exercise) {
+            long reps;
+            if (exercise instanceof Exercise) {
+                reps = ((Exercise) exercise).getRepStatistics().getSum();
+            } else {
+                reps = 0;
+                for (SetReps setReps : exercise.getAllSetReps()) {
+                    reps += setReps.getReps();
+                }
+            }
+            return new Contribution(reps * ExerciseData.loadOf(exercise), reps,
+                    (long) exercise.getSets() * exercise.getTargetReps(), exercise.getMode());
+        }
+    }
+}
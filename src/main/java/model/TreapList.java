@@ -0,0 +1,401 @@
+package model;
+
+import java.util.AbstractList;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.ConcurrentModificationException;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.SplittableRandom;
+import java.util.function.Predicate;
+
+/**
+ * List backed by an implicit treap: a randomized balanced binary tree ordered by position, where every node
+ * stores the size of its subtree. Reading, replacing, inserting and removing at any index, and therefore moving
+ * an element from one index to another, cost O(log n) expected instead of the O(n) shifts of an ArrayList.
+ * Iteration walks the tree in order in O(n) overall.
+ *
+ * Whole-list operations (permute, removeIf, addAll at the end) collect the elements in order and rebuild the
+ * tree in a single O(n) pass.
+ *
+ * @param <E> the type of the elements.
+ */
+public class TreapList<E> extends AbstractList<E> {
+
+    // the source of node priorities.
+    private final SplittableRandom random;
+
+    // the root of the tree, or null when the list is empty.
+    private Node<E> root;
+
+    // Default treap list constructor.
+    public TreapList() {
+        this.random = new SplittableRandom();
+    }
+
+    /**
+     * Creates a treap list holding the elements of a collection, in iteration order.
+     * @param elements the initial elements.
+     */
+    public TreapList(Collection<? extends E> elements) {
+        this();
+        addAll(elements);
+    }
+
+    @Override
+    public int size() {
+        return size(root);
+    }
+
+    @Override
+    public E get(int index) {
+        Objects.checkIndex(index, size());
+        return nodeAt(index).value;
+    }
+
+    @Override
+    public E set(int index, E element) {
+        Objects.checkIndex(index, size());
+        Node<E> node = nodeAt(index);
+        E previous = node.value;
+        node.value = element;
+        return previous;
+    }
+
+    @Override
+    public void add(int index, E element) {
+        Objects.checkIndex(index, size() + 1);
+        Node<E> node = new Node<>(element, random.nextInt());
+        if (index == size()) {
+            root = merge(root, node);
+        } else {
+            Split<E> split = split(root, index);
+            root = merge(merge(split.left, node), split.right);
+        }
+        modCount++;
+    }
+
+    @Override
+    public E remove(int index) {
+        Objects.checkIndex(index, size());
+        Split<E> head = split(root, index);
+        Split<E> tail = split(head.right, 1);
+        root = merge(head.left, tail.right);
+        modCount++;
+        return tail.left.value;
+    }
+
+    @Override
+    public boolean addAll(Collection<? extends E> elements) {
+        if (elements.isEmpty()) {
+            return false;
+        }
+        @SuppressWarnings("unchecked")
+        E[] values = (E[]) elements.toArray();
+        root = merge(root, build(values));
+        modCount++;
+        return true;
+    }
+
+    @Override
+    public boolean removeIf(Predicate<? super E> filter) {
+        Objects.requireNonNull(filter);
+        Object[] values = toArray();
+        int kept = 0;
+        for (Object value : values) {
+            @SuppressWarnings("unchecked")
+            E element = (E) value;
+            if (!filter.test(element)) {
+                values[kept++] = value;
+            }
+        }
+        if (kept == values.length) {
+            return false;
+        }
+        @SuppressWarnings("unchecked")
+        E[] remaining = (E[]) Arrays.copyOf(values, kept);
+        root = build(remaining);
+        modCount++;
+        return true;
+    }
+
+    @Override
+    public boolean removeAll(Collection<?> elements) {
+        Objects.requireNonNull(elements);
+        return removeIf(elements::contains);
+    }
+
+    @Override
+    public boolean retainAll(Collection<?> elements) {
+        Objects.requireNonNull(elements);
+        return removeIf(element -> !elements.contains(element));
+    }
+
+    @Override
+    public void clear() {
+        root = null;
+        modCount++;
+    }
+
+    @Override
+    public Object[] toArray() {
+        Object[] values = new Object[size()];
+        int i = 0;
+        for (E element : this) {
+            values[i++] = element;
+        }
+        return values;
+    }
+
+    @Override
+    public Iterator<E> iterator() {
+        return new InOrderIterator();
+    }
+
+    /**
+     * Moves the element at one index to another, shifting the elements in between by one: the same result as
+     * add(to, remove(from)), in O(log n).
+     * @param from the current index of the element.
+     * @param to the index the element ends up at.
+     */
+    public void move(int from, int to) {
+        Objects.checkIndex(from, size());
+        Objects.checkIndex(to, size());
+        if (from != to) {
+            Split<E> head = split(root, from);
+            Split<E> tail = split(head.right, 1);
+            Node<E> rest = merge(head.left, tail.right);
+            Split<E> target = split(rest, to);
+            root = merge(merge(target.left, tail.left), target.right);
+            modCount++;
+        }
+    }
+
+    /**
+     * Reorders the whole list in a single O(n) pass: the element at index permutation[i] moves to index i.
+     * @param permutation a permutation of 0 .. size() - 1.
+     */
+    public void permute(int[] permutation) {
+        Object[] values = toArray();
+        if (permutation == null || permutation.length != values.length) {
+            throw new IllegalArgumentException("The permutation must hold exactly one index per element (" + values.length + ").");
+        }
+        boolean[] seen = new boolean[values.length];
+        Object[] reordered = new Object[values.length];
+        for (int i = 0; i < permutation.length; i++) {
+            int source = permutation[i];
+            if (source < 0 || source >= values.length || seen[source]) {
+                throw new IllegalArgumentException("Index " + source + " at position " + i + " of the permutation is out of bounds or repeated.");
+            }
+            seen[source] = true;
+            reordered[i] = values[source];
+        }
+        @SuppressWarnings("unchecked")
+        E[] elements = (E[]) reordered;
+        root = build(elements);
+        modCount++;
+    }
+
+    // Private helper methods.
+
+    private Node<E> nodeAt(int index) {
+        Node<E> node = root;
+        while (true) {
+            int leftSize = size(node.left);
+            if (index < leftSize) {
+                node = node.left;
+            } else if (index == leftSize) {
+                return node;
+            } else {
+                index -= leftSize + 1;
+                node = node.right;
+            }
+        }
+    }
+
+    /**
+     * Builds a treap over elements in order in O(n): priorities are drawn at random and the tree is the
+     * Cartesian tree of those priorities, built with a stack along its right spine.
+     */
+    private Node<E> build(E[] elements) {
+        Deque<Node<E>> rightSpine = new ArrayDeque<>();
+        for (E element : elements) {
+            Node<E> node = new Node<>(element, random.nextInt());
+            Node<E> last = null;
+            while (!rightSpine.isEmpty() && rightSpine.peekLast().priority < node.priority) {
+                last = rightSpine.pollLast();
+                update(last);
+            }
+            node.left = last;
+            if (!rightSpine.isEmpty()) {
+                rightSpine.peekLast().right = node;
+            }
+            rightSpine.addLast(node);
+        }
+        Node<E> top = null;
+        while (!rightSpine.isEmpty()) {
+            top = rightSpine.pollLast();
+            update(top);
+        }
+        return top;
+    }
+
+    /**
+     * Splits a tree into its first count elements and the rest.
+     */
+    private static <E> Split<E> split(Node<E> node, int count) {
+        if (node == null) {
+            return new Split<>(null, null);
+        }
+        int leftSize = size(node.left);
+        if (count <= leftSize) {
+            Split<E> split = split(node.left, count);
+            node.left = split.right;
+            update(node);
+            split.right = node;
+            return split;
+        }
+        Split<E> split = split(node.right, count - leftSize - 1);
+        node.right = split.left;
+        update(node);
+        split.left = node;
+        return split;
+    }
+
+    /**
+     * Concatenates two trees, every element of left coming before every element of right.
+     */
+    private static <E> Node<E> merge(Node<E> left, Node<E> right) {
+        if (left == null) {
+            return right;
+        }
+        if (right == null) {
+            return left;
+        }
+        if (left.priority > right.priority) {
+            left.right = merge(left.right, right);
+            update(left);
+            return left;
+        }
+        right.left = merge(left, right.left);
+        update(right);
+        return right;
+    }
+
+    private static int size(Node<?> node) {
+        return node == null ? 0 : node.size;
+    }
+
+    private static void update(Node<?> node) {
+        node.size = 1 + size(node.left) + size(node.right);
+    }
+
+    /**
+     * A tree node: an element, its heap priority and the size of its subtree.
+     */
+    private static final class Node<E> {
+        private E value;
+        private final int priority;
+        private int size;
+        private Node<E> left;
+        private Node<E> right;
+
+        private Node(E value, int priority) {
+            this.value = value;
+            this.priority = priority;
+            this.size = 1;
+        }
+    }
+
+    /**
+     * The two trees a split produces.
+     */
+    private static final class Split<E> {
+        private Node<E> left;
+        private Node<E> right;
+
+        private Split(Node<E> left, Node<E> right) {
+            this.left = left;
+            this.right = right;
+        }
+    }
+
+    /**
+     * In-order iterator keeping the path to the next node on a stack. Removal goes through remove(int) and then
+     * finds its way back to the next index in O(log n).
+     */
+    private final class InOrderIterator implements Iterator<E> {
+        private final Deque<Node<E>> path = new ArrayDeque<>();
+        private int nextIndex;
+        private int lastIndex = -1;
+        private int expectedModCount = modCount;
+
+        private InOrderIterator() {
+            pushLeftSpine(root);
+        }
+
+        @Override
+        public boolean hasNext() {
+            return nextIndex < size();
+        }
+
+        @Override
+        public E next() {
+            if (modCount != expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
+            if (path.isEmpty()) {
+                throw new NoSuchElementException();
+            }
+            Node<E> node = path.pollLast();
+            pushLeftSpine(node.right);
+            lastIndex = nextIndex++;
+            return node.value;
+        }
+
+        @Override
+        public void remove() {
+            if (lastIndex < 0) {
+                throw new IllegalStateException();
+            }
+            if (modCount != expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
+            TreapList.this.remove(lastIndex);
+            expectedModCount = modCount;
+            nextIndex = lastIndex;
+            lastIndex = -1;
+            seek(nextIndex);
+        }
+
+        private void pushLeftSpine(Node<E> node) {
+            for (; node != null; node = node.left) {
+                path.addLast(node);
+            }
+        }
+
+        /**
+         * Rebuilds the path so the next node returned is the one at index.
+         */
+        private void seek(int index) {
+            path.clear();
+            Node<E> node = root;
+            while (node != null) {
+                int leftSize = size(node.left);
+                if (index < leftSize) {
+                    path.addLast(node);
+                    node = node.left;
+                } else if (index == leftSize) {
+                    path.addLast(node);
+                    return;
+                } else {
+                    index -= leftSize + 1;
+                    node = node.right;
+                }
+            }
+        }
+    }
+}
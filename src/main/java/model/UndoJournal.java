@@ -0,0 +1,426 @@
+package model;
+
+import java.lang.ref.WeakReference;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Bounded journal of removed items (exercises of a workout, workouts of a routine) that can be restored, with
+ * redo of restorations.
+ *
+ * Removed items are kept as tombstones in an identity map threaded with a doubly linked list in removal order, so
+ * recording, looking up and restoring an item are O(1) and the oldest tombstone is always at the head. The journal
+ * is capped both in size and in age: recording past the capacity evicts the oldest tombstone, and tombstones older
+ * than the maximum age are evicted by compact(). Journals with an age cap are compacted on every write and, so that
+ * idle journals shrink as well, periodically by a shared background thread that only holds weak references to
+ * them (a journal is registered with it when it records its first removal). Memory therefore stays flat no
+ * matter how long a session runs.
+ *
+ * Items are looked up by equals, like the deleted lists the journal replaces, so an equal copy of a removed item
+ * finds its tombstone. Next to the identity map, a hash index keyed on the hash code an item had when it was
+ * recorded keeps that lookup O(1); an item changed after its removal is still found by identity. The journal is
+ * thread-safe.
+ *
+ * @param <T> the type of the journaled items.
+ */
+public class UndoJournal<T> {
+
+    /**
+     * The default maximum number of tombstones kept.
+     */
+    public static final int DEFAULT_CAPACITY = 256;
+
+    /**
+     * The default maximum age of a tombstone, in milliseconds (one day).
+     */
+    public static final long DEFAULT_MAX_AGE_MILLIS = TimeUnit.DAYS.toMillis(1);
+
+    /**
+     * The interval between two runs of the background compactor, in milliseconds.
+     */
+    public static final long COMPACTION_INTERVAL_MILLIS = TimeUnit.MINUTES.toMillis(1);
+
+    // the journals the background compactor visits; cleared references are dropped as it goes.
+    private static final Queue<WeakReference<UndoJournal<?>>> COMPACTED_JOURNALS = new ConcurrentLinkedQueue<>();
+
+    // the background compactor, started when the first journal with an age cap is created.
+    private static ScheduledExecutorService compactor;
+
+    // the maximum number of tombstones and of redo entries.
+    private final int capacity;
+
+    // the maximum age of a tombstone, in milliseconds.
+    private final long maxAgeMillis;
+
+    // the clock tombstones are stamped with.
+    private final LongSupplier clock;
+
+    // the tombstone of every removed item, by identity.
+    private final Map<T, Tombstone<T>> tombstones;
+
+    // the tombstones by the hash code of their item when it was recorded, chained through Tombstone.nextWithHash.
+    private final Map<Integer, Tombstone<T>> tombstonesByHash;
+
+    // the oldest and newest tombstones.
+    private Tombstone<T> oldest;
+    private Tombstone<T> newest;
+
+    // the restored items that can be removed again, most recent last.
+    private final Deque<T> redoHistory;
+
+    // the number of tombstones evicted by the size or age cap.
+    private long evictedCount;
+
+    // whether the background compactor visits this journal; journals register on their first tombstone.
+    private boolean registered;
+
+    /**
+     * Creates a journal with the default capacity and maximum age.
+     */
+    public UndoJournal() {
+        this(DEFAULT_CAPACITY, DEFAULT_MAX_AGE_MILLIS);
+    }
+
+    /**
+     * Creates a journal.
+     * @param capacity the maximum number of tombstones kept.
+     * @param maxAgeMillis the maximum age of a tombstone in milliseconds, or Long.MAX_VALUE for no age cap.
+     */
+    public UndoJournal(int capacity, long maxAgeMillis) {
+        this(capacity, maxAgeMillis, System::currentTimeMillis);
+    }
+
+    // Package-private constructor with an explicit clock, for tests.
+    UndoJournal(int capacity, long maxAgeMillis, LongSupplier clock) {
+        if (capacity < 1 || maxAgeMillis < 1 || clock == null) {
+            throw new IllegalArgumentException("Undo journal capacity (" + capacity + ") and maximum age (" + maxAgeMillis
+                    + ") cannot be less than 1, and its clock cannot be null.");
+        }
+        this.capacity = capacity;
+        this.maxAgeMillis = maxAgeMillis;
+        this.clock = clock;
+        this.tombstones = new IdentityHashMap<>(4);
+        this.tombstonesByHash = new HashMap<>(4);
+        this.redoHistory = new ArrayDeque<>(1);
+    }
+
+    /**
+     * Records the removal of an item. A new removal starts a new history, so the redo history is cleared.
+     * @param item the removed item.
+     */
+    public synchronized void record(T item) {
+        checkItemIsNotNull(item);
+        redoHistory.clear();
+        append(item);
+    }
+
+    /**
+     * Records the removal of several items at once, in order.
+     * @param items the removed items.
+     */
+    public synchronized void recordAll(Collection<? extends T> items) {
+        redoHistory.clear();
+        for (T item : items) {
+            checkItemIsNotNull(item);
+            append(item);
+        }
+    }
+
+    /**
+     * Checks whether an item, or an item equal to it, has a tombstone and can be restored.
+     * @param item the item to look for.
+     * @return true if the item is in the journal, false otherwise.
+     */
+    public synchronized boolean contains(T item) {
+        return find(item) != null;
+    }
+
+    /**
+     * Restores an item: the tombstone of the item, or of an item equal to it, is dropped and the given item is
+     * added to the redo history.
+     * @param item the item to restore.
+     * @return true if the item was in the journal, false otherwise.
+     */
+    public synchronized boolean restore(T item) {
+        if (!discard(item)) {
+            return false;
+        }
+        if (redoHistory.size() == capacity) {
+            redoHistory.removeFirst();
+        }
+        redoHistory.addLast(item);
+        return true;
+    }
+
+    /**
+     * Drops the tombstone of an item, or of an item equal to it, without making the restoration redoable, e.g.
+     * when a batch re-adds it.
+     * @param item the item to drop.
+     * @return true if the item was in the journal, false otherwise.
+     */
+    public synchronized boolean discard(T item) {
+        Tombstone<T> tombstone = find(item);
+        if (tombstone == null) {
+            return false;
+        }
+        drop(tombstone);
+        return true;
+    }
+
+    /**
+     * Gets the most recently removed item, which undo restores.
+     * @return the newest item in the journal, or null if it is empty.
+     */
+    public synchronized T peekUndo() {
+        return newest == null ? null : newest.item;
+    }
+
+    /**
+     * Gets the most recently restored item, which redo removes again.
+     * @return the newest item of the redo history, or null if it is empty.
+     */
+    public synchronized T peekRedo() {
+        return redoHistory.peekLast();
+    }
+
+    /**
+     * Redoes the most recent restoration: the item leaves the redo history and gets a tombstone again, while the
+     * rest of the redo history is kept.
+     * @return the item to remove again.
+     */
+    public synchronized T redo() {
+        T item = redoHistory.pollLast();
+        if (item == null) {
+            throw new IllegalStateException("There is no restoration to redo.");
+        }
+        append(item);
+        return item;
+    }
+
+    /**
+     * Clears the redo history, e.g. after a mutation that is not an undo or redo.
+     */
+    public synchronized void clearRedo() {
+        redoHistory.clear();
+    }
+
+    /**
+     * Evicts every tombstone older than the maximum age.
+     * @return the number of evicted tombstones.
+     */
+    public synchronized int compact() {
+        if (maxAgeMillis == Long.MAX_VALUE) {
+            return 0;
+        }
+        long cutoff = clock.getAsLong() - maxAgeMillis;
+        int evicted = 0;
+        while (oldest != null && oldest.removedAt < cutoff) {
+            evictOldest();
+            evicted++;
+        }
+        return evicted;
+    }
+
+    /**
+     * Gets the items of the journal, oldest removal first.
+     * @return a copy of the journaled items.
+     */
+    public synchronized List<T> snapshot() {
+        List<T> items = new ArrayList<>(tombstones.size());
+        for (Tombstone<T> tombstone = oldest; tombstone != null; tombstone = tombstone.next) {
+            items.add(tombstone.item);
+        }
+        return items;
+    }
+
+    /**
+     * Gets the number of tombstones in the journal.
+     * @return the journal size.
+     */
+    public synchronized int size() {
+        return tombstones.size();
+    }
+
+    /**
+     * Gets the number of tombstones evicted by the size or age cap since the journal was created.
+     * @return the evicted count.
+     */
+    public synchronized long getEvictedCount() {
+        return evictedCount;
+    }
+
+    /**
+     * Gets the maximum number of tombstones kept.
+     * @return the capacity.
+     */
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * Gets the maximum age of a tombstone.
+     * @return the maximum age in milliseconds.
+     */
+    public long getMaxAgeMillis() {
+        return maxAgeMillis;
+    }
+
+    // Private helper methods.
+
+    /**
+     * Finds the tombstone of an item by identity, then among the tombstones of equal items.
+     */
+    private Tombstone<T> find(T item) {
+        if (item == null) {
+            return null;
+        }
+        Tombstone<T> tombstone = tombstones.get(item);
+        if (tombstone != null) {
+            return tombstone;
+        }
+        for (tombstone = tombstonesByHash.get(item.hashCode()); tombstone != null; tombstone = tombstone.nextWithHash) {
+            if (item.equals(tombstone.item)) {
+                return tombstone;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Adds a tombstone for an item at the newest end, replacing any previous one of the item or of an equal item,
+     * then applies both caps.
+     */
+    private void append(T item) {
+        discard(item);
+        Tombstone<T> tombstone = new Tombstone<>(item, item.hashCode(), clock.getAsLong());
+        tombstones.put(item, tombstone);
+        tombstone.nextWithHash = tombstonesByHash.put(tombstone.hash, tombstone);
+        tombstone.previous = newest;
+        if (newest != null) {
+            newest.next = tombstone;
+        } else {
+            oldest = tombstone;
+        }
+        newest = tombstone;
+        if (!registered && maxAgeMillis != Long.MAX_VALUE) {
+            registerForCompaction(this);
+            registered = true;
+        }
+
+        while (tombstones.size() > capacity) {
+            evictOldest();
+        }
+        compact();
+    }
+
+    private void evictOldest() {
+        drop(oldest);
+        evictedCount++;
+    }
+
+    /**
+     * Removes a tombstone from the identity map, the hash index and the removal order.
+     */
+    private void drop(Tombstone<T> tombstone) {
+        tombstones.remove(tombstone.item);
+        Tombstone<T> head = tombstonesByHash.get(tombstone.hash);
+        if (head == tombstone) {
+            if (tombstone.nextWithHash == null) {
+                tombstonesByHash.remove(tombstone.hash);
+            } else {
+                tombstonesByHash.put(tombstone.hash, tombstone.nextWithHash);
+            }
+        } else {
+            while (head.nextWithHash != tombstone) {
+                head = head.nextWithHash;
+            }
+            head.nextWithHash = tombstone.nextWithHash;
+        }
+        tombstone.nextWithHash = null;
+        unlink(tombstone);
+    }
+
+    private void unlink(Tombstone<T> tombstone) {
+        if (tombstone.previous != null) {
+            tombstone.previous.next = tombstone.next;
+        } else {
+            oldest = tombstone.next;
+        }
+        if (tombstone.next != null) {
+            tombstone.next.previous = tombstone.previous;
+        } else {
+            newest = tombstone.previous;
+        }
+        tombstone.previous = null;
+        tombstone.next = null;
+    }
+
+    private static void checkItemIsNotNull(Object item) {
+        if (item == null) {
+            throw new IllegalArgumentException("Cannot record a null item in the undo journal.");
+        }
+    }
+
+    /**
+     * Adds a journal to the ones the background compactor visits, starting the compactor if needed.
+     */
+    private static synchronized void registerForCompaction(UndoJournal<?> journal) {
+        COMPACTED_JOURNALS.add(new WeakReference<>(journal));
+        if (compactor == null) {
+            compactor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "undo-journal-compactor");
+                thread.setDaemon(true);
+                return thread;
+            });
+            compactor.scheduleWithFixedDelay(UndoJournal::compactAll, COMPACTION_INTERVAL_MILLIS,
+                    COMPACTION_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Compacts every live registered journal and forgets the ones that were garbage collected.
+     */
+    private static void compactAll() {
+        Iterator<WeakReference<UndoJournal<?>>> iterator = COMPACTED_JOURNALS.iterator();
+        while (iterator.hasNext()) {
+            UndoJournal<?> journal = iterator.next().get();
+            if (journal == null) {
+                iterator.remove();
+            } else {
+                journal.compact();
+            }
+        }
+    }
+
+    /**
+     * A removed item, linked to the tombstones removed just before and after it and to the next tombstone whose
+     * item had the same hash code.
+     */
+    private static final class Tombstone<T> {
+        private final T item;
+        private final int hash;
+        private final long removedAt;
+        private Tombstone<T> previous;
+        private Tombstone<T> next;
+        private Tombstone<T> nextWithHash;
+
+        private Tombstone(T item, int hash, long removedAt) {
+            this.item = item;
+            this.hash = hash;
+            this.removedAt = removedAt;
+        }
+    }
+}
@@ -0,0 +1,141 @@
+package model;
+
+/**
+ * Mergeable summary of a series of per-set volumes (reps x the load given by ExerciseData.loadOf). It keeps only
+ * the count, sum, sum of squares, minimum and maximum, so two summaries of disjoint series merge in O(1) into the
+ * summary of their union. This is what lets ParallelAnalytics summarize parts of a routine tree on different
+ * threads and combine the results.
+ *
+ * Only the analytics code that builds a summary may mutate it; everyone else gets read access.
+ */
+public class VolumeSummary {
+
+    // the number of sets summarized.
+    private long count;
+
+    // the sum of the volumes.
+    private double sum;
+
+    // the sum of the squared volumes.
+    private double sumOfSquares;
+
+    // the smallest and largest volume, meaningful only when count > 0.
+    private double min;
+    private double max;
+
+    // Default (empty) volume summary constructor.
+    public VolumeSummary() {
+        this.min = Double.POSITIVE_INFINITY;
+        this.max = Double.NEGATIVE_INFINITY;
+    }
+
+    /**
+     * Gets the number of sets summarized.
+     * @return the set count.
+     */
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     * Gets the total volume, the IData cumulative sum over every summarized set.
+     * @return the sum of the volumes.
+     */
+    public double getSum() {
+        return sum;
+    }
+
+    /**
+     * Gets the sum of the squared volumes.
+     * @return the sum of squares.
+     */
+    public double getSumOfSquares() {
+        return sumOfSquares;
+    }
+
+    /**
+     * Gets the smallest volume of a set.
+     * @return the minimum, or 0 if nothing was summarized.
+     */
+    public double getMin() {
+        return count == 0 ? 0 : min;
+    }
+
+    /**
+     * Gets the largest volume of a set.
+     * @return the maximum, or 0 if nothing was summarized.
+     */
+    public double getMax() {
+        return count == 0 ? 0 : max;
+    }
+
+    /**
+     * Gets the mean volume per set.
+     * @return the mean, or 0 if nothing was summarized.
+     */
+    public double getMean() {
+        return count == 0 ? 0 : sum / count;
+    }
+
+    /**
+     * Gets the population variance of the volume per set.
+     * @return the variance, or 0 if nothing was summarized.
+     */
+    public double getVariance() {
+        if (count == 0) {
+            return 0;
+        }
+        double mean = sum / count;
+        return Math.max(0, sumOfSquares / count - mean * mean);
+    }
+
+    /**
+     * Gets the population standard deviation of the volume per set.
+     * @return the standard deviation, or 0 if nothing was summarized.
+     */
+    public double getStandardDeviation() {
+        return Math.sqrt(getVariance());
+    }
+
+    /**
+     * Gets the difference between the highest and lowest volume per set.
+     * @return the range, or 0 if nothing was summarized.
+     */
+    public double getRange() {
+        return getMax() - getMin();
+    }
+
+    @Override
+    public String toString() {
+        return "VolumeSummary{count=" + count + ", sum=" + sum + ", mean=" + getMean()
+                + ", standardDeviation=" + getStandardDeviation() + ", min=" + getMin() + ", max=" + getMax() + "}";
+    }
+
+    // Package-private mutators.
+
+    /**
+     * Adds the volume of one set.
+     * @param volume the volume to add.
+     */
+    void add(double volume) {
+        count++;
+        sum += volume;
+        sumOfSquares += volume * volume;
+        min = Math.min(min, volume);
+        max = Math.max(max, volume);
+    }
+
+    /**
+     * Merges another summary into this one, which then summarizes both series.
+     * @param other the summary to merge.
+     * @return this summary.
+     */
+    VolumeSummary merge(VolumeSummary other) {
+        count += other.count;
+        sum += other.sum;
+        sumOfSquares += other.sumOfSquares;
+        min = Math.min(min, other.min);
+        max = Math.max(max, other.max);
+        return this;
+    }
+}
@@ -1,8 +1,12 @@
 package model;
 
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Collections;
+import java.util.Set;
 
 /**
  * Implementation of the IWorkout interface which represents a workout. A workout is composed of the following:
@@ -11,20 +15,33 @@ import java.util.Collections;
  */
 public class Workout implements IWorkout {
 
+    // the listener every workout starts with, which keeps the historical console messages.
+    private static final IModelEventListener DEFAULT_EVENT_LISTENER = new ConsoleEventListener();
+
     // the name of the workout.
     private String name;
 
     // a list to hold the current/active exercises of the workout.
     private final List<IExercise> currentExercises;
 
-    // a list to hold the inactive/deleted exercises of the workout.
-    private final List<IExercise> deletedExercises;
+    // a bounded journal of the inactive/deleted exercises of the workout, which can be restored.
+    private final UndoJournal<IExercise> deletedExercises;
+
+    // the listener notified of every mutation of this workout; prints to the console by default.
+    private IModelEventListener eventListener = DEFAULT_EVENT_LISTENER;
+
+    // the volume and rep totals of the current exercises, kept up to date on every mutation.
+    private final TrainingAggregates aggregates = new TrainingAggregates();
+
+    // the positions of the current exercises of every mode, kept up to date on every mutation.
+    private final ModeIndex modeIndex;
 
     // Default workout constructor.
     public Workout(String name) {
         this.name = name;
         this.currentExercises = new ArrayList<>();
-        this.deletedExercises = new ArrayList<>();
+        this.deletedExercises = new UndoJournal<>();
+        this.modeIndex = new ModeIndex(currentExercises);
 
         checkWorkoutNameIsValid();
     }
@@ -39,11 +56,13 @@ public class Workout implements IWorkout {
         checkAddExerciseRejectsDuplicates(exercise);
 
         if (deletedExercises.contains(exercise)) {
-            restoreExercise(exercise); //TODO WRITE TEST FOR THIS PART OF LOGIC.
-            System.out.println("Exercise \"" + exercise.getName() + "\" restored to workout \"" + name + "\".");
+            restoreExercise(exercise); // restoreExercise reports the restoration itself.
         } else {
+            deletedExercises.clearRedo();
             this.currentExercises.add(exercise);
-            System.out.println("Exercise \"" + exercise.getName() + "\" added to workout \"" + name + "\".");
+            modeIndex.appended(currentExercises.size() - 1);
+            aggregates.track(exercise);
+            publish(ModelEventType.EXERCISE_ADDED, exercise, null);
         }
     }
 
@@ -59,10 +78,14 @@ public class Workout implements IWorkout {
             throw new IllegalArgumentException("The exercise \"" + exercise.getName() + "\" in workout \"" + name + "\" has already been removed.");
         }
 
-        if (currentExercises.contains(exercise)) {
-            currentExercises.remove(exercise);
-            deletedExercises.add(exercise);
-            System.out.println("Exercise \"" + exercise.getName() + "\" removed from workout \"" + name + "\".");
+        int position = currentExercises.indexOf(exercise);
+        if (position != -1) {
+            // the list matched by equals: journal and untrack the instance it held, so restore finds it by identity.
+            IExercise removed = currentExercises.remove(position);
+            modeIndex.removed(position, removed);
+            deletedExercises.record(removed);
+            aggregates.untrack(removed);
+            publish(ModelEventType.EXERCISE_REMOVED, removed, null);
             validateWorkoutHasAtLeastOneExercise(); // Validate after removal
         } else {
             throw new IllegalArgumentException("The exercise \"" + exercise.getName() + "\" does not exist in the current exercises list of workout \"" + name + "\".");
@@ -83,8 +106,12 @@ public class Workout implements IWorkout {
         int currentExerciseIndex = currentExercises.indexOf(currentExercise);
 
         if (currentExerciseIndex != -1) {
-            currentExercises.set(currentExerciseIndex, newExercise);
-            System.out.println("Exercise \"" + currentExercise.getName() + "\" updated to \"" + newExercise.getName() + "\" in workout \"" + name + "\".");
+            IExercise previous = currentExercises.set(currentExerciseIndex, newExercise);
+            modeIndex.replaced(currentExerciseIndex, previous);
+            deletedExercises.clearRedo();
+            aggregates.untrack(previous);
+            aggregates.track(newExercise);
+            publish(ModelEventType.EXERCISE_EDITED, newExercise, currentExercise.getName());
         } else {
             throw new IllegalArgumentException("The exercise \"" + currentExercise.getName() + "\" was not found in workout \"" + name + "\".");
         }
@@ -96,15 +123,88 @@ public class Workout implements IWorkout {
      */
     @Override
     public void restoreExercise(IExercise exercise) {
-        if (deletedExercises.contains(exercise)) {
-            deletedExercises.remove(exercise);
+        checkExerciseIsNotNull(exercise);
+        if (deletedExercises.restore(exercise)) {
             currentExercises.add(exercise);
-            System.out.println("Exercise \"" + exercise.getName() + "\" restored to workout \"" + name + "\".");
+            modeIndex.appended(currentExercises.size() - 1);
+            aggregates.track(exercise);
+            publish(ModelEventType.EXERCISE_RESTORED, exercise, null);
         } else {
             throw new IllegalArgumentException("The exercise \"" + exercise.getName() + "\" is not in the deleted exercises list for workout \"" + name + "\".");
         }
     }
 
+    /**
+     * Adds several exercises to the workout at once. The batch is validated up front with a single hashed pass,
+     * so either every exercise is added (previously deleted ones are restored) or the workout is left unchanged.
+     * A single EXERCISES_ADDED event is published for the whole batch.
+     * @param exercises the exercises to add, in order.
+     */
+    @Override
+    public void addExercises(Collection<? extends IExercise> exercises) {
+        Set<IExercise> batch = checkBatchIsValid(exercises);
+        if (batch.isEmpty()) {
+            return;
+        }
+
+        Set<IExercise> current = new HashSet<>(currentExercises);
+        for (IExercise exercise : batch) {
+            if (current.contains(exercise)) {
+                throw new IllegalStateException("Cannot add duplicate exercise \"" + exercise.getName() + "\" to workout \"" + name + "\".");
+            }
+        }
+
+        for (IExercise exercise : batch) {
+            deletedExercises.discard(exercise);
+        }
+        deletedExercises.clearRedo();
+        int firstAdded = currentExercises.size();
+        currentExercises.addAll(batch);
+        for (int i = firstAdded; i < currentExercises.size(); i++) {
+            modeIndex.appended(i);
+        }
+        for (IExercise exercise : batch) {
+            aggregates.track(exercise);
+        }
+        publishBatch(ModelEventType.EXERCISES_ADDED, batch);
+    }
+
+    /**
+     * Removes several exercises from the workout at once. The batch is validated up front, so either every
+     * exercise is removed or the workout is left unchanged; removing every exercise is rejected, since a workout
+     * must keep at least one. A single EXERCISES_REMOVED event is published for the whole batch.
+     * @param exercises the exercises to remove.
+     */
+    @Override
+    public void removeExercises(Collection<? extends IExercise> exercises) {
+        Set<IExercise> batch = checkBatchIsValid(exercises);
+        if (batch.isEmpty()) {
+            return;
+        }
+
+        Set<IExercise> current = new HashSet<>(currentExercises);
+        for (IExercise exercise : batch) {
+            if (deletedExercises.contains(exercise)) {
+                throw new IllegalArgumentException("The exercise \"" + exercise.getName() + "\" in workout \"" + name + "\" has already been removed.");
+            }
+            if (!current.contains(exercise)) {
+                throw new IllegalArgumentException("The exercise \"" + exercise.getName() + "\" does not exist in the current exercises list of workout \"" + name + "\".");
+            }
+        }
+        if (batch.size() >= currentExercises.size()) {
+            throw new IllegalStateException("A workout must contain at least one exercise.");
+        }
+
+        List<IExercise> removed = new ArrayList<>(batch.size());
+        currentExercises.removeIf(exercise -> batch.contains(exercise) && removed.add(exercise));
+        modeIndex.rebuild();
+        deletedExercises.recordAll(removed);
+        for (IExercise exercise : removed) {
+            aggregates.untrack(exercise);
+        }
+        publishBatch(ModelEventType.EXERCISES_REMOVED, removed);
+    }
+
     /**
      * Prints this workout in the following format:
      * Workout name:
@@ -112,19 +212,11 @@ public class Workout implements IWorkout {
      * 2. (repeat 1 for all exercises in the workout).
      *
      * If the currentExercise list is empty, it will say there are no exercises in the workout.
+     * @param printer where and how to print it.
      */
     @Override
-    public void printWorkout() {
-        if (currentExercises.isEmpty()) {
-            System.out.println("\n" + name + ":\nNo exercises in this workout.");
-            return;
-        }
-
-        System.out.println("\n" + name + ":");
-        for (int i = 0; i < currentExercises.size(); i++) {
-            System.out.print((i + 1) + ". ");
-            currentExercises.get(i).printExercise(); // Delegate printing to `printExercise`
-        }
+    public void printWorkout(IModelPrinter printer) {
+        printer.printWorkout(name, currentExercises);
     }
 
     /**
@@ -147,8 +239,49 @@ public class Workout implements IWorkout {
             throw new IllegalArgumentException("Workout name cannot be null or empty stirng. Please choose a valid name");
         }
 
-        System.out.println("Workout name changed from \"" + this.name + "\" to \"" + newName + "\".");
+        String previousName = this.name;
         this.name = newName;
+        publish(ModelEventType.WORKOUT_RENAMED, null, previousName);
+    }
+
+    /**
+     * Sets the listener notified of every mutation of this workout, replacing the default console listener.
+     * @param eventListener the new listener.
+     */
+    public void setEventListener(IModelEventListener eventListener) {
+        if (eventListener == null) {
+            throw new IllegalArgumentException("Event listener of workout \"" + name + "\" cannot be null.");
+        }
+        this.eventListener = eventListener;
+    }
+
+    /**
+     * Gets the volume, rep completion and per-mode totals of the current exercises. They are maintained
+     * incrementally by the mutators of this workout and by observing its exercises, so every read is O(1).
+     * Changes made directly to the list returned by getExerciseList are not reflected.
+     * @return the aggregates of this workout.
+     */
+    public TrainingAggregates getAggregates() {
+        return aggregates;
+    }
+
+    /**
+     * Gets the index of the current exercises by mode, which answers per-mode queries by visiting only the
+     * exercises of that mode. It is maintained by the mutators of this workout and by observing its exercises.
+     * Changes made directly to the list returned by getExerciseList are not reflected.
+     * @return the mode index of this workout.
+     */
+    public ModeIndex getModeIndex() {
+        return modeIndex;
+    }
+
+    /**
+     * Gets the current exercises of a mode, in workout order.
+     * @param mode the mode.
+     * @return the exercises of that mode, as an unmodifiable list.
+     */
+    public List<IExercise> getExercises(Mode mode) {
+        return modeIndex.getExercises(mode);
     }
 
     /**
@@ -162,11 +295,55 @@ public class Workout implements IWorkout {
 
 
     /**
-     * Obtains the current list of deleted exercises as an unmodifiable list.
+     * Obtains the current list of deleted exercises, oldest deletion first, as an unmodifiable list.
+     * Deleted exercises are kept in a bounded journal, so the oldest ones are eventually forgotten.
      * @return the current list of deleted exercises.
      */
     public List<IExercise> getDeletedExercises() {
-        return Collections.unmodifiableList(deletedExercises);
+        return Collections.unmodifiableList(deletedExercises.snapshot());
+    }
+
+    /**
+     * Gets the journal of the deleted exercises, e.g. to compact it or inspect its caps.
+     * @return the undo journal of this workout.
+     */
+    public UndoJournal<IExercise> getUndoJournal() {
+        return deletedExercises;
+    }
+
+    /**
+     * Restores the most recently deleted exercise.
+     * @return the restored exercise.
+     */
+    public IExercise undoRemoval() {
+        IExercise exercise = deletedExercises.peekUndo();
+        if (exercise == null) {
+            throw new IllegalStateException("There is no deleted exercise to restore in workout \"" + name + "\".");
+        }
+        restoreExercise(exercise);
+        return exercise;
+    }
+
+    /**
+     * Deletes again the most recently restored exercise, as long as no other change was made since.
+     * @return the deleted exercise.
+     */
+    public IExercise redoRemoval() {
+        IExercise exercise = deletedExercises.peekRedo();
+        if (exercise == null) {
+            throw new IllegalStateException("There is no restored exercise to delete again in workout \"" + name + "\".");
+        }
+        validateWorkoutKeepsAnExerciseAfterRemoval();
+        for (int i = 0; i < currentExercises.size(); i++) {
+            if (currentExercises.get(i) == exercise) { // the restored instance, not just an equal one
+                modeIndex.removed(i, currentExercises.remove(i));
+                break;
+            }
+        }
+        deletedExercises.redo();
+        aggregates.untrack(exercise);
+        publish(ModelEventType.EXERCISE_REMOVED, exercise, null);
+        return exercise;
     }
 
     /**
@@ -190,6 +367,15 @@ public class Workout implements IWorkout {
         return result;
     }
 
+    /**
+     * Overriden default hashCode method so workouts can be used in hashed collections.
+     * @return the hashcode of the object.
+     */
+    @Override
+    public int hashCode() {
+        return hashcode();
+    }
+
     /**
      * Overriden equals method which check if this object is equal to @param object.
      * @param object the other object to compare with.
@@ -206,6 +392,44 @@ public class Workout implements IWorkout {
 
     // Private helper methods.
 
+    /**
+     * Notifies the event listener of a mutation of this workout.
+     * @param type the kind of mutation.
+     * @param exercise the affected exercise, or null for renames.
+     * @param previousName the previous exercise or workout name, or null.
+     */
+    private void publish(ModelEventType type, IExercise exercise, String previousName) {
+        eventListener.onEvent(new ModelEvent(type, this, exercise, previousName));
+    }
+
+    /**
+     * Notifies the event listener of a batch mutation of this workout.
+     * @param type EXERCISES_ADDED or EXERCISES_REMOVED.
+     * @param exercises the exercises of the batch.
+     */
+    private void publishBatch(ModelEventType type, Collection<IExercise> exercises) {
+        eventListener.onEvent(new ModelEvent(type, this, new ArrayList<>(exercises)));
+    }
+
+    /**
+     * Verifies that a batch holds no null and no repeated exercises.
+     * @param exercises the batch to check.
+     * @return the exercises of the batch, in order.
+     */
+    private Set<IExercise> checkBatchIsValid(Collection<? extends IExercise> exercises) {
+        if (exercises == null) {
+            throw new IllegalArgumentException("Cannot add or delete a null batch of exercises in workout \"" + name + "\".");
+        }
+        Set<IExercise> batch = new LinkedHashSet<>();
+        for (IExercise exercise : exercises) {
+            checkExerciseIsNotNull(exercise);
+            if (!batch.add(exercise)) {
+                throw new IllegalStateException("The exercise \"" + exercise.getName() + "\" appears more than once in the batch for workout \"" + name + "\".");
+            }
+        }
+        return batch;
+    }
+
     /**
      * Verifies that an edited exercise is different that its current version.
      * @param currentExercise the current exercise.
@@ -239,6 +463,15 @@ public class Workout implements IWorkout {
         }
     }
 
+    /**
+     * Validates that the workout keeps at least one exercise after one more removal.
+     */
+    private void validateWorkoutKeepsAnExerciseAfterRemoval() {
+        if (currentExercises.size() <= 1) {
+            throw new IllegalStateException("A workout must contain at least one exercise.");
+        }
+    }
+
     /**
      * Validates that the workout contains at least one exercise.
      */
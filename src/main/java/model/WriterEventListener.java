@@ -0,0 +1,51 @@
+package model;
+
+import java.io.BufferedWriter;
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+
+/**
+ * Listener that writes one line per event to a Writer through a buffer. Output is only guaranteed to reach
+ * the underlying writer after flush(); AsyncEventSink flushes once per batch.
+ */
+public class WriterEventListener implements IModelEventListener, Flushable {
+
+    // the buffered writer events are written to.
+    private final BufferedWriter writer;
+
+    /**
+     * Creates a listener writing to the given writer.
+     * @param writer the destination of the event lines.
+     */
+    public WriterEventListener(Writer writer) {
+        if (writer == null) {
+            throw new IllegalArgumentException("Cannot write events to a null writer.");
+        }
+        this.writer = writer instanceof BufferedWriter ? (BufferedWriter) writer : new BufferedWriter(writer);
+    }
+
+    /**
+     * Writes the description of the event on its own line.
+     * @param event the event describing the mutation.
+     */
+    @Override
+    public void onEvent(ModelEvent event) {
+        try {
+            writer.write(event.describe());
+            writer.newLine();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not write model event.", e);
+        }
+    }
+
+    /**
+     * Flushes the buffered lines to the underlying writer.
+     * @throws IOException if the underlying writer fails.
+     */
+    @Override
+    public void flush() throws IOException {
+        writer.flush();
+    }
+}
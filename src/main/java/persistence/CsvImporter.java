@@ -0,0 +1,519 @@
+package persistence;
+
+import model.Exercise;
+import model.IModelEventListener;
+import model.IndexedWorkout;
+import model.Mode;
+import model.Routine;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Streaming importer for delimited (CSV or TSV) gym logs. Every row describes one exercise:
+ *
+ *     routine, workout, exercise, sets, targetReps, weight, mode, reps
+ *
+ * where mode is one of the Mode names (any case) and reps is an optional ';'-separated list with one entry per
+ * set (e.g. "10;10;8"); when it is empty every set starts at 0 reps. Fields may be quoted with '"', doubling
+ * quotes inside quoted fields.
+ *
+ * The input is read through a fixed char buffer and each row is parsed in place, numbers and modes included,
+ * without regular expressions or per-field strings. A row longer than MAX_ROW_LENGTH characters (e.g. one left
+ * open by an unterminated quote) is cut off at the next line break and reported as malformed, so the row buffer
+ * stays bounded. Rows must be grouped by routine: a routine is handed to the
+ * IImportListener as soon as the rows move on to another one, so memory stays bounded by the largest routine.
+ * Exercises are buffered per workout and added in batches to IndexedWorkouts, so duplicate checks stay O(1),
+ * and workouts report nothing while importing.
+ *
+ * Malformed rows and rows the model rejects (invalid values, duplicate exercises) are counted and sampled in the
+ * ImportReport instead of aborting the import. An importer is not thread-safe but can be reused for several imports.
+ */
+public class CsvImporter {
+
+    /**
+     * The default number of exercises buffered before they are added to their workout.
+     */
+    public static final int DEFAULT_BATCH_SIZE = 512;
+
+    /**
+     * The maximum number of characters of a row, after unescaping.
+     */
+    public static final int MAX_ROW_LENGTH = 64 * 1024;
+
+    // the number of fields a row must have at least (reps is optional).
+    private static final int REQUIRED_FIELDS = 7;
+
+    // the column positions.
+    private static final int ROUTINE = 0;
+    private static final int WORKOUT = 1;
+    private static final int EXERCISE = 2;
+    private static final int SETS = 3;
+    private static final int TARGET_REPS = 4;
+    private static final int WEIGHT = 5;
+    private static final int MODE = 6;
+    private static final int REPS = 7;
+
+    // the weights with at most this many significant digits (and no exponent) are parsed without Double.parseDouble,
+    // since every such mantissa and the power of ten dividing it are exact doubles, making the quotient exact-rounded.
+    private static final int MAX_FAST_WEIGHT_DIGITS = 15;
+
+    // the powers of ten that are exact doubles, 10^0 to 10^22.
+    private static final double[] POWERS_OF_TEN = new double[23];
+
+    static {
+        POWERS_OF_TEN[0] = 1;
+        for (int i = 1; i < POWERS_OF_TEN.length; i++) {
+            POWERS_OF_TEN[i] = POWERS_OF_TEN[i - 1] * 10;
+        }
+    }
+
+    // the modes, to match mode fields against.
+    private static final Mode[] MODES = Mode.values();
+
+    // the listener given to imported workouts, which discards their events.
+    private static final IModelEventListener SILENT = event -> { };
+
+    // the field delimiter.
+    private final char delimiter;
+
+    // whether the first row is a header to skip.
+    private final boolean hasHeader;
+
+    // the number of exercises buffered before they are added to their workout.
+    private final int batchSize;
+
+    // the input buffer.
+    private final char[] buffer;
+    private int bufferPosition;
+    private int bufferLimit;
+
+    // the unescaped characters of the current row and the bounds of each of its fields.
+    private final StringBuilder row;
+    private int[] fieldStarts;
+    private int[] fieldEnds;
+    private int fieldCount;
+
+    // the exercises waiting to be added to the pending workout, with the line each came from.
+    private final Exercise[] pendingExercises;
+    private final long[] pendingLines;
+    private int pendingCount;
+    private IndexedWorkout pendingWorkout;
+
+    /**
+     * Creates an importer.
+     * @param delimiter the field delimiter, e.g. ',' or '\t'.
+     * @param hasHeader whether the first row is a header to skip.
+     * @param batchSize the number of exercises buffered before they are added to their workout.
+     */
+    public CsvImporter(char delimiter, boolean hasHeader, int batchSize) {
+        if (delimiter == '"' || delimiter == '\n' || delimiter == '\r') {
+            throw new IllegalArgumentException("Delimiter cannot be a quote or a line break.");
+        }
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("Batch size (" + batchSize + ") cannot be less than 1.");
+        }
+        this.delimiter = delimiter;
+        this.hasHeader = hasHeader;
+        this.batchSize = batchSize;
+        this.buffer = new char[64 * 1024];
+        this.row = new StringBuilder(256);
+        this.fieldStarts = new int[REPS + 1];
+        this.fieldEnds = new int[REPS + 1];
+        this.pendingExercises = new Exercise[batchSize];
+        this.pendingLines = new long[batchSize];
+    }
+
+    /**
+     * Creates an importer for comma-separated files with a header row.
+     * @return a CSV importer.
+     */
+    public static CsvImporter csv() {
+        return new CsvImporter(',', true, DEFAULT_BATCH_SIZE);
+    }
+
+    /**
+     * Creates an importer for tab-separated files with a header row.
+     * @return a TSV importer.
+     */
+    public static CsvImporter tsv() {
+        return new CsvImporter('\t', true, DEFAULT_BATCH_SIZE);
+    }
+
+    /**
+     * Imports every row of the input, handing each completed routine to the listener.
+     * @param reader the input to read; it is not closed.
+     * @param listener the consumer of the imported routines.
+     * @return the report of the import.
+     * @throws IOException if the input cannot be read.
+     */
+    public ImportReport importFrom(Reader reader, IImportListener listener) throws IOException {
+        if (reader == null || listener == null) {
+            throw new IllegalArgumentException("Cannot import from a null reader or into a null listener.");
+        }
+
+        long start = System.nanoTime();
+        ImportReport report = new ImportReport();
+        bufferPosition = 0;
+        bufferLimit = 0;
+        pendingCount = 0;
+        pendingWorkout = null;
+
+        Routine routine = null;
+        Map<String, IndexedWorkout> workouts = new HashMap<>();
+        long line = 0;
+
+        while (readRow(reader)) {
+            line++;
+            if (line == 1 && hasHeader) {
+                continue;
+            }
+            if (fieldCount == 1 && fieldEnds[0] == fieldStarts[0]) {
+                continue; // blank line
+            }
+            report.rowRead();
+
+            try {
+                if (row.length() > MAX_ROW_LENGTH) {
+                    throw new IllegalArgumentException("Row is longer than " + MAX_ROW_LENGTH + " characters.");
+                }
+                if (fieldCount < REQUIRED_FIELDS) {
+                    throw new IllegalArgumentException("Expected at least " + REQUIRED_FIELDS + " fields but found " + fieldCount + ".");
+                }
+
+                if (routine == null || !fieldEquals(ROUTINE, routine.getRoutineName())) {
+                    flushPending(report, routine);
+                    finishRoutine(routine, listener, report);
+                    routine = new Routine(field(ROUTINE));
+                    workouts.clear();
+                }
+
+                IndexedWorkout workout = pendingWorkout;
+                if (workout == null || !fieldEquals(WORKOUT, workout.getWorkoutName())) {
+                    workout = workouts.get(field(WORKOUT));
+                    if (workout == null) {
+                        workout = new IndexedWorkout(field(WORKOUT));
+                        workout.setEventListener(SILENT);
+                        workouts.put(workout.getWorkoutName(), workout);
+                    }
+                }
+
+                Exercise exercise = parseExercise();
+                if (workout != pendingWorkout || pendingCount == batchSize) {
+                    flushPending(report, routine);
+                    pendingWorkout = workout;
+                }
+                pendingExercises[pendingCount] = exercise;
+                pendingLines[pendingCount] = line;
+                pendingCount++;
+            } catch (IllegalArgumentException e) {
+                report.rowRejected(line, e.getMessage());
+            }
+        }
+
+        flushPending(report, routine);
+        finishRoutine(routine, listener, report);
+        report.finish(System.nanoTime() - start);
+        return report;
+    }
+
+    // Private helper methods.
+
+    /**
+     * Adds the buffered exercises to the pending workout, rejecting duplicates, and attaches the workout to its
+     * routine once it holds its first exercise.
+     */
+    private void flushPending(ImportReport report, Routine routine) {
+        if (pendingCount == 0) {
+            return;
+        }
+
+        IndexedWorkout workout = pendingWorkout;
+        boolean wasEmpty = workout.getExerciseList().isEmpty();
+        int imported = 0;
+        for (int i = 0; i < pendingCount; i++) {
+            try {
+                workout.addExercise(pendingExercises[i]);
+                imported++;
+            } catch (IllegalStateException | IllegalArgumentException e) {
+                report.rowRejected(pendingLines[i], e.getMessage());
+            }
+            pendingExercises[i] = null;
+        }
+        report.rowsImported(imported);
+        pendingCount = 0;
+
+        if (wasEmpty && !workout.getExerciseList().isEmpty()) {
+            routine.addWorkoutToRoutine(workout);
+            report.workoutImported();
+        }
+    }
+
+    /**
+     * Hands a finished routine to the listener, unless every one of its rows was rejected.
+     */
+    private void finishRoutine(Routine routine, IImportListener listener, ImportReport report) {
+        pendingWorkout = null;
+        if (routine != null && !routine.getWorkouts().isEmpty()) {
+            report.routineImported();
+            listener.onRoutineImported(routine);
+        }
+    }
+
+    /**
+     * Builds the exercise described by the current row.
+     */
+    private Exercise parseExercise() {
+        String name = field(EXERCISE);
+        int sets = parseInt(SETS, "sets");
+        int targetReps = parseInt(TARGET_REPS, "target reps");
+        double weight = parseWeight();
+        Mode mode = parseMode();
+
+        if (fieldCount <= REPS || fieldStarts[REPS] == fieldEnds[REPS]) {
+            return new Exercise(name, sets, null, targetReps, weight, mode);
+        }
+
+        int[] reps = parseReps(sets);
+        int[] setNumbers = new int[reps.length];
+        for (int i = 0; i < setNumbers.length; i++) {
+            setNumbers[i] = i + 1;
+        }
+        return new Exercise(name, setNumbers, reps, targetReps, weight, mode);
+    }
+
+    /**
+     * Parses the ';'-separated reps field, which must have one entry per set.
+     */
+    private int[] parseReps(int sets) {
+        if (sets < 1) {
+            throw new IllegalArgumentException("Number of sets (" + sets + ") cannot be less than 1.");
+        }
+        int[] reps = new int[sets];
+        int count = 0;
+        int start = fieldStarts[REPS];
+        int end = fieldEnds[REPS];
+        for (int i = start; i <= end; i++) {
+            if (i == end || row.charAt(i) == ';') {
+                if (count == sets) {
+                    throw new IllegalArgumentException("More reps entries than sets (" + sets + ").");
+                }
+                reps[count++] = parseInt(start, i, "reps");
+                start = i + 1;
+            }
+        }
+        if (count != sets) {
+            throw new IllegalArgumentException("Expected " + sets + " reps entries but found " + count + ".");
+        }
+        return reps;
+    }
+
+    /**
+     * Matches the mode field against the Mode names, ignoring case and surrounding spaces.
+     */
+    private Mode parseMode() {
+        int start = fieldStarts[MODE];
+        int end = fieldEnds[MODE];
+        while (start < end && row.charAt(start) == ' ') {
+            start++;
+        }
+        while (end > start && row.charAt(end - 1) == ' ') {
+            end--;
+        }
+
+        for (Mode mode : MODES) {
+            String name = mode.name();
+            if (name.length() != end - start) {
+                continue;
+            }
+            boolean matches = true;
+            for (int i = 0; i < name.length() && matches; i++) {
+                matches = Character.toUpperCase(row.charAt(start + i)) == name.charAt(i);
+            }
+            if (matches) {
+                return mode;
+            }
+        }
+        throw new IllegalArgumentException("Unknown mode \"" + row.substring(start, end) + "\".");
+    }
+
+    /**
+     * Parses the weight field in place. Plain decimals of up to MAX_FAST_WEIGHT_DIGITS significant digits (nearly
+     * every logged weight) are divided out exactly; anything else (exponents, long fractions, NaN) falls back to
+     * Double.parseDouble.
+     */
+    private double parseWeight() {
+        int start = fieldStarts[WEIGHT];
+        int end = fieldEnds[WEIGHT];
+        while (start < end && row.charAt(start) == ' ') {
+            start++;
+        }
+        while (end > start && row.charAt(end - 1) == ' ') {
+            end--;
+        }
+        if (start == end) {
+            throw new IllegalArgumentException("Missing weight.");
+        }
+
+        int i = start;
+        boolean negative = row.charAt(i) == '-';
+        if (negative || row.charAt(i) == '+') {
+            i++;
+        }
+        long mantissa = 0;
+        int digits = 0;
+        int fractionDigits = -1;
+        boolean sawDigit = false;
+        for (; i < end; i++) {
+            char c = row.charAt(i);
+            if (c >= '0' && c <= '9') {
+                sawDigit = true;
+                if (mantissa != 0 || c != '0') {
+                    digits++;
+                }
+                mantissa = mantissa * 10 + (c - '0');
+                if (fractionDigits >= 0) {
+                    fractionDigits++;
+                }
+                if (digits > MAX_FAST_WEIGHT_DIGITS || fractionDigits >= POWERS_OF_TEN.length) {
+                    break;
+                }
+            } else if (c == '.' && fractionDigits < 0) {
+                fractionDigits = 0;
+            } else {
+                break;
+            }
+        }
+        if (i == end && sawDigit) {
+            double value = fractionDigits > 0 ? mantissa / POWERS_OF_TEN[fractionDigits] : mantissa;
+            return negative ? -value : value;
+        }
+
+        try {
+            return Double.parseDouble(row.substring(start, end));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid weight \"" + row.substring(start, end) + "\".");
+        }
+    }
+
+    private int parseInt(int field, String what) {
+        return parseInt(fieldStarts[field], fieldEnds[field], what);
+    }
+
+    private int parseInt(int start, int end, String what) {
+        while (start < end && row.charAt(start) == ' ') {
+            start++;
+        }
+        while (end > start && row.charAt(end - 1) == ' ') {
+            end--;
+        }
+        if (start == end) {
+            throw new IllegalArgumentException("Missing " + what + ".");
+        }
+        try {
+            return Integer.parseInt(row, start, end, 10);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid " + what + " \"" + row.substring(start, end) + "\".");
+        }
+    }
+
+    private String field(int field) {
+        return row.substring(fieldStarts[field], fieldEnds[field]);
+    }
+
+    /**
+     * Compares a field with a string without creating a string for the field.
+     */
+    private boolean fieldEquals(int field, String value) {
+        int start = fieldStarts[field];
+        int length = fieldEnds[field] - start;
+        if (length != value.length()) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            if (row.charAt(start + i) != value.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Reads the next row into the row buffer, unescaping quoted fields.
+     * @return false once the input is exhausted.
+     */
+    private boolean readRow(Reader reader) throws IOException {
+        row.setLength(0);
+        fieldCount = 0;
+        int fieldStart = 0;
+        boolean inQuotes = false;
+        boolean quoteJustClosed = false;
+        boolean readAnything = false;
+
+        while (true) {
+            if (bufferPosition == bufferLimit) {
+                bufferLimit = reader.read(buffer, 0, buffer.length);
+                bufferPosition = 0;
+                if (bufferLimit <= 0) {
+                    bufferLimit = 0;
+                    if (!readAnything) {
+                        return false;
+                    }
+                    endField(fieldStart);
+                    return true;
+                }
+            }
+
+            char c = buffer[bufferPosition++];
+            readAnything = true;
+            if (row.length() > MAX_ROW_LENGTH) {
+                // past the cap: drop the rest of the row, quotes and all, up to the next line break.
+                if (c == '\n') {
+                    endField(fieldStart);
+                    return true;
+                }
+                continue;
+            }
+            if (inQuotes) {
+                if (c == '"') {
+                    inQuotes = false;
+                    quoteJustClosed = true;
+                } else {
+                    row.append(c);
+                }
+                continue;
+            }
+
+            if (c == '"') {
+                if (quoteJustClosed) {
+                    row.append('"'); // a doubled quote inside a quoted field
+                }
+                inQuotes = true;
+                quoteJustClosed = false;
+            } else if (c == delimiter) {
+                endField(fieldStart);
+                fieldStart = row.length();
+                quoteJustClosed = false;
+            } else if (c == '\n') {
+                endField(fieldStart);
+                return true;
+            } else if (c != '\r') {
+                row.append(c);
+                quoteJustClosed = false;
+            }
+        }
+    }
+
+    private void endField(int fieldStart) {
+        if (fieldCount == fieldStarts.length) {
+            fieldStarts = Arrays.copyOf(fieldStarts, fieldCount * 2);
+            fieldEnds = Arrays.copyOf(fieldEnds, fieldCount * 2);
+        }
+        fieldStarts[fieldCount] = fieldStart;
+        fieldEnds[fieldCount] = row.length();
+        fieldCount++;
+    }
+}
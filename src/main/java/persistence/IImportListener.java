@@ -0,0 +1,16 @@
+package persistence;
+
+import model.IRoutine;
+
+/**
+ * Interface that represents a consumer of the routines assembled by CsvImporter.
+ */
+public interface IImportListener {
+
+    /**
+     * Called once a routine has been completely read, i.e. when the rows move on to another routine or the
+     * input ends. The importer keeps no reference to the routine afterwards.
+     * @param routine the imported routine.
+     */
+    void onRoutineImported(IRoutine routine);
+}
@@ -0,0 +1,39 @@
+package persistence;
+
+import model.Exercise;
+
+/**
+ * Interface that represents a consumer of the routines read by JsonModelReader. The reader calls the methods
+ * in document order as it parses, one exercise at a time, so a visitor that does not keep what it is handed
+ * lets an export of any size be imported in constant memory.
+ */
+public interface IModelVisitor {
+
+    /**
+     * Called when a routine starts, before any of its workouts.
+     * @param name the name of the routine.
+     */
+    void beginRoutine(String name);
+
+    /**
+     * Called when a workout of the current routine starts, before any of its exercises.
+     * @param name the name of the workout.
+     */
+    void beginWorkout(String name);
+
+    /**
+     * Called once per exercise of the current workout, in the order they were written.
+     * @param exercise the exercise, with its sets and reps; the reader keeps no reference to it.
+     */
+    void visitExercise(Exercise exercise);
+
+    /**
+     * Called after the last exercise of the current workout.
+     */
+    void endWorkout();
+
+    /**
+     * Called after the last workout of the current routine.
+     */
+    void endRoutine();
+}
@@ -0,0 +1,17 @@
+package persistence;
+
+import model.Workout;
+
+/**
+ * Interface that represents a consumer of the sessions replayed from a SessionLog.
+ */
+public interface ISessionVisitor {
+
+    /**
+     * Called once per recorded session, in the order the sessions were appended.
+     * @param sessionId the id the log assigned to the session.
+     * @param recordedAt the time the session was appended, in milliseconds since the epoch.
+     * @param workout the workout as it was when the session was recorded.
+     */
+    void visit(long sessionId, long recordedAt, Workout workout);
+}
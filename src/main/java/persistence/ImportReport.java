@@ -0,0 +1,124 @@
+package persistence;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Summary of a CsvImporter run: how many rows were read, imported and rejected, how many routines and workouts
+ * were assembled, how long it took, and a bounded sample of the rejected rows with the reason they were rejected.
+ */
+public class ImportReport {
+
+    // the maximum number of rejected rows kept as samples.
+    private static final int MAX_REJECTION_SAMPLES = 100;
+
+    private long rowsRead;
+    private long rowsImported;
+    private long rowsRejected;
+    private long routines;
+    private long workouts;
+    private long elapsedNanos;
+    private final List<String> rejectionSamples;
+
+    ImportReport() {
+        this.rejectionSamples = new ArrayList<>();
+    }
+
+    void rowRead() {
+        rowsRead++;
+    }
+
+    void rowsImported(int count) {
+        rowsImported += count;
+    }
+
+    void rowRejected(long line, String reason) {
+        rowsRejected++;
+        if (rejectionSamples.size() < MAX_REJECTION_SAMPLES) {
+            rejectionSamples.add("Line " + line + ": " + reason);
+        }
+    }
+
+    void routineImported() {
+        routines++;
+    }
+
+    void workoutImported() {
+        workouts++;
+    }
+
+    void finish(long elapsedNanos) {
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    /**
+     * Gets the number of data rows read (the header is not counted).
+     * @return the number of rows read.
+     */
+    public long getRowsRead() {
+        return rowsRead;
+    }
+
+    /**
+     * Gets the number of rows that became an exercise in the model.
+     * @return the number of imported rows.
+     */
+    public long getRowsImported() {
+        return rowsImported;
+    }
+
+    /**
+     * Gets the number of rows that were malformed or rejected by the model.
+     * @return the number of rejected rows.
+     */
+    public long getRowsRejected() {
+        return rowsRejected;
+    }
+
+    /**
+     * Gets the number of routines handed to the import listener.
+     * @return the number of imported routines.
+     */
+    public long getRoutines() {
+        return routines;
+    }
+
+    /**
+     * Gets the number of workouts assembled.
+     * @return the number of imported workouts.
+     */
+    public long getWorkouts() {
+        return workouts;
+    }
+
+    /**
+     * Gets the wall-clock duration of the import.
+     * @return the duration, in nanoseconds.
+     */
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    /**
+     * Gets the import throughput.
+     * @return the number of rows read per second.
+     */
+    public double getRowsPerSecond() {
+        return elapsedNanos == 0 ? 0 : rowsRead * 1_000_000_000.0 / elapsedNanos;
+    }
+
+    /**
+     * Gets up to the first 100 rejected rows, each with its line number and the reason it was rejected.
+     * @return the rejection samples, as an unmodifiable list.
+     */
+    public List<String> getRejectionSamples() {
+        return Collections.unmodifiableList(rejectionSamples);
+    }
+
+    @Override
+    public String toString() {
+        return "Read " + rowsRead + " rows (" + rowsImported + " imported, " + rowsRejected + " rejected) into "
+                + routines + " routines and " + workouts + " workouts at " + Math.round(getRowsPerSecond()) + " rows/s.";
+    }
+}
@@ -0,0 +1,629 @@
+package persistence;
+
+import model.Exercise;
+import model.IModelEventListener;
+import model.IndexedWorkout;
+import model.Mode;
+import model.Routine;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Streaming JSON importer for documents written by JsonModelWriter: a JSON array of routines, or a single
+ * routine object. The reader pulls bytes from the channel into one reusable ByteBuffer, decodes them into one
+ * reusable CharBuffer, and tokenizes from there, handing each routine, workout and exercise to an IModelVisitor
+ * as soon as it has been parsed. Only the exercise being read is ever materialized, so memory stays constant no
+ * matter how large the document is.
+ *
+ * Within a routine (or workout), "name" must come before "workouts" (or "exercises"), since the visitor is told
+ * the name before any child; JsonModelWriter always writes it first. Exercise fields may come in any order, and
+ * keys the reader does not know are skipped. Missing "sets" default to the number of recorded sets, missing
+ * "targetReps" and "weight" to 0, and a null weight reads as NaN.
+ *
+ * Malformed JSON, invalid UTF-8 and values the model rejects throw IllegalArgumentException. The channel is
+ * expected to be blocking, and is not closed by the reader. A reader must not be shared between threads.
+ */
+public class JsonModelReader {
+
+    /**
+     * The default size of the input buffer, in bytes.
+     */
+    public static final int DEFAULT_BUFFER_SIZE = 8192;
+
+    // the smallest accepted input buffer, enough for any single encoded character.
+    private static final int MIN_BUFFER_SIZE = 16;
+
+    // the value returned by peek and next at the end of the input.
+    private static final int END = -1;
+
+    // the listener given to workouts assembled by readRoutines, which discards their events.
+    private static final IModelEventListener SILENT = event -> { };
+
+    // the channel the document is read from.
+    private final ReadableByteChannel channel;
+
+    // the reusable input buffers: raw bytes, and the characters decoded from them (both in read mode).
+    private final ByteBuffer bytes;
+    private final CharBuffer chars;
+
+    // the UTF-8 decoder, reporting malformed input instead of replacing it.
+    private final CharsetDecoder decoder;
+
+    // scratch space for strings and numbers.
+    private final StringBuilder scratch;
+
+    // the set/rep columns of the exercise being read, grown as needed and reused.
+    private int[] setNumbers;
+    private int[] reps;
+
+    // whether the channel is exhausted, and whether the decoder has been flushed after it.
+    private boolean endOfInput;
+    private boolean drained;
+
+    /**
+     * Creates a reader with the default buffer size.
+     * @param channel the channel the document is read from.
+     */
+    public JsonModelReader(ReadableByteChannel channel) {
+        this(channel, DEFAULT_BUFFER_SIZE);
+    }
+
+    /**
+     * Creates a reader.
+     * @param channel the channel the document is read from.
+     * @param bufferSize the size of the input buffer, in bytes.
+     */
+    public JsonModelReader(ReadableByteChannel channel, int bufferSize) {
+        if (channel == null) {
+            throw new IllegalArgumentException("Cannot read JSON from a null channel.");
+        }
+        if (bufferSize < MIN_BUFFER_SIZE) {
+            throw new IllegalArgumentException("Buffer size (" + bufferSize + ") cannot be less than " + MIN_BUFFER_SIZE + " bytes.");
+        }
+        this.channel = channel;
+        this.bytes = ByteBuffer.allocate(bufferSize);
+        this.bytes.flip();
+        this.chars = CharBuffer.allocate(bufferSize);
+        this.chars.flip();
+        this.decoder = StandardCharsets.UTF_8.newDecoder()
+                .onMalformedInput(CodingErrorAction.REPORT)
+                .onUnmappableCharacter(CodingErrorAction.REPORT);
+        this.scratch = new StringBuilder(64);
+        this.setNumbers = new int[8];
+        this.reps = new int[8];
+    }
+
+    /**
+     * Reads the whole document, calling the visitor for every routine, workout and exercise in order.
+     * @param visitor the consumer of the document.
+     * @throws IOException if the channel cannot be read.
+     */
+    public void read(IModelVisitor visitor) throws IOException {
+        if (visitor == null) {
+            throw new IllegalArgumentException("Cannot read JSON into a null visitor.");
+        }
+        int c = skipWhitespace();
+        if (c == '[') {
+            next();
+            if (skipWhitespace() == ']') {
+                next();
+            } else {
+                do {
+                    readRoutine(visitor);
+                } while (separator(']'));
+            }
+        } else if (c == '{') {
+            readRoutine(visitor);
+        } else {
+            throw unexpected(c, "a routine or an array of routines");
+        }
+        if (skipWhitespace() != END) {
+            throw unexpected(peek(), "the end of the input");
+        }
+    }
+
+    /**
+     * Reads the whole document, assembling one routine at a time and handing it to the listener once its last
+     * workout has been read. Memory is bounded by the largest routine rather than by the document. Workouts
+     * report no events, and a routine is handed over even if it has no workouts.
+     * @param listener the consumer of the routines.
+     * @throws IOException if the channel cannot be read.
+     */
+    public void readRoutines(IImportListener listener) throws IOException {
+        if (listener == null) {
+            throw new IllegalArgumentException("Cannot import routines into a null listener.");
+        }
+        read(new IModelVisitor() {
+            private Routine routine;
+            private IndexedWorkout workout;
+
+            @Override
+            public void beginRoutine(String name) {
+                routine = new Routine(name);
+            }
+
+            @Override
+            public void beginWorkout(String name) {
+                workout = new IndexedWorkout(name);
+                workout.setEventListener(SILENT);
+            }
+
+            @Override
+            public void visitExercise(Exercise exercise) {
+                workout.addExercise(exercise);
+            }
+
+            @Override
+            public void endWorkout() {
+                routine.addWorkoutToRoutine(workout);
+                workout = null;
+            }
+
+            @Override
+            public void endRoutine() {
+                listener.onRoutineImported(routine);
+                routine = null;
+            }
+        });
+    }
+
+    // Private helper methods.
+
+    /**
+     * Reads a routine object, from its opening brace to its closing brace.
+     */
+    private void readRoutine(IModelVisitor visitor) throws IOException {
+        expect('{');
+        String name = null;
+        boolean begun = false;
+        if (!closes('}')) {
+            do {
+                readKey();
+                if (keyIs("name")) {
+                    name = readNullableString();
+                } else if (keyIs("workouts")) {
+                    if (!begun) {
+                        begin(visitor, name, true);
+                        begun = true;
+                    }
+                    expect('[');
+                    if (!closes(']')) {
+                        do {
+                            readWorkout(visitor);
+                        } while (separator(']'));
+                    }
+                } else {
+                    skipValue();
+                }
+            } while (separator('}'));
+        }
+        if (!begun) {
+            begin(visitor, name, true);
+        }
+        visitor.endRoutine();
+    }
+
+    /**
+     * Reads a workout object, from its opening brace to its closing brace.
+     */
+    private void readWorkout(IModelVisitor visitor) throws IOException {
+        expect('{');
+        String name = null;
+        boolean begun = false;
+        if (!closes('}')) {
+            do {
+                readKey();
+                if (keyIs("name")) {
+                    name = readNullableString();
+                } else if (keyIs("exercises")) {
+                    if (!begun) {
+                        begin(visitor, name, false);
+                        begun = true;
+                    }
+                    expect('[');
+                    if (!closes(']')) {
+                        do {
+                            visitor.visitExercise(readExercise());
+                        } while (separator(']'));
+                    }
+                } else {
+                    skipValue();
+                }
+            } while (separator('}'));
+        }
+        if (!begun) {
+            begin(visitor, name, false);
+        }
+        visitor.endWorkout();
+    }
+
+    /**
+     * Tells the visitor a routine or workout starts, once its name is known.
+     */
+    private void begin(IModelVisitor visitor, String name, boolean routine) {
+        if (name == null) {
+            throw new IllegalArgumentException("The \"name\" of a " + (routine ? "routine" : "workout") + " must precede its "
+                    + (routine ? "\"workouts\"" : "\"exercises\"") + ".");
+        }
+        if (routine) {
+            visitor.beginRoutine(name);
+        } else {
+            visitor.beginWorkout(name);
+        }
+    }
+
+    /**
+     * Reads an exercise object into a new Exercise.
+     */
+    private Exercise readExercise() throws IOException {
+        expect('{');
+        String name = null;
+        int sets = -1;
+        int targetReps = 0;
+        double weight = 0;
+        Mode mode = null;
+        int count = 0;
+        if (!closes('}')) {
+            do {
+                readKey();
+                if (keyIs("name")) {
+                    name = readNullableString();
+                } else if (keyIs("sets")) {
+                    sets = readInt();
+                } else if (keyIs("targetReps")) {
+                    targetReps = readInt();
+                } else if (keyIs("weight")) {
+                    weight = readWeight();
+                } else if (keyIs("mode")) {
+                    String value = readNullableString();
+                    mode = value == null ? null : modeOf(value);
+                } else if (keyIs("reps")) {
+                    count = readSets();
+                } else {
+                    skipValue();
+                }
+            } while (separator('}'));
+        }
+        if (name == null) {
+            throw new IllegalArgumentException("An exercise must have a \"name\".");
+        }
+
+        Exercise exercise = new Exercise(name, Arrays.copyOf(setNumbers, count), Arrays.copyOf(reps, count), targetReps, weight, mode);
+        if (sets >= 0 && sets != count) {
+            exercise.updateSets(sets);
+        }
+        return exercise;
+    }
+
+    /**
+     * Reads the array of set/rep objects of an exercise into the reusable columns.
+     * @return the number of sets read.
+     */
+    private int readSets() throws IOException {
+        expect('[');
+        int count = 0;
+        if (closes(']')) {
+            return count;
+        }
+        do {
+            if (count == reps.length) {
+                setNumbers = Arrays.copyOf(setNumbers, count * 2);
+                reps = Arrays.copyOf(reps, count * 2);
+            }
+            int setNumber = count + 1;
+            int setReps = 0;
+            expect('{');
+            if (!closes('}')) {
+                do {
+                    readKey();
+                    if (keyIs("set")) {
+                        setNumber = readInt();
+                    } else if (keyIs("reps")) {
+                        setReps = readInt();
+                    } else {
+                        skipValue();
+                    }
+                } while (separator('}'));
+            }
+            setNumbers[count] = setNumber;
+            reps[count] = setReps;
+            count++;
+        } while (separator(']'));
+        return count;
+    }
+
+    private static Mode modeOf(String name) {
+        try {
+            return Mode.valueOf(name);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unknown mode \"" + name + "\".");
+        }
+    }
+
+    /**
+     * Reads an object key and the colon after it into the scratch builder.
+     */
+    private void readKey() throws IOException {
+        if (skipWhitespace() != '"') {
+            throw unexpected(peek(), "a key");
+        }
+        readStringInto();
+        expect(':');
+    }
+
+    private boolean keyIs(String key) {
+        return key.contentEquals(scratch);
+    }
+
+    /**
+     * Consumes a comma or the given closing bracket.
+     * @return true after a comma (another element follows), false after the closing bracket.
+     */
+    private boolean separator(char close) throws IOException {
+        int c = skipWhitespace();
+        if (c == ',') {
+            next();
+            return true;
+        }
+        if (c == close) {
+            next();
+            return false;
+        }
+        throw unexpected(c, "',' or '" + close + "'");
+    }
+
+    /**
+     * Consumes the given closing bracket if it comes next, i.e. if the object or array just opened is empty.
+     */
+    private boolean closes(char close) throws IOException {
+        if (skipWhitespace() == close) {
+            next();
+            return true;
+        }
+        return false;
+    }
+
+    private void expect(char expected) throws IOException {
+        int c = skipWhitespace();
+        if (c != expected) {
+            throw unexpected(c, "'" + expected + "'");
+        }
+        next();
+    }
+
+    private String readNullableString() throws IOException {
+        int c = skipWhitespace();
+        if (c == 'n') {
+            readLiteral("null");
+            return null;
+        }
+        if (c != '"') {
+            throw unexpected(c, "a string");
+        }
+        readStringInto();
+        return scratch.toString();
+    }
+
+    /**
+     * Reads a string, from its opening quote to its closing quote, unescaped into the scratch builder.
+     */
+    private void readStringInto() throws IOException {
+        scratch.setLength(0);
+        next();
+        while (true) {
+            int c = next();
+            if (c == '"') {
+                return;
+            }
+            if (c == END) {
+                throw new IllegalArgumentException("Unterminated string in JSON input.");
+            }
+            if (c < 0x20) {
+                throw new IllegalArgumentException("Unescaped control character in a JSON string.");
+            }
+            if (c != '\\') {
+                scratch.append((char) c);
+                continue;
+            }
+            int escape = next();
+            switch (escape) {
+                case '"':
+                case '\\':
+                case '/':
+                    scratch.append((char) escape);
+                    break;
+                case 'b':
+                    scratch.append('\b');
+                    break;
+                case 'f':
+                    scratch.append('\f');
+                    break;
+                case 'n':
+                    scratch.append('\n');
+                    break;
+                case 'r':
+                    scratch.append('\r');
+                    break;
+                case 't':
+                    scratch.append('\t');
+                    break;
+                case 'u':
+                    int code = 0;
+                    for (int i = 0; i < 4; i++) {
+                        int digit = Character.digit(next(), 16);
+                        if (digit < 0) {
+                            throw new IllegalArgumentException("Invalid unicode escape in a JSON string.");
+                        }
+                        code = code << 4 | digit;
+                    }
+                    scratch.append((char) code);
+                    break;
+                default:
+                    throw new IllegalArgumentException("Invalid escape in a JSON string.");
+            }
+        }
+    }
+
+    /**
+     * Reads a JSON integer.
+     */
+    private int readInt() throws IOException {
+        int c = skipWhitespace();
+        boolean negative = c == '-';
+        if (negative) {
+            next();
+            c = peek();
+        }
+        if (c < '0' || c > '9') {
+            throw unexpected(c, "an integer");
+        }
+        long value = 0;
+        while (c >= '0' && c <= '9') {
+            value = value * 10 + (c - '0');
+            if (value > (long) Integer.MAX_VALUE + 1) {
+                throw new IllegalArgumentException("Integer out of range in JSON input.");
+            }
+            next();
+            c = peek();
+        }
+        if (c == '.' || c == 'e' || c == 'E') {
+            throw new IllegalArgumentException("Expected an integer but found a fraction or exponent in JSON input.");
+        }
+        value = negative ? -value : value;
+        if (value > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Integer out of range in JSON input.");
+        }
+        return (int) value;
+    }
+
+    /**
+     * Reads a JSON number or null as a weight.
+     */
+    private double readWeight() throws IOException {
+        int c = skipWhitespace();
+        if (c == 'n') {
+            readLiteral("null");
+            return Double.NaN;
+        }
+        scratch.setLength(0);
+        while (c == '-' || c == '+' || c == '.' || c == 'e' || c == 'E' || (c >= '0' && c <= '9')) {
+            scratch.append((char) c);
+            next();
+            c = peek();
+        }
+        if (scratch.length() == 0) {
+            throw unexpected(c, "a number");
+        }
+        try {
+            return Double.parseDouble(scratch.toString());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid number \"" + scratch + "\" in JSON input.");
+        }
+    }
+
+    private void readLiteral(String literal) throws IOException {
+        for (int i = 0; i < literal.length(); i++) {
+            if (next() != literal.charAt(i)) {
+                throw new IllegalArgumentException("Expected \"" + literal + "\" in JSON input.");
+            }
+        }
+    }
+
+    /**
+     * Skips a value of an unknown key, however deeply nested, without recursing.
+     */
+    private void skipValue() throws IOException {
+        int depth = 0;
+        do {
+            int c = skipWhitespace();
+            if (c == '{' || c == '[') {
+                next();
+                depth++;
+            } else if (depth > 0 && (c == '}' || c == ']')) {
+                next();
+                depth--;
+            } else if (depth > 0 && (c == ',' || c == ':')) {
+                next();
+            } else if (c == '"') {
+                readStringInto();
+            } else if (c == END || c == '}' || c == ']' || c == ',' || c == ':') {
+                throw unexpected(c, "a value");
+            } else {
+                while (c != END && c != ',' && c != ':' && c != '}' && c != ']' && !isWhitespace(c)) {
+                    next();
+                    c = peek();
+                }
+            }
+        } while (depth > 0);
+    }
+
+    private static boolean isWhitespace(int c) {
+        return c == ' ' || c == '\n' || c == '\r' || c == '\t';
+    }
+
+    /**
+     * Skips whitespace.
+     * @return the next character, without consuming it, or END.
+     */
+    private int skipWhitespace() throws IOException {
+        int c = peek();
+        while (isWhitespace(c)) {
+            next();
+            c = peek();
+        }
+        return c;
+    }
+
+    private int peek() throws IOException {
+        if (!chars.hasRemaining() && !fill()) {
+            return END;
+        }
+        return chars.get(chars.position());
+    }
+
+    private int next() throws IOException {
+        if (!chars.hasRemaining() && !fill()) {
+            return END;
+        }
+        return chars.get();
+    }
+
+    /**
+     * Decodes the next characters into the (empty) char buffer, reading from the channel as needed.
+     * @return whether any character is available.
+     */
+    private boolean fill() throws IOException {
+        chars.clear();
+        while (chars.position() == 0 && !drained) {
+            CoderResult result = decoder.decode(bytes, chars, endOfInput);
+            if (result.isError()) {
+                throw new IllegalArgumentException("Malformed UTF-8 in JSON input.");
+            }
+            if (result.isUnderflow()) {
+                if (endOfInput) {
+                    decoder.flush(chars);
+                    drained = true;
+                } else {
+                    bytes.compact();
+                    endOfInput = channel.read(bytes) < 0;
+                    bytes.flip();
+                }
+            }
+        }
+        chars.flip();
+        return chars.hasRemaining();
+    }
+
+    private static IllegalArgumentException unexpected(int c, String expected) {
+        String found = c == END ? "the end of the input" : "'" + (char) c + "'";
+        return new IllegalArgumentException("Expected " + expected + " but found " + found + " in JSON input.");
+    }
+}
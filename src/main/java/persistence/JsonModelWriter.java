@@ -0,0 +1,391 @@
+package persistence;
+
+import model.Exercise;
+import model.IExercise;
+import model.IRoutineView;
+import model.IWorkoutView;
+import model.SetReps;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+
+/**
+ * Streaming JSON exporter for routines. The document is a JSON array of routines, in the shape ModelRenderer
+ * uses for JSON:
+ * [{"name":..,"workouts":[{"name":..,"exercises":[{"name":..,"sets":..,"targetReps":..,"weight":..,
+ * "mode":..,"reps":[{"set":..,"reps":..}]}]}]}]
+ * Weights are written exactly (shortest round-tripping decimal) rather than to two decimals, so an export reads
+ * back into equal exercises. Non-finite weights are written as null.
+ *
+ * Tokens are UTF-8 encoded straight into one reusable ByteBuffer, which is drained into the channel whenever it
+ * fills up; no string holding the document (or even a whole routine) is ever built. Besides writeRoutine, the
+ * writer exposes the structure token by token (beginRoutine, beginWorkout, writeExercise, endWorkout, endRoutine),
+ * so callers can export history that is never held as a Routine graph at all.
+ *
+ * The writer does not close its channel; close finishes the document and drains the buffer. A writer must not
+ * be shared between threads.
+ */
+public class JsonModelWriter implements Closeable {
+
+    /**
+     * The default size of the output buffer, in bytes.
+     */
+    public static final int DEFAULT_BUFFER_SIZE = 8192;
+
+    // the smallest accepted output buffer, enough for any single encoded character.
+    private static final int MIN_BUFFER_SIZE = 16;
+
+    // the nesting levels of the document.
+    private static final int TOP = 0;
+    private static final int ROUTINE = 1;
+    private static final int WORKOUT = 2;
+
+    // the channel the document is written to.
+    private final WritableByteChannel channel;
+
+    // the reusable output buffer, in write mode between flushes.
+    private final ByteBuffer buffer;
+
+    // scratch space for formatting weights and integers.
+    private final StringBuilder scratch;
+
+    // whether the next element at each nesting level is the first one (so needs no comma).
+    private final boolean[] first;
+
+    // the current nesting level.
+    private int depth;
+
+    // whether the opening bracket of the document has been written, and whether the document is finished.
+    private boolean started;
+    private boolean closed;
+
+    /**
+     * Creates a writer with the default buffer size.
+     * @param channel the channel the document is written to.
+     */
+    public JsonModelWriter(WritableByteChannel channel) {
+        this(channel, DEFAULT_BUFFER_SIZE);
+    }
+
+    /**
+     * Creates a writer.
+     * @param channel the channel the document is written to.
+     * @param bufferSize the size of the output buffer, in bytes.
+     */
+    public JsonModelWriter(WritableByteChannel channel, int bufferSize) {
+        if (channel == null) {
+            throw new IllegalArgumentException("Cannot write JSON to a null channel.");
+        }
+        if (bufferSize < MIN_BUFFER_SIZE) {
+            throw new IllegalArgumentException("Buffer size (" + bufferSize + ") cannot be less than " + MIN_BUFFER_SIZE + " bytes.");
+        }
+        this.channel = channel;
+        this.buffer = ByteBuffer.allocate(bufferSize);
+        this.scratch = new StringBuilder(32);
+        this.first = new boolean[] {true, true, true};
+        this.depth = TOP;
+    }
+
+    /**
+     * Writes a whole routine, with its workouts and their exercises.
+     * @param routine the routine to write.
+     * @throws IOException if the channel cannot be written to.
+     */
+    public void writeRoutine(IRoutineView routine) throws IOException {
+        if (routine == null) {
+            throw new IllegalArgumentException("Cannot write a null routine.");
+        }
+        beginRoutine(routine.getRoutineName());
+        for (IWorkoutView workout : routine.getWorkouts()) {
+            writeWorkout(workout);
+        }
+        endRoutine();
+    }
+
+    /**
+     * Writes a whole workout, with its exercises, into the current routine.
+     * @param workout the workout to write.
+     * @throws IOException if the channel cannot be written to.
+     */
+    public void writeWorkout(IWorkoutView workout) throws IOException {
+        if (workout == null) {
+            throw new IllegalArgumentException("Cannot write a null workout.");
+        }
+        beginWorkout(workout.getWorkoutName());
+        for (IExercise exercise : workout.getExerciseList()) {
+            writeExercise(exercise);
+        }
+        endWorkout();
+    }
+
+    /**
+     * Starts a routine. Its workouts follow, until endRoutine.
+     * @param name the name of the routine.
+     * @throws IOException if the channel cannot be written to.
+     */
+    public void beginRoutine(String name) throws IOException {
+        checkDepth(TOP, "A routine cannot be nested in another routine or workout.");
+        if (!started) {
+            writeAscii('[');
+            started = true;
+        }
+        separate(TOP);
+        writeAscii("{\"name\":");
+        writeString(name);
+        writeAscii(",\"workouts\":[");
+        first[ROUTINE] = true;
+        depth = ROUTINE;
+    }
+
+    /**
+     * Starts a workout of the current routine. Its exercises follow, until endWorkout.
+     * @param name the name of the workout.
+     * @throws IOException if the channel cannot be written to.
+     */
+    public void beginWorkout(String name) throws IOException {
+        checkDepth(ROUTINE, "A workout can only be written inside a routine.");
+        separate(ROUTINE);
+        writeAscii("{\"name\":");
+        writeString(name);
+        writeAscii(",\"exercises\":[");
+        first[WORKOUT] = true;
+        depth = WORKOUT;
+    }
+
+    /**
+     * Writes an exercise of the current workout. The set/rep columns of an Exercise are read in place, without
+     * creating SetReps.
+     * @param exercise the exercise to write.
+     * @throws IOException if the channel cannot be written to.
+     */
+    public void writeExercise(IExercise exercise) throws IOException {
+        checkDepth(WORKOUT, "An exercise can only be written inside a workout.");
+        if (exercise == null) {
+            throw new IllegalArgumentException("Cannot write a null exercise.");
+        }
+        separate(WORKOUT);
+        writeAscii("{\"name\":");
+        writeString(exercise.getName());
+        writeAscii(",\"sets\":");
+        writeNumber(scratch.append(exercise.getSets()));
+        writeAscii(",\"targetReps\":");
+        writeNumber(scratch.append(exercise.getTargetReps()));
+        writeAscii(",\"weight\":");
+        double weight = exercise.getWeight();
+        if (Double.isFinite(weight)) {
+            writeNumber(scratch.append(weight));
+        } else {
+            writeAscii("null");
+        }
+        writeAscii(",\"mode\":");
+        if (exercise.getMode() != null) {
+            writeAscii('"');
+            writeAscii(exercise.getMode().name());
+            writeAscii('"');
+        } else {
+            writeAscii("null");
+        }
+        writeAscii(",\"reps\":[");
+        if (exercise instanceof Exercise) {
+            Exercise columns = (Exercise) exercise;
+            int count = columns.getRecordedSetCount();
+            for (int i = 0; i < count; i++) {
+                writeSet(i, columns.getSetNumberAt(i), columns.getRepsAt(i));
+            }
+        } else {
+            int i = 0;
+            for (SetReps setReps : exercise.getAllSetReps()) {
+                writeSet(i++, setReps.getSetNumber(), setReps.getReps());
+            }
+        }
+        writeAscii("]}");
+    }
+
+    /**
+     * Ends the current workout.
+     * @throws IOException if the channel cannot be written to.
+     */
+    public void endWorkout() throws IOException {
+        checkDepth(WORKOUT, "There is no workout to end.");
+        writeAscii("]}");
+        depth = ROUTINE;
+    }
+
+    /**
+     * Ends the current routine.
+     * @throws IOException if the channel cannot be written to.
+     */
+    public void endRoutine() throws IOException {
+        checkDepth(ROUTINE, "There is no routine to end.");
+        writeAscii("]}");
+        depth = TOP;
+    }
+
+    /**
+     * Drains the buffered output into the channel.
+     * @throws IOException if the channel cannot be written to.
+     */
+    public void flush() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    /**
+     * Ends any open workout and routine, finishes the document and drains the buffer. The channel stays open.
+     * @throws IOException if the channel cannot be written to.
+     */
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        if (depth == WORKOUT) {
+            endWorkout();
+        }
+        if (depth == ROUTINE) {
+            endRoutine();
+        }
+        if (!started) {
+            writeAscii('[');
+        }
+        writeAscii(']');
+        flush();
+        closed = true;
+    }
+
+    // Private helper methods.
+
+    private void checkDepth(int expected, String message) {
+        if (closed) {
+            throw new IllegalStateException("The JSON writer is closed.");
+        }
+        if (depth != expected) {
+            throw new IllegalStateException(message);
+        }
+    }
+
+    /**
+     * Writes the comma preceding every element but the first at the given level.
+     */
+    private void separate(int level) throws IOException {
+        if (first[level]) {
+            first[level] = false;
+        } else {
+            writeAscii(',');
+        }
+    }
+
+    private void writeSet(int index, int setNumber, int reps) throws IOException {
+        if (index > 0) {
+            writeAscii(',');
+        }
+        writeAscii("{\"set\":");
+        writeNumber(scratch.append(setNumber));
+        writeAscii(",\"reps\":");
+        writeNumber(scratch.append(reps));
+        writeAscii('}');
+    }
+
+    /**
+     * Writes the number formatted in the scratch builder, then clears it.
+     */
+    private void writeNumber(StringBuilder number) throws IOException {
+        for (int i = 0; i < number.length(); i++) {
+            writeAscii(number.charAt(i));
+        }
+        number.setLength(0);
+    }
+
+    private void writeAscii(String text) throws IOException {
+        for (int i = 0; i < text.length(); i++) {
+            writeAscii(text.charAt(i));
+        }
+    }
+
+    private void writeAscii(char c) throws IOException {
+        if (!buffer.hasRemaining()) {
+            flush();
+        }
+        buffer.put((byte) c);
+    }
+
+    /**
+     * Writes a quoted, escaped JSON string. Control characters and lone surrogates are written as JSON unicode escapes,
+     * so any Java string reads back unchanged; everything else is encoded as UTF-8.
+     */
+    private void writeString(String value) throws IOException {
+        if (value == null) {
+            writeAscii("null");
+            return;
+        }
+        writeAscii('"');
+        int length = value.length();
+        for (int i = 0; i < length; i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"':
+                    writeAscii("\\\"");
+                    break;
+                case '\\':
+                    writeAscii("\\\\");
+                    break;
+                case '\n':
+                    writeAscii("\\n");
+                    break;
+                case '\r':
+                    writeAscii("\\r");
+                    break;
+                case '\t':
+                    writeAscii("\\t");
+                    break;
+                default:
+                    if (c < 0x20) {
+                        writeEscape(c);
+                    } else if (Character.isHighSurrogate(c) && i + 1 < length && Character.isLowSurrogate(value.charAt(i + 1))) {
+                        writeCodePoint(Character.toCodePoint(c, value.charAt(++i)));
+                    } else if (Character.isSurrogate(c)) {
+                        writeEscape(c);
+                    } else {
+                        writeCodePoint(c);
+                    }
+            }
+        }
+        writeAscii('"');
+    }
+
+    private void writeEscape(char c) throws IOException {
+        writeAscii("\\u");
+        for (int shift = 12; shift >= 0; shift -= 4) {
+            writeAscii(Character.forDigit((c >> shift) & 0xF, 16));
+        }
+    }
+
+    /**
+     * Encodes a code point as UTF-8.
+     */
+    private void writeCodePoint(int codePoint) throws IOException {
+        if (buffer.remaining() < 4) {
+            flush();
+        }
+        if (codePoint < 0x80) {
+            buffer.put((byte) codePoint);
+        } else if (codePoint < 0x800) {
+            buffer.put((byte) (0xC0 | (codePoint >> 6)));
+            buffer.put((byte) (0x80 | (codePoint & 0x3F)));
+        } else if (codePoint < 0x10000) {
+            buffer.put((byte) (0xE0 | (codePoint >> 12)));
+            buffer.put((byte) (0x80 | ((codePoint >> 6) & 0x3F)));
+            buffer.put((byte) (0x80 | (codePoint & 0x3F)));
+        } else {
+            buffer.put((byte) (0xF0 | (codePoint >> 18)));
+            buffer.put((byte) (0x80 | ((codePoint >> 12) & 0x3F)));
+            buffer.put((byte) (0x80 | ((codePoint >> 6) & 0x3F)));
+            buffer.put((byte) (0x80 | (codePoint & 0x3F)));
+        }
+    }
+}
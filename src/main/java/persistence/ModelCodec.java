@@ -0,0 +1,512 @@
+package persistence;
+
+import model.ConsoleEventListener;
+import model.Exercise;
+import model.IExercise;
+import model.IModelEventListener;
+import model.IRoutine;
+import model.IWorkout;
+import model.IndexedWorkout;
+import model.Mode;
+import model.Routine;
+import model.SetReps;
+import model.Workout;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Versioned binary codec for exercises, workouts and routines. Values are written straight into a ByteBuffer
+ * (heap or direct) without building intermediate objects:
+ * - integers are zigzag varints, so small values such as reps and set numbers take a single byte;
+ * - weights are 8-byte IEEE doubles, written big-endian regardless of the buffer's byte order;
+ * - strings are a varint byte length followed by their UTF-8 bytes;
+ * - set/rep pairs are packed straight from the exercise's primitive columns.
+ *
+ * Every top-level value starts with a two byte header: the format version and a tag saying whether an exercise,
+ * workout or routine follows. Encoding into a buffer that is too small throws BufferOverflowException; use the
+ * encodedSize methods to size buffers up front.
+ *
+ * A codec keeps a small scratch array to decode strings from direct buffers, so an instance must not be shared
+ * between threads.
+ */
+public class ModelCodec {
+
+    /**
+     * The version of the binary format written by this codec.
+     */
+    public static final byte VERSION = 1;
+
+    // tags identifying the type of a top-level value.
+    private static final byte EXERCISE_TAG = 'E';
+    private static final byte WORKOUT_TAG = 'W';
+    private static final byte ROUTINE_TAG = 'R';
+
+    // the mode byte written for exercises without a mode.
+    private static final byte NO_MODE = -1;
+
+    // the modes, indexed by ordinal.
+    private static final Mode[] MODES = Mode.values();
+
+    // the listener given to every decoded workout.
+    private final IModelEventListener decodedEventListener;
+
+    // scratch space for decoding strings out of buffers without an accessible array.
+    private byte[] scratch;
+
+    /**
+     * Creates a codec whose decoded workouts print their events to the console, like any new Workout.
+     */
+    public ModelCodec() {
+        this(new ConsoleEventListener());
+    }
+
+    /**
+     * Creates a codec whose decoded workouts report their events to the given listener.
+     * @param decodedEventListener the listener given to every decoded workout.
+     */
+    public ModelCodec(IModelEventListener decodedEventListener) {
+        if (decodedEventListener == null) {
+            throw new IllegalArgumentException("Event listener for decoded workouts cannot be null.");
+        }
+        this.decodedEventListener = decodedEventListener;
+        this.scratch = new byte[64];
+    }
+
+    /**
+     * Computes the number of bytes encodeExercise writes for an exercise.
+     * @param exercise the exercise to measure.
+     * @return the encoded size in bytes, including the header.
+     */
+    public int encodedSize(IExercise exercise) {
+        return 2 + exerciseSize(exercise);
+    }
+
+    /**
+     * Computes the number of bytes encodeWorkout writes for a workout.
+     * @param workout the workout to measure.
+     * @return the encoded size in bytes, including the header.
+     */
+    public int encodedSize(IWorkout workout) {
+        return 2 + workoutSize(workout);
+    }
+
+    /**
+     * Computes the number of bytes encodeRoutine writes for a routine.
+     * @param routine the routine to measure.
+     * @return the encoded size in bytes, including the header.
+     */
+    public int encodedSize(IRoutine routine) {
+        return 2 + routineSize(routine);
+    }
+
+    /**
+     * Writes an exercise at the buffer's position.
+     * @param exercise the exercise to encode.
+     * @param buffer the destination buffer.
+     */
+    public void encodeExercise(IExercise exercise, ByteBuffer buffer) {
+        checkNotNull(exercise, "exercise");
+        writeHeader(buffer, EXERCISE_TAG);
+        writeExercise(exercise, buffer);
+    }
+
+    /**
+     * Writes a workout, including its deleted exercises, at the buffer's position.
+     * @param workout the workout to encode.
+     * @param buffer the destination buffer.
+     */
+    public void encodeWorkout(IWorkout workout, ByteBuffer buffer) {
+        checkNotNull(workout, "workout");
+        writeHeader(buffer, WORKOUT_TAG);
+        writeWorkout(workout, buffer);
+    }
+
+    /**
+     * Writes a routine, including its deleted workouts, at the buffer's position.
+     * @param routine the routine to encode.
+     * @param buffer the destination buffer.
+     */
+    public void encodeRoutine(IRoutine routine, ByteBuffer buffer) {
+        checkNotNull(routine, "routine");
+        writeHeader(buffer, ROUTINE_TAG);
+        writeRoutine(routine, buffer);
+    }
+
+    /**
+     * Reads an exercise from the buffer's position.
+     * @param buffer the source buffer.
+     * @return the decoded exercise.
+     */
+    public Exercise decodeExercise(ByteBuffer buffer) {
+        readHeader(buffer, EXERCISE_TAG);
+        return readExercise(buffer);
+    }
+
+    /**
+     * Reads a workout from the buffer's position.
+     * @param buffer the source buffer.
+     * @return the decoded workout.
+     */
+    public Workout decodeWorkout(ByteBuffer buffer) {
+        readHeader(buffer, WORKOUT_TAG);
+        return readWorkout(buffer);
+    }
+
+    /**
+     * Reads a routine from the buffer's position.
+     * @param buffer the source buffer.
+     * @return the decoded routine.
+     */
+    public Routine decodeRoutine(ByteBuffer buffer) {
+        readHeader(buffer, ROUTINE_TAG);
+        return readRoutine(buffer);
+    }
+
+    // Private helper methods.
+
+    private void writeHeader(ByteBuffer buffer, byte tag) {
+        buffer.put(VERSION);
+        buffer.put(tag);
+    }
+
+    private void readHeader(ByteBuffer buffer, byte expectedTag) {
+        byte version = buffer.get();
+        if (version != VERSION) {
+            throw new IllegalArgumentException("Unsupported codec version (" + version + "), expected " + VERSION + ".");
+        }
+        byte tag = buffer.get();
+        if (tag != expectedTag) {
+            throw new IllegalArgumentException("Expected a value tagged '" + (char) expectedTag + "' but found '" + (char) tag + "'.");
+        }
+    }
+
+    private int exerciseSize(IExercise exercise) {
+        int size = stringSize(exercise.getName())
+                + varIntSize(exercise.getSets())
+                + varIntSize(exercise.getTargetReps())
+                + Double.BYTES
+                + 1;
+
+        if (exercise instanceof Exercise) {
+            Exercise columns = (Exercise) exercise;
+            int count = columns.getRecordedSetCount();
+            size += varIntSize(count);
+            for (int i = 0; i < count; i++) {
+                size += varIntSize(columns.getSetNumberAt(i)) + varIntSize(columns.getRepsAt(i));
+            }
+        } else {
+            List<SetReps> setReps = exercise.getAllSetReps();
+            size += varIntSize(setReps.size());
+            for (SetReps set : setReps) {
+                size += varIntSize(set.getSetNumber()) + varIntSize(set.getReps());
+            }
+        }
+        return size;
+    }
+
+    private void writeExercise(IExercise exercise, ByteBuffer buffer) {
+        writeString(buffer, exercise.getName());
+        writeVarInt(buffer, exercise.getSets());
+        writeVarInt(buffer, exercise.getTargetReps());
+        writeDouble(buffer, exercise.getWeight());
+        buffer.put(exercise.getMode() == null ? NO_MODE : (byte) exercise.getMode().ordinal());
+
+        if (exercise instanceof Exercise) {
+            Exercise columns = (Exercise) exercise;
+            int count = columns.getRecordedSetCount();
+            writeVarInt(buffer, count);
+            for (int i = 0; i < count; i++) {
+                writeVarInt(buffer, columns.getSetNumberAt(i));
+                writeVarInt(buffer, columns.getRepsAt(i));
+            }
+        } else {
+            List<SetReps> setReps = exercise.getAllSetReps();
+            writeVarInt(buffer, setReps.size());
+            for (SetReps set : setReps) {
+                writeVarInt(buffer, set.getSetNumber());
+                writeVarInt(buffer, set.getReps());
+            }
+        }
+    }
+
+    private Exercise readExercise(ByteBuffer buffer) {
+        String name = readString(buffer);
+        int sets = readVarInt(buffer);
+        int targetReps = readVarInt(buffer);
+        double weight = readDouble(buffer);
+        byte modeOrdinal = buffer.get();
+        Mode mode = modeOrdinal == NO_MODE ? null : modeOf(modeOrdinal);
+
+        int count = readVarInt(buffer);
+        if (count < 0 || count > buffer.remaining()) {
+            throw new IllegalArgumentException("Corrupt set count (" + count + ") for exercise \"" + name + "\".");
+        }
+        int[] setNumbers = new int[count];
+        int[] reps = new int[count];
+        for (int i = 0; i < count; i++) {
+            setNumbers[i] = readVarInt(buffer);
+            reps[i] = readVarInt(buffer);
+        }
+
+        Exercise exercise = new Exercise(name, setNumbers, reps, targetReps, weight, mode);
+        if (sets != count) {
+            exercise.updateSets(sets);
+        }
+        return exercise;
+    }
+
+    private int workoutSize(IWorkout workout) {
+        int size = stringSize(workout.getWorkoutName());
+        List<IExercise> current = workout.getExerciseList();
+        size += varIntSize(current.size());
+        for (IExercise exercise : current) {
+            size += exerciseSize(exercise);
+        }
+        List<IExercise> deleted = deletedExercisesOf(workout);
+        size += varIntSize(deleted.size());
+        for (IExercise exercise : deleted) {
+            size += exerciseSize(exercise);
+        }
+        return size;
+    }
+
+    private void writeWorkout(IWorkout workout, ByteBuffer buffer) {
+        writeString(buffer, workout.getWorkoutName());
+        List<IExercise> current = workout.getExerciseList();
+        writeVarInt(buffer, current.size());
+        for (IExercise exercise : current) {
+            writeExercise(exercise, buffer);
+        }
+        List<IExercise> deleted = deletedExercisesOf(workout);
+        writeVarInt(buffer, deleted.size());
+        for (IExercise exercise : deleted) {
+            writeExercise(exercise, buffer);
+        }
+    }
+
+    private Workout readWorkout(ByteBuffer buffer) {
+        Workout workout = new Workout(readString(buffer));
+        // Rebuilding the workout is not a user mutation, so it is not reported.
+        workout.setEventListener(event -> { });
+
+        int currentCount = readCount(buffer);
+        for (int i = 0; i < currentCount; i++) {
+            workout.addExercise(readExercise(buffer));
+        }
+        int deletedCount = readCount(buffer);
+        List<IExercise> deleted = new ArrayList<>(deletedCount);
+        for (int i = 0; i < deletedCount; i++) {
+            deleted.add(readExercise(buffer));
+        }
+        // Journaled directly, as in readRoutine: a deleted exercise may equal a current one, which addExercise refuses.
+        workout.getUndoJournal().recordAll(deleted);
+
+        workout.setEventListener(decodedEventListener);
+        return workout;
+    }
+
+    private int routineSize(IRoutine routine) {
+        int size = stringSize(routine.getRoutineName());
+        List<IWorkout> current = routine.getWorkouts();
+        size += varIntSize(current.size());
+        for (IWorkout workout : current) {
+            size += workoutSize(workout);
+        }
+        List<IWorkout> deleted = deletedWorkoutsOf(routine);
+        size += varIntSize(deleted.size());
+        for (IWorkout workout : deleted) {
+            size += workoutSize(workout);
+        }
+        return size;
+    }
+
+    private void writeRoutine(IRoutine routine, ByteBuffer buffer) {
+        writeString(buffer, routine.getRoutineName());
+        List<IWorkout> current = routine.getWorkouts();
+        writeVarInt(buffer, current.size());
+        for (IWorkout workout : current) {
+            writeWorkout(workout, buffer);
+        }
+        List<IWorkout> deleted = deletedWorkoutsOf(routine);
+        writeVarInt(buffer, deleted.size());
+        for (IWorkout workout : deleted) {
+            writeWorkout(workout, buffer);
+        }
+    }
+
+    private Routine readRoutine(ByteBuffer buffer) {
+        Routine routine = new Routine(readString(buffer));
+
+        int currentCount = readCount(buffer);
+        for (int i = 0; i < currentCount; i++) {
+            routine.addWorkoutToRoutine(readWorkout(buffer));
+        }
+        int deletedCount = readCount(buffer);
+        for (int i = 0; i < deletedCount; i++) {
+            // Journaled directly: removeWorkoutFromRoutine would refuse the last workout of a deleted routine.
+            routine.getUndoJournal().record(readWorkout(buffer));
+        }
+        return routine;
+    }
+
+    private List<IExercise> deletedExercisesOf(IWorkout workout) {
+        if (workout instanceof Workout) {
+            return ((Workout) workout).getDeletedExercises();
+        }
+        if (workout instanceof IndexedWorkout) {
+            return ((IndexedWorkout) workout).getDeletedExercises();
+        }
+        return Collections.emptyList();
+    }
+
+    private List<IWorkout> deletedWorkoutsOf(IRoutine routine) {
+        if (routine instanceof Routine) {
+            return ((Routine) routine).getDeletedWorkoutsInRoutine();
+        }
+        return Collections.emptyList();
+    }
+
+    private Mode modeOf(byte ordinal) {
+        if (ordinal < 0 || ordinal >= MODES.length) {
+            throw new IllegalArgumentException("Unknown mode ordinal (" + ordinal + ").");
+        }
+        return MODES[ordinal];
+    }
+
+    private int readCount(ByteBuffer buffer) {
+        int count = readVarInt(buffer);
+        if (count < 0 || count > buffer.remaining()) {
+            throw new IllegalArgumentException("Corrupt element count (" + count + ").");
+        }
+        return count;
+    }
+
+    private String readString(ByteBuffer buffer) {
+        int length = readVarInt(buffer);
+        if (length < 0 || length > buffer.remaining()) {
+            throw new IllegalArgumentException("Corrupt string length (" + length + ").");
+        }
+
+        String value;
+        if (buffer.hasArray()) {
+            value = new String(buffer.array(), buffer.arrayOffset() + buffer.position(), length, StandardCharsets.UTF_8);
+            buffer.position(buffer.position() + length);
+        } else {
+            if (scratch.length < length) {
+                scratch = new byte[Math.max(length, scratch.length * 2)];
+            }
+            buffer.get(scratch, 0, length);
+            value = new String(scratch, 0, length, StandardCharsets.UTF_8);
+        }
+        return value;
+    }
+
+    private static void checkNotNull(Object value, String what) {
+        if (value == null) {
+            throw new IllegalArgumentException("Cannot encode a null " + what + ".");
+        }
+    }
+
+    /**
+     * Computes the UTF-8 length of a string the way writeString encodes it (unpaired surrogates become '?').
+     */
+    static int utf8Length(String value) {
+        int length = 0;
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c < 0x80) {
+                length += 1;
+            } else if (c < 0x800) {
+                length += 2;
+            } else if (Character.isHighSurrogate(c) && i + 1 < value.length() && Character.isLowSurrogate(value.charAt(i + 1))) {
+                length += 4;
+                i++;
+            } else if (Character.isSurrogate(c)) {
+                length += 1;
+            } else {
+                length += 3;
+            }
+        }
+        return length;
+    }
+
+    static int stringSize(String value) {
+        int length = utf8Length(value);
+        return varIntSize(length) + length;
+    }
+
+    static void writeString(ByteBuffer buffer, String value) {
+        writeVarInt(buffer, utf8Length(value));
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c < 0x80) {
+                buffer.put((byte) c);
+            } else if (c < 0x800) {
+                buffer.put((byte) (0xC0 | (c >> 6)));
+                buffer.put((byte) (0x80 | (c & 0x3F)));
+            } else if (Character.isHighSurrogate(c) && i + 1 < value.length() && Character.isLowSurrogate(value.charAt(i + 1))) {
+                int codePoint = Character.toCodePoint(c, value.charAt(++i));
+                buffer.put((byte) (0xF0 | (codePoint >> 18)));
+                buffer.put((byte) (0x80 | ((codePoint >> 12) & 0x3F)));
+                buffer.put((byte) (0x80 | ((codePoint >> 6) & 0x3F)));
+                buffer.put((byte) (0x80 | (codePoint & 0x3F)));
+            } else if (Character.isSurrogate(c)) {
+                buffer.put((byte) '?');
+            } else {
+                buffer.put((byte) (0xE0 | (c >> 12)));
+                buffer.put((byte) (0x80 | ((c >> 6) & 0x3F)));
+                buffer.put((byte) (0x80 | (c & 0x3F)));
+            }
+        }
+    }
+
+    static int varIntSize(int value) {
+        int zigzag = (value << 1) ^ (value >> 31);
+        int size = 1;
+        while ((zigzag & ~0x7F) != 0) {
+            size++;
+            zigzag >>>= 7;
+        }
+        return size;
+    }
+
+    static void writeVarInt(ByteBuffer buffer, int value) {
+        int zigzag = (value << 1) ^ (value >> 31);
+        while ((zigzag & ~0x7F) != 0) {
+            buffer.put((byte) ((zigzag & 0x7F) | 0x80));
+            zigzag >>>= 7;
+        }
+        buffer.put((byte) zigzag);
+    }
+
+    static int readVarInt(ByteBuffer buffer) {
+        int zigzag = 0;
+        for (int shift = 0; shift < 35; shift += 7) {
+            byte b = buffer.get();
+            zigzag |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return (zigzag >>> 1) ^ -(zigzag & 1);
+            }
+        }
+        throw new IllegalArgumentException("Corrupt varint: more than 5 bytes.");
+    }
+
+    static void writeDouble(ByteBuffer buffer, double value) {
+        long bits = Double.doubleToLongBits(value);
+        for (int shift = 56; shift >= 0; shift -= 8) {
+            buffer.put((byte) (bits >>> shift));
+        }
+    }
+
+    static double readDouble(ByteBuffer buffer) {
+        long bits = 0;
+        for (int i = 0; i < Double.BYTES; i++) {
+            bits = (bits << 8) | (buffer.get() & 0xFF);
+        }
+        return Double.longBitsToDouble(bits);
+    }
+}
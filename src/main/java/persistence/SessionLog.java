@@ -0,0 +1,356 @@
+package persistence;
+
+import model.IWorkout;
+import model.Workout;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Stream;
+
+/**
+ * Durable, append-only log of completed training sessions. Every append records the workout, with the sets,
+ * reps and weights of its exercises at that moment, encoded with ModelCodec into a memory-mapped segment file.
+ *
+ * Segments are fixed-size files named after the id of their first session; a new segment is started when the
+ * current one cannot hold the next record. Each record is laid out as:
+ * [int payload length][long session id][long recorded at][payload]
+ * and a zero length marks the end of the written part of a segment, since mapped files are zero-filled.
+ *
+ * Session ids are assigned by the log and increase by one per append. A sparse index keeps the position of every
+ * indexInterval-th session and of the first session of every segment, so reading a session by id seeks to the
+ * closest indexed session, which is always in the same segment, and scans at most indexInterval - 1 records.
+ * Sequential replay simply walks the segments in order.
+ */
+public class SessionLog implements Closeable {
+
+    /**
+     * The default size of a segment file, in bytes.
+     */
+    public static final int DEFAULT_SEGMENT_SIZE = 64 * 1024 * 1024;
+
+    /**
+     * The default number of sessions between two sparse index entries.
+     */
+    public static final int DEFAULT_INDEX_INTERVAL = 64;
+
+    // the size of the fixed part of a record (length, session id, recorded at).
+    private static final int RECORD_HEADER_SIZE = Integer.BYTES + Long.BYTES + Long.BYTES;
+
+    // the file name prefix and suffix of segment files.
+    private static final String SEGMENT_PREFIX = "session-";
+    private static final String SEGMENT_SUFFIX = ".log";
+
+    // the directory holding the segment files.
+    private final Path directory;
+
+    // the size of every segment file.
+    private final int segmentSize;
+
+    // the number of sessions between two sparse index entries.
+    private final int indexInterval;
+
+    // the codec records are encoded with.
+    private final ModelCodec codec;
+
+    // the open segments, oldest first.
+    private final List<Segment> segments;
+
+    // the sparse index: session id of every indexInterval-th session to its position.
+    private final TreeMap<Long, Position> sparseIndex;
+
+    // the id the next appended session will get.
+    private long nextSessionId;
+
+    // whether the log has been closed.
+    private boolean closed;
+
+    /**
+     * Opens (or creates) a session log in the given directory with the default segment size and index interval.
+     * @param directory the directory holding the segment files.
+     * @throws IOException if the directory or its segments cannot be opened.
+     */
+    public SessionLog(Path directory) throws IOException {
+        this(directory, DEFAULT_SEGMENT_SIZE, DEFAULT_INDEX_INTERVAL);
+    }
+
+    /**
+     * Opens (or creates) a session log in the given directory. Existing segments are scanned once to rebuild
+     * the sparse index and find the end of the log.
+     * @param directory the directory holding the segment files.
+     * @param segmentSize the size of every segment file, in bytes.
+     * @param indexInterval the number of sessions between two sparse index entries.
+     * @throws IOException if the directory or its segments cannot be opened.
+     */
+    public SessionLog(Path directory, int segmentSize, int indexInterval) throws IOException {
+        if (directory == null) {
+            throw new IllegalArgumentException("Session log directory cannot be null.");
+        }
+        if (segmentSize <= RECORD_HEADER_SIZE || indexInterval < 1) {
+            throw new IllegalArgumentException("Segment size (" + segmentSize + ") must exceed " + RECORD_HEADER_SIZE
+                    + " bytes and index interval (" + indexInterval + ") cannot be less than 1.");
+        }
+        this.directory = Files.createDirectories(directory);
+        this.segmentSize = segmentSize;
+        this.indexInterval = indexInterval;
+        this.codec = new ModelCodec(event -> { });
+        this.segments = new ArrayList<>();
+        this.sparseIndex = new TreeMap<>();
+        this.nextSessionId = 1;
+
+        recover();
+    }
+
+    /**
+     * Appends a completed session to the log.
+     * @param workout the workout to record, with its exercises as they are now.
+     * @return the id assigned to the session.
+     * @throws IOException if a new segment cannot be created.
+     */
+    public synchronized long append(IWorkout workout) throws IOException {
+        checkOpen();
+        if (workout == null) {
+            throw new IllegalArgumentException("Cannot record a null workout.");
+        }
+
+        int payloadSize = codec.encodedSize(workout);
+        int recordSize = RECORD_HEADER_SIZE + payloadSize;
+        if (recordSize + Integer.BYTES > segmentSize) {
+            throw new IllegalArgumentException("Session of workout \"" + workout.getWorkoutName() + "\" (" + recordSize
+                    + " bytes) does not fit in a segment of " + segmentSize + " bytes.");
+        }
+
+        Segment segment = segments.isEmpty() ? null : segments.get(segments.size() - 1);
+        // keep room for the zero length that terminates the segment.
+        boolean newSegment = segment == null || segment.end + recordSize + Integer.BYTES > segmentSize;
+        if (newSegment) {
+            segment = openSegment(nextSessionId, true);
+            segments.add(segment);
+        }
+
+        long sessionId = nextSessionId++;
+        MappedByteBuffer buffer = segment.buffer;
+        int offset = segment.end;
+        buffer.position(offset + Integer.BYTES);
+        buffer.putLong(sessionId);
+        buffer.putLong(System.currentTimeMillis());
+        codec.encodeWorkout(workout, buffer);
+        // the length is written last, so a partially written record is never seen as complete.
+        buffer.putInt(offset, payloadSize);
+        segment.end = offset + recordSize;
+
+        // the first session of a segment is always indexed, so a lookup never has to cross segments.
+        if (newSegment || (sessionId - 1) % indexInterval == 0) {
+            sparseIndex.put(sessionId, new Position(segments.size() - 1, offset));
+        }
+        return sessionId;
+    }
+
+    /**
+     * Reads a single session by id.
+     * @param sessionId the id returned by append.
+     * @return the workout recorded for that session.
+     */
+    public synchronized Workout read(long sessionId) {
+        checkOpen();
+        Map.Entry<Long, Position> closest = sparseIndex.floorEntry(sessionId);
+        if (closest == null || sessionId >= nextSessionId) {
+            throw new IllegalArgumentException("Session " + sessionId + " is not in the log.");
+        }
+
+        Position position = closest.getValue();
+        Segment segment = segments.get(position.segment);
+        ByteBuffer buffer = segment.buffer.duplicate();
+        int offset = position.offset;
+        while (offset < segment.end) {
+            int payloadSize = buffer.getInt(offset);
+            long id = buffer.getLong(offset + Integer.BYTES);
+            if (id == sessionId) {
+                buffer.position(offset + RECORD_HEADER_SIZE);
+                return codec.decodeWorkout(buffer);
+            }
+            offset += RECORD_HEADER_SIZE + payloadSize;
+        }
+        throw new IllegalStateException("Session " + sessionId + " is indexed but missing from its segment.");
+    }
+
+    /**
+     * Replays every session in the order it was appended.
+     * @param visitor the consumer of the sessions.
+     */
+    public synchronized void replay(ISessionVisitor visitor) {
+        replayFrom(1, visitor);
+    }
+
+    /**
+     * Replays every session from the given id onwards, in the order they were appended.
+     * @param fromSessionId the id of the first session to replay.
+     * @param visitor the consumer of the sessions.
+     */
+    public synchronized void replayFrom(long fromSessionId, ISessionVisitor visitor) {
+        checkOpen();
+        if (visitor == null) {
+            throw new IllegalArgumentException("Cannot replay sessions into a null visitor.");
+        }
+        Map.Entry<Long, Position> start = sparseIndex.floorEntry(Math.max(1, fromSessionId));
+        if (start == null) {
+            return;
+        }
+
+        for (int s = start.getValue().segment; s < segments.size(); s++) {
+            Segment segment = segments.get(s);
+            ByteBuffer buffer = segment.buffer.duplicate();
+            int offset = s == start.getValue().segment ? start.getValue().offset : 0;
+            while (offset < segment.end) {
+                int payloadSize = buffer.getInt(offset);
+                long id = buffer.getLong(offset + Integer.BYTES);
+                if (id >= fromSessionId) {
+                    long recordedAt = buffer.getLong(offset + Integer.BYTES + Long.BYTES);
+                    buffer.position(offset + RECORD_HEADER_SIZE);
+                    visitor.visit(id, recordedAt, codec.decodeWorkout(buffer));
+                }
+                offset += RECORD_HEADER_SIZE + payloadSize;
+            }
+        }
+    }
+
+    /**
+     * Gets the number of sessions in the log.
+     * @return the session count.
+     */
+    public synchronized long size() {
+        return nextSessionId - 1;
+    }
+
+    /**
+     * Gets the number of segment files the log spans.
+     * @return the segment count.
+     */
+    public synchronized int getSegmentCount() {
+        return segments.size();
+    }
+
+    /**
+     * Forces every written session to the storage device.
+     */
+    public synchronized void force() {
+        checkOpen();
+        for (Segment segment : segments) {
+            segment.buffer.force();
+        }
+    }
+
+    /**
+     * Forces the log to storage and closes its segment files.
+     * @throws IOException if a segment file cannot be closed.
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        force();
+        closed = true;
+        for (Segment segment : segments) {
+            segment.channel.close();
+        }
+        segments.clear();
+        sparseIndex.clear();
+    }
+
+    // Private helper methods.
+
+    /**
+     * Opens the existing segments in order and scans them to rebuild the sparse index and find the next id.
+     */
+    private void recover() throws IOException {
+        List<Path> files = new ArrayList<>();
+        try (Stream<Path> listing = Files.list(directory)) {
+            listing.filter(path -> {
+                String name = path.getFileName().toString();
+                return name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX);
+            }).forEach(files::add);
+        }
+        files.sort(null);
+
+        for (Path file : files) {
+            String name = file.getFileName().toString();
+            long firstSessionId = Long.parseLong(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+            Segment segment = openSegment(firstSessionId, false);
+            segments.add(segment);
+
+            ByteBuffer buffer = segment.buffer;
+            int offset = 0;
+            while (offset + RECORD_HEADER_SIZE <= segmentSize) {
+                int payloadSize = buffer.getInt(offset);
+                if (payloadSize <= 0 || offset + RECORD_HEADER_SIZE + payloadSize > segmentSize) {
+                    break;
+                }
+                long sessionId = buffer.getLong(offset + Integer.BYTES);
+                if (offset == 0 || (sessionId - 1) % indexInterval == 0) {
+                    sparseIndex.put(sessionId, new Position(segments.size() - 1, offset));
+                }
+                nextSessionId = sessionId + 1;
+                offset += RECORD_HEADER_SIZE + payloadSize;
+            }
+            segment.end = offset;
+        }
+    }
+
+    /**
+     * Opens and maps a segment file.
+     * @param firstSessionId the id of the first session of the segment, used in its file name.
+     * @param create whether the file must be created.
+     * @return the mapped segment.
+     */
+    private Segment openSegment(long firstSessionId, boolean create) throws IOException {
+        Path file = directory.resolve(String.format("%s%020d%s", SEGMENT_PREFIX, firstSessionId, SEGMENT_SUFFIX));
+        FileChannel channel = create
+                ? FileChannel.open(file, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE)
+                : FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentSize);
+        return new Segment(channel, buffer);
+    }
+
+    private void checkOpen() {
+        if (closed) {
+            throw new IllegalStateException("The session log in \"" + directory + "\" is closed.");
+        }
+    }
+
+    /**
+     * An open segment file and the offset just past its last record.
+     */
+    private static final class Segment {
+        private final FileChannel channel;
+        private final MappedByteBuffer buffer;
+        private int end;
+
+        private Segment(FileChannel channel, MappedByteBuffer buffer) {
+            this.channel = channel;
+            this.buffer = buffer;
+        }
+    }
+
+    /**
+     * The location of a record: the index of its segment and its offset in that segment.
+     */
+    private static final class Position {
+        private final int segment;
+        private final int offset;
+
+        private Position(int segment, int offset) {
+            this.segment = segment;
+            this.offset = offset;
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package store;
+
+import model.PersistentRoutine;
+
+/**
+ * Interface that represents a consumer of the routine snapshots visited by RoutineStore.forEach.
+ */
+public interface IRoutineVisitor {
+
+    /**
+     * Called once per stored routine.
+     * @param userId the id of the user owning the routine.
+     * @param routine an immutable snapshot of the routine.
+     */
+    void visit(long userId, PersistentRoutine routine);
+}
@@ -0,0 +1,543 @@
+package store;
+
+import model.Exercise;
+import model.IExercise;
+import model.IRoutine;
+import model.IRoutineView;
+import model.IWorkoutView;
+import model.PersistentRoutine;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+import java.util.function.ToLongFunction;
+
+/**
+ * In-memory store of the routines of many users, keyed by user id and, per user, by routine name. The store owns
+ * the routines put into it: they are only changed through update, which runs under the write lock of their
+ * shard, and only read through read, under its read lock. Everything else (get, getRoutines, putIfAbsent and
+ * forEach) hands out immutable PersistentRoutine snapshots instead of the live routines, so callers can keep and
+ * read them on any thread without locking. A snapshot is taken once under the shard lock and reused until the
+ * routine is next updated.
+ *
+ * Users are spread over a power-of-two number of shards by a mix of their id. Each shard has its own
+ * read/write lock, map and accounting, so requests for users of different shards never contend, and reads of
+ * the same shard proceed in parallel. Every shard accounts for the estimated memory of its routines, measured
+ * with a size estimator when a routine is put. An update only marks its routine as unmeasured, so the write lock
+ * is not held for a walk over the whole routine; unmeasured routines are measured when the estimated memory is
+ * next asked for, on their snapshot and outside the shard lock. Bulk iteration visits the shards one at a time,
+ * copying a shard's routines under its read lock and releasing it before calling the visitor, so no global
+ * lock is ever held and a slow visitor does not block writers.
+ */
+public class RoutineStore {
+
+    /**
+     * The default number of shards: four per core, rounded up to a power of two.
+     */
+    public static final int DEFAULT_SHARD_COUNT = powerOfTwoAtLeast(4 * Runtime.getRuntime().availableProcessors());
+
+    // the estimated sizes, in bytes, used by estimateSize.
+    private static final long ROUTINE_BYTES = 64;
+    private static final long WORKOUT_BYTES = 96;
+    private static final long EXERCISE_BYTES = 120;
+    private static final long REFERENCE_BYTES = 16;
+    private static final long SET_BYTES = 2 * Integer.BYTES;
+
+    // the shards, indexed by the mixed user id masked with shardMask.
+    private final Shard[] shards;
+    private final int shardMask;
+
+    // the estimator of the memory held by a routine.
+    private final ToLongFunction<IRoutineView> sizeEstimator;
+
+    /**
+     * Creates a store with the default number of shards and size estimator.
+     */
+    public RoutineStore() {
+        this(DEFAULT_SHARD_COUNT, RoutineStore::estimateSize);
+    }
+
+    /**
+     * Creates a store.
+     * @param shardCount the number of shards, rounded up to a power of two.
+     * @param sizeEstimator the estimator of the memory held by a routine, in bytes. It is applied to the routines
+     *                      put into the store and to the snapshots of updated routines.
+     */
+    public RoutineStore(int shardCount, ToLongFunction<IRoutineView> sizeEstimator) {
+        if (shardCount < 1 || shardCount > (1 << 16)) {
+            throw new IllegalArgumentException("Shard count (" + shardCount + ") must be between 1 and 65536.");
+        }
+        if (sizeEstimator == null) {
+            throw new IllegalArgumentException("Size estimator of the routine store cannot be null.");
+        }
+        int count = powerOfTwoAtLeast(shardCount);
+        this.shards = new Shard[count];
+        for (int i = 0; i < count; i++) {
+            shards[i] = new Shard();
+        }
+        this.shardMask = count - 1;
+        this.sizeEstimator = sizeEstimator;
+    }
+
+    /**
+     * Stores a routine of a user, replacing the user's routine of the same name if there is one.
+     * @param userId the id of the user.
+     * @param routine the routine to store.
+     * @return the replaced routine, or null.
+     */
+    public IRoutine put(long userId, IRoutine routine) {
+        if (routine == null) {
+            throw new IllegalArgumentException("Cannot store a null routine for user " + userId + ".");
+        }
+        long bytes = sizeEstimator.applyAsLong(routine);
+        Shard shard = shardOf(userId);
+        shard.lock.writeLock().lock();
+        try {
+            Map<String, Entry> routines = shard.users.computeIfAbsent(userId, id -> new LinkedHashMap<>());
+            Entry replaced = routines.put(routine.getRoutineName(), new Entry(routine, bytes));
+            if (replaced != null) {
+                shard.discard(replaced);
+            }
+            shard.account(replaced == null ? 1 : 0, bytes - (replaced == null ? 0 : replaced.bytes));
+            return replaced == null ? null : replaced.routine;
+        } finally {
+            shard.lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Stores a routine of a user unless the user already has a routine of the same name.
+     * @param userId the id of the user.
+     * @param routine the routine to store.
+     * @return a snapshot of the routine already stored under that name, or null if the routine was stored.
+     */
+    public PersistentRoutine putIfAbsent(long userId, IRoutine routine) {
+        if (routine == null) {
+            throw new IllegalArgumentException("Cannot store a null routine for user " + userId + ".");
+        }
+        long bytes = sizeEstimator.applyAsLong(routine);
+        Shard shard = shardOf(userId);
+        shard.lock.writeLock().lock();
+        try {
+            Map<String, Entry> routines = shard.users.computeIfAbsent(userId, id -> new LinkedHashMap<>());
+            Entry existing = routines.putIfAbsent(routine.getRoutineName(), new Entry(routine, bytes));
+            if (existing != null) {
+                return existing.snapshot();
+            }
+            shard.account(1, bytes);
+            return null;
+        } finally {
+            shard.lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Gets a snapshot of a routine of a user.
+     * @param userId the id of the user.
+     * @param routineName the name of the routine.
+     * @return the snapshot of the routine, or null if the user has no routine of that name.
+     */
+    public PersistentRoutine get(long userId, String routineName) {
+        Shard shard = shardOf(userId);
+        shard.lock.readLock().lock();
+        try {
+            Map<String, Entry> routines = shard.users.get(userId);
+            Entry entry = routines == null ? null : routines.get(routineName);
+            return entry == null ? null : entry.snapshot();
+        } finally {
+            shard.lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Gets snapshots of every routine of a user.
+     * @param userId the id of the user.
+     * @return the snapshots of the user's routines, in the order they were first stored.
+     */
+    public List<PersistentRoutine> getRoutines(long userId) {
+        Shard shard = shardOf(userId);
+        shard.lock.readLock().lock();
+        try {
+            Map<String, Entry> routines = shard.users.get(userId);
+            List<PersistentRoutine> copy = new ArrayList<>(routines == null ? 0 : routines.size());
+            if (routines != null) {
+                for (Entry entry : routines.values()) {
+                    copy.add(entry.snapshot());
+                }
+            }
+            return copy;
+        } finally {
+            shard.lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Reads the live routine of a user under the read lock of its shard, so the action sees no concurrent update.
+     * Other readers proceed in parallel but writers of the same shard wait for the action, so it should be short,
+     * and must neither change the routine nor keep a reference to it.
+     * @param userId the id of the user.
+     * @param routineName the name of the routine.
+     * @param action the read to perform, which may return a result.
+     * @param <R> the type of the result.
+     * @return the result of the action.
+     */
+    public <R> R read(long userId, String routineName, Function<? super IRoutine, ? extends R> action) {
+        if (action == null) {
+            throw new IllegalArgumentException("Cannot read a routine with a null action.");
+        }
+        Shard shard = shardOf(userId);
+        shard.lock.readLock().lock();
+        try {
+            Map<String, Entry> routines = shard.users.get(userId);
+            Entry entry = routines == null ? null : routines.get(routineName);
+            if (entry == null) {
+                throw new IllegalArgumentException("User " + userId + " has no routine \"" + routineName + "\".");
+            }
+            return action.apply(entry.routine);
+        } finally {
+            shard.lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Changes a routine of a user under the lock of its shard, then drops its snapshot and marks it as unmeasured.
+     * Other users of the same shard wait for the action, so it should be short, and must not keep a reference to
+     * the routine.
+     * @param userId the id of the user.
+     * @param routineName the name of the routine.
+     * @param action the change to apply, which may return a result.
+     * @param <R> the type of the result.
+     * @return the result of the action.
+     */
+    public <R> R update(long userId, String routineName, Function<? super IRoutine, ? extends R> action) {
+        if (action == null) {
+            throw new IllegalArgumentException("Cannot update a routine with a null action.");
+        }
+        Shard shard = shardOf(userId);
+        shard.lock.writeLock().lock();
+        try {
+            Map<String, Entry> routines = shard.users.get(userId);
+            Entry entry = routines == null ? null : routines.get(routineName);
+            if (entry == null) {
+                throw new IllegalArgumentException("User " + userId + " has no routine \"" + routineName + "\".");
+            }
+            try {
+                return action.apply(entry.routine);
+            } finally {
+                IRoutine routine = entry.routine;
+                if (!routine.getRoutineName().equals(routineName)) {
+                    // the action renamed the routine: file it under its new name, replacing any routine there.
+                    routines.remove(routineName);
+                    Entry replaced = routines.put(routine.getRoutineName(), entry);
+                    if (replaced != null) {
+                        shard.discard(replaced);
+                        shard.account(-1, -replaced.bytes);
+                    }
+                }
+                entry.version++;
+                entry.snapshot = null;
+                shard.markUnmeasured(entry);
+            }
+        } finally {
+            shard.lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Removes a routine of a user.
+     * @param userId the id of the user.
+     * @param routineName the name of the routine.
+     * @return the removed routine, or null if the user has no routine of that name.
+     */
+    public IRoutine remove(long userId, String routineName) {
+        Shard shard = shardOf(userId);
+        shard.lock.writeLock().lock();
+        try {
+            Map<String, Entry> routines = shard.users.get(userId);
+            Entry removed = routines == null ? null : routines.remove(routineName);
+            if (removed == null) {
+                return null;
+            }
+            if (routines.isEmpty()) {
+                shard.users.remove(userId);
+            }
+            shard.discard(removed);
+            shard.account(-1, -removed.bytes);
+            return removed.routine;
+        } finally {
+            shard.lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Removes every routine of a user.
+     * @param userId the id of the user.
+     * @return the number of routines removed.
+     */
+    public int removeUser(long userId) {
+        Shard shard = shardOf(userId);
+        shard.lock.writeLock().lock();
+        try {
+            Map<String, Entry> routines = shard.users.remove(userId);
+            if (routines == null) {
+                return 0;
+            }
+            long bytes = 0;
+            for (Entry entry : routines.values()) {
+                shard.discard(entry);
+                bytes += entry.bytes;
+            }
+            shard.account(-routines.size(), -bytes);
+            return routines.size();
+        } finally {
+            shard.lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Visits a snapshot of every stored routine, shard by shard. The snapshots of a shard are collected under its
+     * read lock, which is released before they are visited; routines stored or removed meanwhile may or may not
+     * be visited, and updates made meanwhile are not seen.
+     * @param visitor the consumer of the routines.
+     */
+    public void forEach(IRoutineVisitor visitor) {
+        if (visitor == null) {
+            throw new IllegalArgumentException("Cannot visit the routine store with a null visitor.");
+        }
+        List<Long> userIds = new ArrayList<>();
+        List<PersistentRoutine> routines = new ArrayList<>();
+        for (Shard shard : shards) {
+            userIds.clear();
+            routines.clear();
+            shard.lock.readLock().lock();
+            try {
+                for (Map.Entry<Long, Map<String, Entry>> user : shard.users.entrySet()) {
+                    for (Entry entry : user.getValue().values()) {
+                        userIds.add(user.getKey());
+                        routines.add(entry.snapshot());
+                    }
+                }
+            } finally {
+                shard.lock.readLock().unlock();
+            }
+            for (int i = 0; i < routines.size(); i++) {
+                visitor.visit(userIds.get(i), routines.get(i));
+            }
+        }
+    }
+
+    /**
+     * Gets the number of shards.
+     * @return the shard count.
+     */
+    public int getShardCount() {
+        return shards.length;
+    }
+
+    /**
+     * Gets the shard a user belongs to.
+     * @param userId the id of the user.
+     * @return the index of the user's shard.
+     */
+    public int getShardIndex(long userId) {
+        return mix(userId) & shardMask;
+    }
+
+    /**
+     * Gets the number of routines in a shard.
+     * @param shard the index of the shard.
+     * @return the routine count of the shard.
+     */
+    public long getRoutineCount(int shard) {
+        return shards[shard].routineCount;
+    }
+
+    /**
+     * Gets the estimated memory held by the routines of a shard, first measuring the routines updated since they
+     * were last measured.
+     * @param shard the index of the shard.
+     * @return the estimated bytes of the shard.
+     */
+    public long getEstimatedBytes(int shard) {
+        measureUpdatedRoutines(shards[shard]);
+        return shards[shard].estimatedBytes;
+    }
+
+    /**
+     * Gets the number of routines in the store, summed over the shards without locking them.
+     * @return the routine count.
+     */
+    public long getRoutineCount() {
+        long count = 0;
+        for (Shard shard : shards) {
+            count += shard.routineCount;
+        }
+        return count;
+    }
+
+    /**
+     * Gets the estimated memory held by the routines of the store, summed over the shards. Shards without updated
+     * routines to measure are not locked.
+     * @return the estimated bytes.
+     */
+    public long getEstimatedBytes() {
+        long bytes = 0;
+        for (Shard shard : shards) {
+            measureUpdatedRoutines(shard);
+            bytes += shard.estimatedBytes;
+        }
+        return bytes;
+    }
+
+    /**
+     * Estimates the memory held by a routine: fixed overheads per routine, workout and exercise, their names as
+     * UTF-16, the references between them and the set/rep columns of every exercise. This is a cheap model
+     * for accounting and capacity planning, not an exact measurement.
+     * @param routine the routine to measure.
+     * @return the estimated bytes.
+     */
+    public static long estimateSize(IRoutineView routine) {
+        long bytes = ROUTINE_BYTES + 2L * routine.getRoutineName().length();
+        for (IWorkoutView workout : routine.getWorkouts()) {
+            bytes += REFERENCE_BYTES + WORKOUT_BYTES + 2L * workout.getWorkoutName().length();
+            for (IExercise exercise : workout.getExerciseList()) {
+                int sets = exercise instanceof Exercise
+                        ? ((Exercise) exercise).getRecordedSetCount() : exercise.getAllSetReps().size();
+                bytes += REFERENCE_BYTES + EXERCISE_BYTES + 2L * exercise.getName().length() + sets * SET_BYTES;
+            }
+        }
+        return bytes;
+    }
+
+    // Private helper methods.
+
+    private Shard shardOf(long userId) {
+        return shards[mix(userId) & shardMask];
+    }
+
+    /**
+     * Measures the routines of a shard updated since they were last measured. Their snapshots are taken under the
+     * read lock, where readers reuse them, and measured with no lock held; only the accounting of the new sizes
+     * takes the write lock. A routine updated or removed while it was being measured keeps its old size.
+     */
+    private void measureUpdatedRoutines(Shard shard) {
+        if (shard.unmeasuredCount == 0) {
+            return;
+        }
+        List<Entry> entries;
+        List<PersistentRoutine> snapshots;
+        long[] versions;
+        shard.lock.readLock().lock();
+        try {
+            entries = new ArrayList<>(shard.unmeasured);
+            snapshots = new ArrayList<>(entries.size());
+            versions = new long[entries.size()];
+            for (int i = 0; i < entries.size(); i++) {
+                versions[i] = entries.get(i).version;
+                snapshots.add(entries.get(i).snapshot());
+            }
+        } finally {
+            shard.lock.readLock().unlock();
+        }
+
+        long[] sizes = new long[entries.size()];
+        for (int i = 0; i < sizes.length; i++) {
+            sizes[i] = sizeEstimator.applyAsLong(snapshots.get(i));
+        }
+
+        shard.lock.writeLock().lock();
+        try {
+            for (int i = 0; i < sizes.length; i++) {
+                Entry entry = entries.get(i);
+                if (entry.version == versions[i] && shard.unmeasured.remove(entry)) {
+                    shard.account(0, sizes[i] - entry.bytes);
+                    entry.bytes = sizes[i];
+                }
+            }
+            shard.unmeasuredCount = shard.unmeasured.size();
+        } finally {
+            shard.lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Mixes the bits of a user id (the murmur3 finalizer), so sequential ids spread evenly over the shards.
+     */
+    private static int mix(long userId) {
+        long h = userId;
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return (int) h;
+    }
+
+    private static int powerOfTwoAtLeast(int value) {
+        return value <= 1 ? 1 : Integer.highestOneBit(value - 1) << 1;
+    }
+
+    /**
+     * A shard: the routines of its users by routine name, its lock, its accounting and the stored routines updated
+     * since they were last measured. The counters are only written under the write lock and are volatile so they
+     * can be read without locking.
+     */
+    private static final class Shard {
+        private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+        private final Map<Long, Map<String, Entry>> users = new HashMap<>();
+        private final LinkedHashSet<Entry> unmeasured = new LinkedHashSet<>();
+        private volatile long routineCount;
+        private volatile long estimatedBytes;
+        private volatile int unmeasuredCount;
+
+        private void account(long routines, long bytes) {
+            routineCount += routines;
+            estimatedBytes += bytes;
+        }
+
+        private void markUnmeasured(Entry entry) {
+            unmeasured.add(entry);
+            unmeasuredCount = unmeasured.size();
+        }
+
+        // Called when an entry leaves the shard: its last measured size is what gets taken off the accounting.
+        private void discard(Entry entry) {
+            if (unmeasured.remove(entry)) {
+                unmeasuredCount = unmeasured.size();
+            }
+        }
+    }
+
+    /**
+     * A stored routine, its estimated size when it was last measured, the number of times it was updated and its
+     * snapshot since it was last updated.
+     * The snapshot is taken under the shard's read lock, where several readers may take it at once; they all
+     * copy the same unchanging routine, so whichever copy is kept is correct.
+     */
+    private static final class Entry {
+        private final IRoutine routine;
+        private long bytes;
+        private long version;
+        private volatile PersistentRoutine snapshot;
+
+        private Entry(IRoutine routine, long bytes) {
+            this.routine = routine;
+            this.bytes = bytes;
+        }
+
+        // Called under the shard lock, read or write.
+        private PersistentRoutine snapshot() {
+            PersistentRoutine copy = snapshot;
+            if (copy == null) {
+                copy = PersistentRoutine.copyOf(routine);
+                snapshot = copy;
+            }
+            return copy;
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package view;
+
+import java.text.DecimalFormat;
+import java.text.DecimalFormatSymbols;
+import java.util.Locale;
+
+/**
+ * Formats doubles with exactly two decimals, producing the same text as DecimalFormat("0.00") (half-even rounding
+ * of the exact binary value) but appending straight into a StringBuilder without allocating. The rare values the
+ * fast path does not cover (infinities, NaN and magnitudes of 1e13 and above) fall back to a DecimalFormat.
+ *
+ * A formatter is not thread-safe.
+ */
+public final class FixedPointFormatter {
+
+    // values at or above this magnitude are formatted by the fallback, so value * 100 stays exactly representable.
+    private static final double FAST_PATH_LIMIT = 1e13;
+
+    // the symbols the formatter writes. The negative prefix is taken from DecimalFormat rather than the minus
+    // sign, since some locales (e.g. ar-EG) prefix negatives with more than one character.
+    private final char decimalSeparator;
+    private final char zeroDigit;
+    private final String negativePrefix;
+
+    // the formatter for values outside the fast path, which also supplies the negative prefix.
+    private final DecimalFormat fallback;
+
+    /**
+     * Creates a formatter with the symbols of a locale, as DecimalFormat("0.00") would use them.
+     * @param locale the locale to take the decimal separator, digits and negative prefix from.
+     */
+    public FixedPointFormatter(Locale locale) {
+        if (locale == null) {
+            throw new IllegalArgumentException("Locale of fixed point formatter cannot be null.");
+        }
+        DecimalFormatSymbols symbols = DecimalFormatSymbols.getInstance(locale);
+        this.fallback = new DecimalFormat("0.00", symbols);
+        this.decimalSeparator = symbols.getDecimalSeparator();
+        this.zeroDigit = symbols.getZeroDigit();
+        this.negativePrefix = fallback.getNegativePrefix();
+    }
+
+    /**
+     * Creates a locale-independent formatter ('.' separator, ASCII digits), as used by CSV and JSON output.
+     * @return a formatter for machine-readable output.
+     */
+    public static FixedPointFormatter root() {
+        return new FixedPointFormatter(Locale.ROOT);
+    }
+
+    /**
+     * Appends a value with two decimals.
+     * @param out the builder to append to.
+     * @param value the value to format.
+     * @return the builder.
+     */
+    public StringBuilder append(StringBuilder out, double value) {
+        double magnitude = Math.abs(value);
+        if (!(magnitude < FAST_PATH_LIMIT)) {
+            return out.append(fallback.format(value));
+        }
+
+        // Round magnitude * 100 half-even on its exact value: fma gives the exact sign of the distance to the
+        // midpoint between the two candidate hundredths, so products that round onto a tie are resolved correctly.
+        double floor = Math.floor(magnitude * 100);
+        double distance = Math.fma(magnitude, 100, -(floor + 0.5));
+        long hundredths = (long) floor;
+        if (distance > 0 || (distance == 0 && (hundredths & 1) == 1)) {
+            hundredths++;
+        }
+
+        if (Double.doubleToRawLongBits(value) < 0) {
+            out.append(negativePrefix);
+        }
+        appendDigits(out, hundredths / 100);
+        int fraction = (int) (hundredths % 100);
+        return out.append(decimalSeparator)
+                .append((char) (zeroDigit + fraction / 10))
+                .append((char) (zeroDigit + fraction % 10));
+    }
+
+    /**
+     * Formats a value with two decimals.
+     * @param value the value to format.
+     * @return the formatted value.
+     */
+    public String format(double value) {
+        return append(new StringBuilder(16), value).toString();
+    }
+
+    // Private helper methods.
+
+    /**
+     * Appends a non-negative integer with the digits of this formatter.
+     */
+    private void appendDigits(StringBuilder out, long value) {
+        if (value >= 10) {
+            appendDigits(out, value / 10);
+        }
+        out.append((char) (zeroDigit + value % 10));
+    }
+}
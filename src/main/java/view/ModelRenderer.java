@@ -0,0 +1,512 @@
+package view;
+
+import model.Exercise;
+import model.IExercise;
+import model.IModelPrinter;
+import model.IRoutineView;
+import model.IWorkoutView;
+import model.SetReps;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Renders exercises, workouts and routines into any Appendable (a Writer, a PrintStream, a StringBuilder...) as
+ * plain text, CSV or JSON. Plain text and CSV show weights with two decimals; JSON writes them exactly (the
+ * shortest decimal that reads back as the same double), as JsonModelWriter does, and non-finite weights as null.
+ *
+ * Output is built in a reused StringBuilder and handed to the target in chunks of about BUFFER_SIZE characters,
+ * so a large routine costs a handful of writes instead of several print calls per exercise. Weights go through a
+ * FixedPointFormatter and set/rep columns of Exercise are read without creating SetReps, so rendering does not
+ * allocate per exercise beyond what the target itself does.
+ *
+ * A renderer is also the IModelPrinter the print methods of the model take: it prints to System.out in its
+ * format. The plain format is exactly what those methods have always written, and console() gives the plain
+ * renderer of the calling thread. A renderer is not thread-safe.
+ */
+public class ModelRenderer implements IModelPrinter {
+
+    /**
+     * The number of buffered characters after which the buffer is handed to the target.
+     */
+    public static final int BUFFER_SIZE = 8192;
+
+    // the CSV header, in the column order CsvImporter reads.
+    private static final String CSV_HEADER = "routine,workout,exercise,sets,targetReps,weight,mode,reps";
+
+    // the per-thread plain renderers handed to the print methods of the model.
+    private static final ThreadLocal<ModelRenderer> CONSOLE_RENDERERS = ThreadLocal.withInitial(() -> new ModelRenderer(RenderFormat.PLAIN));
+
+    // the output format.
+    private final RenderFormat format;
+
+    // the line separator ending every line the print methods used to println.
+    private final String lineSeparator;
+
+    // the buffer output is built in.
+    private final StringBuilder buffer;
+
+    // the chunk the buffer is copied into before being written to a Writer.
+    private char[] chunk;
+
+    // the weight formatter, and the locale it was made for (plain output follows the default format locale).
+    private FixedPointFormatter weightFormatter;
+    private Locale weightLocale;
+
+    /**
+     * Creates a renderer for a format.
+     * @param format the output format.
+     */
+    public ModelRenderer(RenderFormat format) {
+        if (format == null) {
+            throw new IllegalArgumentException("Render format cannot be null.");
+        }
+        this.format = format;
+        this.lineSeparator = System.lineSeparator();
+        this.buffer = new StringBuilder(BUFFER_SIZE + 256);
+        if (format != RenderFormat.PLAIN) {
+            this.weightFormatter = FixedPointFormatter.root();
+            this.weightLocale = Locale.ROOT;
+        }
+    }
+
+    /**
+     * Gets the plain renderer of the calling thread, to pass to the print methods of the model.
+     * @return the console renderer of this thread.
+     */
+    public static ModelRenderer console() {
+        return CONSOLE_RENDERERS.get();
+    }
+
+    /**
+     * Prints an exercise to System.out in the format of this renderer.
+     * @param exercise the exercise to print.
+     */
+    @Override
+    public void printExercise(IExercise exercise) {
+        buffer.setLength(0);
+        appendExercise(exercise, null, null);
+        flushToConsole();
+    }
+
+    /**
+     * Prints a workout to System.out in the format of this renderer.
+     * @param name the name of the workout.
+     * @param exercises the exercises of the workout.
+     */
+    @Override
+    public void printWorkout(String name, List<? extends IExercise> exercises) {
+        buffer.setLength(0);
+        try {
+            appendWorkout(name, exercises, null, System.out);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e); // a PrintStream never throws it
+        }
+        flushToConsole();
+    }
+
+    /**
+     * Prints a routine to System.out in the format of this renderer.
+     * @param name the name of the routine.
+     * @param workouts the workouts of the routine.
+     */
+    @Override
+    public void printRoutine(String name, List<? extends IWorkoutView> workouts) {
+        buffer.setLength(0);
+        try {
+            appendRoutine(name, workouts, System.out);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e); // a PrintStream never throws it
+        }
+        flushToConsole();
+    }
+
+    /**
+     * Gets the format of this renderer.
+     * @return the output format.
+     */
+    public RenderFormat getFormat() {
+        return format;
+    }
+
+    /**
+     * Writes the CSV header row. Other formats have no header and write nothing.
+     * @param out the target.
+     * @throws IOException if the target cannot be written.
+     */
+    public void renderHeader(Appendable out) throws IOException {
+        if (format == RenderFormat.CSV) {
+            buffer.append(CSV_HEADER).append('\n');
+            flush(out);
+        }
+    }
+
+    /**
+     * Renders a single exercise. In CSV the routine and workout columns are left empty.
+     * @param exercise the exercise to render.
+     * @param out the target.
+     * @throws IOException if the target cannot be written.
+     */
+    public void renderExercise(IExercise exercise, Appendable out) throws IOException {
+        checkArgumentsAreNotNull(exercise, out);
+        appendExercise(exercise, null, null);
+        flush(out);
+    }
+
+    /**
+     * Renders a workout with all of its current exercises.
+     * @param workout the workout to render.
+     * @param out the target.
+     * @throws IOException if the target cannot be written.
+     */
+    public void renderWorkout(IWorkoutView workout, Appendable out) throws IOException {
+        checkArgumentsAreNotNull(workout, out);
+        renderWorkout(workout.getWorkoutName(), workout.getExerciseList(), out);
+    }
+
+    /**
+     * Renders a workout given by name and exercises, for callers that hold a consistent snapshot of both.
+     * @param name the name of the workout.
+     * @param exercises the exercises of the workout.
+     * @param out the target.
+     * @throws IOException if the target cannot be written.
+     */
+    public void renderWorkout(String name, List<? extends IExercise> exercises, Appendable out) throws IOException {
+        checkArgumentsAreNotNull(exercises, out);
+        appendWorkout(name, exercises, null, out);
+        flush(out);
+    }
+
+    /**
+     * Renders a routine with all of its current workouts.
+     * @param routine the routine to render.
+     * @param out the target.
+     * @throws IOException if the target cannot be written.
+     */
+    public void renderRoutine(IRoutineView routine, Appendable out) throws IOException {
+        checkArgumentsAreNotNull(routine, out);
+        renderRoutine(routine.getRoutineName(), routine.getWorkouts(), out);
+    }
+
+    /**
+     * Renders a routine given by name and workouts, for callers that hold a consistent snapshot of both.
+     * @param name the name of the routine.
+     * @param workouts the workouts of the routine.
+     * @param out the target.
+     * @throws IOException if the target cannot be written.
+     */
+    public void renderRoutine(String name, List<? extends IWorkoutView> workouts, Appendable out) throws IOException {
+        checkArgumentsAreNotNull(workouts, out);
+        appendRoutine(name, workouts, out);
+        flush(out);
+    }
+
+    // Private helper methods.
+
+    /**
+     * Writes the buffered output to the current System.out, which never throws IOException.
+     */
+    private void flushToConsole() {
+        System.out.append(buffer);
+        buffer.setLength(0);
+    }
+
+    private void appendRoutine(String name, List<? extends IWorkoutView> workouts, Appendable out) throws IOException {
+        switch (format) {
+            case PLAIN:
+                if (workouts.isEmpty()) {
+                    buffer.append("\nRoutine \"").append(name).append("\":\nNo workouts in this routine.").append(lineSeparator);
+                    return;
+                }
+                buffer.append("\nRoutine \"").append(name).append("\":").append(lineSeparator);
+                for (int i = 0; i < workouts.size(); i++) {
+                    buffer.append(i + 1).append(". ");
+                    IWorkoutView workout = workouts.get(i);
+                    appendWorkout(workout.getWorkoutName(), workout.getExerciseList(), name, out);
+                    buffer.append(lineSeparator);
+                }
+                return;
+            case CSV:
+                for (IWorkoutView workout : workouts) {
+                    appendWorkout(workout.getWorkoutName(), workout.getExerciseList(), name, out);
+                }
+                return;
+            default:
+                buffer.append("{\"name\":");
+                appendJsonString(name);
+                buffer.append(",\"workouts\":[");
+                for (int i = 0; i < workouts.size(); i++) {
+                    if (i > 0) {
+                        buffer.append(',');
+                    }
+                    IWorkoutView workout = workouts.get(i);
+                    appendWorkout(workout.getWorkoutName(), workout.getExerciseList(), name, out);
+                }
+                buffer.append("]}");
+        }
+    }
+
+    /**
+     * Appends a workout, handing full buffers to the target (if any) between exercises.
+     */
+    private void appendWorkout(String name, List<? extends IExercise> exercises, String routineName, Appendable out) throws IOException {
+        switch (format) {
+            case PLAIN:
+                if (exercises.isEmpty()) {
+                    buffer.append('\n').append(name).append(":\nNo exercises in this workout.").append(lineSeparator);
+                    return;
+                }
+                buffer.append('\n').append(name).append(':').append(lineSeparator);
+                for (int i = 0; i < exercises.size(); i++) {
+                    buffer.append(i + 1).append(". ");
+                    appendExercise(exercises.get(i), null, null);
+                    flushIfFull(out);
+                }
+                return;
+            case CSV:
+                for (IExercise exercise : exercises) {
+                    appendExercise(exercise, routineName, name);
+                    flushIfFull(out);
+                }
+                return;
+            default:
+                buffer.append("{\"name\":");
+                appendJsonString(name);
+                buffer.append(",\"exercises\":[");
+                for (int i = 0; i < exercises.size(); i++) {
+                    if (i > 0) {
+                        buffer.append(',');
+                    }
+                    appendExercise(exercises.get(i), null, null);
+                    flushIfFull(out);
+                }
+                buffer.append("]}");
+        }
+    }
+
+    private void appendExercise(IExercise exercise, String routineName, String workoutName) {
+        switch (format) {
+            case PLAIN:
+                buffer.append(exercise.getName()).append(' ')
+                        .append(exercise.getSets()).append('x').append(exercise.getTargetReps()).append('@');
+                weightFormatter().append(buffer, exercise.getWeight());
+                buffer.append(" (Reps per set: ");
+                appendPlainReps(exercise);
+                buffer.append(')').append(lineSeparator);
+                return;
+            case CSV:
+                appendCsvField(routineName);
+                buffer.append(',');
+                appendCsvField(workoutName);
+                buffer.append(',');
+                appendCsvField(exercise.getName());
+                buffer.append(',').append(exercise.getSets()).append(',').append(exercise.getTargetReps()).append(',');
+                weightFormatter().append(buffer, exercise.getWeight());
+                buffer.append(',');
+                if (exercise.getMode() != null) {
+                    buffer.append(exercise.getMode().name());
+                }
+                buffer.append(',');
+                int setCount = setCount(exercise);
+                for (int i = 0; i < setCount; i++) {
+                    if (i > 0) {
+                        buffer.append(';');
+                    }
+                    buffer.append(repsAt(exercise, i));
+                }
+                buffer.append('\n');
+                return;
+            default:
+                buffer.append("{\"name\":");
+                appendJsonString(exercise.getName());
+                buffer.append(",\"sets\":").append(exercise.getSets())
+                        .append(",\"targetReps\":").append(exercise.getTargetReps())
+                        .append(",\"weight\":");
+                if (Double.isFinite(exercise.getWeight())) {
+                    buffer.append(exercise.getWeight());
+                } else {
+                    buffer.append("null");
+                }
+                buffer.append(",\"mode\":");
+                if (exercise.getMode() != null) {
+                    buffer.append('"').append(exercise.getMode().name()).append('"');
+                } else {
+                    buffer.append("null");
+                }
+                buffer.append(",\"reps\":[");
+                int count = setCount(exercise);
+                for (int i = 0; i < count; i++) {
+                    if (i > 0) {
+                        buffer.append(',');
+                    }
+                    buffer.append("{\"set\":").append(setNumberAt(exercise, i))
+                            .append(",\"reps\":").append(repsAt(exercise, i)).append('}');
+                }
+                buffer.append("]}");
+        }
+    }
+
+    /**
+     * Appends the reps of every set as printExercise shows them: "[]" when every set has 0 reps,
+     * "[Set 1: 10, Set 2: 8]" otherwise.
+     */
+    private void appendPlainReps(IExercise exercise) {
+        int setCount = setCount(exercise);
+        boolean allRepsAreZero = true;
+        for (int i = 0; i < setCount && allRepsAreZero; i++) {
+            allRepsAreZero = repsAt(exercise, i) == 0;
+        }
+        if (allRepsAreZero) {
+            buffer.append("[]");
+            return;
+        }
+
+        buffer.append('[');
+        for (int i = 0; i < setCount; i++) {
+            if (i > 0) {
+                buffer.append(", ");
+            }
+            buffer.append("Set ").append(setNumberAt(exercise, i)).append(": ").append(repsAt(exercise, i));
+        }
+        buffer.append(']');
+    }
+
+    private static int setCount(IExercise exercise) {
+        return exercise instanceof Exercise ? ((Exercise) exercise).getRecordedSetCount() : exercise.getAllSetReps().size();
+    }
+
+    private static int setNumberAt(IExercise exercise, int index) {
+        if (exercise instanceof Exercise) {
+            return ((Exercise) exercise).getSetNumberAt(index);
+        }
+        SetReps setReps = exercise.getAllSetReps().get(index);
+        return setReps.getSetNumber();
+    }
+
+    private static int repsAt(IExercise exercise, int index) {
+        if (exercise instanceof Exercise) {
+            return ((Exercise) exercise).getRepsAt(index);
+        }
+        SetReps setReps = exercise.getAllSetReps().get(index);
+        return setReps.getReps();
+    }
+
+    /**
+     * Appends a CSV field, quoting it if it holds a delimiter, a quote or a line break. Null is an empty field.
+     */
+    private void appendCsvField(String value) {
+        if (value == null) {
+            return;
+        }
+        boolean quote = false;
+        for (int i = 0; i < value.length() && !quote; i++) {
+            char c = value.charAt(i);
+            quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+        if (!quote) {
+            buffer.append(value);
+            return;
+        }
+        buffer.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"') {
+                buffer.append('"');
+            }
+            buffer.append(c);
+        }
+        buffer.append('"');
+    }
+
+    /**
+     * Appends a JSON string literal, escaping quotes, backslashes and control characters.
+     */
+    private void appendJsonString(String value) {
+        if (value == null) {
+            buffer.append("null");
+            return;
+        }
+        buffer.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"':
+                    buffer.append("\\\"");
+                    break;
+                case '\\':
+                    buffer.append("\\\\");
+                    break;
+                case '\n':
+                    buffer.append("\\n");
+                    break;
+                case '\r':
+                    buffer.append("\\r");
+                    break;
+                case '\t':
+                    buffer.append("\\t");
+                    break;
+                default:
+                    if (c < 0x20) {
+                        buffer.append("\\u00").append(Character.forDigit(c >> 4, 16)).append(Character.forDigit(c & 0xF, 16));
+                    } else {
+                        buffer.append(c);
+                    }
+            }
+        }
+        buffer.append('"');
+    }
+
+    /**
+     * Gets the weight formatter, following changes of the default format locale for plain output as
+     * DecimalFormat("0.00") did.
+     */
+    private FixedPointFormatter weightFormatter() {
+        if (format == RenderFormat.PLAIN) {
+            Locale locale = Locale.getDefault(Locale.Category.FORMAT);
+            if (!locale.equals(weightLocale)) {
+                weightFormatter = new FixedPointFormatter(locale);
+                weightLocale = locale;
+            }
+        }
+        return weightFormatter;
+    }
+
+    private void flushIfFull(Appendable out) throws IOException {
+        if (out != null && buffer.length() >= BUFFER_SIZE) {
+            flush(out);
+        }
+    }
+
+    /**
+     * Hands the buffered output to the target and empties the buffer. Writers get the characters through a
+     * reused array, so no intermediate String is created.
+     */
+    private void flush(Appendable out) throws IOException {
+        int length = buffer.length();
+        if (length == 0) {
+            return;
+        }
+        try {
+            if (out instanceof Writer) {
+                if (chunk == null || chunk.length < length) {
+                    chunk = new char[Math.max(length, BUFFER_SIZE + 256)];
+                }
+                buffer.getChars(0, length, chunk, 0);
+                ((Writer) out).write(chunk, 0, length);
+            } else {
+                out.append(buffer);
+            }
+        } finally {
+            buffer.setLength(0);
+        }
+    }
+
+    private static void checkArgumentsAreNotNull(Object model, Appendable out) {
+        if (model == null || out == null) {
+            throw new IllegalArgumentException("Cannot render a null model element or render into a null target.");
+        }
+    }
+}
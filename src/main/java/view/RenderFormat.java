@@ -0,0 +1,23 @@
+package view;
+
+/**
+ * The output formats a ModelRenderer can produce.
+ */
+public enum RenderFormat {
+
+    /**
+     * The human-readable text printed by printExercise, printWorkout and printRoutine.
+     */
+    PLAIN,
+
+    /**
+     * One comma-separated row per exercise, in the column order CsvImporter reads:
+     * routine, workout, exercise, sets, targetReps, weight, mode, reps.
+     */
+    CSV,
+
+    /**
+     * Compact JSON: routines hold workouts, workouts hold exercises, exercises hold their sets.
+     */
+    JSON
+}
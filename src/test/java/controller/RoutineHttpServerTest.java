@@ -0,0 +1,181 @@
+package controller;
+
+import model.PersistentRoutine;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import store.RoutineStore;
+
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+public class RoutineHttpServerTest {
+
+    private RoutineStore store;
+    private RoutineHttpServer server;
+    private HttpClient client;
+    private String base;
+
+    @Before
+    public void setup() throws Exception {
+        store = new RoutineStore();
+        server = new RoutineHttpServer(new InetSocketAddress("127.0.0.1", 0), store);
+        server.start();
+        client = HttpClient.newHttpClient();
+        base = "http://127.0.0.1:" + server.getPort() + "/users/";
+    }
+
+    @After
+    public void teardown() {
+        server.close();
+    }
+
+    @Test
+    public void routinesWorkoutsAndExercisesCanBeBuiltAndRead() throws Exception {
+        Assert.assertEquals(201, send("PUT", "7/routines/Push%20Day", null).statusCode());
+        Assert.assertEquals(201, send("POST", "7/routines/Push%20Day/workouts", "name=Chest").statusCode());
+        HttpResponse<String> added = send("POST", "7/routines/Push%20Day/workouts/Chest/exercises",
+                "name=Bench+Press&targetReps=10&weight=60&mode=barbell&reps=10,8,6");
+        Assert.assertEquals(201, added.statusCode());
+        Assert.assertTrue(added.body().contains("\"name\":\"Bench Press\""));
+
+        HttpResponse<String> updated = send("PUT", "7/routines/Push%20Day/workouts/Chest/exercises/Bench%20Press/sets/2?reps=7", null);
+        Assert.assertEquals(200, updated.statusCode());
+        Assert.assertTrue(updated.body().contains("{\"set\":3,\"reps\":7}"));
+
+        HttpResponse<String> routine = send("GET", "7/routines/Push%20Day", null);
+        Assert.assertEquals(200, routine.statusCode());
+        Assert.assertEquals("application/json; charset=utf-8", routine.headers().firstValue("Content-Type").orElse(""));
+        Assert.assertTrue(routine.body().startsWith("{\"name\":\"Push Day\",\"workouts\":[{\"name\":\"Chest\""));
+        Assert.assertEquals(7, store.read(7, "Push Day", r -> r.getWorkouts().get(0).getExerciseList().get(0).getRepsForSpecificSet(2)).intValue());
+    }
+
+    @Test
+    public void routineListIsStreamedAsAnArray() throws Exception {
+        send("PUT", "1/routines/A", null);
+        send("PUT", "1/routines/B", null);
+        HttpResponse<String> list = send("GET", "1/routines", null);
+        Assert.assertEquals(200, list.statusCode());
+        Assert.assertEquals("[{\"name\":\"A\",\"workouts\":[]},{\"name\":\"B\",\"workouts\":[]}]", list.body());
+        Assert.assertEquals("[]", send("GET", "2/routines", null).body());
+    }
+
+    @Test
+    public void errorsMapToStatusCodes() throws Exception {
+        Assert.assertEquals(404, send("GET", "1/routines/Missing", null).statusCode());
+        send("PUT", "1/routines/A", null);
+        Assert.assertEquals(409, send("PUT", "1/routines/A", null).statusCode());
+        Assert.assertEquals(400, send("POST", "1/routines/A/workouts", null).statusCode());
+        Assert.assertEquals(404, send("GET", "1/routines/A/workouts/None", null).statusCode());
+        Assert.assertEquals(404, send("POST", "1/routines/Missing/workouts", "name=W").statusCode());
+        Assert.assertEquals(404, send("DELETE", "1/routines/Missing/workouts/W", null).statusCode());
+        Assert.assertEquals(405, send("POST", "1/routines", null).statusCode());
+        send("POST", "1/routines/A/workouts", "name=W");
+        HttpResponse<String> badMode = send("POST", "1/routines/A/workouts/W/exercises", "name=X&targetReps=1&weight=1&mode=spoon&reps=1");
+        Assert.assertEquals(400, badMode.statusCode());
+        Assert.assertTrue(badMode.body().startsWith("{\"error\":"));
+        Assert.assertEquals(400, send("POST", "1/routines/A/workouts", "name=W").statusCode());
+        Assert.assertEquals(204, send("DELETE", "1/routines/A", null).statusCode());
+    }
+
+    @Test
+    public void oversizedBodiesAreRefused() throws Exception {
+        send("PUT", "4/routines/A", null);
+        String form = "name=" + "a".repeat(RoutineHttpServer.MAX_BODY_BYTES);
+        Assert.assertEquals(413, send("POST", "4/routines/A/workouts", form).statusCode());
+        Assert.assertEquals("{\"name\":\"A\",\"workouts\":[]}", send("GET", "4/routines/A", null).body());
+    }
+
+    @Test
+    public void failuresWhileStreamingAbortTheResponse() throws Exception {
+        server.close();
+        RoutineStore failing = new RoutineStore() {
+            @Override
+            public List<PersistentRoutine> getRoutines(long userId) {
+                PersistentRoutine first = new PersistentRoutine("First");
+                return new AbstractList<>() {
+                    @Override
+                    public PersistentRoutine get(int index) {
+                        if (index > 0) {
+                            throw new IllegalStateException("Routine " + index + " is unavailable.");
+                        }
+                        return first;
+                    }
+
+                    @Override
+                    public int size() {
+                        return 2;
+                    }
+                };
+            }
+        };
+        server = new RoutineHttpServer(new InetSocketAddress("127.0.0.1", 0), failing);
+        server.start();
+
+        try (Socket socket = new Socket("127.0.0.1", server.getPort())) {
+            OutputStream out = socket.getOutputStream();
+            out.write("GET /users/1/routines HTTP/1.1\r\nHost: localhost\r\n\r\n".getBytes(StandardCharsets.US_ASCII));
+            out.flush();
+            String response = new String(socket.getInputStream().readAllBytes(), StandardCharsets.UTF_8);
+            Assert.assertTrue(response.startsWith("HTTP/1.1 200"));
+            Assert.assertEquals(response.indexOf("HTTP/1.1"), response.lastIndexOf("HTTP/1.1"));
+            Assert.assertFalse(response.contains("\"error\""));
+            Assert.assertFalse(response.endsWith("0\r\n\r\n"));
+        }
+    }
+
+    @Test
+    public void pipelinedRequestsAreAnsweredInOrder() throws Exception {
+        send("PUT", "3/routines/First", null);
+        send("PUT", "3/routines/Second", null);
+        try (Socket socket = new Socket("127.0.0.1", server.getPort())) {
+            String requests = "GET /users/3/routines/First HTTP/1.1\r\nHost: localhost\r\n\r\n"
+                    + "GET /users/3/routines/Second HTTP/1.1\r\nHost: localhost\r\nConnection: close\r\n\r\n";
+            OutputStream out = socket.getOutputStream();
+            out.write(requests.getBytes(StandardCharsets.US_ASCII));
+            out.flush();
+            InputStream in = socket.getInputStream();
+            String responses = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+            int first = responses.indexOf("\"name\":\"First\"");
+            int second = responses.indexOf("\"name\":\"Second\"");
+            Assert.assertTrue(first >= 0 && second > first);
+        }
+    }
+
+    @Test
+    public void concurrentClientsAreServed() throws Exception {
+        List<CompletableFuture<HttpResponse<String>>> responses = new ArrayList<>();
+        for (int user = 0; user < 200; user++) {
+            HttpRequest request = HttpRequest.newBuilder(URI.create(base + user + "/routines/R"))
+                    .PUT(HttpRequest.BodyPublishers.noBody()).build();
+            responses.add(client.sendAsync(request, HttpResponse.BodyHandlers.ofString()));
+        }
+        for (CompletableFuture<HttpResponse<String>> response : responses) {
+            Assert.assertEquals(201, response.get().statusCode());
+        }
+        Assert.assertEquals(200, store.getRoutineCount());
+    }
+
+    private HttpResponse<String> send(String method, String path, String form) throws Exception {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(base + path));
+        if (form == null) {
+            builder.method(method, HttpRequest.BodyPublishers.noBody());
+        } else {
+            builder.header("Content-Type", "application/x-www-form-urlencoded")
+                    .method(method, HttpRequest.BodyPublishers.ofString(form));
+        }
+        return client.send(builder.build(), HttpResponse.BodyHandlers.ofString());
+    }
+}
@@ -0,0 +1,143 @@
+package model;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.List;
+
+public class AsyncEventSinkTest {
+
+    private Workout testWorkout;
+    private IExercise benchPress;
+    private IExercise squat;
+
+    @Before
+    public void setup() {
+        testWorkout = new Workout("Test Workout");
+        benchPress = new Exercise("Bench Press", 3, new ArrayList<>(), 10, 65.00, Mode.DUMBBELL);
+        squat = new Exercise("Squat", 3, new ArrayList<>(), 12, 185.00, Mode.BARBELL);
+    }
+
+    @Test
+    public void workoutPublishesStructuredEvents() {
+        EventRingBuffer events = new EventRingBuffer(16);
+        testWorkout.setEventListener(events);
+
+        IExercise heavierSquat = new Exercise("Front Squat", 3, new ArrayList<>(), 12, 135.00, Mode.BARBELL);
+        testWorkout.addExercise(benchPress);
+        testWorkout.addExercise(squat);
+        testWorkout.removeExercise(benchPress);
+        testWorkout.restoreExercise(benchPress);
+        testWorkout.editExercise(squat, heavierSquat);
+        testWorkout.setWorkoutName("Leg Day");
+
+        List<ModelEvent> recorded = events.snapshot();
+        Assert.assertEquals(6, recorded.size());
+        Assert.assertEquals(ModelEventType.EXERCISE_ADDED, recorded.get(0).getType());
+        Assert.assertSame(benchPress, recorded.get(0).getExercise());
+        Assert.assertSame(testWorkout, recorded.get(0).getWorkout());
+        Assert.assertEquals(ModelEventType.EXERCISE_REMOVED, recorded.get(2).getType());
+        Assert.assertEquals(ModelEventType.EXERCISE_RESTORED, recorded.get(3).getType());
+        Assert.assertEquals("Exercise \"Squat\" updated to \"Front Squat\" in workout \"Test Workout\".",
+                recorded.get(4).describe());
+        Assert.assertEquals("Workout name changed from \"Test Workout\" to \"Leg Day\".", recorded.get(5).describe());
+    }
+
+    @Test
+    public void eventsDescribeTheNamesAtCreation() {
+        EventRingBuffer events = new EventRingBuffer(4);
+        testWorkout.setEventListener(events);
+
+        testWorkout.addExercise(benchPress);
+        benchPress.updateName("Incline Press");
+
+        ModelEvent added = events.snapshot().get(0);
+        Assert.assertEquals("Bench Press", added.getExerciseName());
+        Assert.assertEquals("Exercise \"Bench Press\" added to workout \"Test Workout\".", added.describe());
+    }
+
+    @Test
+    public void workoutPrintsToConsoleByDefault() {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        PrintStream originalOut = System.out;
+        System.setOut(new PrintStream(outputStream));
+
+        try {
+            testWorkout.addExercise(benchPress);
+        } finally {
+            System.setOut(originalOut);
+        }
+
+        Assert.assertEquals("Exercise \"Bench Press\" added to workout \"Test Workout\".\n", outputStream.toString());
+    }
+
+    @Test
+    public void ringBufferSinkKeepsMostRecentEvents() {
+        EventRingBuffer events = new EventRingBuffer(2);
+        AsyncEventSink sink = AsyncEventSink.ringBuffer(events);
+        testWorkout.setEventListener(sink);
+
+        testWorkout.addExercise(benchPress);
+        testWorkout.addExercise(squat);
+        testWorkout.setWorkoutName("Leg Day");
+        sink.close();
+
+        List<ModelEvent> recorded = events.snapshot();
+        Assert.assertEquals(3, events.getRecordedCount());
+        Assert.assertEquals(2, recorded.size());
+        Assert.assertSame(squat, recorded.get(0).getExercise());
+        Assert.assertEquals(ModelEventType.WORKOUT_RENAMED, recorded.get(1).getType());
+        Assert.assertEquals(0, sink.getDroppedEvents());
+    }
+
+    @Test
+    public void bufferedWriterSinkWritesOneLinePerEvent() {
+        StringWriter writer = new StringWriter();
+        AsyncEventSink sink = AsyncEventSink.bufferedWriter(writer);
+        testWorkout.setEventListener(sink);
+
+        testWorkout.addExercise(benchPress);
+        testWorkout.addExercise(squat);
+        sink.close();
+
+        String expected = "Exercise \"Bench Press\" added to workout \"Test Workout\"." + System.lineSeparator()
+                + "Exercise \"Squat\" added to workout \"Test Workout\"." + System.lineSeparator();
+        Assert.assertEquals(expected, writer.toString());
+    }
+
+    @Test
+    public void noOpSinkDropsEvents() {
+        AsyncEventSink sink = AsyncEventSink.noOp();
+        testWorkout.setEventListener(sink);
+
+        testWorkout.addExercise(benchPress);
+        sink.close();
+
+        Assert.assertEquals(1, sink.getDroppedEvents());
+    }
+
+    @Test
+    public void closedSinkDropsEvents() {
+        EventRingBuffer events = new EventRingBuffer(4);
+        AsyncEventSink sink = AsyncEventSink.ringBuffer(events);
+        sink.close();
+
+        testWorkout.setEventListener(sink);
+        testWorkout.addExercise(benchPress);
+
+        Assert.assertEquals(1, sink.getDroppedEvents());
+        Assert.assertTrue(events.snapshot().isEmpty());
+    }
+
+    @Test
+    public void invalidConfigurationIsRejected() {
+        Assert.assertThrows(IllegalArgumentException.class, () -> new EventRingBuffer(0));
+        Assert.assertThrows(IllegalArgumentException.class, () -> new AsyncEventSink(new EventRingBuffer(1), 0, 1));
+        Assert.assertThrows(IllegalArgumentException.class, () -> testWorkout.setEventListener(null));
+    }
+}
@@ -0,0 +1,135 @@
+package model;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+public class ConcurrentRoutineTest {
+
+    private ConcurrentRoutine routine;
+    private ConcurrentWorkout push;
+    private ConcurrentWorkout pull;
+
+    private static ConcurrentWorkout workout(String name, int exercises) {
+        ConcurrentWorkout workout = new ConcurrentWorkout(name);
+        workout.setEventListener(event -> { });
+        for (int i = 0; i < exercises; i++) {
+            workout.addExercise(new Exercise(name + " exercise " + i, 3, new ArrayList<>(), 10, 20.0, Mode.CABLE));
+        }
+        return workout;
+    }
+
+    @Before
+    public void setup() {
+        routine = new ConcurrentRoutine("PPL");
+        push = workout("Push", 2);
+        pull = workout("Pull", 2);
+        routine.addWorkoutToRoutine(push);
+        routine.addWorkoutToRoutine(pull);
+    }
+
+    @Test
+    public void getWorkoutsReturnsImmutableSnapshot() {
+        List<IWorkout> before = routine.getWorkouts();
+        routine.addWorkoutToRoutine(workout("Legs", 1));
+
+        Assert.assertEquals(2, before.size());
+        Assert.assertEquals(3, routine.getWorkouts().size());
+        Assert.assertThrows(UnsupportedOperationException.class, () -> before.add(push));
+    }
+
+    @Test
+    public void routineMutationsFollowRoutineRules() {
+        Assert.assertThrows(IllegalArgumentException.class, () -> routine.addWorkoutToRoutine(null));
+        Assert.assertThrows(IllegalArgumentException.class, () -> routine.addWorkoutToRoutine(push));
+
+        routine.removeWorkoutFromRoutine(push);
+        Assert.assertEquals(List.of(pull), routine.getWorkouts());
+        Assert.assertEquals(List.of(push), routine.getDeletedWorkoutsInRoutine());
+        Assert.assertThrows(UnsupportedOperationException.class, () -> routine.removeWorkoutFromRoutine(pull));
+
+        routine.restoreWorkoutToRoutine(push);
+        Assert.assertEquals(List.of(pull, push), routine.getWorkouts());
+        Assert.assertThrows(IllegalArgumentException.class, () -> routine.restoreWorkoutToRoutine(push));
+
+        routine.editRoutine(1, 0);
+        Assert.assertEquals(List.of(push, pull), routine.getWorkouts());
+        Assert.assertThrows(IllegalArgumentException.class, () -> routine.editRoutine(1, 1));
+        Assert.assertThrows(IndexOutOfBoundsException.class, () -> routine.editRoutine(0, 2));
+
+        routine.deleteRoutine();
+        Assert.assertTrue(routine.getWorkouts().isEmpty());
+        Assert.assertThrows(IllegalStateException.class, () -> routine.deleteRoutine());
+    }
+
+    @Test
+    public void equalsComparesSnapshots() {
+        ConcurrentRoutine other = new ConcurrentRoutine("PPL");
+        other.addWorkoutToRoutine(workout("Push", 2));
+        other.addWorkoutToRoutine(workout("Pull", 2));
+
+        Assert.assertEquals(routine, other);
+        Assert.assertEquals(routine.hashCode(), other.hashCode());
+
+        other.setRoutineName("Upper Lower");
+        Assert.assertNotEquals(routine, other);
+    }
+
+    @Test
+    public void workoutRejectsRemovingLastExerciseWithoutChangingIt() {
+        ConcurrentWorkout single = workout("Single", 1);
+        IExercise only = single.getExerciseList().get(0);
+
+        Assert.assertThrows(IllegalStateException.class, () -> single.removeExercise(only));
+        Assert.assertEquals(List.of(only), single.getExerciseList());
+    }
+
+    @Test
+    public void concurrentWritersAndReadersNeverSeeCorruptState() throws Exception {
+        int writers = 4;
+        int exercisesPerWriter = 250;
+        ConcurrentWorkout shared = workout("Shared", 1);
+        ExecutorService executor = Executors.newFixedThreadPool(writers + 2);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+
+        for (int w = 0; w < writers; w++) {
+            int writer = w;
+            futures.add(executor.submit(() -> {
+                start.await();
+                for (int i = 0; i < exercisesPerWriter; i++) {
+                    shared.addExercise(new Exercise("W" + writer + " E" + i, 3, new ArrayList<>(), 10, 20.0, Mode.CABLE));
+                }
+                return null;
+            }));
+        }
+        for (int r = 0; r < 2; r++) {
+            futures.add(executor.submit(() -> {
+                start.await();
+                for (int i = 0; i < 1000; i++) {
+                    List<IExercise> exercises = shared.getExerciseList();
+                    for (IExercise exercise : exercises) {
+                        Assert.assertNotNull(exercise);
+                    }
+                }
+                return null;
+            }));
+        }
+
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(30, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        Assert.assertEquals(1 + writers * exercisesPerWriter, shared.getExerciseList().size());
+    }
+}
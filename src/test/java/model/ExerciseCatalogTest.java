@@ -0,0 +1,80 @@
+package model;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+
+public class ExerciseCatalogTest {
+
+    private ExerciseCatalog catalog;
+
+    @Before
+    public void setup() {
+        catalog = new ExerciseCatalog();
+    }
+
+    @Test
+    public void internReturnsOneTypePerName() {
+        ExerciseType bench = catalog.intern("Bench Press", Mode.BARBELL);
+        ExerciseType squat = catalog.intern("Squat");
+
+        Assert.assertSame(bench, catalog.intern(new String("Bench Press"), Mode.DUMBBELL));
+        Assert.assertEquals(0, bench.getId());
+        Assert.assertEquals(1, squat.getId());
+        Assert.assertEquals(Mode.BARBELL, bench.getDefaultMode());
+        Assert.assertNull(squat.getDefaultMode());
+        Assert.assertSame(squat, catalog.get(1));
+        Assert.assertEquals(2, catalog.size());
+    }
+
+    @Test
+    public void lookupDoesNotRegister() {
+        Assert.assertNull(catalog.lookup("Deadlift"));
+        Assert.assertEquals(0, catalog.size());
+        Assert.assertThrows(IllegalArgumentException.class, () -> catalog.get(0));
+        Assert.assertThrows(IllegalArgumentException.class, () -> catalog.intern(""));
+    }
+
+    @Test
+    public void catalogGrowsPastInitialCapacity() {
+        for (int i = 0; i < 1000; i++) {
+            Assert.assertEquals(i, catalog.intern("Exercise " + i).getId());
+        }
+        Assert.assertEquals("Exercise 777", catalog.get(777).getName());
+    }
+
+    @Test
+    public void fullCatalogHandsOutUnregisteredTypes() {
+        ExerciseCatalog small = new ExerciseCatalog(2);
+        ExerciseType bench = small.intern("Bench Press");
+        small.intern("Squat");
+
+        ExerciseType first = small.intern("Deadlift");
+        ExerciseType second = small.intern(new String("Deadlift"));
+
+        Assert.assertEquals(2, small.size());
+        Assert.assertNull(small.lookup("Deadlift"));
+        Assert.assertFalse(first.isRegistered());
+        Assert.assertNotSame(first, second);
+        Assert.assertTrue(first.sameName(second));
+        Assert.assertEquals(first.nameHash(), second.nameHash());
+        Assert.assertFalse(first.sameName(bench));
+        Assert.assertSame(bench, small.intern("Bench Press"));
+    }
+
+    @Test
+    public void exercisesShareInternedTypes() {
+        Exercise first = new Exercise("Lateral Raise", 3, new ArrayList<>(), 12, 15.00, Mode.DUMBBELL);
+        Exercise second = new Exercise(new String("Lateral Raise"), 3, new ArrayList<>(), 12, 15.00, Mode.DUMBBELL);
+
+        Assert.assertSame(first.getType(), second.getType());
+        Assert.assertSame(first.getName(), second.getName());
+        Assert.assertEquals(first, second);
+
+        second.updateName("Front Raise");
+        Assert.assertNotEquals(first, second);
+        Assert.assertSame(ExerciseCatalog.getDefault().lookup("Front Raise"), second.getType());
+    }
+}
@@ -0,0 +1,101 @@
+package model;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class ExerciseDataTest {
+
+    private ExerciseData data;
+    private Exercise benchPress;
+
+    @Before
+    public void setup() {
+        data = new ExerciseData();
+
+        List<SetReps> benchReps = new ArrayList<>();
+        benchReps.add(new SetReps(1, 10));
+        benchReps.add(new SetReps(2, 8));
+        benchReps.add(new SetReps(3, 8));
+        benchReps.add(new SetReps(4, 6));
+        benchPress = new Exercise("Bench Press", 4, benchReps, 8, 100.00, Mode.BARBELL);
+    }
+
+    @Test
+    public void metricsAreComputedOverVolumePerSet() {
+        Assert.assertEquals(-400.0, data.delta(benchPress), 1e-9);
+        Assert.assertEquals(800.0, data.mean(benchPress), 1e-9);
+        Assert.assertEquals(800.0, data.mode(benchPress), 1e-9);
+        Assert.assertEquals(400.0, data.range(benchPress), 1e-9);
+        Assert.assertEquals(3200.0, data.cumulativeSum(benchPress), 1e-9);
+        Assert.assertEquals(100 * Math.sqrt(2), data.standardDev(benchPress), 1e-9);
+        Assert.assertEquals(-Math.sqrt(2), data.zCore(benchPress), 1e-9);
+    }
+
+    @Test
+    public void metricsFollowRepUpdates() {
+        benchPress.updateReps(3, 10);
+
+        Assert.assertEquals(0.0, data.delta(benchPress), 1e-9);
+        Assert.assertEquals(900.0, data.mean(benchPress), 1e-9);
+        Assert.assertEquals(800.0, data.mode(benchPress), 1e-9);
+        Assert.assertEquals(200.0, data.range(benchPress), 1e-9);
+        Assert.assertEquals(3600.0, data.cumulativeSum(benchPress), 1e-9);
+        Assert.assertEquals(100.0, data.standardDev(benchPress), 1e-9);
+    }
+
+    @Test
+    public void metricsFollowWeightUpdates() {
+        benchPress.updateWeight(50.00);
+
+        Assert.assertEquals(400.0, data.mean(benchPress), 1e-9);
+        Assert.assertEquals(1600.0, data.cumulativeSum(benchPress), 1e-9);
+        Assert.assertEquals(-Math.sqrt(2), data.zCore(benchPress), 1e-9);
+    }
+
+    @Test
+    public void bodyweightExercisesCountReps() {
+        List<SetReps> pullupReps = new ArrayList<>();
+        pullupReps.add(new SetReps(1, 12));
+        pullupReps.add(new SetReps(2, 10));
+        Exercise pullups = new Exercise("Pull-ups", 2, pullupReps, 12, 0.00, Mode.BODYWEIGHT);
+
+        Assert.assertEquals(11.0, data.mean(pullups), 1e-9);
+        Assert.assertEquals(22.0, data.cumulativeSum(pullups), 1e-9);
+    }
+
+    @Test
+    public void loadGrowsWithTheWeight() {
+        Assert.assertEquals(0.0, ExerciseData.loadOf(new Exercise("Curl", 1, null, 10, 0.00, Mode.CABLE)), 0.0);
+        Assert.assertEquals(0.5, ExerciseData.loadOf(new Exercise("Curl", 1, null, 10, 0.50, Mode.CABLE)), 0.0);
+        Assert.assertEquals(ExerciseData.BODYWEIGHT_LOAD,
+                ExerciseData.loadOf(new Exercise("Dips", 1, null, 10, 0.00, Mode.BODYWEIGHT)), 0.0);
+        Assert.assertEquals(ExerciseData.BODYWEIGHT_LOAD + 0.5,
+                ExerciseData.loadOf(new Exercise("Dips", 1, null, 10, 0.50, Mode.BODYWEIGHT)), 0.0);
+    }
+
+    @Test
+    public void zCoreIsZeroWhenAllSetsAreEqual() {
+        Exercise defaultReps = new Exercise("Squat", 3, new ArrayList<>(), 10, 185.00, Mode.BARBELL);
+
+        Assert.assertEquals(0.0, data.standardDev(defaultReps), 0.0);
+        Assert.assertEquals(0.0, data.zCore(defaultReps), 0.0);
+    }
+
+    @Test
+    public void modePrefersSmallestValueOnTies() {
+        benchPress.updateReps(1, 10);
+        benchPress.updateReps(2, 6);
+
+        Assert.assertEquals(600.0, data.mode(benchPress), 1e-9);
+    }
+
+    @Test
+    public void metricsRejectNullExercise() {
+        Assert.assertThrows(IllegalArgumentException.class, () -> data.mean(null));
+        Assert.assertThrows(IllegalArgumentException.class, () -> data.delta(null));
+    }
+}
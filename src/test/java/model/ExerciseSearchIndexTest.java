@@ -0,0 +1,111 @@
+package model;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+public class ExerciseSearchIndexTest {
+
+    private ExerciseSearchIndex index;
+    private Workout push;
+    private Workout pull;
+    private Exercise benchPress;
+    private Exercise benchDips;
+    private Exercise pullups;
+    private Exercise rows;
+
+    @Before
+    public void setup() {
+        index = new ExerciseSearchIndex();
+        benchPress = exercise("Bench Press");
+        benchDips = exercise("Bench Dips");
+        pullups = exercise("Pull-ups");
+        rows = exercise("Rows");
+
+        push = new Workout("Push");
+        push.setEventListener(event -> { });
+        push.addExercise(benchPress);
+        push.addExercise(benchDips);
+        pull = new Workout("Pull");
+        pull.setEventListener(event -> { });
+        pull.addExercise(pullups);
+        pull.addExercise(rows);
+
+        index.add(push);
+        index.add(pull);
+    }
+
+    @Test
+    public void prefixQueriesIgnoreCaseAndReturnNameOrder() {
+        Assert.assertEquals(List.of(benchDips, benchPress), index.findByPrefix("bench"));
+        Assert.assertEquals(List.of(benchDips, benchPress), index.findByPrefix("BENCH "));
+        Assert.assertEquals(List.of(benchPress), index.findByPrefix("Bench P"));
+        Assert.assertEquals(List.of(benchDips), index.findByPrefix("b", 1));
+        Assert.assertTrue(index.findByPrefix("Squat").isEmpty());
+        Assert.assertEquals(4, index.findByPrefix("").size());
+    }
+
+    @Test
+    public void similarQueriesAllowOneEdit() {
+        Assert.assertEquals(List.of(rows), index.findSimilar("Rows"));
+        Assert.assertEquals(List.of(rows), index.findSimilar("Rowz"));
+        Assert.assertEquals(List.of(rows), index.findSimilar("Row"));
+        Assert.assertEquals(List.of(pullups), index.findSimilar("Pull-upps"));
+        Assert.assertEquals(List.of(benchPress), index.findSimilar("bench pres"));
+        Assert.assertTrue(index.findSimilar("Rw").isEmpty());
+    }
+
+    @Test
+    public void queriesAnswerWorkouts() {
+        Assert.assertEquals(Set.of(push), index.findWorkoutsByPrefix("Ben"));
+        Assert.assertEquals(Set.of(pull), index.findWorkoutsSimilar("Rws"));
+
+        Workout upper = new Workout("Upper");
+        upper.setEventListener(event -> { });
+        upper.addExercise(rows);
+        index.add(upper);
+        Assert.assertEquals(Set.of(pull, upper), index.findWorkoutsByPrefix("Row"));
+
+        index.remove(pull);
+        Assert.assertEquals(Set.of(upper), index.findWorkoutsByPrefix("Row"));
+        Assert.assertTrue(index.findByPrefix("Pull").isEmpty());
+    }
+
+    @Test
+    public void renamingMovesTheExercise() {
+        benchDips.updateName("Triceps Dips");
+        Assert.assertEquals(List.of(benchPress), index.findByPrefix("Bench"));
+        Assert.assertEquals(List.of(benchDips), index.findByPrefix("tri"));
+        Assert.assertEquals(4, index.size());
+    }
+
+    @Test
+    public void removalPrunesTheTrie() {
+        Assert.assertTrue(index.remove(benchPress));
+        Assert.assertFalse(index.remove(benchPress));
+        Assert.assertEquals(List.of(benchDips), index.findByPrefix("Bench"));
+        Assert.assertEquals(List.of(benchDips), index.findByPrefix("Bench Dips"));
+        Assert.assertTrue(index.remove(benchDips));
+        Assert.assertTrue(index.findByPrefix("B").isEmpty());
+
+        // removed exercises are no longer observed.
+        benchPress.updateName("Bench Press 2");
+        Assert.assertTrue(index.findByPrefix("B").isEmpty());
+        Assert.assertEquals(2, index.size());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void nullPrefixIsRejected() {
+        index.findByPrefix(null);
+    }
+
+    private static Exercise exercise(String name) {
+        List<SetReps> reps = new ArrayList<>();
+        reps.add(new SetReps(1, 10));
+        return new Exercise(name, 1, reps, 10, 20.00, Mode.DUMBBELL);
+    }
+}
@@ -224,4 +224,51 @@ public class ExerciseTest {
         Assert.assertNotEquals(defaultRepsPerSet, retrievedSetReps);
     }
 
+    @Test
+    public void getAllSetRepsReflectsRepUpdates() {
+
+        List<SetReps> retrievedSetReps = testExercise.getAllSetReps();
+        testExercise.updateReps(2, 6);
+
+        Assert.assertEquals(4, retrievedSetReps.size());
+        Assert.assertEquals(new SetReps(3, 6), retrievedSetReps.get(2));
+        Assert.assertEquals(1, retrievedSetReps.get(0).getSetNumber());
+    }
+
+    @Test
+    public void emptyRepsPerSetGeneratesNumberedSets() {
+
+        Exercise exercise = new Exercise("Bicep Curl", 3, new ArrayList<>(), 12, 25.00, Mode.BARBELL);
+
+        List<SetReps> expected = new ArrayList<>();
+        expected.add(new SetReps(1, 0));
+        expected.add(new SetReps(2, 0));
+        expected.add(new SetReps(3, 0));
+        Assert.assertEquals(expected, exercise.getAllSetReps());
+    }
+
+    @Test
+    public void equalExercisesHashEquallyAfterSameUpdates() {
+
+        Exercise e1 = new Exercise("Bench press", 4, defaultRepsPerSet, 12, 65.00, Mode.DUMBBELL);
+        Exercise e2 = new Exercise("Bench press", 4, new ArrayList<>(defaultRepsPerSet), 12, 65.00, Mode.DUMBBELL);
+
+        e1.updateReps(0, 10);
+        e2.updateReps(0, 10);
+
+        Assert.assertTrue(e1.equals(e2));
+        Assert.assertEquals(e1.hashcode(), e2.hashcode());
+    }
+
+    @Test
+    public void setRepsViewReturnsCachedInstancesForCommonValues() {
+
+        Exercise exercise = new Exercise("Bicep Curl", 3, new ArrayList<>(), 12, 25.00, Mode.BARBELL);
+        exercise.updateReps(1, 12);
+
+        Assert.assertSame(SetReps.of(2, 12), exercise.getAllSetReps().get(1));
+        Assert.assertSame(exercise.getAllSetReps().get(0), exercise.getAllSetReps().get(0));
+        Assert.assertEquals(new SetReps(25, 300), SetReps.of(25, 300));
+        Assert.assertEquals(new SetReps(-1, 5), SetReps.of(-1, 5));
+    }
 }
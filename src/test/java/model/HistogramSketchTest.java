@@ -0,0 +1,146 @@
+package model;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+public class HistogramSketchTest {
+
+    private static final double DELTA = 1e-9;
+
+    private HistogramSketch sketch;
+
+    @Before
+    public void setup() {
+        sketch = new HistogramSketch(6, 1, 1024);
+    }
+
+    @Test
+    public void smallWholeNumbersAreExact() {
+        int[] reps = {8, 10, 10, 12, 10, 6, 0, 15};
+        for (int value : reps) {
+            sketch.add(value);
+        }
+        Assert.assertEquals(8, sketch.getCount());
+        Assert.assertEquals(10, sketch.getMode(), DELTA);
+        Assert.assertEquals(10, sketch.getMedian(), DELTA);
+        Assert.assertEquals(0, sketch.getQuantile(0), DELTA);
+        Assert.assertEquals(15, sketch.getQuantile(1), DELTA);
+        Assert.assertEquals(71.0 / 8, sketch.getMean(), DELTA);
+    }
+
+    @Test
+    public void quantilesStayWithinTheRelativeError() {
+        HistogramSketch weights = new HistogramSketch(7, 0.25, 4096);
+        Random random = new Random(19);
+        double[] values = new double[20_000];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = 20 + random.nextDouble() * 300;
+            weights.add(values[i]);
+        }
+        Arrays.sort(values);
+        for (double quantile : new double[] {0.5, 0.9, 0.99}) {
+            double exact = values[(int) Math.ceil(quantile * values.length) - 1];
+            Assert.assertEquals(exact, weights.getQuantile(quantile), exact * weights.getRelativeError());
+        }
+        Assert.assertEquals(values[0], weights.getMin(), DELTA);
+        Assert.assertEquals(values[values.length - 1], weights.getMax(), DELTA);
+    }
+
+    @Test
+    public void memoryIsFixed() {
+        int buckets = sketch.getBucketCount();
+        for (int i = 0; i < 100_000; i++) {
+            sketch.add(i % 500);
+        }
+        Assert.assertEquals(buckets, sketch.getBucketCount());
+        // values beyond the tracked range are still counted.
+        sketch.add(50_000);
+        Assert.assertEquals(100_001, sketch.getCount());
+        Assert.assertEquals(50_000, sketch.getQuantile(1), DELTA);
+    }
+
+    @Test
+    public void mergeEqualsIngestingEverything() {
+        HistogramSketch left = new HistogramSketch(6, 1, 1024);
+        HistogramSketch right = new HistogramSketch(6, 1, 1024);
+        Random random = new Random(7);
+        for (int i = 0; i < 1000; i++) {
+            int value = random.nextInt(200);
+            sketch.add(value);
+            (i % 2 == 0 ? left : right).add(value);
+        }
+        left.merge(right);
+        Assert.assertEquals(sketch.getCount(), left.getCount());
+        Assert.assertEquals(sketch.getMode(), left.getMode(), DELTA);
+        for (double quantile : new double[] {0.1, 0.5, 0.9, 0.99}) {
+            Assert.assertEquals(sketch.getQuantile(quantile), left.getQuantile(quantile), DELTA);
+        }
+    }
+
+    @Test
+    public void emptySketchAnswersZero() {
+        Assert.assertEquals(0, sketch.getMedian(), DELTA);
+        Assert.assertEquals(0, sketch.getMode(), DELTA);
+        Assert.assertEquals(0, sketch.getMean(), DELTA);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void negativeValuesAreRejected() {
+        sketch.add(-1);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void incompatibleSketchesCannotMerge() {
+        sketch.merge(new HistogramSketch(5, 1, 1024));
+    }
+
+    @Test
+    public void exerciseDistributionsIngestLoggedSets() {
+        ExerciseDistributions distributions = new ExerciseDistributions();
+        Workout workout = new Workout("Monday");
+        workout.setEventListener(event -> { });
+        List<SetReps> reps = new ArrayList<>();
+        reps.add(new SetReps(1, 10));
+        reps.add(new SetReps(2, 10));
+        reps.add(new SetReps(3, 6));
+        workout.addExercise(new Exercise("Squat", 3, reps, 10, 100.00, Mode.BARBELL));
+        distributions.record(workout);
+
+        ExerciseDistributions other = new ExerciseDistributions();
+        List<SetReps> heavy = new ArrayList<>();
+        heavy.add(new SetReps(1, 3));
+        other.record(new Exercise("Squat", 1, heavy, 3, 140.00, Mode.BARBELL));
+        distributions.merge(other);
+
+        HistogramSketch squatReps = distributions.getRepDistribution("Squat");
+        Assert.assertEquals(4, squatReps.getCount());
+        Assert.assertEquals(10, squatReps.getMode(), DELTA);
+        Assert.assertEquals(6, squatReps.getMedian(), DELTA);
+        HistogramSketch squatWeights = distributions.getWeightDistribution("Squat");
+        Assert.assertEquals(4, squatWeights.getCount());
+        Assert.assertEquals(100.00, squatWeights.getMedian(), 100.00 * squatWeights.getRelativeError());
+        Assert.assertEquals(140.00, squatWeights.getQuantile(0.99), DELTA);
+        Assert.assertNull(distributions.getRepDistribution("Deadlift"));
+    }
+
+    @Test
+    public void invalidExercisesAreRejectedWhole() {
+        ExerciseDistributions distributions = new ExerciseDistributions();
+        Exercise valid = new Exercise("Squat", new int[] {1}, new int[] {5}, 5, 100.00, Mode.BARBELL);
+        Exercise negativeReps = new Exercise("Deadlift", new int[] {1, 2}, new int[] {5, -1}, 5, 140.00, Mode.BARBELL);
+
+        Assert.assertThrows(IllegalArgumentException.class, () -> distributions.record(negativeReps));
+        Assert.assertThrows(IllegalArgumentException.class, () -> distributions.recordAll(List.of(valid, negativeReps)));
+        Assert.assertTrue(distributions.getExerciseNames().isEmpty());
+
+        distributions.record(new Exercise("Pull-ups", new int[] {1, 2}, new int[] {12, 10}, 12, Double.NaN, Mode.BODYWEIGHT));
+        Assert.assertEquals(2, distributions.getRepDistribution("Pull-ups").getCount());
+        Assert.assertNull(distributions.getWeightDistribution("Pull-ups"));
+    }
+}
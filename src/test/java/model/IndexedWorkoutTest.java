@@ -0,0 +1,220 @@
+package model;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+public class IndexedWorkoutTest {
+
+    private IndexedWorkout testWorkout;
+    private IExercise benchPress;
+    private IExercise squat;
+    private IExercise pullups;
+
+    @Before
+    public void setup() {
+        testWorkout = new IndexedWorkout("Test Workout");
+
+        benchPress = new Exercise("Bench Press", 3, new ArrayList<>(), 10, 65.00, Mode.DUMBBELL);
+        squat = new Exercise("Squat", 3, new ArrayList<>(), 12, 185.00, Mode.BARBELL);
+        pullups = new Exercise("Pull-ups", 3, new ArrayList<>(), 15, 0.00, Mode.BODYWEIGHT);
+
+        testWorkout.addExercise(benchPress);
+        testWorkout.addExercise(squat);
+        testWorkout.addExercise(pullups);
+    }
+
+    @Test
+    public void addExerciseKeepsInsertionOrder() {
+        Assert.assertEquals(List.of(benchPress, squat, pullups), testWorkout.getExerciseList());
+        Assert.assertTrue(testWorkout.containsExercise(squat));
+    }
+
+    @Test
+    public void addExerciseRejectsEqualDuplicates() {
+        IExercise equalBench = new Exercise("Bench Press", 3, new ArrayList<>(), 10, 65.00, Mode.DUMBBELL);
+
+        Assert.assertThrows(IllegalStateException.class, () -> testWorkout.addExercise(equalBench));
+        Assert.assertThrows(IllegalArgumentException.class, () -> testWorkout.addExercise(null));
+    }
+
+    @Test
+    public void removeAndRestoreMoveExerciseBetweenLists() {
+        testWorkout.removeExercise(benchPress);
+
+        Assert.assertFalse(testWorkout.containsExercise(benchPress));
+        Assert.assertTrue(testWorkout.isDeleted(benchPress));
+        Assert.assertEquals(List.of(benchPress), testWorkout.getDeletedExercises());
+
+        testWorkout.addExercise(benchPress);
+
+        Assert.assertEquals(List.of(squat, pullups, benchPress), testWorkout.getExerciseList());
+        Assert.assertTrue(testWorkout.getDeletedExercises().isEmpty());
+        Assert.assertThrows(IllegalArgumentException.class, () -> testWorkout.restoreExercise(benchPress));
+    }
+
+    @Test
+    public void removeExerciseRejectsMissingOrRemovedExercise() {
+        IExercise deadlift = new Exercise("Deadlift", 3, new ArrayList<>(), 5, 225.00, Mode.BARBELL);
+        Assert.assertThrows(IllegalArgumentException.class, () -> testWorkout.removeExercise(deadlift));
+
+        testWorkout.removeExercise(squat);
+        Assert.assertThrows(IllegalArgumentException.class, () -> testWorkout.removeExercise(squat));
+    }
+
+    @Test
+    public void removeLastExerciseThrows() {
+        testWorkout.removeExercise(benchPress);
+        testWorkout.removeExercise(squat);
+
+        Assert.assertThrows(IllegalStateException.class, () -> testWorkout.removeExercise(pullups));
+    }
+
+    @Test
+    public void editExerciseKeepsPositionAfterRemovals() {
+        IExercise deadlift = new Exercise("Deadlift", 3, new ArrayList<>(), 5, 225.00, Mode.BARBELL);
+        IExercise heavierPullups = new Exercise("Pull-ups", 3, new ArrayList<>(), 15, 20.00, Mode.BODYWEIGHT);
+        testWorkout.addExercise(deadlift);
+
+        testWorkout.removeExercise(benchPress);
+        testWorkout.editExercise(pullups, heavierPullups);
+
+        Assert.assertEquals(List.of(squat, heavierPullups, deadlift), testWorkout.getExerciseList());
+        Assert.assertFalse(testWorkout.containsExercise(pullups));
+        Assert.assertTrue(testWorkout.containsExercise(heavierPullups));
+    }
+
+    @Test
+    public void editExerciseRejectsInvalidEdits() {
+        IExercise deadlift = new Exercise("Deadlift", 3, new ArrayList<>(), 5, 225.00, Mode.BARBELL);
+
+        Assert.assertThrows(IllegalArgumentException.class, () -> testWorkout.editExercise(null, deadlift));
+        Assert.assertThrows(IllegalArgumentException.class, () -> testWorkout.editExercise(squat, null));
+        Assert.assertThrows(IllegalStateException.class, () -> testWorkout.editExercise(squat, squat));
+        Assert.assertThrows(IllegalArgumentException.class, () -> testWorkout.editExercise(deadlift, squat));
+        Assert.assertThrows(IllegalStateException.class, () -> testWorkout.editExercise(squat, benchPress));
+    }
+
+    @Test
+    public void exercisesWorkInHashedCollections() {
+        Set<IExercise> exercises = new HashSet<>();
+        exercises.add(new Exercise("Squat", 3, new ArrayList<>(), 12, 185.00, Mode.BARBELL));
+
+        Assert.assertTrue(exercises.contains(squat));
+    }
+
+    @Test
+    public void exerciseListIsUnmodifiable() {
+        Assert.assertThrows(UnsupportedOperationException.class, () -> testWorkout.getExerciseList().add(benchPress));
+    }
+
+    @Test
+    public void equalsAndHashCodeDependOnNameAndExercises() {
+        IndexedWorkout other = new IndexedWorkout("Test Workout");
+        other.addExercise(new Exercise("Bench Press", 3, new ArrayList<>(), 10, 65.00, Mode.DUMBBELL));
+        other.addExercise(new Exercise("Squat", 3, new ArrayList<>(), 12, 185.00, Mode.BARBELL));
+        other.addExercise(new Exercise("Pull-ups", 3, new ArrayList<>(), 15, 0.00, Mode.BODYWEIGHT));
+
+        Assert.assertEquals(testWorkout, other);
+        Assert.assertEquals(testWorkout.hashCode(), other.hashCode());
+
+        other.setWorkoutName("Other Workout");
+        Assert.assertNotEquals(testWorkout, other);
+    }
+
+    @Test
+    public void removeExercisesKeepsIndexConsistent() {
+        IExercise deadlift = new Exercise("Deadlift", 3, new ArrayList<>(), 10, 225.00, Mode.BARBELL);
+        testWorkout.addExercises(List.of(deadlift));
+        testWorkout.removeExercises(List.of(benchPress, pullups));
+
+        Assert.assertEquals(List.of(squat, deadlift), testWorkout.getExerciseList());
+        Assert.assertTrue(testWorkout.isDeleted(pullups));
+
+        IExercise frontSquat = new Exercise("Front Squat", 3, new ArrayList<>(), 8, 135.00, Mode.BARBELL);
+        testWorkout.editExercise(deadlift, frontSquat);
+        Assert.assertEquals(List.of(squat, frontSquat), testWorkout.getExerciseList());
+
+        testWorkout.addExercises(List.of(pullups));
+        Assert.assertEquals(List.of(squat, frontSquat, pullups), testWorkout.getExerciseList());
+        Assert.assertFalse(testWorkout.isDeleted(pullups));
+    }
+
+    @Test
+    public void exercisesCanBeLoggedInPlace() {
+        ((Exercise) squat).updateReps(1, 6);
+        ((Exercise) benchPress).updateWeight(70.00);
+
+        Assert.assertTrue(testWorkout.containsExercise(squat));
+        Assert.assertTrue(testWorkout.containsExercise(new Exercise("Bench Press", 3, new ArrayList<>(), 10, 70.00, Mode.DUMBBELL)));
+        Assert.assertFalse(testWorkout.containsExercise(new Exercise("Bench Press", 3, new ArrayList<>(), 10, 65.00, Mode.DUMBBELL)));
+
+        testWorkout.removeExercise(squat);
+        IExercise heavierBench = new Exercise("Bench Press", 3, new ArrayList<>(), 10, 75.00, Mode.DUMBBELL);
+        testWorkout.editExercise(benchPress, heavierBench);
+        Assert.assertEquals(List.of(heavierBench, pullups), testWorkout.getExerciseList());
+
+        // removed and replaced exercises are no longer observed.
+        ((Exercise) benchPress).updateWeight(75.00);
+        Assert.assertThrows(IllegalStateException.class, () -> testWorkout.addExercise(benchPress));
+        ((Exercise) benchPress).updateWeight(80.00);
+        testWorkout.addExercise(benchPress);
+        Assert.assertEquals(List.of(heavierBench, pullups, benchPress), testWorkout.getExerciseList());
+    }
+
+    @Test
+    public void removingThroughEqualCopiesJournalsTheHeldExercise() {
+        testWorkout.removeExercise(new Exercise("Squat", 3, new ArrayList<>(), 12, 185.00, Mode.BARBELL));
+
+        Assert.assertSame(squat, testWorkout.getDeletedExercises().get(0));
+        testWorkout.restoreExercise(squat);
+        Assert.assertEquals(List.of(benchPress, pullups, squat), testWorkout.getExerciseList());
+    }
+
+    @Test
+    public void restoresCanBeRedoneLikeInWorkout() {
+        testWorkout.removeExercise(squat);
+        testWorkout.restoreExercise(squat);
+        Assert.assertSame(squat, testWorkout.getUndoJournal().peekRedo());
+
+        Assert.assertSame(squat, testWorkout.redoRemoval());
+        Assert.assertEquals(List.of(benchPress, pullups), testWorkout.getExerciseList());
+        Assert.assertEquals(List.of(squat), testWorkout.getDeletedExercises());
+        Assert.assertFalse(testWorkout.containsExercise(squat));
+
+        Assert.assertSame(squat, testWorkout.undoRemoval());
+        Assert.assertEquals(List.of(benchPress, pullups, squat), testWorkout.getExerciseList());
+        testWorkout.addExercise(new Exercise("Deadlift", 3, new ArrayList<>(), 5, 225.00, Mode.BARBELL));
+        Assert.assertThrows(IllegalStateException.class, testWorkout::redoRemoval);
+        Assert.assertThrows(IllegalStateException.class, testWorkout::undoRemoval);
+    }
+
+    @Test
+    public void manyRemovalsKeepPositionsInOrder() {
+        List<IExercise> expected = new ArrayList<>(testWorkout.getExerciseList());
+        for (int i = 0; i < 200; i++) {
+            IExercise exercise = new Exercise("Exercise " + i, 3, new ArrayList<>(), 10, i, Mode.MACHINE);
+            testWorkout.addExercise(exercise);
+            expected.add(exercise);
+        }
+        for (int i = expected.size() - 2; i >= 0; i -= 3) {
+            testWorkout.removeExercise(expected.remove(i));
+        }
+        for (int i = 0; i < 60; i += 2) {
+            testWorkout.removeExercise(expected.remove(i));
+        }
+
+        Assert.assertEquals(expected, testWorkout.getExerciseList());
+        for (int i = 0; i < expected.size(); i++) {
+            Assert.assertSame(expected.get(i), testWorkout.getExerciseList().get(i));
+        }
+        IExercise last = new Exercise("Last", 3, new ArrayList<>(), 10, 0.00, Mode.CABLE);
+        testWorkout.editExercise(expected.get(10), last);
+        Assert.assertSame(last, testWorkout.getExerciseList().get(10));
+    }
+}
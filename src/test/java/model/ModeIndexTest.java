@@ -0,0 +1,132 @@
+package model;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class ModeIndexTest {
+
+    private Workout testWorkout;
+    private Exercise benchPress;
+    private Exercise curls;
+    private Exercise squats;
+    private Exercise pullups;
+
+    @Before
+    public void setup() {
+        testWorkout = new Workout("Test Workout");
+        testWorkout.setEventListener(event -> { });
+        benchPress = exercise("Bench Press", Mode.BARBELL);
+        curls = exercise("Curls", Mode.DUMBBELL);
+        squats = exercise("Squats", Mode.BARBELL);
+        pullups = exercise("Pull-ups", Mode.BODYWEIGHT);
+        testWorkout.addExercise(benchPress);
+        testWorkout.addExercise(curls);
+        testWorkout.addExercise(squats);
+        testWorkout.addExercise(pullups);
+    }
+
+    @Test
+    public void exercisesArePartitionedByMode() {
+        Assert.assertEquals(List.of(benchPress, squats), testWorkout.getExercises(Mode.BARBELL));
+        Assert.assertEquals(List.of(curls), testWorkout.getExercises(Mode.DUMBBELL));
+        Assert.assertEquals(1, testWorkout.getModeIndex().getCount(Mode.BODYWEIGHT));
+        Assert.assertEquals(0, testWorkout.getModeIndex().getCount(Mode.MACHINE));
+    }
+
+    @Test
+    public void removeShiftsLaterPositions() {
+        testWorkout.removeExercise(curls);
+        Assert.assertEquals(List.of(benchPress, squats), testWorkout.getExercises(Mode.BARBELL));
+        Assert.assertTrue(testWorkout.getExercises(Mode.DUMBBELL).isEmpty());
+        Assert.assertEquals(List.of(pullups), testWorkout.getExercises(Mode.BODYWEIGHT));
+        Assert.assertEquals(2, testWorkout.getModeIndex().getPositions(Mode.BODYWEIGHT).nextSetBit(0));
+
+        testWorkout.restoreExercise(curls);
+        Assert.assertEquals(3, testWorkout.getModeIndex().getPositions(Mode.DUMBBELL).nextSetBit(0));
+    }
+
+    @Test
+    public void editAndUpdateModeMoveExercises() {
+        Exercise machineRows = exercise("Rows", Mode.MACHINE);
+        testWorkout.editExercise(curls, machineRows);
+        Assert.assertTrue(testWorkout.getExercises(Mode.DUMBBELL).isEmpty());
+        Assert.assertEquals(List.of(machineRows), testWorkout.getExercises(Mode.MACHINE));
+
+        squats.updateMode(Mode.DUMBBELL);
+        Assert.assertEquals(List.of(benchPress), testWorkout.getExercises(Mode.BARBELL));
+        Assert.assertEquals(List.of(squats), testWorkout.getExercises(Mode.DUMBBELL));
+
+        // the replaced exercise is no longer observed.
+        curls.updateMode(Mode.BARBELL);
+        Assert.assertEquals(List.of(benchPress), testWorkout.getExercises(Mode.BARBELL));
+    }
+
+    @Test
+    public void batchOperationsKeepTheIndexConsistent() {
+        Exercise rows = exercise("Rows", Mode.MACHINE);
+        Exercise press = exercise("Shoulder Press", Mode.DUMBBELL);
+        testWorkout.addExercises(List.of(rows, press));
+        Assert.assertEquals(List.of(curls, press), testWorkout.getExercises(Mode.DUMBBELL));
+
+        testWorkout.removeExercises(List.of(benchPress, curls));
+        Assert.assertEquals(List.of(squats), testWorkout.getExercises(Mode.BARBELL));
+        Assert.assertEquals(List.of(press), testWorkout.getExercises(Mode.DUMBBELL));
+        Assert.assertEquals(List.of(rows), testWorkout.getExercises(Mode.MACHINE));
+    }
+
+    @Test
+    public void shiftsCrossWordBoundaries() {
+        List<Exercise> added = new ArrayList<>();
+        for (int i = 0; i < 140; i++) {
+            Exercise extra = exercise("Extra " + i, i % 3 == 0 ? Mode.CABLE : Mode.MACHINE);
+            added.add(extra);
+            testWorkout.addExercise(extra);
+        }
+        testWorkout.removeExercise(benchPress);
+        testWorkout.removeExercise(added.get(60));
+        testWorkout.removeExercise(added.get(64));
+
+        for (Mode mode : Mode.values()) {
+            List<IExercise> expected = new ArrayList<>();
+            for (IExercise exercise : testWorkout.getExerciseList()) {
+                if (exercise.getMode() == mode) {
+                    expected.add(exercise);
+                }
+            }
+            Assert.assertEquals(expected, testWorkout.getExercises(mode));
+        }
+    }
+
+    @Test
+    public void routinesRollUpTheirWorkouts() {
+        Workout legDay = new Workout("Leg Day");
+        legDay.setEventListener(event -> { });
+        Exercise deadlift = exercise("Deadlift", Mode.BARBELL);
+        legDay.addExercise(deadlift);
+
+        Routine routine = new Routine("Routine");
+        routine.addWorkoutToRoutine(testWorkout);
+        routine.addWorkoutToRoutine(legDay);
+        Assert.assertEquals(List.of(benchPress, squats, deadlift), routine.getExercises(Mode.BARBELL));
+        Assert.assertEquals(3, routine.getExerciseCount(Mode.BARBELL));
+
+        deadlift.updateMode(Mode.MACHINE);
+        Assert.assertEquals(2, routine.getExerciseCount(Mode.BARBELL));
+        Assert.assertEquals(List.of(deadlift), routine.getExercises(Mode.MACHINE));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void nullModeIsRejected() {
+        testWorkout.getExercises(null);
+    }
+
+    private static Exercise exercise(String name, Mode mode) {
+        List<SetReps> reps = new ArrayList<>();
+        reps.add(new SetReps(1, 10));
+        return new Exercise(name, 1, reps, 10, 20.00, mode);
+    }
+}
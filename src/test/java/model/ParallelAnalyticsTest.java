@@ -0,0 +1,138 @@
+package model;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+public class ParallelAnalyticsTest {
+
+    private static final double DELTA = 1e-9;
+
+    private ParallelAnalytics analytics;
+    private List<IRoutine> routines;
+
+    @Before
+    public void setup() {
+        analytics = new ParallelAnalytics(new ForkJoinPool(4));
+        routines = new ArrayList<>();
+        Random random = new Random(17);
+        Mode[] modes = Mode.values();
+        for (int r = 0; r < 12; r++) {
+            Routine routine = new Routine("Routine " + r);
+            for (int w = 0; w < 5; w++) {
+                Workout workout = new Workout("Workout " + r + "-" + w);
+                workout.setEventListener(event -> { });
+                // one large workout per routine, so exercises are split across leaf tasks too.
+                int exerciseCount = w == 0 ? 3 * ParallelAnalytics.LEAF_SIZE + 5 : 1 + random.nextInt(8);
+                for (int e = 0; e < exerciseCount; e++) {
+                    int sets = 1 + random.nextInt(5);
+                    List<SetReps> reps = new ArrayList<>();
+                    for (int s = 1; s <= sets; s++) {
+                        reps.add(new SetReps(s, random.nextInt(15)));
+                    }
+                    double weight = random.nextInt(4) == 0 ? 0 : 2.5 * random.nextInt(80);
+                    workout.addExercise(new Exercise("Exercise " + e, sets, reps, 10, weight,
+                            modes[random.nextInt(modes.length)]));
+                }
+                routine.addWorkoutToRoutine(workout);
+            }
+            routines.add(routine);
+        }
+    }
+
+    @Test
+    public void summarizeMatchesHandComputedMetrics() {
+        Routine routine = new Routine("Push");
+        Workout workout = new Workout("Chest");
+        workout.setEventListener(event -> { });
+        List<SetReps> benchReps = new ArrayList<>();
+        benchReps.add(new SetReps(1, 10));
+        benchReps.add(new SetReps(2, 8));
+        workout.addExercise(new Exercise("Bench Press", 2, benchReps, 10, 50.00, Mode.BARBELL));
+        List<SetReps> pushupReps = new ArrayList<>();
+        pushupReps.add(new SetReps(1, 20));
+        workout.addExercise(new Exercise("Push-ups", 1, pushupReps, 20, 0.00, Mode.BODYWEIGHT));
+        routine.addWorkoutToRoutine(workout);
+
+        // volumes: 500, 400 and 20 (no weight counts as a load of 1).
+        VolumeSummary summary = analytics.summarize(List.of(routine));
+        Assert.assertEquals(3, summary.getCount());
+        Assert.assertEquals(920, summary.getSum(), DELTA);
+        Assert.assertEquals(20, summary.getMin(), DELTA);
+        Assert.assertEquals(500, summary.getMax(), DELTA);
+        Assert.assertEquals(480, summary.getRange(), DELTA);
+        double mean = 920.0 / 3;
+        Assert.assertEquals(mean, summary.getMean(), DELTA);
+        double variance = (Math.pow(500 - mean, 2) + Math.pow(400 - mean, 2) + Math.pow(20 - mean, 2)) / 3;
+        Assert.assertEquals(Math.sqrt(variance), summary.getStandardDeviation(), 1e-6);
+
+        Map<String, VolumeSummary> byExercise = analytics.summarizeByExercise(List.of(routine));
+        Assert.assertEquals(2, byExercise.size());
+        Assert.assertEquals(900, byExercise.get("Bench Press").getSum(), DELTA);
+        Assert.assertEquals(1, byExercise.get("Push-ups").getCount());
+    }
+
+    @Test
+    public void parallelResultsAreIdenticalToSequentialResults() {
+        VolumeSummary parallel = analytics.summarize(routines);
+        VolumeSummary sequential = analytics.summarizeSequentially(routines);
+        assertIdentical(sequential, parallel);
+        // the result does not depend on the number of threads either.
+        assertIdentical(sequential, new ParallelAnalytics(new ForkJoinPool(1)).summarize(routines));
+
+        Map<String, VolumeSummary> parallelByExercise = analytics.summarizeByExercise(routines);
+        Map<String, VolumeSummary> sequentialByExercise = analytics.summarizeByExerciseSequentially(routines);
+        Assert.assertEquals(sequentialByExercise.keySet(), parallelByExercise.keySet());
+        for (Map.Entry<String, VolumeSummary> entry : sequentialByExercise.entrySet()) {
+            assertIdentical(entry.getValue(), parallelByExercise.get(entry.getKey()));
+        }
+    }
+
+    @Test
+    public void summarizeAgreesWithPlainLoop() {
+        double sum = 0;
+        long count = 0;
+        for (IRoutine routine : routines) {
+            for (IWorkout workout : routine.getWorkouts()) {
+                for (IExercise exercise : workout.getExerciseList()) {
+                    double load = ExerciseData.loadOf(exercise);
+                    for (SetReps setReps : exercise.getAllSetReps()) {
+                        sum += setReps.getReps() * load;
+                        count++;
+                    }
+                }
+            }
+        }
+        VolumeSummary summary = analytics.summarize(routines);
+        Assert.assertEquals(count, summary.getCount());
+        Assert.assertEquals(sum, summary.getSum(), 1e-6);
+    }
+
+    @Test
+    public void emptyInputGivesEmptySummary() {
+        VolumeSummary summary = analytics.summarize(new ArrayList<>());
+        Assert.assertEquals(0, summary.getCount());
+        Assert.assertEquals(0, summary.getMean(), DELTA);
+        Assert.assertEquals(0, summary.getRange(), DELTA);
+        Assert.assertEquals(0, summary.getStandardDeviation(), DELTA);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void nullRoutinesAreRejected() {
+        analytics.summarize(null);
+    }
+
+    private static void assertIdentical(VolumeSummary expected, VolumeSummary actual) {
+        Assert.assertEquals(expected.getCount(), actual.getCount());
+        Assert.assertEquals(expected.getSum(), actual.getSum(), 0);
+        Assert.assertEquals(expected.getSumOfSquares(), actual.getSumOfSquares(), 0);
+        Assert.assertEquals(expected.getMin(), actual.getMin(), 0);
+        Assert.assertEquals(expected.getMax(), actual.getMax(), 0);
+    }
+}
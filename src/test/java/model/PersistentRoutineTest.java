@@ -0,0 +1,129 @@
+package model;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class PersistentRoutineTest {
+
+    private Exercise benchPress;
+    private Exercise squats;
+    private Exercise curls;
+    private PersistentRoutine routine;
+
+    @Before
+    public void setup() {
+        benchPress = exercise("Bench Press", Mode.BARBELL);
+        squats = exercise("Squats", Mode.BARBELL);
+        curls = exercise("Curls", Mode.DUMBBELL);
+        PersistentWorkout push = new PersistentWorkout("Push").withExercise(benchPress).withExercise(curls);
+        PersistentWorkout legs = new PersistentWorkout("Legs").withExercise(squats);
+        routine = new PersistentRoutine("Routine").withWorkout(push).withWorkout(legs);
+    }
+
+    @Test
+    public void editsReturnNewVersionsAndKeepTheOldOne() {
+        PersistentRoutine snapshot = routine;
+        Exercise heavierCurls = exercise("Hammer Curls", Mode.DUMBBELL);
+        PersistentRoutine edited = routine.withWorkoutAt(0, routine.getWorkout(0).withEditedExercise(curls, heavierCurls))
+                .withMovedWorkout(0, 1)
+                .withName("Edited");
+
+        Assert.assertEquals("Routine", snapshot.getRoutineName());
+        Assert.assertEquals(List.of(benchPress, curls), snapshot.getWorkout(0).getExerciseList());
+        Assert.assertEquals("Edited", edited.getRoutineName());
+        Assert.assertEquals("Legs", edited.getWorkout(0).getWorkoutName());
+        Assert.assertEquals(List.of(benchPress, heavierCurls), edited.getWorkout(1).getExerciseList());
+        // the untouched workout is shared, not copied.
+        Assert.assertSame(snapshot.getWorkout(1), edited.getWorkout(0));
+    }
+
+    @Test
+    public void copyOfConvertsMutableRoutines() {
+        Workout workout = new Workout("Push");
+        workout.setEventListener(event -> { });
+        workout.addExercise(benchPress);
+        Routine mutable = new Routine("Routine");
+        mutable.addWorkoutToRoutine(workout);
+
+        PersistentRoutine copy = PersistentRoutine.copyOf(mutable);
+        workout.addExercise(curls);
+        Assert.assertEquals(List.of(benchPress), copy.getWorkout(0).getExerciseList());
+        Assert.assertSame(copy, PersistentRoutine.copyOf(copy));
+    }
+
+    @Test
+    public void validationMatchesTheMutableModel() {
+        PersistentWorkout push = routine.getWorkout(0);
+        Assert.assertThrows(IllegalStateException.class, () -> push.withExercise(benchPress));
+        Assert.assertThrows(IllegalArgumentException.class, () -> push.withoutExercise(squats));
+        Assert.assertThrows(IllegalStateException.class, () -> routine.getWorkout(1).withoutExercise(squats));
+        Assert.assertThrows(IllegalArgumentException.class, () -> routine.withWorkout(push));
+        Assert.assertThrows(UnsupportedOperationException.class,
+                () -> new PersistentRoutine("Single").withWorkout(push).withoutWorkout(push));
+        Assert.assertEquals(1, routine.withoutWorkout(push).getWorkouts().size());
+    }
+
+    @Test
+    public void listsAreUnmodifiable() {
+        Assert.assertThrows(UnsupportedOperationException.class, () -> routine.getWorkouts().clear());
+        Assert.assertThrows(UnsupportedOperationException.class, () -> routine.getWorkout(0).getExerciseList().clear());
+    }
+
+    @Test
+    public void versionsDoNotFollowChangesToTheOriginalExercises() {
+        Workout workout = new Workout("Push");
+        workout.setEventListener(event -> { });
+        workout.addExercise(benchPress);
+        Routine mutable = new Routine("Routine");
+        mutable.addWorkoutToRoutine(workout);
+        PersistentRoutine copy = PersistentRoutine.copyOf(mutable);
+        PersistentWorkout appended = new PersistentWorkout("Arms").withExercise(curls);
+
+        benchPress.updateReps(0, 9);
+        benchPress.updateWeight(140);
+        curls.updateSets(4);
+
+        IExercise snapshot = copy.getWorkout(0).getExerciseList().get(0);
+        Assert.assertEquals(10, snapshot.getRepsForSpecificSet(0));
+        Assert.assertEquals(20.00, snapshot.getWeight(), 0.0);
+        Assert.assertEquals(1, appended.getExerciseList().get(0).getSets());
+    }
+
+    @Test
+    public void exercisesOfVersionsAreReadOnly() {
+        Exercise held = (Exercise) routine.getWorkout(0).getExerciseList().get(0);
+        Assert.assertTrue(held.isFrozen());
+        Assert.assertThrows(UnsupportedOperationException.class, () -> held.updateReps(0, 9));
+        Assert.assertThrows(UnsupportedOperationException.class, () -> held.updateWeight(140));
+        Assert.assertEquals(10, routine.getWorkout(0).getExerciseList().get(0).getRepsForSpecificSet(0));
+
+        Exercise copy = Exercise.copyOf(held);
+        Assert.assertFalse(copy.isFrozen());
+        copy.updateWeight(140);
+        Assert.assertEquals(140.00, copy.getWeight(), 0.0);
+
+        Workout workout = new Workout("Push");
+        workout.setEventListener(event -> { });
+        workout.addExercise(held);
+        Assert.assertEquals(held, workout.getExerciseList().get(0));
+    }
+
+    @Test
+    public void equalVersionsAreEqual() {
+        PersistentRoutine rebuilt = new PersistentRoutine("Routine")
+                .withWorkout(new PersistentWorkout("Push").withExercise(benchPress).withExercise(curls))
+                .withWorkout(new PersistentWorkout("Legs").withExercise(squats));
+        Assert.assertEquals(routine, rebuilt);
+        Assert.assertEquals(routine.hashCode(), rebuilt.hashCode());
+    }
+
+    private static Exercise exercise(String name, Mode mode) {
+        List<SetReps> reps = new ArrayList<>();
+        reps.add(new SetReps(1, 10));
+        return new Exercise(name, 1, reps, 10, 20.00, mode);
+    }
+}
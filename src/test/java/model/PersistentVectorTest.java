@@ -0,0 +1,71 @@
+package model;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+public class PersistentVectorTest {
+
+    @Test
+    public void editsMatchArrayListAndLeaveOldVersionsIntact() {
+        Random random = new Random(22);
+        List<Integer> expected = new ArrayList<>();
+        PersistentVector<Integer> vector = PersistentVector.empty();
+        List<List<Integer>> expectedHistory = new ArrayList<>();
+        List<PersistentVector<Integer>> history = new ArrayList<>();
+
+        for (int step = 0; step < 2000; step++) {
+            int operation = expected.isEmpty() ? 0 : random.nextInt(4);
+            if (operation == 0) {
+                int index = random.nextInt(expected.size() + 1);
+                expected.add(index, step);
+                vector = vector.plus(index, step);
+            } else if (operation == 1) {
+                int index = random.nextInt(expected.size());
+                expected.remove(index);
+                vector = vector.minus(index);
+            } else if (operation == 2) {
+                int index = random.nextInt(expected.size());
+                expected.set(index, -step);
+                vector = vector.with(index, -step);
+            } else {
+                int from = random.nextInt(expected.size());
+                int to = random.nextInt(expected.size());
+                expected.add(to, expected.remove(from));
+                vector = vector.moved(from, to);
+            }
+            if (step % 100 == 0) {
+                expectedHistory.add(new ArrayList<>(expected));
+                history.add(vector);
+            }
+        }
+
+        Assert.assertEquals(expected, vector);
+        for (int i = 0; i < history.size(); i++) {
+            Assert.assertEquals(expectedHistory.get(i), history.get(i));
+        }
+    }
+
+    @Test
+    public void copyOfKeepsOrderAndAppendDoesNotTouchTheSource() {
+        PersistentVector<String> vector = PersistentVector.copyOf(List.of("a", "b", "c"));
+        PersistentVector<String> longer = vector.plus("d");
+        Assert.assertEquals(List.of("a", "b", "c"), vector);
+        Assert.assertEquals(List.of("a", "b", "c", "d"), longer);
+        Assert.assertEquals("c", longer.get(2));
+        Assert.assertSame(vector, PersistentVector.copyOf(vector));
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void listMutatorsAreUnsupported() {
+        PersistentVector.copyOf(List.of(1, 2)).add(3);
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void outOfBoundsIndexIsRejected() {
+        PersistentVector.copyOf(List.of(1, 2)).minus(2);
+    }
+}
@@ -0,0 +1,123 @@
+package model;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class PersonalRecordIndexTest {
+
+    private static final double DELTA = 1e-9;
+
+    private PersonalRecordIndex index;
+    private Workout monday;
+    private Exercise benchPress;
+    private Exercise pullups;
+
+    @Before
+    public void setup() {
+        index = new PersonalRecordIndex();
+
+        monday = new Workout("Monday");
+        monday.setEventListener(event -> { });
+        benchPress = exercise("Bench Press", 60.00, Mode.BARBELL, 10, 8, 6);
+        pullups = exercise("Pull-ups", 0.00, Mode.BODYWEIGHT, 15, 12);
+        monday.addExercise(benchPress);
+        monday.addExercise(pullups);
+    }
+
+    @Test
+    public void recordingAWorkoutPublishesRecords() {
+        index.record(monday);
+
+        PersonalRecord bench = index.get("Bench Press", Mode.BARBELL);
+        Assert.assertEquals(60.00, bench.getBestWeight(), DELTA);
+        Assert.assertEquals(10, bench.getBestRepsAtBestWeight());
+        Assert.assertEquals(PersonalRecord.epley(60.00, 10), bench.getEpleyOneRepMax(), DELTA);
+        Assert.assertEquals(PersonalRecord.brzycki(60.00, 10), bench.getBrzyckiOneRepMax(), DELTA);
+
+        PersonalRecord pull = index.get("Pull-ups", Mode.BODYWEIGHT);
+        Assert.assertEquals(15, pull.getBestReps(0.00));
+        Assert.assertNull(index.get("Bench Press", Mode.DUMBBELL));
+        Assert.assertEquals(2, index.size());
+    }
+
+    @Test
+    public void recordsKeepTheBestAcrossSessions() {
+        index.record(monday);
+        Workout thursday = new Workout("Thursday");
+        thursday.setEventListener(event -> { });
+        thursday.addExercise(exercise("Bench Press", 80.00, Mode.BARBELL, 3, 2));
+        index.record(thursday);
+
+        PersonalRecord bench = index.get("Bench Press", Mode.BARBELL);
+        Assert.assertEquals(80.00, bench.getBestWeight(), DELTA);
+        Assert.assertEquals(3, bench.getBestRepsAtBestWeight());
+        Assert.assertEquals(10, bench.getBestReps(60.00));
+        Assert.assertEquals(2, bench.getBestRepsByWeight().size());
+        double expectedEpley = Math.max(PersonalRecord.epley(60.00, 10), PersonalRecord.epley(80.00, 3));
+        Assert.assertEquals(expectedEpley, bench.getEpleyOneRepMax(), DELTA);
+    }
+
+    @Test
+    public void editsMoveRecordsUpAndDown() {
+        index.record(monday);
+
+        benchPress.updateWeight(70.00);
+        Assert.assertEquals(70.00, index.get("Bench Press", Mode.BARBELL).getBestWeight(), DELTA);
+        Assert.assertEquals(0, index.get("Bench Press", Mode.BARBELL).getBestReps(60.00));
+
+        // correcting a mistyped set lowers the record instead of keeping the stale maximum.
+        benchPress.updateReps(0, 7);
+        Assert.assertEquals(8, index.get("Bench Press", Mode.BARBELL).getBestRepsAtBestWeight());
+    }
+
+    @Test
+    public void renamingMovesTheContribution() {
+        index.record(monday);
+        benchPress.updateName("Incline Press");
+
+        Assert.assertNull(index.get("Bench Press", Mode.BARBELL));
+        Assert.assertEquals(60.00, index.get("Incline Press", Mode.BARBELL).getBestWeight(), DELTA);
+
+        benchPress.updateMode(Mode.DUMBBELL);
+        Assert.assertNull(index.get("Incline Press", Mode.BARBELL));
+        Assert.assertNotNull(index.get("Incline Press", Mode.DUMBBELL));
+    }
+
+    @Test
+    public void forgetWithdrawsAndStopsObserving() {
+        index.record(monday);
+        Assert.assertTrue(index.forget(pullups));
+        Assert.assertFalse(index.forget(pullups));
+        Assert.assertNull(index.get("Pull-ups", Mode.BODYWEIGHT));
+
+        pullups.updateWeight(10.00);
+        Assert.assertNull(index.get("Pull-ups", Mode.BODYWEIGHT));
+        Assert.assertEquals(1, index.size());
+    }
+
+    @Test
+    public void oneRepMaxFormulas() {
+        Assert.assertEquals(100.00, PersonalRecord.epley(100.00, 1), DELTA);
+        Assert.assertEquals(100.00 * (1 + 10 / 30.0), PersonalRecord.epley(100.00, 10), DELTA);
+        Assert.assertEquals(100.00 * 36 / 27, PersonalRecord.brzycki(100.00, 10), DELTA);
+        Assert.assertEquals(0, PersonalRecord.brzycki(100.00, 40), DELTA);
+        Assert.assertEquals(0, PersonalRecord.epley(100.00, 0), DELTA);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void nullWorkoutIsRejected() {
+        index.record((IWorkout) null);
+    }
+
+    private static Exercise exercise(String name, double weight, Mode mode, int... reps) {
+        List<SetReps> setReps = new ArrayList<>();
+        for (int i = 0; i < reps.length; i++) {
+            setReps.add(new SetReps(i + 1, reps[i]));
+        }
+        return new Exercise(name, reps.length, setReps, 10, weight, mode);
+    }
+}
@@ -3,5 +3,34 @@ package model;
 import org.junit.Assert;
 import org.junit.Test;
 
+import java.util.List;
+
 public class RoutineTest {
+
+    @Test
+    public void removingAnEqualCopyJournalsTheHeldWorkout() {
+        Workout push = workout("Push Day", "Bench Press");
+        Workout pull = workout("Pull Day", "Pull-ups");
+        Workout legs = workout("Leg Day", "Squat");
+        Routine routine = new Routine("PPL");
+        routine.addWorkouts(List.of(push, pull, legs));
+
+        routine.removeWorkoutFromRoutine(workout("Push Day", "Bench Press"));
+        Assert.assertSame(push, routine.getDeletedWorkoutsInRoutine().get(0));
+        routine.restoreWorkoutToRoutine(push);
+        Assert.assertTrue(routine.getWorkouts().contains(push));
+
+        routine.removeWorkouts(List.of(workout("Pull Day", "Pull-ups")));
+        Assert.assertSame(pull, routine.getDeletedWorkoutsInRoutine().get(0));
+        Assert.assertSame(pull, routine.undoRemoval());
+    }
+
+    // Private helper methods.
+
+    private static Workout workout(String name, String exercise) {
+        Workout workout = new Workout(name);
+        workout.setEventListener(event -> { });
+        workout.addExercise(new Exercise(exercise, 3, List.of(), 10, 50.00, Mode.DUMBBELL));
+        return workout;
+    }
 }
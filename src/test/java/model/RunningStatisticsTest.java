@@ -0,0 +1,113 @@
+package model;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.lang.management.ManagementFactory;
+import java.util.Random;
+import java.util.TreeMap;
+
+public class RunningStatisticsTest {
+
+    private static final double DELTA = 1e-9;
+
+    private RunningStatistics statistics;
+
+    @Before
+    public void setup() {
+        statistics = new RunningStatistics();
+    }
+
+    @Test
+    public void emptyStatisticsAnswerZero() {
+        Assert.assertEquals(0, statistics.getCount());
+        Assert.assertEquals(0, statistics.getMin());
+        Assert.assertEquals(0, statistics.getMax());
+        Assert.assertEquals(0, statistics.getMode());
+        Assert.assertEquals(0, statistics.getMean(), DELTA);
+    }
+
+    @Test
+    public void minMaxAndModeFollowAddsAndRemoves() {
+        int[] samples = {10, 8, 10, 12, 6, 8, 10};
+        for (int sample : samples) {
+            statistics.add(sample);
+        }
+        Assert.assertEquals(6, statistics.getMin());
+        Assert.assertEquals(12, statistics.getMax());
+        Assert.assertEquals(10, statistics.getMode());
+
+        statistics.remove(6);
+        statistics.remove(12);
+        statistics.replace(10, 8);
+        Assert.assertEquals(8, statistics.getMin());
+        Assert.assertEquals(10, statistics.getMax());
+        Assert.assertEquals(8, statistics.getMode());
+        Assert.assertEquals(44, statistics.getSum());
+        Assert.assertThrows(IllegalArgumentException.class, () -> statistics.remove(6));
+        Assert.assertThrows(IllegalArgumentException.class, () -> statistics.remove(5000));
+    }
+
+    @Test
+    public void valuesOutsideTheCountedRangeMatchASortedMap() {
+        Random random = new Random(11);
+        TreeMap<Integer, Integer> reference = new TreeMap<>();
+        int[] pool = {-5, -1, 0, 3, 3, 40, 1023, RunningStatistics.MAX_COUNTED_VALUE, 5000, Integer.MAX_VALUE};
+        for (int i = 0; i < 2000; i++) {
+            int value = pool[random.nextInt(pool.length)];
+            if (reference.containsKey(value) && random.nextBoolean()) {
+                statistics.remove(value);
+                reference.merge(value, -1, (a, b) -> a + b == 0 ? null : a + b);
+            } else {
+                statistics.add(value);
+                reference.merge(value, 1, Integer::sum);
+            }
+
+            if (reference.isEmpty()) {
+                Assert.assertEquals(0, statistics.getCount());
+                continue;
+            }
+            Assert.assertEquals((int) reference.firstKey(), statistics.getMin());
+            Assert.assertEquals((int) reference.lastKey(), statistics.getMax());
+            int mode = reference.firstKey();
+            for (int key : reference.keySet()) {
+                if (reference.get(key) > reference.get(mode)) {
+                    mode = key;
+                }
+            }
+            Assert.assertEquals(mode, statistics.getMode());
+        }
+    }
+
+    @Test
+    public void updatingRepsDoesNotAllocate() {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        Assert.assertTrue(threads.isThreadAllocatedMemorySupported());
+        threads.setThreadAllocatedMemoryEnabled(true);
+        Exercise exercise = new Exercise("Squat", new int[] {1, 2, 3}, new int[] {5, 5, 5}, 5, 100.00, Mode.BARBELL);
+        updateReps(exercise, 20_000);
+
+        long threadId = Thread.currentThread().getId();
+        long before = threads.getThreadAllocatedBytes(threadId);
+        updateReps(exercise, 100_000);
+        long allocated = threads.getThreadAllocatedBytes(threadId) - before;
+
+        // a map would allocate an entry for each value whose last occurrence was replaced, on every update.
+        Assert.assertTrue("Allocated " + allocated + " bytes.", allocated < 64 * 1024);
+        Assert.assertEquals(3, exercise.getRepStatistics().getCount());
+    }
+
+    // Private helper methods.
+
+    /**
+     * Cycles the reps of every set through values the other sets do not hold, so each update removes a value's
+     * last occurrence and adds a value with no occurrence.
+     */
+    private static void updateReps(Exercise exercise, int updates) {
+        for (int i = 0; i < updates; i++) {
+            int set = i % 3;
+            exercise.updateReps(set, exercise.getRepsForSpecificSet(set) == 5 + set ? 20 + set : 5 + set);
+        }
+    }
+}
@@ -0,0 +1,189 @@
+package model;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class TrainingAggregatesTest {
+
+    private static final double DELTA = 1e-9;
+
+    private Workout testWorkout;
+    private Exercise benchPress;
+    private Exercise pullups;
+
+    @Before
+    public void setup() {
+        testWorkout = new Workout("Test Workout");
+        testWorkout.setEventListener(event -> { });
+
+        List<SetReps> benchReps = new ArrayList<>();
+        benchReps.add(new SetReps(1, 10));
+        benchReps.add(new SetReps(2, 10));
+        benchReps.add(new SetReps(3, 8));
+        benchPress = new Exercise("Bench Press", 3, benchReps, 10, 65.00, Mode.DUMBBELL);
+
+        List<SetReps> pullupReps = new ArrayList<>();
+        pullupReps.add(new SetReps(1, 15));
+        pullupReps.add(new SetReps(2, 12));
+        pullups = new Exercise("Pull-ups", 2, pullupReps, 15, 0.00, Mode.BODYWEIGHT);
+
+        testWorkout.addExercise(benchPress);
+        testWorkout.addExercise(pullups);
+    }
+
+    @Test
+    public void workoutAggregatesFollowMutations() {
+        TrainingAggregates aggregates = testWorkout.getAggregates();
+
+        Assert.assertEquals(2, aggregates.getExerciseCount());
+        Assert.assertEquals(28 * 65.00 + 27 * ExerciseData.BODYWEIGHT_LOAD, aggregates.getVolume(), DELTA);
+        Assert.assertEquals(55, aggregates.getCompletedReps());
+        Assert.assertEquals(60, aggregates.getTargetReps());
+        Assert.assertEquals(27, aggregates.getCompletedReps(Mode.BODYWEIGHT));
+
+        testWorkout.removeExercise(pullups);
+        Assert.assertEquals(28, aggregates.getCompletedReps());
+        Assert.assertEquals(0, aggregates.getCompletedReps(Mode.BODYWEIGHT));
+
+        Exercise squat = new Exercise("Squat", 1, List.of(new SetReps(1, 5)), 5, 100.00, Mode.BARBELL);
+        testWorkout.editExercise(benchPress, squat);
+        Assert.assertEquals(500.00, aggregates.getVolume(), DELTA);
+        Assert.assertEquals(0.00, aggregates.getVolume(Mode.DUMBBELL), DELTA);
+        Assert.assertEquals(1.0, aggregates.getCompletionRatio(), DELTA);
+
+        testWorkout.restoreExercise(pullups);
+        Assert.assertEquals(2, aggregates.getExerciseCount());
+        Assert.assertEquals(32, aggregates.getCompletedReps());
+    }
+
+    @Test
+    public void exerciseUpdatesAreObserved() {
+        TrainingAggregates aggregates = testWorkout.getAggregates();
+
+        benchPress.updateReps(2, 10);
+        benchPress.updateWeight(70.00);
+        Assert.assertEquals(30 * 70.00 + 27 * ExerciseData.BODYWEIGHT_LOAD, aggregates.getVolume(), DELTA);
+
+        benchPress.updateMode(Mode.BARBELL);
+        Assert.assertEquals(30 * 70.00, aggregates.getVolume(Mode.BARBELL), DELTA);
+        Assert.assertEquals(0.00, aggregates.getVolume(Mode.DUMBBELL), DELTA);
+
+        testWorkout.removeExercise(benchPress);
+        benchPress.updateReps(0, 1);
+        Assert.assertEquals(27, aggregates.getCompletedReps());
+    }
+
+    @Test
+    public void routineAggregatesRollUpWorkouts() {
+        Routine routine = new Routine("Test Routine");
+        Workout legDay = new Workout("Leg Day");
+        legDay.setEventListener(event -> { });
+        Exercise squat = new Exercise("Squat", 1, List.of(new SetReps(1, 5)), 5, 100.00, Mode.BARBELL);
+        legDay.addExercise(squat);
+
+        routine.addWorkouts(List.of(testWorkout, legDay));
+        TrainingAggregates aggregates = routine.getAggregates();
+        Assert.assertEquals(3, aggregates.getExerciseCount());
+        Assert.assertEquals(28 * 65.00 + 27 * ExerciseData.BODYWEIGHT_LOAD + 500.00, aggregates.getVolume(), DELTA);
+
+        squat.updateReps(0, 6);
+        Assert.assertEquals(28 * 65.00 + 27 * ExerciseData.BODYWEIGHT_LOAD + 600.00, aggregates.getVolume(), DELTA);
+
+        routine.removeWorkoutFromRoutine(testWorkout);
+        benchPress.updateWeight(80.00);
+        Assert.assertEquals(600.00, aggregates.getVolume(), DELTA);
+        Assert.assertEquals(6, aggregates.getCompletedReps());
+
+        routine.deleteRoutine();
+        Assert.assertEquals(0, aggregates.getExerciseCount());
+        Assert.assertEquals(0.00, aggregates.getVolume(), DELTA);
+    }
+
+    @Test
+    public void unknownWeightsContributeNoVolume() {
+        TrainingAggregates aggregates = testWorkout.getAggregates();
+        Exercise curl = new Exercise("Curl", 1, List.of(new SetReps(1, 10)), 10, Double.NaN, Mode.CABLE);
+
+        testWorkout.addExercise(curl);
+        Assert.assertEquals(28 * 65.00 + 27 * ExerciseData.BODYWEIGHT_LOAD, aggregates.getVolume(), DELTA);
+        Assert.assertEquals(65, aggregates.getCompletedReps());
+
+        testWorkout.removeExercise(curl);
+        testWorkout.removeExercise(pullups);
+        Assert.assertEquals(28 * 65.00, aggregates.getVolume(), DELTA);
+        Assert.assertEquals(28 * 65.00, new ExerciseData().cumulativeSum(benchPress), DELTA);
+    }
+
+    @Test
+    public void removingAnEqualCopyUntracksTheHeldExercise() {
+        TrainingAggregates aggregates = testWorkout.getAggregates();
+
+        testWorkout.removeExercise(copyOf(pullups));
+        Assert.assertEquals(1, aggregates.getExerciseCount());
+        Assert.assertEquals(28, aggregates.getCompletedReps());
+        pullups.updateReps(0, 1);
+        Assert.assertEquals(28, aggregates.getCompletedReps());
+
+        Exercise squat = new Exercise("Squat", 1, List.of(new SetReps(1, 5)), 5, 100.00, Mode.BARBELL);
+        testWorkout.editExercise(copyOf(benchPress), squat);
+        Assert.assertEquals(1, aggregates.getExerciseCount());
+        Assert.assertEquals(500.00, aggregates.getVolume(), DELTA);
+        benchPress.updateWeight(80.00);
+        Assert.assertEquals(500.00, aggregates.getVolume(), DELTA);
+    }
+
+    @Test
+    public void removingEqualCopiesInABatchUntracksTheHeldExercises() {
+        Exercise squat = new Exercise("Squat", 1, List.of(new SetReps(1, 5)), 5, 100.00, Mode.BARBELL);
+        testWorkout.addExercise(squat);
+        TrainingAggregates aggregates = testWorkout.getAggregates();
+
+        testWorkout.removeExercises(List.of(copyOf(benchPress), copyOf(pullups)));
+        Assert.assertEquals(1, aggregates.getExerciseCount());
+        Assert.assertEquals(500.00, aggregates.getVolume(), DELTA);
+        benchPress.updateWeight(80.00);
+        Assert.assertEquals(500.00, aggregates.getVolume(), DELTA);
+    }
+
+    @Test
+    public void removingAnEqualWorkoutCopyDetachesTheHeldWorkout() {
+        Routine routine = new Routine("Test Routine");
+        Workout legDay = new Workout("Leg Day");
+        legDay.setEventListener(event -> { });
+        legDay.addExercise(new Exercise("Squat", 1, List.of(new SetReps(1, 5)), 5, 100.00, Mode.BARBELL));
+        Workout armDay = new Workout("Arm Day");
+        armDay.setEventListener(event -> { });
+        armDay.addExercise(new Exercise("Curl", 1, List.of(new SetReps(1, 10)), 10, 20.00, Mode.DUMBBELL));
+        routine.addWorkouts(List.of(testWorkout, legDay, armDay));
+        TrainingAggregates aggregates = routine.getAggregates();
+
+        routine.removeWorkoutFromRoutine(copyOf(testWorkout));
+        Assert.assertEquals(2, aggregates.getExerciseCount());
+        benchPress.updateWeight(80.00);
+        Assert.assertEquals(700.00, aggregates.getVolume(), DELTA);
+
+        routine.removeWorkouts(List.of(copyOf(armDay)));
+        Assert.assertEquals(1, aggregates.getExerciseCount());
+        Assert.assertEquals(500.00, aggregates.getVolume(), DELTA);
+    }
+
+    // Private helper methods.
+
+    private static Exercise copyOf(IExercise exercise) {
+        return new Exercise(exercise.getName(), exercise.getSets(), exercise.getAllSetReps(), exercise.getTargetReps(),
+                exercise.getWeight(), exercise.getMode());
+    }
+
+    private static Workout copyOf(Workout workout) {
+        Workout copy = new Workout(workout.getWorkoutName());
+        copy.setEventListener(event -> { });
+        for (IExercise exercise : workout.getExerciseList()) {
+            copy.addExercise(copyOf(exercise));
+        }
+        return copy;
+    }
+}
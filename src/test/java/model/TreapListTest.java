@@ -0,0 +1,91 @@
+package model;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+
+public class TreapListTest {
+
+    @Test
+    public void behavesLikeArrayListUnderRandomOperations() {
+        TreapList<Integer> treap = new TreapList<>();
+        List<Integer> expected = new ArrayList<>();
+        Random random = new Random(7);
+
+        for (int i = 0; i < 20_000; i++) {
+            int operation = random.nextInt(5);
+            if (expected.isEmpty() || operation <= 1) {
+                int index = random.nextInt(expected.size() + 1);
+                treap.add(index, i);
+                expected.add(index, i);
+            } else if (operation == 2) {
+                int index = random.nextInt(expected.size());
+                Assert.assertEquals(expected.remove(index), treap.remove(index));
+            } else if (operation == 3) {
+                int from = random.nextInt(expected.size());
+                int to = random.nextInt(expected.size());
+                treap.move(from, to);
+                expected.add(to, expected.remove(from));
+            } else {
+                int index = random.nextInt(expected.size());
+                Assert.assertEquals(expected.set(index, -i), treap.set(index, -i));
+            }
+        }
+
+        Assert.assertEquals(expected, treap);
+        Assert.assertEquals(expected.hashCode(), treap.hashCode());
+    }
+
+    @Test
+    public void permuteAppliesWholeOrder() {
+        TreapList<String> treap = new TreapList<>(List.of("a", "b", "c", "d"));
+
+        treap.permute(new int[] {3, 0, 2, 1});
+
+        Assert.assertEquals(List.of("d", "a", "c", "b"), treap);
+        Assert.assertThrows(IllegalArgumentException.class, () -> treap.permute(new int[] {0, 0, 1, 2}));
+        Assert.assertThrows(IllegalArgumentException.class, () -> treap.permute(new int[] {0, 1, 2}));
+        Assert.assertEquals(List.of("d", "a", "c", "b"), treap);
+    }
+
+    @Test
+    public void iteratorRemoveAndBulkRemoval() {
+        TreapList<Integer> treap = new TreapList<>();
+        for (int i = 0; i < 100; i++) {
+            treap.add(i);
+        }
+
+        Iterator<Integer> iterator = treap.iterator();
+        while (iterator.hasNext()) {
+            if (iterator.next() % 2 == 0) {
+                iterator.remove();
+            }
+        }
+        Assert.assertEquals(50, treap.size());
+        Assert.assertEquals(Integer.valueOf(1), treap.get(0));
+
+        treap.removeAll(List.of(1, 3, 5));
+        Assert.assertEquals(Integer.valueOf(7), treap.get(0));
+        Assert.assertThrows(IndexOutOfBoundsException.class, () -> treap.get(47));
+    }
+
+    @Test
+    public void routineMovesAndReordersWorkouts() {
+        Routine routine = new Routine("Test Routine");
+        IWorkout push = new Workout("Push");
+        IWorkout pull = new Workout("Pull");
+        IWorkout legs = new Workout("Legs");
+        routine.addWorkouts(List.of(push, pull, legs));
+
+        routine.editRoutine(0, 2);
+        Assert.assertEquals(List.of(pull, legs, push), routine.getWorkouts());
+
+        routine.reorder(new int[] {2, 0, 1});
+        Assert.assertEquals(List.of(push, pull, legs), routine.getWorkouts());
+        Assert.assertThrows(IllegalArgumentException.class, () -> routine.reorder(new int[] {0, 1}));
+    }
+}
@@ -0,0 +1,170 @@
+package model;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class UndoJournalTest {
+
+    private long now;
+    private UndoJournal<String> journal;
+
+    @Before
+    public void setup() {
+        now = 1_000;
+        journal = new UndoJournal<>(3, 500, () -> now);
+    }
+
+    @Test
+    public void sizeCapEvictsOldestTombstones() {
+        journal.record("a");
+        journal.record("b");
+        journal.record("c");
+        journal.record("d");
+
+        Assert.assertEquals(List.of("b", "c", "d"), journal.snapshot());
+        Assert.assertFalse(journal.contains("a"));
+        Assert.assertEquals(1, journal.getEvictedCount());
+        Assert.assertEquals("d", journal.peekUndo());
+    }
+
+    @Test
+    public void ageCapEvictsExpiredTombstones() {
+        journal.record("a");
+        now += 300;
+        journal.record("b");
+        now += 300;
+
+        Assert.assertEquals(1, journal.compact());
+        Assert.assertEquals(List.of("b"), journal.snapshot());
+
+        now += 1_000;
+        journal.record("c");
+        Assert.assertEquals(List.of("c"), journal.snapshot());
+    }
+
+    @Test
+    public void lookupIsByEquals() {
+        String item = new String("bench");
+        journal.record(item);
+        String copy = new String("bench");
+
+        Assert.assertTrue(journal.contains(copy));
+        Assert.assertTrue(journal.restore(copy));
+        Assert.assertSame(copy, journal.peekRedo());
+        Assert.assertFalse(journal.contains(item));
+        Assert.assertFalse(journal.contains(null));
+        Assert.assertThrows(IllegalArgumentException.class, () -> journal.record(null));
+    }
+
+    @Test
+    public void itemsChangedAfterRemovalAreFoundByIdentity() {
+        List<String> item = new ArrayList<>(List.of("bench"));
+        UndoJournal<List<String>> lists = new UndoJournal<>(3, 500, () -> now);
+        lists.record(item);
+        item.add("squat"); // changes its hash code
+
+        Assert.assertTrue(lists.contains(item));
+        Assert.assertFalse(lists.contains(List.of("bench")));
+        Assert.assertTrue(lists.discard(item));
+        Assert.assertEquals(0, lists.size());
+    }
+
+    @Test
+    public void workoutsRestoreEqualCopiesOfDeletedExercises() {
+        Workout workout = new Workout("Test Workout");
+        workout.setEventListener(event -> { });
+        IExercise bench = new Exercise("Bench Press", 3, new ArrayList<>(), 10, 65.00, Mode.DUMBBELL);
+        IExercise squat = new Exercise("Squat", 3, new ArrayList<>(), 12, 185.00, Mode.BARBELL);
+        workout.addExercises(List.of(bench, squat));
+
+        workout.removeExercise(squat);
+        IExercise squatCopy = new Exercise("Squat", 3, new ArrayList<>(), 12, 185.00, Mode.BARBELL);
+        workout.restoreExercise(squatCopy);
+        Assert.assertTrue(workout.getDeletedExercises().isEmpty());
+        Assert.assertSame(squatCopy, workout.getExerciseList().get(1));
+
+        workout.removeExercise(squatCopy);
+        workout.addExercise(new Exercise("Squat", 3, new ArrayList<>(), 12, 185.00, Mode.BARBELL));
+        Assert.assertTrue(workout.getDeletedExercises().isEmpty());
+        Assert.assertEquals(List.of(bench, squat), workout.getExerciseList());
+    }
+
+    @Test
+    public void concurrentWorkoutsAndRoutinesBoundTheirDeletedItems() {
+        ConcurrentWorkout workout = new ConcurrentWorkout("Test Workout");
+        workout.setEventListener(event -> { });
+        IExercise bench = new Exercise("Bench Press", 3, new ArrayList<>(), 10, 65.00, Mode.DUMBBELL);
+        workout.addExercise(bench);
+        for (int i = 0; i < UndoJournal.DEFAULT_CAPACITY + 10; i++) {
+            IExercise exercise = new Exercise("Curl " + i, 3, new ArrayList<>(), 10, 20.00, Mode.CABLE);
+            workout.addExercise(exercise);
+            workout.removeExercise(new Exercise("Curl " + i, 3, new ArrayList<>(), 10, 20.00, Mode.CABLE));
+        }
+        Assert.assertEquals(UndoJournal.DEFAULT_CAPACITY, workout.getDeletedExercises().size());
+        Assert.assertEquals(10, workout.getUndoJournal().getEvictedCount());
+        workout.restoreExercise(new Exercise("Curl 20", 3, new ArrayList<>(), 10, 20.00, Mode.CABLE));
+        Assert.assertEquals(2, workout.getExerciseList().size());
+
+        ConcurrentRoutine routine = new ConcurrentRoutine("Test Routine");
+        IWorkout push = new Workout("Push");
+        routine.addWorkouts(List.of(push, new Workout("Pull")));
+        routine.removeWorkoutFromRoutine(push);
+        Assert.assertEquals(List.of(push), routine.getDeletedWorkoutsInRoutine());
+        routine.addWorkoutToRoutine(push);
+        Assert.assertTrue(routine.getDeletedWorkoutsInRoutine().isEmpty());
+    }
+
+    @Test
+    public void restoreCanBeRedoneUntilANewRemoval() {
+        journal.record("a");
+        journal.record("b");
+        Assert.assertTrue(journal.restore("b"));
+        Assert.assertTrue(journal.restore("a"));
+
+        Assert.assertEquals("a", journal.redo());
+        Assert.assertEquals("b", journal.peekRedo());
+        Assert.assertEquals(List.of("a"), journal.snapshot());
+
+        journal.record("c");
+        Assert.assertNull(journal.peekRedo());
+        Assert.assertThrows(IllegalStateException.class, () -> journal.redo());
+    }
+
+    @Test
+    public void workoutUndoAndRedoRemovals() {
+        Workout workout = new Workout("Test Workout");
+        workout.setEventListener(event -> { });
+        IExercise bench = new Exercise("Bench Press", 3, new ArrayList<>(), 10, 65.00, Mode.DUMBBELL);
+        IExercise squat = new Exercise("Squat", 3, new ArrayList<>(), 12, 185.00, Mode.BARBELL);
+        workout.addExercises(List.of(bench, squat));
+
+        workout.removeExercise(squat);
+        Assert.assertSame(squat, workout.undoRemoval());
+        Assert.assertEquals(List.of(bench, squat), workout.getExerciseList());
+
+        Assert.assertSame(squat, workout.redoRemoval());
+        Assert.assertEquals(List.of(bench), workout.getExerciseList());
+        Assert.assertEquals(List.of(squat), workout.getDeletedExercises());
+        Assert.assertThrows(IllegalStateException.class, workout::redoRemoval);
+    }
+
+    @Test
+    public void routineUndoAndRedoRemovals() {
+        Routine routine = new Routine("Test Routine");
+        IWorkout push = new Workout("Push");
+        IWorkout pull = new Workout("Pull");
+        routine.addWorkouts(List.of(push, pull));
+
+        routine.removeWorkoutFromRoutine(push);
+        Assert.assertSame(push, routine.undoRemoval());
+        Assert.assertEquals(List.of(pull, push), routine.getWorkouts());
+
+        Assert.assertSame(push, routine.redoRemoval());
+        Assert.assertEquals(List.of(pull), routine.getWorkouts());
+        Assert.assertEquals(List.of(push), routine.getDeletedWorkoutsInRoutine());
+    }
+}
@@ -444,4 +444,70 @@ public class WorkoutTest {
         Assert.assertNotEquals(testWorkout, null);
         Assert.assertNotEquals(testWorkout, new Object());
     }
+
+    @Test
+    public void addExercisesAddsAndRestoresInOneEvent() {
+        IExercise squat = testWorkout.getExerciseList().get(1);
+        IExercise deadlift = new Exercise("Deadlift", 3, new ArrayList<>(), 10, 225.00, Mode.BARBELL);
+        testWorkout.removeExercise(squat);
+
+        List<ModelEvent> events = new ArrayList<>();
+        testWorkout.setEventListener(events::add);
+        testWorkout.addExercises(List.of(deadlift, squat));
+
+        Assert.assertEquals(4, testWorkout.getExerciseList().size());
+        Assert.assertEquals(List.of(deadlift, squat), testWorkout.getExerciseList().subList(2, 4));
+        Assert.assertTrue(testWorkout.getDeletedExercises().isEmpty());
+        Assert.assertEquals(1, events.size());
+        Assert.assertEquals(ModelEventType.EXERCISES_ADDED, events.get(0).getType());
+        Assert.assertEquals("2 exercises added to workout \"Test Workout\".", events.get(0).describe());
+    }
+
+    @Test
+    public void addExercisesRejectsWholeBatchOnDuplicate() {
+        IExercise deadlift = new Exercise("Deadlift", 3, new ArrayList<>(), 10, 225.00, Mode.BARBELL);
+        IExercise bench = testWorkout.getExerciseList().get(0);
+
+        Assert.assertThrows(IllegalStateException.class, () -> testWorkout.addExercises(List.of(deadlift, bench)));
+        Assert.assertThrows(IllegalStateException.class, () -> testWorkout.addExercises(List.of(deadlift, deadlift)));
+        Assert.assertThrows(IllegalArgumentException.class, () -> testWorkout.addExercises(null));
+        Assert.assertEquals(3, testWorkout.getExerciseList().size());
+    }
+
+    @Test
+    public void removeExercisesIsAtomic() {
+        List<IExercise> all = new ArrayList<>(testWorkout.getExerciseList());
+
+        Assert.assertThrows(IllegalStateException.class, () -> testWorkout.removeExercises(all));
+        Assert.assertEquals(all, testWorkout.getExerciseList());
+
+        testWorkout.removeExercises(all.subList(0, 2));
+
+        Assert.assertEquals(List.of(all.get(2)), testWorkout.getExerciseList());
+        Assert.assertEquals(all.subList(0, 2), testWorkout.getDeletedExercises());
+        Assert.assertThrows(IllegalArgumentException.class, () -> testWorkout.removeExercises(List.of(all.get(0))));
+    }
+
+    @Test
+    public void removingAnEqualCopyJournalsTheHeldExercise() {
+        testWorkout.setEventListener(event -> { });
+        IExercise bench = testWorkout.getExerciseList().get(0);
+        IExercise squat = testWorkout.getExerciseList().get(1);
+
+        testWorkout.removeExercise(copyOf(bench));
+        Assert.assertSame(bench, testWorkout.getDeletedExercises().get(0));
+        testWorkout.restoreExercise(bench);
+        Assert.assertTrue(testWorkout.getExerciseList().contains(bench));
+
+        testWorkout.removeExercises(List.of(copyOf(squat)));
+        Assert.assertSame(squat, testWorkout.getDeletedExercises().get(0));
+        Assert.assertSame(squat, testWorkout.undoRemoval());
+    }
+
+    // Private helper methods.
+
+    private static Exercise copyOf(IExercise exercise) {
+        return new Exercise(exercise.getName(), exercise.getSets(), exercise.getAllSetReps(), exercise.getTargetReps(),
+                exercise.getWeight(), exercise.getMode());
+    }
 }
@@ -0,0 +1,149 @@
+package persistence;
+
+import model.IExercise;
+import model.IRoutine;
+import model.IWorkout;
+import model.Mode;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+
+public class CsvImporterTest {
+
+    private List<IRoutine> routines;
+
+    @Before
+    public void setup() {
+        routines = new ArrayList<>();
+    }
+
+    @Test
+    public void importsRowsIntoRoutinesAndWorkouts() throws IOException {
+        String csv = "routine,workout,exercise,sets,targetReps,weight,mode,reps\n"
+                + "PPL,Push,Bench Press,3,10,65.5,dumbbell,10;10;8\n"
+                + "PPL,Push,Shoulder Press,3,10,40,DUMBBELL,\n"
+                + "PPL,Pull,Pull-ups,2,12,0,Bodyweight,12;10\r\n"
+                + "Upper Lower,Upper,Row,3,8,100,BARBELL,8;8;8\n";
+
+        ImportReport report = CsvImporter.csv().importFrom(new StringReader(csv), routines::add);
+
+        Assert.assertEquals(4, report.getRowsRead());
+        Assert.assertEquals(4, report.getRowsImported());
+        Assert.assertEquals(0, report.getRowsRejected());
+        Assert.assertEquals(2, report.getRoutines());
+        Assert.assertEquals(3, report.getWorkouts());
+
+        IRoutine ppl = routines.get(0);
+        Assert.assertEquals("PPL", ppl.getRoutineName());
+        IWorkout push = ppl.getWorkouts().get(0);
+        Assert.assertEquals("Push", push.getWorkoutName());
+        IExercise bench = push.getExerciseList().get(0);
+        Assert.assertEquals("Bench Press", bench.getName());
+        Assert.assertEquals(Mode.DUMBBELL, bench.getMode());
+        Assert.assertEquals(65.5, bench.getWeight(), 0.0);
+        Assert.assertEquals(8, bench.getRepsForSpecificSet(2));
+        Assert.assertEquals(0, push.getExerciseList().get(1).getRepsForSpecificSet(0));
+        Assert.assertEquals(Mode.BODYWEIGHT, ppl.getWorkouts().get(1).getExerciseList().get(0).getMode());
+        Assert.assertEquals("Upper Lower", routines.get(1).getRoutineName());
+    }
+
+    @Test
+    public void rejectedRowsAreReportedWithoutAbortingImport() throws IOException {
+        String csv = "routine,workout,exercise,sets,targetReps,weight,mode,reps\n"
+                + "PPL,Push,Bench Press,3,10,65,DUMBBELL,10;10;8\n"
+                + "PPL,Push,Bench Press,3,10,65,DUMBBELL,10;10;8\n"   // duplicate
+                + "PPL,Push,Fly,3,10,20,KETTLEBELL,\n"                // unknown mode
+                + "PPL,Push,Dips,3,10,-5,BODYWEIGHT,\n"               // negative weight
+                + "PPL,Push,Press,3,10,40,CABLE,10;10\n"              // reps do not match sets
+                + "PPL,Push,Curl,three,10,20,CABLE,\n"                // not a number
+                + "PPL,Push\n"                                        // too few fields
+                + "\n"
+                + "PPL,Push,Triceps,3,10,20,CABLE,\n";
+
+        ImportReport report = CsvImporter.csv().importFrom(new StringReader(csv), routines::add);
+
+        Assert.assertEquals(8, report.getRowsRead());
+        Assert.assertEquals(2, report.getRowsImported());
+        Assert.assertEquals(6, report.getRowsRejected());
+        Assert.assertEquals(6, report.getRejectionSamples().size());
+        Assert.assertTrue(report.getRejectionSamples().stream().anyMatch(sample -> sample.startsWith("Line 3: Cannot add duplicate")));
+        Assert.assertEquals(2, routines.get(0).getWorkouts().get(0).getExerciseList().size());
+    }
+
+    @Test
+    public void quotedFieldsAndTabsAreSupported() throws IOException {
+        String csv = "\"Full, Body\",\"Day \"\"A\"\"\",Squat,1,5,100,barbell,5\n";
+        new CsvImporter(',', false, 2).importFrom(new StringReader(csv), routines::add);
+        Assert.assertEquals("Full, Body", routines.get(0).getRoutineName());
+        Assert.assertEquals("Day \"A\"", routines.get(0).getWorkouts().get(0).getWorkoutName());
+
+        routines.clear();
+        String tsv = "routine\tworkout\texercise\tsets\ttargetReps\tweight\tmode\treps\n"
+                + "R\tW\tSquat, paused\t1\t5\t100\tBARBELL\t5";
+        CsvImporter.tsv().importFrom(new StringReader(tsv), routines::add);
+        Assert.assertEquals("Squat, paused", routines.get(0).getWorkouts().get(0).getExerciseList().get(0).getName());
+    }
+
+    @Test
+    public void batchesSpanningManyRowsKeepEveryExercise() throws IOException {
+        StringBuilder csv = new StringBuilder("routine,workout,exercise,sets,targetReps,weight,mode,reps\n");
+        for (int i = 0; i < 1000; i++) {
+            csv.append("R,W").append(i % 3).append(",Exercise ").append(i).append(",2,10,20,CABLE,10;9\n");
+        }
+
+        ImportReport report = new CsvImporter(',', true, 7).importFrom(new StringReader(csv.toString()), routines::add);
+
+        Assert.assertEquals(1000, report.getRowsImported());
+        Assert.assertEquals(1, routines.size());
+        Assert.assertEquals(3, routines.get(0).getWorkouts().size());
+        Assert.assertEquals(334, routines.get(0).getWorkouts().get(0).getExerciseList().size());
+        Assert.assertTrue(report.getRowsPerSecond() > 0);
+    }
+
+    @Test
+    public void overlongRowsAreCutOffAndRejected() throws IOException {
+        StringBuilder csv = new StringBuilder("R,W,\"Squat");  // the quote is never closed
+        for (int i = 0; i < CsvImporter.MAX_ROW_LENGTH; i++) {
+            csv.append(i % 64 == 63 ? '\n' : 'x');
+        }
+        csv.append("\nR,W,Bench,1,5,60,BARBELL,5\n");
+
+        ImportReport report = new CsvImporter(',', false, 10).importFrom(new StringReader(csv.toString()), routines::add);
+
+        Assert.assertEquals(2, report.getRowsRead());
+        Assert.assertEquals(1, report.getRowsRejected());
+        Assert.assertTrue(report.getRejectionSamples().get(0).contains("longer than " + CsvImporter.MAX_ROW_LENGTH));
+        Assert.assertEquals("Bench", routines.get(0).getWorkouts().get(0).getExerciseList().get(0).getName());
+    }
+
+    @Test
+    public void weightsParseLikeParseDouble() throws IOException {
+        String[] weights = {"0", "65.55", " 40.125 ", "+7.", ".5", "0.1", "100.00", "123456789.123456", "0.30000000000000004",
+                "1e2", "2.5E-3", "NaN", "00012.50"};
+        StringBuilder csv = new StringBuilder();
+        for (int i = 0; i < weights.length; i++) {
+            csv.append("R,W,Exercise ").append(i).append(",1,5,").append(weights[i]).append(",CABLE,\n");
+        }
+        csv.append("R,W,Bad,1,5,1.2.3,CABLE,\nR,W,Empty,1,5, ,CABLE,\n");
+
+        ImportReport report = new CsvImporter(',', false, 4).importFrom(new StringReader(csv.toString()), routines::add);
+
+        Assert.assertEquals(2, report.getRowsRejected());
+        List<IExercise> exercises = routines.get(0).getWorkouts().get(0).getExerciseList();
+        for (int i = 0; i < weights.length; i++) {
+            Assert.assertEquals(weights[i], Double.parseDouble(weights[i].trim()), exercises.get(i).getWeight(), 0.0);
+        }
+    }
+
+    @Test
+    public void invalidConfigurationIsRejected() {
+        Assert.assertThrows(IllegalArgumentException.class, () -> new CsvImporter('"', true, 10));
+        Assert.assertThrows(IllegalArgumentException.class, () -> new CsvImporter(',', true, 0));
+        Assert.assertThrows(IllegalArgumentException.class, () -> CsvImporter.csv().importFrom(null, routines::add));
+    }
+}
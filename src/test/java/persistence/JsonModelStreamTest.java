@@ -0,0 +1,189 @@
+package persistence;
+
+import model.Exercise;
+import model.IRoutine;
+import model.Mode;
+import model.Routine;
+import model.SetReps;
+import model.Workout;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+public class JsonModelStreamTest {
+
+    private Routine ppl;
+    private Routine upper;
+
+    @Before
+    public void setup() {
+        List<SetReps> benchReps = new ArrayList<>();
+        benchReps.add(new SetReps(1, 10));
+        benchReps.add(new SetReps(2, 10));
+        benchReps.add(new SetReps(3, 8));
+        Workout push = new Workout("Push Day");
+        push.addExercise(new Exercise("Bench Press", 3, benchReps, 10, 65.55, Mode.DUMBBELL));
+        push.addExercise(new Exercise("Shoulder Press", 3, new ArrayList<>(), 12, 40.125, Mode.MACHINE));
+        Workout pull = new Workout("Pull Day");
+        pull.addExercise(new Exercise("Pull-ups", 3, new ArrayList<>(), 15, 0.00, Mode.BODYWEIGHT));
+
+        ppl = new Routine("PPL");
+        ppl.addWorkoutToRoutine(push);
+        ppl.addWorkoutToRoutine(pull);
+
+        Workout unicode = new Workout("Día \"A\"\n");
+        unicode.addExercise(new Exercise("Développé couché 💪 \\ \t\u0001", 2, new ArrayList<>(), 8, 42.25, Mode.CABLE));
+        upper = new Routine("Upper / Lower");
+        upper.addWorkoutToRoutine(unicode);
+    }
+
+    @Test
+    public void routinesRoundTrip() throws IOException {
+        byte[] json = write(16, ppl, upper);
+
+        List<IRoutine> routines = read(json, 16);
+
+        Assert.assertEquals(2, routines.size());
+        assertSameRoutine(ppl, routines.get(0));
+        assertSameRoutine(upper, routines.get(1));
+    }
+
+    @Test
+    public void writesTheRendererShapeWithExactWeights() throws IOException {
+        String json = new String(write(JsonModelWriter.DEFAULT_BUFFER_SIZE, ppl), StandardCharsets.UTF_8);
+
+        Assert.assertTrue(json, json.startsWith("[{\"name\":\"PPL\",\"workouts\":[{\"name\":\"Push Day\",\"exercises\":["
+                + "{\"name\":\"Bench Press\",\"sets\":3,\"targetReps\":10,\"weight\":65.55,\"mode\":\"DUMBBELL\","
+                + "\"reps\":[{\"set\":1,\"reps\":10},{\"set\":2,\"reps\":10},{\"set\":3,\"reps\":8}]}"));
+        Assert.assertTrue(json, json.contains("\"weight\":40.125,\"mode\":\"MACHINE\""));
+        Assert.assertTrue(json, json.endsWith("]}]}]"));
+    }
+
+    @Test
+    public void writesTokenByToken() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (JsonModelWriter writer = new JsonModelWriter(Channels.newChannel(out))) {
+            writer.beginRoutine("Streamed");
+            for (int i = 0; i < 100; i++) {
+                writer.beginWorkout("Session " + i);
+                writer.writeExercise(new Exercise("Squat", new int[] {1, 2}, new int[] {5, i}, 5, 100 + i, Mode.BARBELL));
+                writer.endWorkout();
+            }
+            Assert.assertThrows(IllegalStateException.class, () -> writer.writeExercise(null));
+            // close ends the open routine.
+        }
+
+        List<String> events = new ArrayList<>();
+        new JsonModelReader(Channels.newChannel(new ByteArrayInputStream(out.toByteArray())), 32).read(new IModelVisitor() {
+            @Override
+            public void beginRoutine(String name) {
+                events.add("routine " + name);
+            }
+
+            @Override
+            public void beginWorkout(String name) {
+                events.add("workout " + name);
+            }
+
+            @Override
+            public void visitExercise(Exercise exercise) {
+                events.add("exercise " + exercise.getRepsForSpecificSet(1) + " " + exercise.getWeight());
+            }
+
+            @Override
+            public void endWorkout() {
+                events.add("end workout");
+            }
+
+            @Override
+            public void endRoutine() {
+                events.add("end routine");
+            }
+        });
+
+        Assert.assertEquals(1 + 3 * 100 + 1, events.size());
+        Assert.assertEquals("routine Streamed", events.get(0));
+        Assert.assertEquals("workout Session 99", events.get(events.size() - 4));
+        Assert.assertEquals("exercise 99 199.0", events.get(events.size() - 3));
+        Assert.assertEquals("end routine", events.get(events.size() - 1));
+    }
+
+    @Test
+    public void emptyExportIsAnEmptyArray() throws IOException {
+        byte[] json = write(JsonModelWriter.DEFAULT_BUFFER_SIZE);
+
+        Assert.assertEquals("[]", new String(json, StandardCharsets.UTF_8));
+        Assert.assertTrue(read(json, 16).isEmpty());
+    }
+
+    @Test
+    public void readsHandWrittenJson() throws IOException {
+        String json = " {\"name\" : \"Legs\", \"notes\": {\"a\": [1, 2.5e3, true, null, \"}\"]},\n"
+                + "  \"workouts\": [ {\"name\": \"Leg Day\", \"exercises\": [\n"
+                + "    {\"reps\": [{\"reps\": 5}, {\"set\": 2, \"reps\": 6}], \"mode\": \"BARBELL\", \"name\": \"Squat\\u0021\", \"weight\": 1.5E2}\n"
+                + "  ]} ]\n} ";
+
+        List<IRoutine> routines = read(json.getBytes(StandardCharsets.UTF_8), 16);
+
+        Assert.assertEquals(1, routines.size());
+        Exercise squat = (Exercise) routines.get(0).getWorkouts().get(0).getExerciseList().get(0);
+        Assert.assertEquals("Squat!", squat.getName());
+        Assert.assertEquals(2, squat.getSets());
+        Assert.assertEquals(1, squat.getSetNumberAt(0));
+        Assert.assertEquals(6, squat.getRepsAt(1));
+        Assert.assertEquals(150.0, squat.getWeight(), 0.0);
+        Assert.assertEquals(Mode.BARBELL, squat.getMode());
+    }
+
+    @Test
+    public void rejectsMalformedInput() {
+        Assert.assertThrows(IllegalArgumentException.class, () -> read(bytes("[{\"name\":\"R\",\"workouts\":["), 16));
+        Assert.assertThrows(IllegalArgumentException.class, () -> read(bytes("[{\"workouts\":[],\"name\":\"R\"}]"), 16));
+        Assert.assertThrows(IllegalArgumentException.class, () -> read(bytes("[{\"name\":\"R\"}] x"), 16));
+        Assert.assertThrows(IllegalArgumentException.class, () -> read(bytes("[{\"name\":\"R\",\"workouts\":[{\"name\":\"W\","
+                + "\"exercises\":[{\"name\":\"E\",\"mode\":\"KETTLEBELL\"}]}]}]"), 16));
+        Assert.assertThrows(IllegalArgumentException.class, () -> read(bytes("[{\"name\":\"R\",\"workouts\":[{\"name\":\"W\","
+                + "\"exercises\":[{\"name\":\"E\",\"sets\":1.5}]}]}]"), 16));
+        Assert.assertThrows(IllegalArgumentException.class,
+                () -> read(new byte[] {'[', '{', '"', 'n', 'a', 'm', 'e', '"', ':', '"', (byte) 0xC3, '"', '}', ']'}, 16));
+    }
+
+    // Private helper methods.
+
+    private static byte[] write(int bufferSize, IRoutine... routines) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (JsonModelWriter writer = new JsonModelWriter(Channels.newChannel(out), bufferSize)) {
+            for (IRoutine routine : routines) {
+                writer.writeRoutine(routine);
+            }
+        }
+        return out.toByteArray();
+    }
+
+    private static List<IRoutine> read(byte[] json, int bufferSize) throws IOException {
+        List<IRoutine> routines = new ArrayList<>();
+        new JsonModelReader(Channels.newChannel(new ByteArrayInputStream(json)), bufferSize).readRoutines(routines::add);
+        return routines;
+    }
+
+    private static byte[] bytes(String json) {
+        return json.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static void assertSameRoutine(IRoutine expected, IRoutine actual) {
+        Assert.assertEquals(expected.getRoutineName(), actual.getRoutineName());
+        Assert.assertEquals(expected.getWorkouts().size(), actual.getWorkouts().size());
+        for (int w = 0; w < expected.getWorkouts().size(); w++) {
+            Assert.assertEquals(expected.getWorkouts().get(w).getWorkoutName(), actual.getWorkouts().get(w).getWorkoutName());
+            Assert.assertEquals(expected.getWorkouts().get(w).getExerciseList(), actual.getWorkouts().get(w).getExerciseList());
+        }
+    }
+}
@@ -0,0 +1,192 @@
+package persistence;
+
+import model.Exercise;
+import model.IExercise;
+import model.Mode;
+import model.Routine;
+import model.SetReps;
+import model.Workout;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+public class ModelCodecTest {
+
+    private ModelCodec codec;
+    private Exercise benchPress;
+    private Exercise squat;
+    private Exercise pullups;
+
+    @Before
+    public void setup() {
+        codec = new ModelCodec(event -> { });
+
+        List<SetReps> benchReps = new ArrayList<>();
+        benchReps.add(new SetReps(1, 10));
+        benchReps.add(new SetReps(2, 10));
+        benchReps.add(new SetReps(3, 8));
+        benchPress = new Exercise("Bench Press", 3, benchReps, 10, 65.50, Mode.DUMBBELL);
+        squat = new Exercise("Squat", 3, new ArrayList<>(), 12, 185.00, Mode.BARBELL);
+        pullups = new Exercise("Pull-ups", 3, new ArrayList<>(), 15, 0.00, Mode.BODYWEIGHT);
+    }
+
+    @Test
+    public void exerciseRoundTripsThroughHeapBuffer() {
+        ByteBuffer buffer = ByteBuffer.allocate(codec.encodedSize(benchPress));
+        codec.encodeExercise(benchPress, buffer);
+
+        Assert.assertFalse("encodedSize should match the bytes written", buffer.hasRemaining());
+        buffer.flip();
+        Assert.assertEquals(benchPress, codec.decodeExercise(buffer));
+    }
+
+    @Test
+    public void exerciseRoundTripsThroughDirectBuffer() {
+        Exercise unicode = new Exercise("Développé couché 💪", 2, new ArrayList<>(), 8, 42.25, Mode.CABLE);
+        ByteBuffer buffer = ByteBuffer.allocateDirect(codec.encodedSize(unicode));
+        codec.encodeExercise(unicode, buffer);
+        buffer.flip();
+
+        Assert.assertEquals(unicode, codec.decodeExercise(buffer));
+    }
+
+    @Test
+    public void exerciseEncodingIsCompact() {
+        // header (2) + name (1 + 11) + sets, target reps (1 + 1) + weight (8) + mode (1) + count (1) + 3 sets (3 x 2)
+        Assert.assertEquals(32, codec.encodedSize(benchPress));
+    }
+
+    @Test
+    public void exerciseKeepsSetsAfterUpdateSets() {
+        squat.updateSets(5);
+        ByteBuffer buffer = ByteBuffer.allocate(codec.encodedSize(squat));
+        codec.encodeExercise(squat, buffer);
+        buffer.flip();
+
+        Exercise decoded = codec.decodeExercise(buffer);
+        Assert.assertEquals(5, decoded.getSets());
+        Assert.assertEquals(3, decoded.getRecordedSetCount());
+    }
+
+    @Test
+    public void workoutRoundTripsWithDeletedExercises() {
+        Workout workout = new Workout("Push Day");
+        workout.setEventListener(event -> { });
+        workout.addExercise(benchPress);
+        workout.addExercise(squat);
+        workout.addExercise(pullups);
+        workout.removeExercise(squat);
+
+        ByteBuffer buffer = ByteBuffer.allocate(codec.encodedSize(workout));
+        codec.encodeWorkout(workout, buffer);
+        buffer.flip();
+
+        Workout decoded = codec.decodeWorkout(buffer);
+        Assert.assertEquals(workout, decoded);
+        Assert.assertEquals(List.<IExercise>of(squat), decoded.getDeletedExercises());
+    }
+
+    @Test
+    public void workoutRoundTripsWithADeletedExerciseEqualToACurrentOne() {
+        Workout workout = new Workout("W");
+        workout.setEventListener(event -> { });
+        workout.addExercise(benchPress);
+        workout.addExercise(squat);
+        workout.addExercise(pullups);
+        workout.removeExercise(squat);
+        workout.editExercise(benchPress, new Exercise("Squat", 3, new ArrayList<>(), 12, 185.00, Mode.BARBELL));
+
+        ByteBuffer buffer = ByteBuffer.allocate(codec.encodedSize(workout));
+        codec.encodeWorkout(workout, buffer);
+        buffer.flip();
+
+        Workout decoded = codec.decodeWorkout(buffer);
+        Assert.assertEquals(workout, decoded);
+        Assert.assertEquals(List.<IExercise>of(squat), decoded.getDeletedExercises());
+        Assert.assertEquals(squat, decoded.getExerciseList().get(0));
+    }
+
+    @Test
+    public void routineRoundTripsWithDeletedWorkouts() {
+        Workout push = new Workout("Push Day");
+        push.setEventListener(event -> { });
+        push.addExercise(benchPress);
+        Workout legs = new Workout("Leg Day");
+        legs.setEventListener(event -> { });
+        legs.addExercise(squat);
+        Workout pull = new Workout("Pull Day");
+        pull.setEventListener(event -> { });
+        pull.addExercise(pullups);
+
+        Routine routine = new Routine("PPL");
+        routine.addWorkoutToRoutine(push);
+        routine.addWorkoutToRoutine(legs);
+        routine.addWorkoutToRoutine(pull);
+        routine.removeWorkoutFromRoutine(legs);
+
+        ByteBuffer buffer = ByteBuffer.allocateDirect(codec.encodedSize(routine));
+        codec.encodeRoutine(routine, buffer);
+        buffer.flip();
+
+        Routine decoded = codec.decodeRoutine(buffer);
+        Assert.assertEquals(routine, decoded);
+        Assert.assertEquals(1, decoded.getDeletedWorkoutsInRoutine().size());
+        Assert.assertEquals("Leg Day", decoded.getDeletedWorkoutsInRoutine().get(0).getWorkoutName());
+    }
+
+    @Test
+    public void deletedRoutineRoundTripsWithOnlyDeletedWorkouts() {
+        Workout push = new Workout("Push Day");
+        push.setEventListener(event -> { });
+        push.addExercise(benchPress);
+        Workout legs = new Workout("Leg Day");
+        legs.setEventListener(event -> { });
+        legs.addExercise(squat);
+
+        Routine routine = new Routine("PPL");
+        routine.addWorkoutToRoutine(push);
+        routine.addWorkoutToRoutine(legs);
+        routine.removeWorkoutFromRoutine(push);
+        routine.deleteRoutine();
+
+        ByteBuffer buffer = ByteBuffer.allocate(codec.encodedSize(routine));
+        codec.encodeRoutine(routine, buffer);
+        buffer.flip();
+
+        Routine decoded = codec.decodeRoutine(buffer);
+        Assert.assertTrue(decoded.getWorkouts().isEmpty());
+        Assert.assertEquals(1, decoded.getDeletedWorkoutsInRoutine().size());
+        Assert.assertEquals("Push Day", decoded.getDeletedWorkoutsInRoutine().get(0).getWorkoutName());
+        decoded.undoRemoval();
+        Assert.assertEquals(1, decoded.getWorkouts().size());
+    }
+
+    @Test
+    public void decodingRejectsWrongVersionOrType() {
+        ByteBuffer buffer = ByteBuffer.allocate(codec.encodedSize(benchPress));
+        codec.encodeExercise(benchPress, buffer);
+        buffer.flip();
+
+        Assert.assertThrows(IllegalArgumentException.class, () -> codec.decodeWorkout(buffer.duplicate()));
+
+        buffer.put(0, (byte) 99);
+        Assert.assertThrows(IllegalArgumentException.class, () -> codec.decodeExercise(buffer));
+    }
+
+    @Test
+    public void varIntsRoundTripAcrossRange() {
+        int[] values = {0, 1, -1, 63, -64, 64, 300, Integer.MAX_VALUE, Integer.MIN_VALUE};
+        ByteBuffer buffer = ByteBuffer.allocate(64);
+        for (int value : values) {
+            ModelCodec.writeVarInt(buffer, value);
+        }
+        buffer.flip();
+        for (int value : values) {
+            Assert.assertEquals(value, ModelCodec.readVarInt(buffer));
+        }
+    }
+}
@@ -0,0 +1,140 @@
+package persistence;
+
+import model.Exercise;
+import model.Mode;
+import model.Workout;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+public class SessionLogTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private Path directory;
+
+    @Before
+    public void setup() throws IOException {
+        directory = folder.newFolder("sessions").toPath();
+    }
+
+    private Workout session(int number) {
+        Workout workout = new Workout("Session " + number);
+        workout.setEventListener(event -> { });
+        Exercise squat = new Exercise("Squat", 3, new ArrayList<>(), 5, 100.0 + number, Mode.BARBELL);
+        squat.updateReps(0, 5);
+        workout.addExercise(squat);
+        return workout;
+    }
+
+    @Test
+    public void appendAssignsIncreasingIdsAndReadsBack() throws IOException {
+        try (SessionLog log = new SessionLog(directory, 4096, 4)) {
+            for (int i = 1; i <= 20; i++) {
+                Assert.assertEquals(i, log.append(session(i)));
+            }
+
+            Assert.assertEquals(20, log.size());
+            Assert.assertEquals(session(1), log.read(1));
+            Assert.assertEquals(session(7), log.read(7));
+            Assert.assertEquals(session(20), log.read(20));
+            Assert.assertThrows(IllegalArgumentException.class, () -> log.read(21));
+            Assert.assertThrows(IllegalArgumentException.class, () -> log.read(0));
+        }
+    }
+
+    @Test
+    public void appendRollsOverToNewSegments() throws IOException {
+        try (SessionLog log = new SessionLog(directory, 256, 2)) {
+            for (int i = 1; i <= 30; i++) {
+                log.append(session(i));
+            }
+
+            Assert.assertTrue(log.getSegmentCount() > 1);
+            Assert.assertEquals(session(29), log.read(29));
+        }
+    }
+
+    @Test
+    public void readFindsSessionsInLaterSegmentsThanTheirIndexEntry() throws IOException {
+        try (SessionLog log = new SessionLog(directory, 400, 64)) {
+            for (int i = 1; i <= 20; i++) {
+                log.append(session(i));
+            }
+            Assert.assertTrue(log.getSegmentCount() > 1);
+            for (int i = 1; i <= 20; i++) {
+                Assert.assertEquals(session(i), log.read(i));
+            }
+        }
+
+        try (SessionLog log = new SessionLog(directory, 400, 64)) {
+            for (int i = 1; i <= 20; i++) {
+                Assert.assertEquals(session(i), log.read(i));
+            }
+        }
+    }
+
+    @Test
+    public void replayVisitsSessionsInOrder() throws IOException {
+        try (SessionLog log = new SessionLog(directory, 256, 3)) {
+            for (int i = 1; i <= 10; i++) {
+                log.append(session(i));
+            }
+
+            List<Long> ids = new ArrayList<>();
+            List<String> names = new ArrayList<>();
+            log.replay((sessionId, recordedAt, workout) -> {
+                ids.add(sessionId);
+                names.add(workout.getWorkoutName());
+            });
+            Assert.assertEquals(10, ids.size());
+            Assert.assertEquals(Long.valueOf(1), ids.get(0));
+            Assert.assertEquals("Session 10", names.get(9));
+
+            List<Long> tail = new ArrayList<>();
+            log.replayFrom(8, (sessionId, recordedAt, workout) -> tail.add(sessionId));
+            Assert.assertEquals(List.of(8L, 9L, 10L), tail);
+        }
+    }
+
+    @Test
+    public void reopenedLogRecoversSessions() throws IOException {
+        try (SessionLog log = new SessionLog(directory, 256, 2)) {
+            for (int i = 1; i <= 12; i++) {
+                log.append(session(i));
+            }
+        }
+
+        try (SessionLog log = new SessionLog(directory, 256, 2)) {
+            Assert.assertEquals(12, log.size());
+            Assert.assertEquals(session(5), log.read(5));
+            Assert.assertEquals(13, log.append(session(13)));
+            Assert.assertEquals(session(13), log.read(13));
+        }
+    }
+
+    @Test
+    public void appendRejectsInvalidInput() throws IOException {
+        try (SessionLog log = new SessionLog(directory, 32, 2)) {
+            Assert.assertThrows(IllegalArgumentException.class, () -> log.append(null));
+            Assert.assertThrows(IllegalArgumentException.class, () -> log.append(session(1)));
+        }
+    }
+
+    @Test
+    public void closedLogRejectsOperations() throws IOException {
+        SessionLog log = new SessionLog(directory, 4096, 2);
+        log.close();
+
+        Assert.assertThrows(IllegalStateException.class, () -> log.append(session(1)));
+        Assert.assertThrows(IllegalStateException.class, () -> log.read(1));
+    }
+}
@@ -0,0 +1,214 @@
+package store;
+
+import model.Exercise;
+import model.Mode;
+import model.PersistentRoutine;
+import model.Routine;
+import model.SetReps;
+import model.Workout;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class RoutineStoreTest {
+
+    private RoutineStore store;
+
+    @Before
+    public void setup() {
+        store = new RoutineStore(8, RoutineStore::estimateSize);
+    }
+
+    @Test
+    public void putGetAndRemoveByUserAndName() {
+        Routine push = routine("Push", 1);
+        Routine legs = routine("Legs", 2);
+        Assert.assertNull(store.put(1, push));
+        store.put(1, legs);
+        store.put(2, routine("Push", 1));
+
+        Assert.assertEquals(PersistentRoutine.copyOf(push), store.get(1, "Push"));
+        Assert.assertEquals(List.of(PersistentRoutine.copyOf(push), PersistentRoutine.copyOf(legs)), store.getRoutines(1));
+        Assert.assertNull(store.get(3, "Push"));
+        Assert.assertEquals(3, store.getRoutineCount());
+
+        Routine replacement = routine("Push", 3);
+        Assert.assertSame(push, store.put(1, replacement));
+        Assert.assertEquals(3, store.getRoutineCount());
+
+        Assert.assertSame(legs, store.remove(1, "Legs"));
+        Assert.assertNull(store.remove(1, "Legs"));
+        Assert.assertEquals(1, store.removeUser(1));
+        Assert.assertTrue(store.getRoutines(1).isEmpty());
+        Assert.assertEquals(1, store.getRoutineCount());
+    }
+
+    @Test
+    public void memoryIsAccountedPerShard() {
+        Routine small = routine("Small", 1);
+        Routine large = routine("Large", 5);
+        store.put(10, small);
+        store.put(11, large);
+
+        long expected = RoutineStore.estimateSize(small) + RoutineStore.estimateSize(large);
+        Assert.assertEquals(expected, store.getEstimatedBytes());
+        long perShard = 0;
+        for (int shard = 0; shard < store.getShardCount(); shard++) {
+            perShard += store.getEstimatedBytes(shard);
+        }
+        Assert.assertEquals(expected, perShard);
+        Assert.assertEquals(2, store.getRoutineCount(store.getShardIndex(10)) + (store.getShardIndex(10) == store.getShardIndex(11) ? 0
+                : store.getRoutineCount(store.getShardIndex(11))));
+
+        // updates are measured again.
+        store.update(10, "Small", routine -> {
+            routine.addWorkoutToRoutine(workout("Extra", 4));
+            return null;
+        });
+        Assert.assertEquals(RoutineStore.estimateSize(small) + RoutineStore.estimateSize(large), store.getEstimatedBytes());
+
+        store.removeUser(10);
+        store.removeUser(11);
+        Assert.assertEquals(0, store.getEstimatedBytes());
+    }
+
+    @Test
+    public void updatesAreMeasuredLazilyOnTheirSnapshots() {
+        AtomicLong measurements = new AtomicLong();
+        RoutineStore counting = new RoutineStore(4, routine -> {
+            measurements.incrementAndGet();
+            return RoutineStore.estimateSize(routine);
+        });
+        Routine live = routine("Push", 1);
+        counting.put(1, live);
+        counting.put(2, routine("Pull", 2));
+        for (int i = 0; i < 3; i++) {
+            int extra = i;
+            counting.update(1, "Push", routine -> {
+                routine.addWorkoutToRoutine(workout("Extra " + extra, 2));
+                return null;
+            });
+        }
+        Assert.assertEquals(2, measurements.get());
+
+        Assert.assertEquals(RoutineStore.estimateSize(live) + RoutineStore.estimateSize(routine("Pull", 2)), counting.getEstimatedBytes());
+        Assert.assertEquals(3, measurements.get());
+        counting.getEstimatedBytes();
+        Assert.assertEquals(3, measurements.get());
+
+        // a routine removed before it is measured takes off the size it was last measured at.
+        counting.update(2, "Pull", routine -> {
+            routine.addWorkoutToRoutine(workout("Extra", 2));
+            return null;
+        });
+        counting.remove(2, "Pull");
+        Assert.assertEquals(RoutineStore.estimateSize(live), counting.getEstimatedBytes());
+        Assert.assertEquals(3, measurements.get());
+    }
+
+    @Test
+    public void updateFollowsRenames() {
+        store.put(5, routine("Old", 1));
+        String name = store.update(5, "Old", routine -> {
+            routine.setRoutineName("New");
+            return routine.getRoutineName();
+        });
+        Assert.assertEquals("New", name);
+        Assert.assertNull(store.get(5, "Old"));
+        Assert.assertNotNull(store.get(5, "New"));
+        Assert.assertThrows(IllegalArgumentException.class, () -> store.update(5, "Old", routine -> null));
+    }
+
+    @Test
+    public void readersGetSnapshotsThatUpdatesDoNotChange() {
+        store.put(6, routine("Push", 1));
+        PersistentRoutine before = store.get(6, "Push");
+        Assert.assertSame(before, store.get(6, "Push"));
+
+        store.update(6, "Push", routine -> {
+            routine.getWorkouts().get(0).getExerciseList().get(0).updateWeight(200.00);
+            return null;
+        });
+        PersistentRoutine after = store.get(6, "Push");
+
+        Assert.assertEquals(20.00, before.getWorkout(0).getExerciseList().get(0).getWeight(), 0.0);
+        Assert.assertEquals(200.00, after.getWorkout(0).getExerciseList().get(0).getWeight(), 0.0);
+        Assert.assertSame(after, store.getRoutines(6).get(0));
+    }
+
+    @Test
+    public void forEachVisitsEveryRoutineAcrossShards() {
+        for (long user = 0; user < 100; user++) {
+            store.put(user, routine("Routine " + user, 1));
+        }
+        Set<Long> users = new HashSet<>();
+        AtomicLong visited = new AtomicLong();
+        store.forEach((userId, routine) -> {
+            users.add(userId);
+            visited.incrementAndGet();
+            Assert.assertEquals("Routine " + userId, routine.getRoutineName());
+        });
+        Assert.assertEquals(100, users.size());
+        Assert.assertEquals(100, visited.get());
+
+        // the visitor holds no lock, so it may write to the store.
+        store.forEach((userId, routine) -> store.remove(userId, routine.getRoutineName()));
+        Assert.assertEquals(0, store.getRoutineCount());
+    }
+
+    @Test
+    public void concurrentTenantsDoNotLoseWrites() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int thread = 0; thread < 8; thread++) {
+                long base = thread * 1000L;
+                futures.add(executor.submit(() -> {
+                    for (long user = base; user < base + 500; user++) {
+                        store.put(user, routine("Routine", 1));
+                        store.update(user, "Routine", routine -> {
+                            routine.setRoutineName("Renamed");
+                            return null;
+                        });
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+        Assert.assertEquals(4000, store.getRoutineCount());
+        Assert.assertNotNull(store.get(7499, "Renamed"));
+    }
+
+    private static Routine routine(String name, int workouts) {
+        Routine routine = new Routine(name);
+        for (int i = 0; i < workouts; i++) {
+            routine.addWorkoutToRoutine(workout(name + " Workout " + i, 3));
+        }
+        return routine;
+    }
+
+    private static Workout workout(String name, int exercises) {
+        Workout workout = new Workout(name);
+        workout.setEventListener(event -> { });
+        for (int i = 0; i < exercises; i++) {
+            List<SetReps> reps = new ArrayList<>();
+            reps.add(new SetReps(1, 10));
+            reps.add(new SetReps(2, 8));
+            workout.addExercise(new Exercise("Exercise " + i, 2, reps, 10, 20.00, Mode.DUMBBELL));
+        }
+        return workout;
+    }
+}
@@ -0,0 +1,59 @@
+package view;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.text.DecimalFormat;
+import java.text.DecimalFormatSymbols;
+import java.util.Locale;
+import java.util.Random;
+
+public class FixedPointFormatterTest {
+
+    @Test
+    public void matchesDecimalFormatOnTiesAndEdgeCases() {
+        FixedPointFormatter formatter = new FixedPointFormatter(Locale.US);
+        DecimalFormat decimalFormat = new DecimalFormat("0.00", DecimalFormatSymbols.getInstance(Locale.US));
+
+        double[] values = {0.0, -0.0, 0.005, 0.015, 0.125, 0.375, 1.005, 2.675, 9.995, -0.001, 65.0, 1234567.885,
+                1e12 + 0.125, 1e13, 1e20, Double.NaN, Double.POSITIVE_INFINITY};
+        for (double value : values) {
+            Assert.assertEquals(decimalFormat.format(value), formatter.format(value));
+        }
+    }
+
+    @Test
+    public void matchesDecimalFormatOnRandomWeights() {
+        FixedPointFormatter formatter = new FixedPointFormatter(Locale.US);
+        DecimalFormat decimalFormat = new DecimalFormat("0.00", DecimalFormatSymbols.getInstance(Locale.US));
+        Random random = new Random(42);
+
+        for (int i = 0; i < 100_000; i++) {
+            double value = i % 2 == 0 ? random.nextInt(1_000_000) / 1000.0 : (random.nextInt(100_000) + 0.5) / 100.0;
+            Assert.assertEquals(decimalFormat.format(value), formatter.format(value));
+        }
+    }
+
+    @Test
+    public void matchesDecimalFormatOnNegativesInEveryLocale() {
+        double[] values = {-0.0, -0.005, -2.675, -65.5, -1234567.885, -1e20};
+        for (Locale locale : new Locale[] {Locale.forLanguageTag("ar-EG"), Locale.forLanguageTag("fa-IR"),
+                Locale.forLanguageTag("he-IL"), Locale.forLanguageTag("sv-SE"), Locale.GERMANY}) {
+            FixedPointFormatter formatter = new FixedPointFormatter(locale);
+            DecimalFormat decimalFormat = new DecimalFormat("0.00", DecimalFormatSymbols.getInstance(locale));
+            for (double value : values) {
+                Assert.assertEquals(locale + " " + value, decimalFormat.format(value), formatter.format(value));
+            }
+        }
+    }
+
+    @Test
+    public void usesLocaleSymbols() {
+        Assert.assertEquals("65,50", new FixedPointFormatter(Locale.GERMANY).format(65.5));
+        Assert.assertEquals("65.50", FixedPointFormatter.root().format(65.5));
+
+        StringBuilder out = new StringBuilder("w=");
+        Assert.assertSame(out, FixedPointFormatter.root().append(out, 7.125));
+        Assert.assertEquals("w=7.12", out.toString());
+    }
+}
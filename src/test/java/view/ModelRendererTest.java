@@ -0,0 +1,140 @@
+package view;
+
+import model.Exercise;
+import model.IRoutine;
+import model.Mode;
+import model.Routine;
+import model.SetReps;
+import model.Workout;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import persistence.CsvImporter;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.List;
+
+public class ModelRendererTest {
+
+    private Routine routine;
+    private Workout push;
+
+    @Before
+    public void setup() {
+        push = new Workout("Push");
+        push.setEventListener(event -> { });
+        push.addExercise(new Exercise("Bench Press", 3, List.of(new SetReps(1, 10), new SetReps(2, 10), new SetReps(3, 8)), 10, 65.5, Mode.DUMBBELL));
+        push.addExercise(new Exercise("Fly, \"Cable\"", 2, new ArrayList<>(), 12, 20.125, Mode.CABLE));
+
+        routine = new Routine("PPL");
+        routine.addWorkoutToRoutine(push);
+    }
+
+    @Test
+    public void plainOutputMatchesPrintRoutine() throws IOException {
+        ByteArrayOutputStream printed = new ByteArrayOutputStream();
+        PrintStream originalOut = System.out;
+        System.setOut(new PrintStream(printed));
+        try {
+            routine.printRoutine(ModelRenderer.console());
+        } finally {
+            System.setOut(originalOut);
+        }
+
+        String n = System.lineSeparator();
+        String expected = "\nRoutine \"PPL\":" + n
+                + "1. \nPush:" + n
+                + "1. Bench Press 3x10@65.50 (Reps per set: [Set 1: 10, Set 2: 10, Set 3: 8])" + n
+                + "2. Fly, \"Cable\" 2x12@20.12 (Reps per set: [])" + n + n;
+        Assert.assertEquals(expected, printed.toString());
+
+        StringWriter writer = new StringWriter();
+        new ModelRenderer(RenderFormat.PLAIN).renderRoutine(routine, writer);
+        Assert.assertEquals(expected, writer.toString());
+
+        printed.reset();
+        System.setOut(new PrintStream(printed));
+        try {
+            routine.printRoutine();
+        } finally {
+            System.setOut(originalOut);
+        }
+        Assert.assertEquals(expected, printed.toString());
+    }
+
+    @Test
+    public void csvOutputCanBeImportedBack() throws IOException {
+        ModelRenderer renderer = new ModelRenderer(RenderFormat.CSV);
+        StringBuilder csv = new StringBuilder();
+        renderer.renderHeader(csv);
+        renderer.renderRoutine(routine, csv);
+
+        Assert.assertEquals("routine,workout,exercise,sets,targetReps,weight,mode,reps\n"
+                + "PPL,Push,Bench Press,3,10,65.50,DUMBBELL,10;10;8\n"
+                + "PPL,Push,\"Fly, \"\"Cable\"\"\",2,12,20.12,CABLE,0;0\n", csv.toString());
+
+        List<IRoutine> imported = new ArrayList<>();
+        CsvImporter.csv().importFrom(new StringReader(csv.toString()), imported::add);
+        Assert.assertEquals(1, imported.size());
+        Assert.assertEquals("Fly, \"Cable\"", imported.get(0).getWorkouts().get(0).getExerciseList().get(1).getName());
+    }
+
+    @Test
+    public void jsonOutputNestsRoutineWorkoutsAndSets() throws IOException {
+        StringBuilder json = new StringBuilder();
+        new ModelRenderer(RenderFormat.JSON).renderWorkout(push, json);
+
+        Assert.assertEquals("{\"name\":\"Push\",\"exercises\":["
+                + "{\"name\":\"Bench Press\",\"sets\":3,\"targetReps\":10,\"weight\":65.5,\"mode\":\"DUMBBELL\",\"reps\":[{\"set\":1,\"reps\":10},{\"set\":2,\"reps\":10},{\"set\":3,\"reps\":8}]},"
+                + "{\"name\":\"Fly, \\\"Cable\\\"\",\"sets\":2,\"targetReps\":12,\"weight\":20.125,\"mode\":\"CABLE\",\"reps\":[{\"set\":1,\"reps\":0},{\"set\":2,\"reps\":0}]}"
+                + "]}", json.toString());
+    }
+
+    @Test
+    public void largeOutputIsWrittenInChunks() throws IOException {
+        Workout large = new Workout("Large");
+        large.setEventListener(event -> { });
+        for (int i = 0; i < 2000; i++) {
+            large.addExercise(new Exercise("Exercise " + i, 3, new ArrayList<>(), 10, i, Mode.MACHINE));
+        }
+        List<Integer> writes = new ArrayList<>();
+        StringBuilder target = new StringBuilder();
+        Appendable counting = new Appendable() {
+            @Override
+            public Appendable append(CharSequence csq) {
+                writes.add(csq.length());
+                target.append(csq);
+                return this;
+            }
+
+            @Override
+            public Appendable append(CharSequence csq, int start, int end) {
+                return append(csq.subSequence(start, end));
+            }
+
+            @Override
+            public Appendable append(char c) {
+                return append(String.valueOf(c));
+            }
+        };
+
+        new ModelRenderer(RenderFormat.PLAIN).renderWorkout(large, counting);
+
+        Assert.assertTrue(writes.size() > 1 && writes.size() < 50);
+        Assert.assertTrue(target.toString().endsWith("2000. Exercise 1999 3x10@1999.00 (Reps per set: [])" + System.lineSeparator()));
+    }
+
+    @Test
+    public void renderRejectsNullArguments() {
+        ModelRenderer renderer = new ModelRenderer(RenderFormat.JSON);
+
+        Assert.assertThrows(IllegalArgumentException.class, () -> renderer.renderWorkout((Workout) null, new StringBuilder()));
+        Assert.assertThrows(IllegalArgumentException.class, () -> renderer.renderRoutine(routine, null));
+        Assert.assertThrows(IllegalArgumentException.class, () -> new ModelRenderer(null));
+    }
+}